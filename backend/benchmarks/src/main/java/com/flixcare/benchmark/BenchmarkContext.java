@@ -0,0 +1,133 @@
+package com.flixcare.benchmark;
+
+import com.flixcare.FlixCareApplication;
+import com.flixcare.dto.BabyDTO;
+import com.flixcare.service.BabyService;
+import com.flixcare.service.CleaningRecordService;
+import com.flixcare.service.FeedingRecordService;
+import com.flixcare.service.HouseholdService;
+import com.flixcare.service.MedicationRecordService;
+import com.flixcare.service.PartitionService;
+import com.flixcare.service.TemperatureRecordService;
+import com.flixcare.service.WeightRecordService;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.function.Consumer;
+
+/**
+ * The backend without a web server, started once per benchmark fork. Runs on an in-memory H2 database, or with
+ * {@code -Dbenchmark.database=postgres} on an embedded PostgreSQL 16 migrated by Flyway like production.
+ */
+public final class BenchmarkContext {
+
+    private enum Database { H2, POSTGRES }
+
+    private static final int CHUNK_SIZE = 1000;
+
+    private static ConfigurableApplicationContext context;
+
+    private BenchmarkContext() {
+    }
+
+    public static synchronized ConfigurableApplicationContext get() {
+        if (context == null) {
+            start(Database.valueOf(System.getProperty("benchmark.database", "h2").toUpperCase(Locale.ROOT)));
+        }
+        return context;
+    }
+
+    private static void start(Database database) {
+        List<String> args = new ArrayList<>(List.of(
+                "--spring.jpa.show-sql=false",
+                "--spring.h2.console.enabled=false",
+                "--logging.level.root=WARN",
+                "--logging.level.org.springframework=WARN",
+                "--logging.level.com.flixcare=WARN"));
+        if (database == Database.POSTGRES) {
+            EmbeddedPostgres postgres = startPostgres();
+            args.addAll(List.of(
+                    "--spring.datasource.url=" + postgres.getJdbcUrl("postgres", "postgres"),
+                    "--spring.datasource.username=postgres",
+                    "--spring.datasource.password=",
+                    "--spring.datasource.driverClassName=org.postgresql.Driver",
+                    "--spring.jpa.database-platform=org.hibernate.dialect.PostgreSQLDialect",
+                    "--spring.jpa.hibernate.ddl-auto=update",
+                    "--spring.flyway.enabled=true"));
+        } else {
+            args.addAll(List.of(
+                    "--spring.datasource.url=jdbc:h2:mem:benchmark;DB_CLOSE_DELAY=-1",
+                    "--spring.flyway.enabled=false"));
+        }
+        context = new SpringApplicationBuilder(FlixCareApplication.class)
+                .web(WebApplicationType.NONE)
+                .logStartupInfo(false)
+                .run(args.toArray(String[]::new));
+        signIn(context);
+    }
+
+    // The services are scoped to the household of the signed-in user: the configured administrator's, for all threads
+    private static void signIn(ConfigurableApplicationContext context) {
+        UserDetails user = context.getBean(HouseholdService.class)
+                .loadUserByUsername(context.getEnvironment().getProperty("flixcare.security.username"));
+        SecurityContextHolder.setStrategyName(SecurityContextHolder.MODE_GLOBAL);
+        SecurityContextHolder.getContext().setAuthentication(
+                UsernamePasswordAuthenticationToken.authenticated(user, null, user.getAuthorities()));
+    }
+
+    private static EmbeddedPostgres startPostgres() {
+        try {
+            EmbeddedPostgres postgres = EmbeddedPostgres.start();
+            Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+                try {
+                    postgres.close();
+                } catch (IOException ignored) {
+                    // The server is gone with the JVM anyway
+                }
+            }));
+            return postgres;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not start embedded PostgreSQL", e);
+        }
+    }
+
+    /**
+     * Creates a baby born {@code years} ago and writes its generated history through the batch services, so that
+     * daily stats and change versions are maintained as in production.
+     */
+    public static Long seedBaby(String name, int years, long seed) {
+        ConfigurableApplicationContext context = get();
+        LocalDate today = LocalDate.now();
+        BabyDTO baby = new BabyDTO();
+        baby.setName(name);
+        baby.setBirthDate(today.minusYears(years));
+        Long babyId = context.getBean(BabyService.class).createBaby(baby).getId();
+
+        HistoryGenerator history = new HistoryGenerator(babyId, baby.getBirthDate(), today, seed);
+        insert(history.getFeedings(), context.getBean(FeedingRecordService.class)::createFeedingRecords);
+        insert(history.getCleanings(), context.getBean(CleaningRecordService.class)::createCleaningRecords);
+        insert(history.getTemperatures(), context.getBean(TemperatureRecordService.class)::createTemperatureRecords);
+        insert(history.getWeights(), context.getBean(WeightRecordService.class)::createWeightRecords);
+        insert(history.getMedications(), context.getBean(MedicationRecordService.class)::createMedicationRecords);
+        // Past months are missing on a fresh PostgreSQL, the history landed in the default partitions
+        context.getBean(PartitionService.class).createMissingPartitions();
+        return babyId;
+    }
+
+    private static <T> void insert(List<T> records, Consumer<List<T>> batchCreate) {
+        for (int from = 0; from < records.size(); from += CHUNK_SIZE) {
+            batchCreate.accept(records.subList(from, Math.min(from + CHUNK_SIZE, records.size())));
+        }
+    }
+}
@@ -0,0 +1,138 @@
+package com.flixcare.benchmark;
+
+import com.flixcare.dto.CleaningRecordDTO;
+import com.flixcare.dto.FeedingRecordDTO;
+import com.flixcare.dto.MedicationRecordDTO;
+import com.flixcare.dto.TemperatureRecordDTO;
+import com.flixcare.dto.WeightRecordDTO;
+import com.flixcare.entity.MedicationType;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Deterministic care history of one baby from birth until today: 8 feedings and diaper changes a day in the first
+ * months, fewer later, a bath every few days, daily vitamin D, a temperature now and then and weekly weights.
+ */
+public class HistoryGenerator {
+
+    private static final String[] FEEDING_TYPES = {
+            "BREAST_LEFT", "BREAST_RIGHT", "BREAST_START_LEFT", "BREAST_START_RIGHT", "BOTTLE_FORMULA",
+            "BOTTLE_BREAST_MILK"};
+    private static final String[] DIAPER_CONTENTS = {"WET", "WET", "DIRTY", "BOTH", "CLEAN"};
+
+    private final List<FeedingRecordDTO> feedings = new ArrayList<>();
+    private final List<CleaningRecordDTO> cleanings = new ArrayList<>();
+    private final List<TemperatureRecordDTO> temperatures = new ArrayList<>();
+    private final List<WeightRecordDTO> weights = new ArrayList<>();
+    private final List<MedicationRecordDTO> medications = new ArrayList<>();
+
+    public HistoryGenerator(Long babyId, LocalDate birthDate, LocalDate today, long seed) {
+        Random random = new Random(seed);
+        int weightGrams = 3400;
+        for (LocalDate day = birthDate; !day.isAfter(today); day = day.plusDays(1)) {
+            long ageDays = day.toEpochDay() - birthDate.toEpochDay();
+            int perDay = ageDays < 120 ? 8 : ageDays < 365 ? 6 : 4;
+            for (int i = 0; i < perDay; i++) {
+                LocalDateTime time = day.atStartOfDay().plusMinutes(i * (1440L / perDay) + random.nextInt(60));
+                feedings.add(feeding(babyId, time, ageDays, random));
+                cleanings.add(diaperChange(babyId, time.plusMinutes(20), random));
+            }
+            if (ageDays % 3 == 0) {
+                cleanings.add(cleaning(babyId, day.atTime(19, 0), ageDays < 30 ? "SPONGE_BATH" : "BATH", null));
+            }
+            medications.add(medication(babyId, day.atTime(9, random.nextInt(60)), MedicationType.VITAMIN_D));
+            if (ageDays < 60) {
+                medications.add(medication(babyId, day.atTime(8, 0), MedicationType.EYE_CLEANING));
+            }
+            if (random.nextInt(7) == 0) {
+                temperatures.add(temperature(babyId, day.atTime(18, random.nextInt(60)), random));
+            }
+            if (ageDays % 7 == 0) {
+                weightGrams += ageDays < 120 ? 180 : ageDays < 365 ? 90 : 40;
+                weights.add(weight(babyId, day.atTime(10, 0), weightGrams + random.nextInt(50)));
+            }
+        }
+    }
+
+    public List<FeedingRecordDTO> getFeedings() {
+        return feedings;
+    }
+
+    public List<CleaningRecordDTO> getCleanings() {
+        return cleanings;
+    }
+
+    public List<TemperatureRecordDTO> getTemperatures() {
+        return temperatures;
+    }
+
+    public List<WeightRecordDTO> getWeights() {
+        return weights;
+    }
+
+    public List<MedicationRecordDTO> getMedications() {
+        return medications;
+    }
+
+    public int size() {
+        return feedings.size() + cleanings.size() + temperatures.size() + weights.size() + medications.size();
+    }
+
+    public static FeedingRecordDTO feeding(Long babyId, LocalDateTime time, long ageDays, Random random) {
+        FeedingRecordDTO dto = new FeedingRecordDTO();
+        dto.setBabyId(babyId);
+        dto.setFeedingTime(time);
+        String type = ageDays > 180 && random.nextInt(3) == 0
+                ? "SOLID_FOOD" : FEEDING_TYPES[random.nextInt(FEEDING_TYPES.length)];
+        dto.setFeedingType(type);
+        if (type.startsWith("BOTTLE")) {
+            dto.setAmountMl(60.0 + random.nextInt(150));
+        } else {
+            dto.setDurationMinutes(5 + random.nextInt(25));
+        }
+        return dto;
+    }
+
+    public static CleaningRecordDTO diaperChange(Long babyId, LocalDateTime time, Random random) {
+        return cleaning(babyId, time, "DIAPER_CHANGE", DIAPER_CONTENTS[random.nextInt(DIAPER_CONTENTS.length)]);
+    }
+
+    public static CleaningRecordDTO cleaning(Long babyId, LocalDateTime time, String type, String diaperContent) {
+        CleaningRecordDTO dto = new CleaningRecordDTO();
+        dto.setBabyId(babyId);
+        dto.setCleaningTime(time);
+        dto.setCleaningType(type);
+        dto.setDiaperContent(diaperContent);
+        return dto;
+    }
+
+    public static TemperatureRecordDTO temperature(Long babyId, LocalDateTime time, Random random) {
+        TemperatureRecordDTO dto = new TemperatureRecordDTO();
+        dto.setBabyId(babyId);
+        dto.setMeasurementTime(time);
+        dto.setTemperatureCelsius(36.4 + random.nextInt(20) / 10.0);
+        dto.setMeasurementLocation(random.nextBoolean() ? "FOREHEAD" : "EAR");
+        return dto;
+    }
+
+    public static WeightRecordDTO weight(Long babyId, LocalDateTime time, int grams) {
+        WeightRecordDTO dto = new WeightRecordDTO();
+        dto.setBabyId(babyId);
+        dto.setMeasurementTime(time);
+        dto.setWeightGrams(grams);
+        return dto;
+    }
+
+    public static MedicationRecordDTO medication(Long babyId, LocalDateTime time, MedicationType type) {
+        MedicationRecordDTO dto = new MedicationRecordDTO();
+        dto.setBabyId(babyId);
+        dto.setMedicationTime(time);
+        dto.setMedicationType(type);
+        dto.setDosage(type == MedicationType.VITAMIN_D ? "400 IE" : null);
+        return dto;
+    }
+}
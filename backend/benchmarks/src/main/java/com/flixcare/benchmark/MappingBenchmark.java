@@ -0,0 +1,162 @@
+package com.flixcare.benchmark;
+
+import com.flixcare.dto.CleaningRecordDTO;
+import com.flixcare.dto.FeedingRecordDTO;
+import com.flixcare.dto.MedicationRecordDTO;
+import com.flixcare.dto.TemperatureRecordDTO;
+import com.flixcare.dto.WeightRecordDTO;
+import com.flixcare.entity.Baby;
+import com.flixcare.entity.CleaningRecord;
+import com.flixcare.entity.FeedingRecord;
+import com.flixcare.entity.MedicationRecord;
+import com.flixcare.entity.MedicationType;
+import com.flixcare.entity.TemperatureRecord;
+import com.flixcare.entity.WeightRecord;
+import com.flixcare.service.RecordMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link RecordMapper} conversions between the record entities and DTOs, as done on every record write.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MappingBenchmark {
+
+    private FeedingRecord feeding;
+    private CleaningRecord cleaning;
+    private TemperatureRecord temperature;
+    private WeightRecord weight;
+    private MedicationRecord medication;
+
+    private FeedingRecordDTO feedingDto;
+    private CleaningRecordDTO cleaningDto;
+    private TemperatureRecordDTO temperatureDto;
+    private WeightRecordDTO weightDto;
+    private MedicationRecordDTO medicationDto;
+
+    @Setup
+    public void setUp() {
+        LocalDateTime now = LocalDateTime.now();
+        Baby baby = new Baby();
+        baby.setId(1L);
+        baby.setName("Max");
+        baby.setBirthDate(LocalDate.now().minusMonths(3));
+
+        feeding = new FeedingRecord();
+        feeding.setId(1L);
+        feeding.setBaby(baby);
+        feeding.setFeedingTime(now);
+        feeding.setFeedingType(FeedingRecord.FeedingType.BOTTLE_FORMULA);
+        feeding.setAmountMl(120.0);
+        feeding.setNotes("Drank well");
+        feeding.setCreatedAt(now);
+        feeding.setUpdatedAt(now);
+        feedingDto = RecordMapper.toDTO(feeding);
+
+        cleaning = new CleaningRecord();
+        cleaning.setId(1L);
+        cleaning.setBaby(baby);
+        cleaning.setCleaningTime(now);
+        cleaning.setCleaningType(CleaningRecord.CleaningType.DIAPER_CHANGE);
+        cleaning.setDiaperContent(CleaningRecord.DiaperContent.WET);
+        cleaning.setCreatedAt(now);
+        cleaning.setUpdatedAt(now);
+        cleaningDto = RecordMapper.toDTO(cleaning);
+
+        temperature = new TemperatureRecord();
+        temperature.setId(1L);
+        temperature.setBaby(baby);
+        temperature.setMeasurementTime(now);
+        temperature.setTemperatureCelsius(37.2);
+        temperature.setMeasurementLocation(TemperatureRecord.MeasurementLocation.FOREHEAD);
+        temperature.setCreatedAt(now);
+        temperature.setUpdatedAt(now);
+        temperatureDto = RecordMapper.toDTO(temperature);
+
+        weight = new WeightRecord();
+        weight.setId(1L);
+        weight.setBaby(baby);
+        weight.setMeasurementTime(now);
+        weight.setWeightGrams(5200);
+        weight.setCreatedAt(now);
+        weight.setUpdatedAt(now);
+        weightDto = RecordMapper.toDTO(weight);
+
+        medication = new MedicationRecord();
+        medication.setId(1L);
+        medication.setBaby(baby);
+        medication.setMedicationTime(now);
+        medication.setMedicationType(MedicationType.VITAMIN_D);
+        medication.setDosage("400 IE");
+        medication.setCreatedAt(now);
+        medication.setUpdatedAt(now);
+        medicationDto = RecordMapper.toDTO(medication);
+    }
+
+    @Benchmark
+    public FeedingRecordDTO feedingToDto() {
+        return RecordMapper.toDTO(feeding);
+    }
+
+    @Benchmark
+    public FeedingRecord feedingToEntity() {
+        return RecordMapper.toEntity(feedingDto);
+    }
+
+    @Benchmark
+    public CleaningRecordDTO cleaningToDto() {
+        return RecordMapper.toDTO(cleaning);
+    }
+
+    @Benchmark
+    public CleaningRecord cleaningToEntity() {
+        return RecordMapper.toEntity(cleaningDto);
+    }
+
+    @Benchmark
+    public TemperatureRecordDTO temperatureToDto() {
+        return RecordMapper.toDTO(temperature);
+    }
+
+    @Benchmark
+    public TemperatureRecord temperatureToEntity() {
+        return RecordMapper.toEntity(temperatureDto);
+    }
+
+    @Benchmark
+    public WeightRecordDTO weightToDto() {
+        return RecordMapper.toDTO(weight);
+    }
+
+    @Benchmark
+    public WeightRecord weightToEntity() {
+        return RecordMapper.toEntity(weightDto);
+    }
+
+    @Benchmark
+    public MedicationRecordDTO medicationToDto() {
+        return RecordMapper.toDTO(medication);
+    }
+
+    @Benchmark
+    public MedicationRecord medicationToEntity() {
+        return RecordMapper.toEntity(medicationDto);
+    }
+}
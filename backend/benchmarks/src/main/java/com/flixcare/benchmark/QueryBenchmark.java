@@ -0,0 +1,103 @@
+package com.flixcare.benchmark;
+
+import com.flixcare.dto.CleaningRecordView;
+import com.flixcare.dto.DailyStatsView;
+import com.flixcare.dto.DashboardDTO;
+import com.flixcare.dto.FeedingRecordView;
+import com.flixcare.repository.CleaningRecordRepository;
+import com.flixcare.repository.DailyBabyStatsRepository;
+import com.flixcare.repository.FeedingRecordRepository;
+import com.flixcare.service.DashboardService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ApplicationContext;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Repository queries behind the list, range and dashboard endpoints against an embedded H2 database holding
+ * multi-year histories of several babies. The repositories are called directly, bypassing the record cache.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class QueryBenchmark {
+
+    private static final int OTHER_BABIES = 2;
+
+    @Param({"3"})
+    private int years;
+
+    private FeedingRecordRepository feedingRecordRepository;
+    private CleaningRecordRepository cleaningRecordRepository;
+    private DailyBabyStatsRepository dailyBabyStatsRepository;
+    private DashboardService dashboardService;
+
+    private Long babyId;
+    private LocalDateTime now;
+
+    @Setup
+    public void setUp() {
+        ApplicationContext context = BenchmarkContext.get();
+        feedingRecordRepository = context.getBean(FeedingRecordRepository.class);
+        cleaningRecordRepository = context.getBean(CleaningRecordRepository.class);
+        dailyBabyStatsRepository = context.getBean(DailyBabyStatsRepository.class);
+        dashboardService = context.getBean(DashboardService.class);
+
+        babyId = BenchmarkContext.seedBaby("Max", years, 1);
+        for (int i = 0; i < OTHER_BABIES; i++) {
+            BenchmarkContext.seedBaby("Sibling " + i, years, i + 2);
+        }
+        now = LocalDateTime.now(ZoneOffset.UTC);
+    }
+
+    @Benchmark
+    public List<FeedingRecordView> feedingLatestPage() {
+        return feedingRecordRepository.findViewsByBabyId(babyId, PageRequest.of(0, 50));
+    }
+
+    @Benchmark
+    public List<FeedingRecordView> feedingPageOneYearBack() {
+        return feedingRecordRepository.findViewsByBabyIdBefore(babyId, now.minusYears(1), Long.MAX_VALUE,
+                PageRequest.of(0, 50));
+    }
+
+    @Benchmark
+    public List<FeedingRecordView> feedingLastWeek() {
+        return feedingRecordRepository.findViewsByBabyIdAndRange(babyId, now.minusDays(7), now);
+    }
+
+    @Benchmark
+    public List<CleaningRecordView> cleaningFullHistory() {
+        return cleaningRecordRepository.findViewsByBabyId(babyId, Pageable.unpaged());
+    }
+
+    @Benchmark
+    public List<DailyStatsView> dailyStatsLastYear() {
+        LocalDate today = LocalDate.now(ZoneOffset.UTC);
+        return dailyBabyStatsRepository.findViews(babyId, today.minusYears(1), today);
+    }
+
+    @Benchmark
+    public DashboardDTO dashboard() {
+        return dashboardService.getDashboard(babyId, ZoneOffset.UTC, 5, 10);
+    }
+}
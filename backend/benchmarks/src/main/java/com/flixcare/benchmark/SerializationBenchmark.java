@@ -0,0 +1,76 @@
+package com.flixcare.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.flixcare.dto.FeedingRecordDTO;
+import com.flixcare.dto.FeedingRecordView;
+import com.flixcare.entity.FeedingRecord;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Jackson serialization of feeding record lists, as DTOs and as the views the list endpoints return, with the
+ * same ObjectMapper defaults Spring MVC uses. Output is discarded so only serialization is measured.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SerializationBenchmark {
+
+    @Param({"1000", "10000", "100000"})
+    private int size;
+
+    private final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+    private List<FeedingRecordDTO> dtos;
+    private List<FeedingRecordView> views;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        LocalDateTime start = LocalDate.now().minusYears(3).atStartOfDay();
+        dtos = new ArrayList<>(size);
+        views = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            FeedingRecordDTO dto = HistoryGenerator.feeding(1L, start.plusMinutes(180L * i), i / 8, random);
+            dto.setId((long) i + 1);
+            dto.setBabyName("Max");
+            dto.setCreatedAt(dto.getFeedingTime());
+            dto.setUpdatedAt(dto.getFeedingTime());
+            dtos.add(dto);
+            views.add(new FeedingRecordView(dto.getId(), 1L, "Max", dto.getFeedingTime(),
+                    FeedingRecord.FeedingType.valueOf(dto.getFeedingType()), dto.getAmountMl(),
+                    dto.getDurationMinutes(), dto.getNotes(), dto.getCreatedAt(), dto.getUpdatedAt()));
+        }
+    }
+
+    @Benchmark
+    public void serializeDtos() throws IOException {
+        objectMapper.writeValue(OutputStream.nullOutputStream(), dtos);
+    }
+
+    @Benchmark
+    public void serializeViews() throws IOException {
+        objectMapper.writeValue(OutputStream.nullOutputStream(), views);
+    }
+}
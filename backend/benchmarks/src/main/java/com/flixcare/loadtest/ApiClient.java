@@ -0,0 +1,109 @@
+package com.flixcare.loadtest;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Minimal JSON client for the backend API with Basic Auth, configured from the environment ({@code BASE_URL},
+ * {@code CREDENTIALS}). Every call is timed into the optional recorder under the given label.
+ */
+final class ApiClient {
+
+    private final HttpClient http = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(10)).build();
+    private final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+    private final String baseUrl;
+    private final String authorization;
+    private final LatencyRecorder recorder;
+
+    ApiClient(LatencyRecorder recorder) {
+        this.baseUrl = env("BASE_URL", "http://localhost:8080");
+        this.authorization = "Basic " + Base64.getEncoder().encodeToString(
+                env("CREDENTIALS", "flixcare:flixcare123").getBytes(StandardCharsets.UTF_8));
+        this.recorder = recorder;
+    }
+
+    static String env(String name, String defaultValue) {
+        String value = System.getenv(name);
+        return value == null || value.isBlank() ? defaultValue : value;
+    }
+
+    static int env(String name, int defaultValue) {
+        return Integer.parseInt(env(name, Integer.toString(defaultValue)));
+    }
+
+    Response get(String label, String path, String ifNoneMatch) {
+        HttpRequest.Builder request = request(path).GET();
+        if (ifNoneMatch != null) {
+            request.header("If-None-Match", ifNoneMatch);
+        }
+        return send(label, request.build());
+    }
+
+    Response post(String label, String path, Object body) {
+        try {
+            byte[] json = objectMapper.writeValueAsBytes(body);
+            return send(label, request(path)
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofByteArray(json))
+                    .build());
+        } catch (IOException e) {
+            throw new IllegalStateException("Cannot serialize request body", e);
+        }
+    }
+
+    List<Map<String, Object>> readList(Response response) throws IOException {
+        return objectMapper.readValue(response.body(), new TypeReference<>() {
+        });
+    }
+
+    Map<String, Object> readObject(Response response) throws IOException {
+        return objectMapper.readValue(response.body(), new TypeReference<>() {
+        });
+    }
+
+    private HttpRequest.Builder request(String path) {
+        return HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .timeout(Duration.ofSeconds(60))
+                .header("Authorization", authorization)
+                .header("Accept", "application/json");
+    }
+
+    private Response send(String label, HttpRequest request) {
+        long start = System.nanoTime();
+        try {
+            HttpResponse<byte[]> response = http.send(request, HttpResponse.BodyHandlers.ofByteArray());
+            int status = response.statusCode();
+            if (recorder != null) {
+                recorder.record(label, System.nanoTime() - start, status >= 400);
+            }
+            return new Response(status, response.headers().firstValue("ETag").orElse(null), response.body());
+        } catch (IOException e) {
+            if (recorder != null) {
+                recorder.record(label, System.nanoTime() - start, true);
+            }
+            return new Response(-1, null, new byte[0]);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return new Response(-1, null, new byte[0]);
+        }
+    }
+
+    record Response(int status, String etag, byte[] body) {
+
+        boolean ok() {
+            return status >= 200 && status < 300;
+        }
+    }
+}
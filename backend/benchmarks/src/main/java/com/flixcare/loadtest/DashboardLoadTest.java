@@ -0,0 +1,132 @@
+package com.flixcare.loadtest;
+
+import com.flixcare.benchmark.HistoryGenerator;
+import com.flixcare.entity.MedicationType;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Closed-loop load test replaying what the frontend does. Each virtual user opens the dashboard (baby list plus
+ * summary), sometimes switches the chart ranges, and sometimes logs an entry on a record page (full list, create,
+ * reload) before returning. Conditional requests carry the last ETag like the frontend's response cache.
+ * Configured through {@code USERS}, {@code DURATION}, {@code WARMUP} (seconds), {@code THINK_MS},
+ * {@code WRITE_PERCENT}, {@code ZONE}, {@code BASE_URL} and {@code CREDENTIALS}.
+ */
+public final class DashboardLoadTest {
+
+    private static final String[] RECORD_TYPES = {
+            "feeding-records", "cleaning-records", "temperature-records", "weight-records", "medication-records"};
+
+    private final ApiClient api;
+    private final List<Long> babyIds;
+    private final int thinkMillis;
+    private final int writePercent;
+    private final String zone;
+
+    private DashboardLoadTest(ApiClient api, List<Long> babyIds, int thinkMillis, int writePercent, String zone) {
+        this.api = api;
+        this.babyIds = babyIds;
+        this.thinkMillis = thinkMillis;
+        this.writePercent = writePercent;
+        this.zone = zone;
+    }
+
+    public static void main(String[] args) throws Exception {
+        int users = ApiClient.env("USERS", 20);
+        int durationSeconds = ApiClient.env("DURATION", 60);
+        int warmupSeconds = ApiClient.env("WARMUP", 15);
+        LatencyRecorder recorder = new LatencyRecorder();
+        ApiClient api = new ApiClient(recorder);
+
+        ApiClient.Response babies = api.get("setup", "/api/babies", null);
+        if (!babies.ok()) {
+            throw new IllegalStateException("Listing babies failed with HTTP " + babies.status());
+        }
+        List<Long> babyIds = api.readList(babies).stream()
+                .map(baby -> ((Number) baby.get("id")).longValue())
+                .toList();
+        if (babyIds.isEmpty()) {
+            throw new IllegalStateException("No babies found, run SeedData first");
+        }
+
+        DashboardLoadTest test = new DashboardLoadTest(api, babyIds, ApiClient.env("THINK_MS", 1000),
+                ApiClient.env("WRITE_PERCENT", 30), ApiClient.env("ZONE", "UTC"));
+        System.out.printf("%d users on %d babies, %d s warm-up, %d s measured%n", users, babyIds.size(),
+                warmupSeconds, durationSeconds);
+
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(warmupSeconds + durationSeconds);
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < users; i++) {
+                Long babyId = babyIds.get(i % babyIds.size());
+                executor.submit(() -> test.runUser(babyId, deadline));
+            }
+            Thread.sleep(TimeUnit.SECONDS.toMillis(warmupSeconds));
+            recorder.start();
+            Thread.sleep(TimeUnit.SECONDS.toMillis(durationSeconds));
+            recorder.report(System.out);
+        }
+    }
+
+    private Void runUser(Long babyId, long deadline) throws InterruptedException {
+        Map<String, String> etags = new HashMap<>();
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        while (System.nanoTime() < deadline) {
+            openDashboard(babyId, 5, 10, etags);
+            think();
+            if (random.nextInt(4) == 0) {
+                openDashboard(babyId, 14, 0, etags);
+                think();
+            }
+            if (random.nextInt(100) < writePercent) {
+                String type = RECORD_TYPES[random.nextInt(RECORD_TYPES.length)];
+                get("GET /api/babies", "/api/babies", etags);
+                get("GET /api/" + type + "/baby/{babyId}", "/api/" + type + "/baby/" + babyId, etags);
+                think();
+                api.post("POST /api/" + type, "/api/" + type, newRecord(type, babyId));
+                get("GET /api/" + type + "/baby/{babyId}", "/api/" + type + "/baby/" + babyId, etags);
+                think();
+            }
+        }
+        return null;
+    }
+
+    private void openDashboard(Long babyId, int diaperDays, int weightLimit, Map<String, String> etags) {
+        get("GET /api/babies", "/api/babies", etags);
+        api.get("GET /api/dashboard/{babyId}", "/api/dashboard/" + babyId + "?zone=" + zone
+                + "&diaperDays=" + diaperDays + "&weightLimit=" + weightLimit, null);
+    }
+
+    private void get(String label, String path, Map<String, String> etags) {
+        ApiClient.Response response = api.get(label, path, etags.get(path));
+        if (response.ok() && response.etag() != null) {
+            etags.put(path, response.etag());
+        }
+    }
+
+    private void think() throws InterruptedException {
+        if (thinkMillis > 0) {
+            // +-50% so that users drift apart instead of arriving in lockstep
+            Thread.sleep(thinkMillis / 2 + ThreadLocalRandom.current().nextInt(thinkMillis + 1));
+        }
+    }
+
+    private static Object newRecord(String type, Long babyId) {
+        LocalDateTime now = LocalDateTime.now(ZoneOffset.UTC);
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        return switch (type) {
+            case "feeding-records" -> HistoryGenerator.feeding(babyId, now, 200, random);
+            case "cleaning-records" -> HistoryGenerator.diaperChange(babyId, now, random);
+            case "temperature-records" -> HistoryGenerator.temperature(babyId, now, random);
+            case "weight-records" -> HistoryGenerator.weight(babyId, now, 6000 + random.nextInt(3000));
+            default -> HistoryGenerator.medication(babyId, now, MedicationType.VITAMIN_D);
+        };
+    }
+}
@@ -0,0 +1,88 @@
+package com.flixcare.loadtest;
+
+import java.io.PrintStream;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Collects response times per endpoint label once recording has been switched on, and prints count, throughput and
+ * p50/p99/max per endpoint and in total.
+ */
+final class LatencyRecorder {
+
+    private final Map<String, Samples> samples = new ConcurrentHashMap<>();
+    private volatile boolean recording;
+    private volatile long startedAt;
+
+    void start() {
+        startedAt = System.nanoTime();
+        recording = true;
+    }
+
+    void record(String label, long nanos, boolean error) {
+        if (recording) {
+            samples.computeIfAbsent(label, key -> new Samples()).add(nanos, error);
+        }
+    }
+
+    void report(PrintStream out) {
+        recording = false;
+        double seconds = (System.nanoTime() - startedAt) / 1e9;
+        Samples total = new Samples();
+        out.printf("%-44s %8s %7s %8s %9s %9s %9s%n", "Endpoint", "Requests", "Errors", "Req/s", "p50 ms", "p99 ms",
+                "max ms");
+        for (Map.Entry<String, Samples> entry : new TreeMap<>(samples).entrySet()) {
+            print(out, entry.getKey(), entry.getValue(), seconds);
+            total.addAll(entry.getValue());
+        }
+        print(out, "TOTAL", total, seconds);
+        out.printf("Measured for %.1f s%n", seconds);
+    }
+
+    private static void print(PrintStream out, String label, Samples samples, double seconds) {
+        long[] sorted = samples.sorted();
+        out.printf("%-44s %8d %7d %8.1f %9.1f %9.1f %9.1f%n", label, sorted.length, samples.errors,
+                sorted.length / seconds, percentile(sorted, 0.50), percentile(sorted, 0.99),
+                sorted.length == 0 ? 0.0 : sorted[sorted.length - 1] / 1e6);
+    }
+
+    private static double percentile(long[] sorted, double quantile) {
+        if (sorted.length == 0) {
+            return 0.0;
+        }
+        int index = (int) Math.ceil(quantile * sorted.length) - 1;
+        return sorted[Math.max(index, 0)] / 1e6;
+    }
+
+    private static final class Samples {
+
+        private long[] nanos = new long[1024];
+        private int count;
+        private int errors;
+
+        synchronized void add(long value, boolean error) {
+            if (count == nanos.length) {
+                nanos = Arrays.copyOf(nanos, count * 2);
+            }
+            nanos[count++] = value;
+            if (error) {
+                errors++;
+            }
+        }
+
+        synchronized void addAll(Samples other) {
+            for (long value : other.sorted()) {
+                add(value, false);
+            }
+            errors += other.errors;
+        }
+
+        synchronized long[] sorted() {
+            long[] copy = Arrays.copyOf(nanos, count);
+            Arrays.sort(copy);
+            return copy;
+        }
+    }
+}
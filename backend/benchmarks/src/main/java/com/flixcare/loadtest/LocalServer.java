@@ -0,0 +1,28 @@
+package com.flixcare.loadtest;
+
+import com.flixcare.FlixCareApplication;
+import org.springframework.boot.SpringApplication;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Starts the backend on an in-memory H2 database for load tests without PostgreSQL. Further arguments are passed
+ * to Spring Boot, e.g. {@code --spring.datasource.hikari.maximum-pool-size=4} or
+ * {@code --spring.profiles.active=virtual-threads}.
+ */
+public final class LocalServer {
+
+    private LocalServer() {
+    }
+
+    public static void main(String[] args) {
+        List<String> arguments = new ArrayList<>(List.of(
+                "--spring.datasource.url=jdbc:h2:mem:loadtest;DB_CLOSE_DELAY=-1",
+                "--spring.flyway.enabled=false",
+                "--spring.jpa.show-sql=false",
+                "--logging.level.com.flixcare=WARN"));
+        arguments.addAll(List.of(args));
+        SpringApplication.run(FlixCareApplication.class, arguments.toArray(String[]::new));
+    }
+}
@@ -0,0 +1,62 @@
+package com.flixcare.loadtest;
+
+import com.flixcare.benchmark.HistoryGenerator;
+import com.flixcare.dto.BabyDTO;
+
+import java.io.IOException;
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Seeds a running backend over its API with babies and their generated multi-year histories, using the batch
+ * endpoints. Configured through {@code BABIES}, {@code YEARS}, {@code SEED}, {@code BASE_URL} and
+ * {@code CREDENTIALS}.
+ */
+public final class SeedData {
+
+    private static final int CHUNK_SIZE = 1000;
+
+    private SeedData() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        int babies = ApiClient.env("BABIES", 3);
+        int years = ApiClient.env("YEARS", 2);
+        int seed = ApiClient.env("SEED", 1);
+        ApiClient api = new ApiClient(null);
+
+        long start = System.nanoTime();
+        long total = 0;
+        LocalDate today = LocalDate.now();
+        for (int i = 0; i < babies; i++) {
+            BabyDTO baby = new BabyDTO();
+            baby.setName("Load Test Baby " + (i + 1));
+            baby.setBirthDate(today.minusYears(years).plusDays(i * 30L));
+            ApiClient.Response created = api.post("seed", "/api/babies", baby);
+            if (!created.ok()) {
+                throw new IllegalStateException("Creating a baby failed with HTTP " + created.status());
+            }
+            Long babyId = ((Number) api.readObject(created).get("id")).longValue();
+
+            HistoryGenerator history = new HistoryGenerator(babyId, baby.getBirthDate(), today, seed + i);
+            post(api, "/api/feeding-records/batch", history.getFeedings());
+            post(api, "/api/cleaning-records/batch", history.getCleanings());
+            post(api, "/api/temperature-records/batch", history.getTemperatures());
+            post(api, "/api/weight-records/batch", history.getWeights());
+            post(api, "/api/medication-records/batch", history.getMedications());
+            total += history.size();
+            System.out.printf("Baby %d (%s): %d records%n", babyId, baby.getName(), history.size());
+        }
+        System.out.printf("Seeded %d records in %.1f s%n", total, (System.nanoTime() - start) / 1e9);
+    }
+
+    private static void post(ApiClient api, String path, List<?> records) {
+        for (int from = 0; from < records.size(); from += CHUNK_SIZE) {
+            ApiClient.Response response = api.post("seed", path,
+                    records.subList(from, Math.min(from + CHUNK_SIZE, records.size())));
+            if (!response.ok()) {
+                throw new IllegalStateException(path + " failed with HTTP " + response.status());
+            }
+        }
+    }
+}
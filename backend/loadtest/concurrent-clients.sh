@@ -0,0 +1,66 @@
+#!/bin/bash
+
+# Concurrent client load test against a running backend.
+# Compare a normal start with one using the virtual-threads profile:
+#   SPRING_PROFILES_ACTIVE=production                 ./concurrent-clients.sh
+#   SPRING_PROFILES_ACTIVE=production,virtual-threads ./concurrent-clients.sh
+# (the variable is only printed, start the backend with the matching profile yourself)
+
+BASE_URL=${BASE_URL:-http://localhost:8080}
+CLIENTS=${CLIENTS:-200}
+REQUESTS=${REQUESTS:-4000}
+WARMUP=${WARMUP:-300}
+BABY_ID=${BABY_ID:-1}
+CREDENTIALS=${CREDENTIALS:-flixcare:flixcare123}
+
+echo "========================================"
+echo "FlixCare - Concurrent Client Load Test"
+echo "========================================"
+echo "Target:   $BASE_URL (profiles: ${SPRING_PROFILES_ACTIVE:-unknown})"
+echo "Clients:  $CLIENTS"
+echo "Requests: $REQUESTS"
+echo ""
+
+if ! curl -sf "$BASE_URL/health" > /dev/null; then
+    echo "Backend not reachable at $BASE_URL"
+    exit 1
+fi
+
+# The mix a dashboard produces: summary plus the record lists of one baby
+ENDPOINTS=(
+    "/api/dashboard/$BABY_ID"
+    "/api/feeding-records/baby/$BABY_ID?limit=50"
+    "/api/cleaning-records/baby/$BABY_ID?limit=50"
+    "/api/temperature-records/baby/$BABY_ID?limit=50"
+    "/api/weight-records/baby/$BABY_ID?limit=50"
+    "/api/medication-records/baby/$BABY_ID?limit=50"
+)
+
+CONFIG=$(mktemp)
+RESULTS=$(mktemp)
+trap 'rm -f "$CONFIG" "$RESULTS"' EXIT
+
+for ((i = 0; i < REQUESTS; i++)); do
+    echo "url = \"$BASE_URL${ENDPOINTS[$((i % ${#ENDPOINTS[@]}))]}\""
+    echo "output = /dev/null"
+done > "$CONFIG"
+
+# Warm up the JIT and the connection pool with a few sequential-ish clients first
+head -n $((WARMUP * 2)) "$CONFIG" | curl -s --no-progress-meter --parallel --parallel-max 10 -u "$CREDENTIALS" -K - \
+    > /dev/null
+
+START=$(date +%s.%N)
+curl -s --no-progress-meter --parallel --parallel-immediate --parallel-max "$CLIENTS" -u "$CREDENTIALS" \
+    -w "%{http_code} %{time_total}\n" -K "$CONFIG" > "$RESULTS"
+END=$(date +%s.%N)
+
+sort -k2 -n "$RESULTS" | awk -v start="$START" -v end="$END" '
+    { times[NR] = $2; if ($1 != 200) errors++ }
+    END {
+        elapsed = end - start
+        printf "Completed:  %d requests in %.2f s\n", NR, elapsed
+        printf "Throughput: %.1f requests/s\n", NR / elapsed
+        printf "Errors:     %d\n", errors
+        printf "Latency:    p50 %.0f ms, p99 %.0f ms, max %.0f ms\n",
+            times[int(NR * 0.50)] * 1000, times[int(NR * 0.99)] * 1000, times[NR] * 1000
+    }'
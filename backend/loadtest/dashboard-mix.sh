@@ -0,0 +1,46 @@
+#!/bin/bash
+
+# Dashboard request mix load test with per-endpoint p50/p99 latency and throughput.
+#   ./dashboard-mix.sh                          # starts the backend on in-memory H2, seeds it, runs the test
+#   SERVER=external ./dashboard-mix.sh          # runs against BASE_URL (e.g. backend on PostgreSQL, see postgres.sh)
+#   SERVER_ARGS="--spring.datasource.hikari.maximum-pool-size=4 --server.undertow.threads.worker=16" ./dashboard-mix.sh
+# Seeding: BABIES (3), YEARS (2), SEED=false to skip. Load: USERS (20), DURATION (60), WARMUP (15), THINK_MS (1000),
+# WRITE_PERCENT (30). Connection: BASE_URL, CREDENTIALS.
+
+set -e
+cd "$(dirname "$0")/.."
+
+SERVER=${SERVER:-h2}
+SEED=${SEED:-true}
+export BASE_URL=${BASE_URL:-http://localhost:8080}
+export CREDENTIALS=${CREDENTIALS:-flixcare:flixcare123}
+JAR=benchmarks/target/benchmarks.jar
+
+if [ ! -f "$JAR" ]; then
+    echo "Building the backend classes and the benchmarks module..."
+    mvn -B -q install -DskipTests
+    (cd benchmarks && mvn -B -q package)
+fi
+
+if [ "$SERVER" = "h2" ]; then
+    echo "Starting the backend on in-memory H2 ${SERVER_ARGS}"
+    java -cp "$JAR" com.flixcare.loadtest.LocalServer $SERVER_ARGS \
+        > loadtest/server.log 2>&1 &
+    SERVER_PID=$!
+    trap 'kill $SERVER_PID 2>/dev/null' EXIT
+fi
+
+for i in $(seq 1 60); do
+    curl -sf "$BASE_URL/health" > /dev/null && break
+    sleep 1
+done
+if ! curl -sf "$BASE_URL/health" > /dev/null; then
+    echo "Backend not reachable at $BASE_URL"
+    exit 1
+fi
+
+if [ "$SEED" = "true" ]; then
+    java -cp "$JAR" com.flixcare.loadtest.SeedData
+fi
+
+java -cp "$JAR" com.flixcare.loadtest.DashboardLoadTest
@@ -0,0 +1,95 @@
+#!/bin/bash
+
+# Memory and latency of the embedded H2 mode against the PostgreSQL deployment: starts the backend jar once per
+# profile on an empty database, seeds it and runs the dashboard request mix. Half-way through the measured part it
+# samples the resident memory of the backend and, for PostgreSQL, the proportional memory (PSS, shared buffers
+# counted once) of the postgres server listening on the port of SPRING_DATASOURCE_URL and its processes, so PostgreSQL
+# has to run on this machine (see postgres.sh) with an empty database; POSTGRES_PID names the server process if lsof
+# cannot find it.
+#   ./loadtest/embedded-vs-postgres.sh
+#   PROFILES=embedded DURATION=30 ./loadtest/embedded-vs-postgres.sh
+# PROFILES (embedded production), JAVA_OPTS, SPRING_DATASOURCE_URL / PGUSER / PGPASSWORD; seeding and load as in
+# dashboard-mix.sh: BABIES (3), YEARS (2), USERS (20), DURATION (60), WARMUP (15), THINK_MS (1000), WRITE_PERCENT (30).
+
+cd "$(dirname "$0")/.."
+
+PROFILES=${PROFILES:-embedded production}
+export BASE_URL=${BASE_URL:-http://localhost:8080}
+export CREDENTIALS=${CREDENTIALS:-flixcare:flixcare123}
+export WARMUP=${WARMUP:-15}
+export DURATION=${DURATION:-60}
+BACKEND_JAR=target/flixcare-backend-1.0.0.jar
+JAR=benchmarks/target/benchmarks.jar
+
+if [ ! -f "$BACKEND_JAR" ] || [ ! -f "$JAR" ]; then
+    echo "Building the backend and the benchmarks module..."
+    mvn -B -q install -DskipTests || exit 1
+    (cd benchmarks && mvn -B -q package) || exit 1
+fi
+if curl -s -o /dev/null "$BASE_URL/health"; then
+    echo "Something already answers at $BASE_URL, stop it first"
+    exit 1
+fi
+
+WORK=$(mktemp -d)
+trap 'kill $PID 2>/dev/null; rm -rf "$WORK"' EXIT
+
+rss_mb() {
+    awk '/VmRSS/ { print int($2 / 1024) }' "/proc/$1/status" 2>/dev/null
+}
+
+postgres_pss_mb() {
+    local port server total=0
+    port=$(echo "${SPRING_DATASOURCE_URL:-}" | sed -nE 's#.*//[^/:]+:([0-9]+)/.*#\1#p')
+    server=${POSTGRES_PID:-$(lsof -t -iTCP:"${port:-5432}" -sTCP:LISTEN 2>/dev/null | head -1)}
+    if [ -z "$server" ]; then
+        echo 0
+        return
+    fi
+    for pid in "$server" $(pgrep -P "$server"); do
+        total=$(( total + $(awk '/^Pss:/ { print $2 }' "/proc/$pid/smaps_rollup" 2>/dev/null || echo 0) ))
+    done
+    echo $(( total / 1024 ))
+}
+
+for profile in $PROFILES; do
+    echo "=== $profile"
+    # The datasource variables meant for PostgreSQL would override the embedded database
+    ENVIRONMENT=()
+    if [ "$profile" = "embedded" ]; then
+        ENVIRONMENT=(-u SPRING_DATASOURCE_URL -u SPRING_DATASOURCE_USERNAME -u SPRING_DATASOURCE_PASSWORD)
+    fi
+    env "${ENVIRONMENT[@]}" SPRING_PROFILES_ACTIVE="$profile" FLIXCARE_DATA_DIR="$WORK/$profile" \
+        java $JAVA_OPTS -jar "$BACKEND_JAR" > "$WORK/$profile.log" 2>&1 &
+    PID=$!
+    until curl -s -o /dev/null "$BASE_URL/health"; do
+        if ! kill -0 "$PID" 2>/dev/null; then
+            echo "The backend exited:"
+            tail -20 "$WORK/$profile.log"
+            exit 1
+        fi
+        sleep 0.5
+    done
+
+    java -cp "$JAR" com.flixcare.loadtest.SeedData || exit 1
+    java -cp "$JAR" com.flixcare.loadtest.DashboardLoadTest > "$WORK/$profile.txt" &
+    LOAD=$!
+    sleep $(( WARMUP + DURATION / 2 ))
+    BACKEND_RSS=$(rss_mb "$PID")
+    DATABASE_PSS=0
+    if [ "$profile" != "embedded" ]; then
+        DATABASE_PSS=$(postgres_pss_mb)
+    fi
+    wait "$LOAD"
+    cat "$WORK/$profile.txt"
+    kill "$PID"
+    wait "$PID" 2>/dev/null
+
+    TOTAL=$(awk '$1 == "TOTAL" { printf "%s req/s, p50 %s ms, p99 %s ms", $4, $5, $6 }' "$WORK/$profile.txt")
+    SUMMARY+=$(printf '%-12s backend %4d MB + database %4d MB = %4d MB; %s' "$profile" "$BACKEND_RSS" \
+        "$DATABASE_PSS" $(( BACKEND_RSS + DATABASE_PSS )) "$TOTAL")$'\n'
+    echo ""
+done
+
+echo "Memory under load and overall latency:"
+printf '%s' "$SUMMARY"
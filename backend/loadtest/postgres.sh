@@ -0,0 +1,20 @@
+#!/bin/bash
+
+# Starts a throwaway local PostgreSQL container for load tests and prints how to point the backend at it.
+# Stop it with: docker rm -f flixcare-loadtest-db
+
+CONTAINER=flixcare-loadtest-db
+PORT=${PORT:-5432}
+
+docker run -d --name "$CONTAINER" -p "$PORT:5432" \
+    -e POSTGRES_DB=flixcaredb -e POSTGRES_USER=postgres -e POSTGRES_PASSWORD=postgres \
+    postgres:16-alpine > /dev/null
+
+until docker exec "$CONTAINER" pg_isready -U postgres > /dev/null 2>&1; do
+    sleep 1
+done
+
+echo "PostgreSQL is ready on port $PORT. Start the backend with:"
+echo "  SPRING_PROFILES_ACTIVE=production SPRING_DATASOURCE_URL=jdbc:postgresql://localhost:$PORT/flixcaredb \\"
+echo "    java -jar target/flixcare-backend-1.0.0.jar"
+echo "then run: SERVER=external ./loadtest/dashboard-mix.sh"
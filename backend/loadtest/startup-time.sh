@@ -0,0 +1,66 @@
+#!/bin/bash
+
+# Time to first request after a cold start, for scale-to-zero hosting: starts the backend RUNS times and measures
+# from process start until /health and then /api/babies answer 200. Pass the command that starts the backend, run
+# from backend/ against PostgreSQL (see postgres.sh):
+#   ./loadtest/startup-time.sh java -jar target/flixcare-backend-1.0.0.jar
+#   ./loadtest/startup-time.sh java -XX:SharedArchiveFile=target/cds/app.jsa -jar target/cds/flixcare-backend-1.0.0-cds.jar
+#   ./loadtest/startup-time.sh target/flixcare-backend
+# The backend reads SPRING_PROFILES_ACTIVE (default production) and the datasource variables from the environment.
+# RUNS (5), BASE_URL, CREDENTIALS.
+
+cd "$(dirname "$0")/.."
+
+RUNS=${RUNS:-5}
+BASE_URL=${BASE_URL:-http://localhost:8080}
+CREDENTIALS=${CREDENTIALS:-flixcare:flixcare123}
+export SPRING_PROFILES_ACTIVE=${SPRING_PROFILES_ACTIVE:-production}
+
+if [ $# -eq 0 ]; then
+    echo "Usage: $0 <command starting the backend>"
+    exit 1
+fi
+if curl -s -o /dev/null "$BASE_URL/health"; then
+    echo "Something already answers at $BASE_URL, stop it first"
+    exit 1
+fi
+
+RESULTS=$(mktemp)
+trap 'kill $PID 2>/dev/null; rm -f "$RESULTS"' EXIT
+
+now_ms() {
+    echo $(( $(date +%s%N) / 1000000 ))
+}
+
+# Polls the endpoint until it answers 200 and prints the milliseconds since the start
+wait_for() {
+    until [ "$(curl -s -o /dev/null -w '%{http_code}' -u "$CREDENTIALS" "$BASE_URL$1")" = "200" ]; do
+        if ! kill -0 "$PID" 2>/dev/null; then
+            echo "The backend exited, see loadtest/startup.log" >&2
+            return 1
+        fi
+        sleep 0.01
+    done
+    echo $(( $(now_ms) - START ))
+}
+
+median() {
+    cut -d' ' -f"$1" "$RESULTS" | sort -n | awk '{ values[NR] = $1 } END { print values[int((NR + 1) / 2)] }'
+}
+
+echo "Command: $*"
+for ((run = 1; run <= RUNS; run++)); do
+    START=$(now_ms)
+    "$@" > loadtest/startup.log 2>&1 &
+    PID=$!
+    HEALTH=$(wait_for /health) || exit 1
+    BABIES=$(wait_for /api/babies) || exit 1
+    RSS=$(awk '/VmRSS/ { print int($2 / 1024) }' "/proc/$PID/status" 2>/dev/null)
+    kill "$PID"
+    wait "$PID" 2>/dev/null
+    echo "Run $run: /health $HEALTH ms, /api/babies $BABIES ms, RSS ${RSS:-?} MB"
+    echo "$HEALTH $BABIES ${RSS:-0}" >> "$RESULTS"
+done
+
+echo ""
+echo "Median: /health $(median 1) ms, /api/babies $(median 2) ms, RSS $(median 3) MB"
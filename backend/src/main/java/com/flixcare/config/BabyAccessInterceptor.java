@@ -0,0 +1,51 @@
+package com.flixcare.config;
+
+import com.flixcare.service.BabyAccess;
+import jakarta.servlet.DispatcherType;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.util.Map;
+
+/**
+ * Answers requests for a baby of another household with 404 before the handler reads, caches or streams any of its
+ * data. The baby is named by the {babyId} path variable, by {id} under /api/babies, or by the babyId parameter.
+ * Record lookups by record id are scoped to the household by the services instead.
+ */
+@Component
+@RequiredArgsConstructor
+public class BabyAccessInterceptor implements HandlerInterceptor {
+
+    private final BabyAccess babyAccess;
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        // Checked on the initial dispatch, async dispatches of the same request follow
+        if (request.getDispatcherType() == DispatcherType.ASYNC) {
+            return true;
+        }
+        @SuppressWarnings("unchecked")
+        Map<String, String> variables =
+                (Map<String, String>) request.getAttribute(HandlerMapping.URI_TEMPLATE_VARIABLES_ATTRIBUTE);
+        String pattern = (String) request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        String babyId = variables != null ? variables.get("babyId") : null;
+        if (babyId == null && variables != null && pattern != null && pattern.startsWith("/api/babies/{id}")) {
+            babyId = variables.get("id");
+        }
+        if (babyId == null) {
+            babyId = request.getParameter("babyId");
+        }
+        if (babyId != null) {
+            try {
+                babyAccess.check(Long.valueOf(babyId));
+            } catch (NumberFormatException e) {
+                // Rejected by the handler's argument binding
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,92 @@
+package com.flixcare.config;
+
+import com.flixcare.service.UserCredentialsChangedEvent;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.security.authentication.AuthenticationProvider;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.AuthenticationException;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Remembers verified username/password pairs for a short time, keyed by an HMAC with a
+ * per-process random key. Failed attempts are never cached. When full, the least recently
+ * used pairs are evicted, so a large number of users does not empty the cache all at once.
+ * A user's pairs are dropped when the password hash or role of the user changes.
+ */
+public class CachingAuthenticationProvider implements AuthenticationProvider {
+
+    private static final String HMAC_ALGORITHM = "HmacSHA256";
+
+    private final AuthenticationProvider delegate;
+    private final boolean enabled;
+    private final SecretKeySpec hmacKey;
+    private final Cache<String, CachedAuthentication> cache;
+    // Counts credential changes, so that a check that raced with one does not cache the old password
+    private final AtomicLong credentialChanges = new AtomicLong();
+
+    public CachingAuthenticationProvider(AuthenticationProvider delegate, Duration ttl, int maxEntries) {
+        this.delegate = delegate;
+        this.enabled = ttl.toNanos() > 0;
+        this.cache = Caffeine.newBuilder().maximumSize(maxEntries).expireAfterWrite(ttl).build();
+        byte[] secret = new byte[32];
+        new SecureRandom().nextBytes(secret);
+        this.hmacKey = new SecretKeySpec(secret, HMAC_ALGORITHM);
+    }
+
+    @Override
+    public Authentication authenticate(Authentication authentication) throws AuthenticationException {
+        if (!(authentication.getCredentials() instanceof String password) || !enabled) {
+            return delegate.authenticate(authentication);
+        }
+
+        String key = cacheKey(authentication.getName(), password);
+        CachedAuthentication cached = cache.getIfPresent(key);
+        if (cached != null) {
+            return cached.authentication();
+        }
+
+        long changes = credentialChanges.get();
+        Authentication result = delegate.authenticate(authentication);
+        if (result != null && result.isAuthenticated() && credentialChanges.get() == changes) {
+            cache.put(key, new CachedAuthentication(authentication.getName(), result));
+        }
+        return result;
+    }
+
+    // After the commit, so that the password is checked against the new hash from then on
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCredentialsChanged(UserCredentialsChangedEvent event) {
+        credentialChanges.incrementAndGet();
+        cache.asMap().values().removeIf(cached -> cached.username().equals(event.username()));
+    }
+
+    @Override
+    public boolean supports(Class<?> authentication) {
+        return delegate.supports(authentication);
+    }
+
+    private String cacheKey(String username, String password) {
+        try {
+            Mac mac = Mac.getInstance(HMAC_ALGORITHM);
+            mac.init(hmacKey);
+            mac.update(username.getBytes(StandardCharsets.UTF_8));
+            mac.update((byte) 0);
+            return Base64.getEncoder().encodeToString(mac.doFinal(password.getBytes(StandardCharsets.UTF_8)));
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("HMAC not available", e);
+        }
+    }
+
+    private record CachedAuthentication(String username, Authentication authentication) {
+    }
+}
@@ -0,0 +1,48 @@
+package com.flixcare.config;
+
+import org.springframework.aot.hint.BindingReflectionHintsRegistrar;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.RuntimeHintsRegistrar;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.context.annotation.ClassPathScanningCandidateComponentProvider;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.ImportRuntimeHints;
+import org.springframework.util.ClassUtils;
+
+/**
+ * Reflection hints for the native image (mvn -Pnative native:compile). Spring AOT covers the beans, the JPA entities
+ * and the types in controller signatures; these are the ones reached otherwise. The packages are scanned when the
+ * image is built, not at runtime.
+ */
+@Configuration(proxyBeanMethods = false)
+@ImportRuntimeHints(NativeHints.Registrar.class)
+public class NativeHints {
+
+    static class Registrar implements RuntimeHintsRegistrar {
+
+        private final BindingReflectionHintsRegistrar bindingHints = new BindingReflectionHintsRegistrar();
+
+        @Override
+        public void registerHints(RuntimeHints hints, ClassLoader classLoader) {
+            // Views are created by "select new" queries and read back from archive documents, DTOs are written
+            // inside streams, SSE events and sync responses; entities carry the enums parsed by name
+            for (Class<?> type : scan("com.flixcare.dto", classLoader)) {
+                bindingHints.registerReflectionHints(hints.reflection(), type);
+                hints.reflection().registerType(type, MemberCategory.INVOKE_PUBLIC_CONSTRUCTORS);
+            }
+            for (Class<?> type : scan("com.flixcare.entity", classLoader)) {
+                bindingHints.registerReflectionHints(hints.reflection(), type);
+            }
+        }
+
+        private static Iterable<Class<?>> scan(String basePackage, ClassLoader classLoader) {
+            ClassPathScanningCandidateComponentProvider scanner = new ClassPathScanningCandidateComponentProvider(false);
+            scanner.addIncludeFilter((reader, factory) -> true);
+            return scanner.findCandidateComponents(basePackage).stream()
+                    .map(BeanDefinition::getBeanClassName)
+                    .<Class<?>>map(name -> ClassUtils.resolveClassName(name, classLoader))
+                    .toList();
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package com.flixcare.config;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+
+/**
+ * Records how many SQL statements Hibernate prepared while an API request was handled, as the distribution
+ * {@code flixcare.http.queries} tagged with the matched URI pattern. Statements issued after the response is handed
+ * to another thread (NDJSON streams) are not counted.
+ */
+@Component
+class QueryCountFilter extends OncePerRequestFilter {
+
+    private static final ThreadLocal<int[]> STATEMENTS = new ThreadLocal<>();
+
+    private final MeterRegistry meterRegistry;
+
+    QueryCountFilter(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !request.getRequestURI().startsWith("/api/");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        int[] count = new int[1];
+        STATEMENTS.set(count);
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            STATEMENTS.remove();
+            Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+            DistributionSummary.builder("flixcare.http.queries")
+                    .description("SQL statements per request")
+                    .tag("method", request.getMethod())
+                    .tag("uri", pattern == null ? "UNKNOWN" : pattern.toString())
+                    .register(meterRegistry)
+                    .record(count[0]);
+        }
+    }
+
+    static class Inspector implements StatementInspector {
+
+        @Override
+        public String inspect(String sql) {
+            int[] count = STATEMENTS.get();
+            if (count != null) {
+                count[0]++;
+            }
+            return sql;
+        }
+    }
+}
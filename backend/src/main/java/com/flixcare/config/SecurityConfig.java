@@ -3,21 +3,21 @@ package com.flixcare.config;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpMethod;
+import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.annotation.web.configurers.AbstractHttpConfigurer;
 import org.springframework.security.config.http.SessionCreationPolicy;
-import org.springframework.security.core.userdetails.User;
-import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
-import org.springframework.security.provisioning.InMemoryUserDetailsManager;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.web.cors.CorsConfiguration;
 import org.springframework.web.cors.CorsConfigurationSource;
 import org.springframework.web.cors.UrlBasedCorsConfigurationSource;
 
+import java.time.Duration;
 import java.util.Arrays;
 import java.util.List;
 
@@ -25,11 +25,11 @@ import java.util.List;
 @EnableWebSecurity
 public class SecurityConfig {
 
-    @Value("${flixcare.security.username:flixcare}")
-    private String username;
+    @Value("${flixcare.security.credential-cache-ttl-seconds:300}")
+    private long credentialCacheTtlSeconds;
 
-    @Value("${flixcare.security.password:flixcare123}")
-    private String password;
+    @Value("${flixcare.security.credential-cache-size:10000}")
+    private int credentialCacheSize;
 
     @Bean
     public SecurityFilterChain securityFilterChain(HttpSecurity http) throws Exception {
@@ -37,7 +37,11 @@ public class SecurityConfig {
                 .cors(cors -> cors.configurationSource(corsConfigurationSource()))
                 .csrf(AbstractHttpConfigurer::disable)
                 .authorizeHttpRequests(auth -> auth
-                        .requestMatchers("/api/auth/login", "/h2-console/**", "/health").permitAll()
+                        .requestMatchers("/api/auth/login", "/h2-console/**", "/health", "/actuator/health").permitAll()
+                        .requestMatchers("/actuator/**").hasRole("ADMIN")
+                        // Maintenance across all households
+                        .requestMatchers("/api/stats/cache", "/api/stats/archive/**").hasRole("ADMIN")
+                        .requestMatchers(HttpMethod.POST, "/api/households").hasRole("ADMIN")
                         .requestMatchers("/api/**").authenticated()  // Nur API schützen
                         .anyRequest().permitAll()  // Frontend-Dateien erlauben
                 )
@@ -52,15 +56,15 @@ public class SecurityConfig {
         return http.build();
     }
 
+    // Users are stored in user_accounts, see HouseholdService
     @Bean
-    public UserDetailsService userDetailsService() {
-        UserDetails user = User.builder()
-                .username(username)
-                .password(passwordEncoder().encode(password))
-                .roles("USER")
-                .build();
-
-        return new InMemoryUserDetailsManager(user);
+    public CachingAuthenticationProvider authenticationProvider(UserDetailsService userDetailsService) {
+        DaoAuthenticationProvider daoAuthenticationProvider = new DaoAuthenticationProvider();
+        daoAuthenticationProvider.setUserDetailsService(userDetailsService);
+        daoAuthenticationProvider.setPasswordEncoder(passwordEncoder());
+        // Basic Auth is stateless, cache verified credentials instead of running BCrypt per request
+        return new CachingAuthenticationProvider(daoAuthenticationProvider,
+                Duration.ofSeconds(credentialCacheTtlSeconds), credentialCacheSize);
     }
 
     @Bean
@@ -75,7 +79,8 @@ public class SecurityConfig {
         configuration.setAllowedMethods(Arrays.asList("GET", "POST", "PUT", "DELETE", "OPTIONS"));
         configuration.setAllowedHeaders(List.of("*"));
         configuration.setAllowCredentials(true);
-        configuration.setExposedHeaders(Arrays.asList("Authorization", "Content-Type"));
+        configuration.setExposedHeaders(Arrays.asList("Authorization", "Content-Type", "X-Next-Before", "X-Next-Before-Id",
+                "X-Next-Before-Type", "ETag"));
 
         UrlBasedCorsConfigurationSource source = new UrlBasedCorsConfigurationSource();
         source.registerCorsConfiguration("/**", configuration);
@@ -0,0 +1,27 @@
+package com.flixcare.config;
+
+import org.springframework.boot.web.embedded.undertow.UndertowServletWebServerFactory;
+import org.springframework.boot.web.server.WebServerFactoryCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+
+import java.util.concurrent.Executors;
+
+/**
+ * Opt-in profile that dispatches servlet requests on virtual threads instead of Undertow's small worker pool. A
+ * request blocked on JDBC then only parks its virtual thread; Hikari's pool size still bounds database access, and
+ * waiting requests fail after its connection timeout.
+ */
+@Configuration
+@Profile("virtual-threads")
+public class VirtualThreadConfig {
+
+    @Bean
+    public WebServerFactoryCustomizer<UndertowServletWebServerFactory> virtualThreadUndertowCustomizer() {
+        return factory -> factory.addDeploymentInfoCustomizers(deploymentInfo -> {
+            deploymentInfo.setExecutor(Executors.newVirtualThreadPerTaskExecutor());
+            deploymentInfo.setAsyncExecutor(Executors.newVirtualThreadPerTaskExecutor());
+        });
+    }
+}
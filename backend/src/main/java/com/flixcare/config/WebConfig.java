@@ -3,6 +3,7 @@ package com.flixcare.config;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.web.servlet.config.annotation.CorsRegistry;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
 
 @Configuration
@@ -21,4 +22,14 @@ public class WebConfig {
             }
         };
     }
+
+    @Bean
+    public WebMvcConfigurer babyAccessConfigurer(BabyAccessInterceptor babyAccessInterceptor) {
+        return new WebMvcConfigurer() {
+            @Override
+            public void addInterceptors(InterceptorRegistry registry) {
+                registry.addInterceptor(babyAccessInterceptor).addPathPatterns("/api/**");
+            }
+        };
+    }
 }
@@ -1,13 +1,27 @@
 package com.flixcare.controller;
 
 import com.flixcare.dto.BabyDTO;
+import com.flixcare.dto.BabyView;
+import com.flixcare.dto.ExportRecord;
+import com.flixcare.dto.ImportResult;
 import com.flixcare.service.BabyService;
+import com.flixcare.service.RecordVersions;
+import com.flixcare.service.RecordVersions.RecordType;
+import com.flixcare.service.TimelineService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.LocalDateTime;
 import java.util.List;
 
 @RestController
@@ -17,14 +31,18 @@ import java.util.List;
 public class BabyController {
 
     private final BabyService babyService;
+    private final HistoryExporter historyExporter;
+    private final HistoryImporter historyImporter;
+    private final TimelineService timelineService;
+    private final RecordVersions recordVersions;
 
     @GetMapping
-    public ResponseEntity<List<BabyDTO>> getAllBabies() {
+    public ResponseEntity<List<BabyView>> getAllBabies() {
         return ResponseEntity.ok(babyService.getAllBabies());
     }
 
     @GetMapping("/{id}")
-    public ResponseEntity<BabyDTO> getBabyById(@PathVariable Long id) {
+    public ResponseEntity<BabyView> getBabyById(@PathVariable Long id) {
         return ResponseEntity.ok(babyService.getBabyById(id));
     }
 
@@ -38,6 +56,46 @@ public class BabyController {
         return ResponseEntity.ok(babyService.updateBaby(id, babyDTO));
     }
 
+    // Records of all types merged newest first, one keyset page at a time
+    @GetMapping("/{id}/timeline")
+    public ResponseEntity<List<ExportRecord>> getTimeline(
+            @PathVariable Long id,
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime before,
+            @RequestParam(required = false) RecordType beforeType,
+            @RequestParam(required = false) Long beforeId,
+            WebRequest request) {
+        if (request.checkNotModified(recordVersions.etag())) {
+            return null;
+        }
+        int pageSize = CursorPagination.limit(limit);
+        return CursorPagination.timelinePage(
+                timelineService.getTimeline(id, before, beforeType, beforeId, pageSize), pageSize);
+    }
+
+    // Complete history of all record types, newest first
+    @GetMapping("/{id}/export")
+    public ResponseEntity<StreamingResponseBody> exportHistory(
+            @PathVariable Long id,
+            @RequestParam(defaultValue = "ndjson") String format,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, defaultValue = "") String acceptEncoding) {
+        // Fails with 404 before the response is committed
+        babyService.getBabyById(id);
+        return historyExporter.export(id, format, acceptEncoding);
+    }
+
+    // Adds the records of an uploaded history, e.g. from another app; rejected rows are reported with their line.
+    // A form body would be consumed as request parameters before it could be read.
+    @PostMapping(value = "/{id}/import", consumes = "!" + MediaType.APPLICATION_FORM_URLENCODED_VALUE)
+    public ResponseEntity<ImportResult> importHistory(
+            @PathVariable Long id,
+            @RequestParam(defaultValue = "ndjson") String format,
+            @RequestHeader(value = HttpHeaders.CONTENT_ENCODING, defaultValue = "") String contentEncoding,
+            InputStream body) throws IOException {
+        babyService.getBabyById(id);
+        return historyImporter.importHistory(id, format, contentEncoding, body);
+    }
+
     @DeleteMapping("/{id}")
     public ResponseEntity<Void> deleteBaby(@PathVariable Long id) {
         babyService.deleteBaby(id);
@@ -0,0 +1,10 @@
+package com.flixcare.controller;
+
+// Limits of the /batch endpoints; clients with more records split them into several requests
+final class BatchRequests {
+
+    static final int MAX_SIZE = 1000;
+
+    private BatchRequests() {
+    }
+}
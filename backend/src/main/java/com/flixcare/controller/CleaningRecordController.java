@@ -1,45 +1,92 @@
 package com.flixcare.controller;
 
 import com.flixcare.dto.CleaningRecordDTO;
+import com.flixcare.dto.CleaningRecordView;
 import com.flixcare.service.CleaningRecordService;
+import com.flixcare.service.RecordVersions;
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.Size;
 import lombok.RequiredArgsConstructor;
 import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.time.LocalDateTime;
 import java.util.List;
 
 @RestController
+@Validated
 @RequestMapping("/api/cleaning-records")
 @RequiredArgsConstructor
 @CrossOrigin(origins = "*")
 public class CleaningRecordController {
 
     private final CleaningRecordService cleaningRecordService;
+    private final NdjsonStreamer ndjsonStreamer;
+    private final RecordVersions recordVersions;
 
     @GetMapping
-    public ResponseEntity<List<CleaningRecordDTO>> getAllCleaningRecords() {
-        return ResponseEntity.ok(cleaningRecordService.getAllCleaningRecords());
+    public ResponseEntity<List<CleaningRecordView>> getAllCleaningRecords(
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime before,
+            @RequestParam(required = false) Long beforeId,
+            WebRequest request) {
+        if (request.checkNotModified(recordVersions.etag())) {
+            return null;
+        }
+        if (!CursorPagination.isRequested(limit, before)) {
+            return ResponseEntity.ok(cleaningRecordService.getAllCleaningRecords());
+        }
+        int pageSize = CursorPagination.limit(limit);
+        return CursorPagination.page(cleaningRecordService.getAllCleaningRecords(before, beforeId, pageSize),
+                pageSize, CleaningRecordView::cleaningTime, CleaningRecordView::id);
     }
 
     @GetMapping("/baby/{babyId}")
-    public ResponseEntity<List<CleaningRecordDTO>> getCleaningRecordsByBaby(@PathVariable Long babyId) {
-        return ResponseEntity.ok(cleaningRecordService.getCleaningRecordsByBaby(babyId));
+    public ResponseEntity<List<CleaningRecordView>> getCleaningRecordsByBaby(
+            @PathVariable Long babyId,
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime before,
+            @RequestParam(required = false) Long beforeId,
+            WebRequest request) {
+        if (request.checkNotModified(recordVersions.etag())) {
+            return null;
+        }
+        if (!CursorPagination.isRequested(limit, before)) {
+            return ResponseEntity.ok(cleaningRecordService.getCleaningRecordsByBaby(babyId));
+        }
+        int pageSize = CursorPagination.limit(limit);
+        return CursorPagination.page(cleaningRecordService.getCleaningRecordsByBaby(babyId, before, beforeId, pageSize),
+                pageSize, CleaningRecordView::cleaningTime, CleaningRecordView::id);
+    }
+
+    @GetMapping(value = "/baby/{babyId}/stream", produces = NdjsonStreamer.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamCleaningRecordsByBaby(@PathVariable Long babyId, WebRequest request) {
+        if (request.checkNotModified(recordVersions.etag())) {
+            return null;
+        }
+        return ndjsonStreamer.<CleaningRecordView>stream(
+                consumer -> cleaningRecordService.streamCleaningRecordsByBaby(babyId, consumer));
     }
 
     @GetMapping("/baby/{babyId}/range")
-    public ResponseEntity<List<CleaningRecordDTO>> getCleaningRecordsByBabyAndDateRange(
+    public ResponseEntity<List<CleaningRecordView>> getCleaningRecordsByBabyAndDateRange(
             @PathVariable Long babyId,
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime start,
-            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime end) {
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime end,
+            WebRequest request) {
+        if (request.checkNotModified(recordVersions.etag())) {
+            return null;
+        }
         return ResponseEntity.ok(cleaningRecordService.getCleaningRecordsByBabyAndDateRange(babyId, start, end));
     }
 
     @GetMapping("/{id}")
-    public ResponseEntity<CleaningRecordDTO> getCleaningRecordById(@PathVariable Long id) {
+    public ResponseEntity<CleaningRecordView> getCleaningRecordById(@PathVariable Long id) {
         return ResponseEntity.ok(cleaningRecordService.getCleaningRecordById(id));
     }
 
@@ -48,6 +95,12 @@ public class CleaningRecordController {
         return ResponseEntity.status(HttpStatus.CREATED).body(cleaningRecordService.createCleaningRecord(dto));
     }
 
+    @PostMapping("/batch")
+    public ResponseEntity<List<Long>> createCleaningRecords(
+            @RequestBody @Size(max = BatchRequests.MAX_SIZE) List<@Valid CleaningRecordDTO> dtos) {
+        return ResponseEntity.status(HttpStatus.CREATED).body(cleaningRecordService.createCleaningRecords(dtos));
+    }
+
     @PutMapping("/{id}")
     public ResponseEntity<CleaningRecordDTO> updateCleaningRecord(@PathVariable Long id, @Valid @RequestBody CleaningRecordDTO dto) {
         return ResponseEntity.ok(cleaningRecordService.updateCleaningRecord(id, dto));
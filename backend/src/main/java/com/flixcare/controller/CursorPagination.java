@@ -0,0 +1,57 @@
+package com.flixcare.controller;
+
+import com.flixcare.dto.ExportRecord;
+import com.flixcare.service.TimelineService;
+import org.springframework.http.ResponseEntity;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.function.Function;
+
+final class CursorPagination {
+
+    static final String NEXT_BEFORE_HEADER = "X-Next-Before";
+    static final String NEXT_BEFORE_ID_HEADER = "X-Next-Before-Id";
+    static final String NEXT_BEFORE_TYPE_HEADER = "X-Next-Before-Type";
+
+    private static final int DEFAULT_LIMIT = 50;
+    private static final int MAX_LIMIT = 500;
+
+    private CursorPagination() {
+    }
+
+    static boolean isRequested(Integer limit, LocalDateTime before) {
+        return limit != null || before != null;
+    }
+
+    static int limit(Integer limit) {
+        if (limit == null || limit <= 0) {
+            return DEFAULT_LIMIT;
+        }
+        return Math.min(limit, MAX_LIMIT);
+    }
+
+    // A full page carries the cursor of its last element, a short page marks the end
+    static <T> ResponseEntity<List<T>> page(List<T> records, int limit,
+                                            Function<T, LocalDateTime> time, Function<T, Long> id) {
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (records.size() == limit) {
+            T last = records.get(records.size() - 1);
+            response.header(NEXT_BEFORE_HEADER, time.apply(last).toString());
+            response.header(NEXT_BEFORE_ID_HEADER, String.valueOf(id.apply(last)));
+        }
+        return response.body(records);
+    }
+
+    // Record ids are only unique within a type, so timeline cursors carry the type as well
+    static ResponseEntity<List<ExportRecord>> timelinePage(List<ExportRecord> entries, int limit) {
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (entries.size() == limit) {
+            ExportRecord last = entries.get(entries.size() - 1);
+            response.header(NEXT_BEFORE_HEADER, last.time().toString());
+            response.header(NEXT_BEFORE_TYPE_HEADER, last.type().name());
+            response.header(NEXT_BEFORE_ID_HEADER, String.valueOf(TimelineService.idOf(last)));
+        }
+        return response.body(entries);
+    }
+}
@@ -0,0 +1,39 @@
+package com.flixcare.controller;
+
+import com.flixcare.dto.DashboardDTO;
+import com.flixcare.service.DashboardService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.DateTimeException;
+import java.time.ZoneId;
+
+@RestController
+@RequestMapping("/api/dashboard")
+@RequiredArgsConstructor
+@CrossOrigin(origins = "*")
+public class DashboardController {
+
+    // The "all" weight chart; a measurement a day covers almost three years
+    private static final int MAX_WEIGHT_LIMIT = 1000;
+
+    private final DashboardService dashboardService;
+
+    @GetMapping("/{babyId}")
+    public ResponseEntity<DashboardDTO> getDashboard(
+            @PathVariable Long babyId,
+            @RequestParam(defaultValue = "UTC") String zone,
+            @RequestParam(defaultValue = "5") int diaperDays,
+            @RequestParam(defaultValue = "10") int weightLimit) {
+        ZoneId zoneId;
+        try {
+            zoneId = ZoneId.of(zone);
+        } catch (DateTimeException e) {
+            return ResponseEntity.badRequest().build();
+        }
+        int days = Math.max(1, Math.min(diaperDays, 31));
+        int weights = Math.max(1, Math.min(weightLimit, MAX_WEIGHT_LIMIT));
+        return ResponseEntity.ok(dashboardService.getDashboard(babyId, zoneId, days, weights));
+    }
+}
@@ -0,0 +1,25 @@
+package com.flixcare.controller;
+
+import com.flixcare.service.BabyService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+@RestController
+@RequestMapping("/api/events")
+@RequiredArgsConstructor
+@CrossOrigin(origins = "*")
+public class EventController {
+
+    private final BabyService babyService;
+    private final EventStreamHub eventStreamHub;
+
+    @GetMapping(value = "/{babyId}", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> subscribe(@PathVariable Long babyId) {
+        // Unknown babies get a 404 before the stream is opened
+        babyService.getBabyById(babyId);
+        return ResponseEntity.ok(eventStreamHub.subscribe(babyId));
+    }
+}
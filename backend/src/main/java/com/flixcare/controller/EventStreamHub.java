@@ -0,0 +1,155 @@
+package com.flixcare.controller;
+
+import com.flixcare.service.BabyChangedEvent;
+import com.flixcare.service.RecordChangedEvent;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter.DataWithMediaType;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Fans committed record changes out to the SSE subscribers of a baby. Every subscriber has a small bounded queue
+ * that is drained on a shared sender pool, so a slow device never blocks the writing request or other devices.
+ * When a queue overflows its pending events are dropped and the subscriber gets a single {@code resync} event
+ * instead, telling the client to reload everything.
+ */
+@Component
+class EventStreamHub {
+
+    private static final Duration EMITTER_TIMEOUT = Duration.ofMinutes(30);
+
+    private final Map<Long, Set<Subscriber>> subscribers = new ConcurrentHashMap<>();
+    private final ExecutorService sender;
+    private final int bufferSize;
+
+    EventStreamHub(@Value("${flixcare.events.sender-threads:4}") int senderThreads,
+                   @Value("${flixcare.events.buffer-size:32}") int bufferSize) {
+        AtomicInteger threadCount = new AtomicInteger();
+        this.sender = Executors.newFixedThreadPool(senderThreads, runnable -> {
+            Thread thread = new Thread(runnable, "sse-sender-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.bufferSize = bufferSize;
+    }
+
+    SseEmitter subscribe(Long babyId) {
+        SseEmitter emitter = new SseEmitter(EMITTER_TIMEOUT.toMillis());
+        Subscriber subscriber = new Subscriber(emitter, new ArrayBlockingQueue<>(bufferSize));
+        subscribers.computeIfAbsent(babyId, id -> ConcurrentHashMap.newKeySet()).add(subscriber);
+
+        Runnable remove = () -> unsubscribe(babyId, subscriber);
+        emitter.onCompletion(remove);
+        emitter.onTimeout(remove);
+        emitter.onError(error -> remove.run());
+
+        // Commits the response headers right away so that the client sees the stream as open
+        subscriber.offer(SseEmitter.event().comment("connected").build());
+        return emitter;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    void onRecordChanged(RecordChangedEvent event) {
+        publish(event.babyId(), SseEmitter.event().name("record").data(event, MediaType.APPLICATION_JSON));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    void onBabyChanged(BabyChangedEvent event) {
+        publish(event.babyId(), SseEmitter.event().name("baby").data(event, MediaType.APPLICATION_JSON));
+    }
+
+    // Keeps proxies from closing idle connections and detects clients that went away
+    @Scheduled(fixedRateString = "${flixcare.events.heartbeat-ms:25000}")
+    void heartbeat() {
+        Set<DataWithMediaType> heartbeat = SseEmitter.event().comment("heartbeat").build();
+        subscribers.values().forEach(set -> set.forEach(subscriber -> subscriber.offer(heartbeat)));
+    }
+
+    @PreDestroy
+    void shutdown() {
+        subscribers.values().forEach(set -> set.forEach(subscriber -> subscriber.emitter.complete()));
+        sender.shutdownNow();
+    }
+
+    // The event is rendered once and the same parts are written to every subscriber
+    private void publish(Long babyId, SseEmitter.SseEventBuilder event) {
+        Set<Subscriber> babySubscribers = subscribers.get(babyId);
+        if (babySubscribers != null) {
+            Set<DataWithMediaType> parts = event.build();
+            babySubscribers.forEach(subscriber -> subscriber.offer(parts));
+        }
+    }
+
+    private void unsubscribe(Long babyId, Subscriber subscriber) {
+        subscribers.computeIfPresent(babyId, (id, set) -> {
+            set.remove(subscriber);
+            return set.isEmpty() ? null : set;
+        });
+    }
+
+    private final class Subscriber {
+
+        private final SseEmitter emitter;
+        private final BlockingQueue<Set<DataWithMediaType>> queue;
+        private final AtomicBoolean scheduled = new AtomicBoolean();
+        private final AtomicBoolean overflowed = new AtomicBoolean();
+
+        private Subscriber(SseEmitter emitter, BlockingQueue<Set<DataWithMediaType>> queue) {
+            this.emitter = emitter;
+            this.queue = queue;
+        }
+
+        void offer(Set<DataWithMediaType> event) {
+            if (!queue.offer(event)) {
+                // Events are only change notifications, one resync replaces everything that was dropped
+                queue.clear();
+                overflowed.set(true);
+            }
+            schedule();
+        }
+
+        private void schedule() {
+            if (scheduled.compareAndSet(false, true)) {
+                sender.execute(this::drain);
+            }
+        }
+
+        private void drain() {
+            try {
+                if (overflowed.getAndSet(false)) {
+                    emitter.send(SseEmitter.event().name("resync").data("{}", MediaType.APPLICATION_JSON));
+                }
+                Set<DataWithMediaType> event;
+                while ((event = queue.poll()) != null) {
+                    emitter.send(event);
+                }
+            } catch (IOException | IllegalStateException e) {
+                // Client is gone or the emitter already completed
+                queue.clear();
+                emitter.completeWithError(e);
+                return;
+            } finally {
+                scheduled.set(false);
+            }
+            if (!queue.isEmpty() || overflowed.get()) {
+                schedule();
+            }
+        }
+    }
+}
@@ -1,45 +1,92 @@
 package com.flixcare.controller;
 
 import com.flixcare.dto.FeedingRecordDTO;
+import com.flixcare.dto.FeedingRecordView;
 import com.flixcare.service.FeedingRecordService;
+import com.flixcare.service.RecordVersions;
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.Size;
 import lombok.RequiredArgsConstructor;
 import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.time.LocalDateTime;
 import java.util.List;
 
 @RestController
+@Validated
 @RequestMapping("/api/feeding-records")
 @RequiredArgsConstructor
 @CrossOrigin(origins = "*")
 public class FeedingRecordController {
 
     private final FeedingRecordService feedingRecordService;
+    private final NdjsonStreamer ndjsonStreamer;
+    private final RecordVersions recordVersions;
 
     @GetMapping
-    public ResponseEntity<List<FeedingRecordDTO>> getAllFeedingRecords() {
-        return ResponseEntity.ok(feedingRecordService.getAllFeedingRecords());
+    public ResponseEntity<List<FeedingRecordView>> getAllFeedingRecords(
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime before,
+            @RequestParam(required = false) Long beforeId,
+            WebRequest request) {
+        if (request.checkNotModified(recordVersions.etag())) {
+            return null;
+        }
+        if (!CursorPagination.isRequested(limit, before)) {
+            return ResponseEntity.ok(feedingRecordService.getAllFeedingRecords());
+        }
+        int pageSize = CursorPagination.limit(limit);
+        return CursorPagination.page(feedingRecordService.getAllFeedingRecords(before, beforeId, pageSize),
+                pageSize, FeedingRecordView::feedingTime, FeedingRecordView::id);
     }
 
     @GetMapping("/baby/{babyId}")
-    public ResponseEntity<List<FeedingRecordDTO>> getFeedingRecordsByBaby(@PathVariable Long babyId) {
-        return ResponseEntity.ok(feedingRecordService.getFeedingRecordsByBaby(babyId));
+    public ResponseEntity<List<FeedingRecordView>> getFeedingRecordsByBaby(
+            @PathVariable Long babyId,
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime before,
+            @RequestParam(required = false) Long beforeId,
+            WebRequest request) {
+        if (request.checkNotModified(recordVersions.etag())) {
+            return null;
+        }
+        if (!CursorPagination.isRequested(limit, before)) {
+            return ResponseEntity.ok(feedingRecordService.getFeedingRecordsByBaby(babyId));
+        }
+        int pageSize = CursorPagination.limit(limit);
+        return CursorPagination.page(feedingRecordService.getFeedingRecordsByBaby(babyId, before, beforeId, pageSize),
+                pageSize, FeedingRecordView::feedingTime, FeedingRecordView::id);
+    }
+
+    @GetMapping(value = "/baby/{babyId}/stream", produces = NdjsonStreamer.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamFeedingRecordsByBaby(@PathVariable Long babyId, WebRequest request) {
+        if (request.checkNotModified(recordVersions.etag())) {
+            return null;
+        }
+        return ndjsonStreamer.<FeedingRecordView>stream(
+                consumer -> feedingRecordService.streamFeedingRecordsByBaby(babyId, consumer));
     }
 
     @GetMapping("/baby/{babyId}/range")
-    public ResponseEntity<List<FeedingRecordDTO>> getFeedingRecordsByBabyAndDateRange(
+    public ResponseEntity<List<FeedingRecordView>> getFeedingRecordsByBabyAndDateRange(
             @PathVariable Long babyId,
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime start,
-            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime end) {
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime end,
+            WebRequest request) {
+        if (request.checkNotModified(recordVersions.etag())) {
+            return null;
+        }
         return ResponseEntity.ok(feedingRecordService.getFeedingRecordsByBabyAndDateRange(babyId, start, end));
     }
 
     @GetMapping("/{id}")
-    public ResponseEntity<FeedingRecordDTO> getFeedingRecordById(@PathVariable Long id) {
+    public ResponseEntity<FeedingRecordView> getFeedingRecordById(@PathVariable Long id) {
         return ResponseEntity.ok(feedingRecordService.getFeedingRecordById(id));
     }
 
@@ -48,6 +95,12 @@ public class FeedingRecordController {
         return ResponseEntity.status(HttpStatus.CREATED).body(feedingRecordService.createFeedingRecord(dto));
     }
 
+    @PostMapping("/batch")
+    public ResponseEntity<List<Long>> createFeedingRecords(
+            @RequestBody @Size(max = BatchRequests.MAX_SIZE) List<@Valid FeedingRecordDTO> dtos) {
+        return ResponseEntity.status(HttpStatus.CREATED).body(feedingRecordService.createFeedingRecords(dtos));
+    }
+
     @PutMapping("/{id}")
     public ResponseEntity<FeedingRecordDTO> updateFeedingRecord(@PathVariable Long id, @Valid @RequestBody FeedingRecordDTO dto) {
         return ResponseEntity.ok(feedingRecordService.updateFeedingRecord(id, dto));
@@ -0,0 +1,148 @@
+package com.flixcare.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.flixcare.dto.CleaningRecordView;
+import com.flixcare.dto.ExportRecord;
+import com.flixcare.dto.FeedingRecordView;
+import com.flixcare.dto.MedicationRecordView;
+import com.flixcare.dto.TemperatureRecordView;
+import com.flixcare.dto.WeightRecordView;
+import com.flixcare.service.ExportService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Writes the history export of a baby as CSV or NDJSON, gzip-compressed when the client accepts it. Rows are
+ * written while the export reads them, the response is sent chunked without a Content-Length.
+ */
+@Component
+@RequiredArgsConstructor
+class HistoryExporter {
+
+    private static final int BUFFER_SIZE = 16 * 1024;
+    // One column set for all record types; kind is the feeding, cleaning or medication type
+    private static final String[] CSV_COLUMNS = {"type", "time", "id", "kind", "amount_ml", "duration_minutes",
+            "diaper_content", "temperature_celsius", "measurement_location", "weight_grams", "dosage", "notes",
+            "created_at", "updated_at"};
+
+    private final ObjectMapper objectMapper;
+    private final ExportService exportService;
+
+    ResponseEntity<StreamingResponseBody> export(Long babyId, String format, String acceptEncoding) {
+        boolean csv = format.equalsIgnoreCase("csv");
+        if (!csv && !format.equalsIgnoreCase("ndjson")) {
+            return ResponseEntity.badRequest().build();
+        }
+        boolean gzip = acceptsGzip(acceptEncoding);
+        StreamingResponseBody body = out -> {
+            OutputStream target = gzip ? new GZIPOutputStream(out, BUFFER_SIZE) : out;
+            Writer writer = new BufferedWriter(new OutputStreamWriter(target, StandardCharsets.UTF_8), BUFFER_SIZE);
+            if (csv) {
+                writeCsvLine(writer, (Object[]) CSV_COLUMNS);
+            }
+            exportService.exportHistory(babyId, record -> {
+                try {
+                    if (csv) {
+                        writeCsvLine(writer, csvValues(record));
+                    } else {
+                        writer.write(objectMapper.writeValueAsString(record));
+                        writer.write('\n');
+                    }
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+            writer.flush();
+            if (target instanceof GZIPOutputStream compressed) {
+                compressed.finish();
+            }
+            out.flush();
+        };
+
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .contentType(csv
+                        ? new MediaType("text", "csv", StandardCharsets.UTF_8)
+                        : MediaType.parseMediaType(NdjsonStreamer.APPLICATION_NDJSON_VALUE))
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                        .filename("baby-" + babyId + "-history." + (csv ? "csv" : "ndjson"))
+                        .build().toString())
+                .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        if (gzip) {
+            response.header(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        return response.body(body);
+    }
+
+    private static boolean acceptsGzip(String acceptEncoding) {
+        for (String coding : acceptEncoding.split(",")) {
+            String[] parts = coding.trim().split(";");
+            if (parts[0].trim().equalsIgnoreCase("gzip") || parts[0].trim().equals("*")) {
+                return parts.length == 1 || !parts[1].replace(" ", "").matches("q=0(\\.0*)?");
+            }
+        }
+        return false;
+    }
+
+    private static Object[] csvValues(ExportRecord record) {
+        Object[] values = switch (record.record()) {
+            case FeedingRecordView view -> new Object[] {view.id(), view.feedingType(), view.amountMl(),
+                    view.durationMinutes(), null, null, null, null, null, view.notes(), view.createdAt(),
+                    view.updatedAt()};
+            case CleaningRecordView view -> new Object[] {view.id(), view.cleaningType(), null, null,
+                    view.diaperContent(), null, null, null, null, view.notes(), view.createdAt(), view.updatedAt()};
+            case TemperatureRecordView view -> new Object[] {view.id(), null, null, null, null,
+                    view.temperatureCelsius(), view.measurementLocation(), null, null, view.notes(), view.createdAt(),
+                    view.updatedAt()};
+            case WeightRecordView view -> new Object[] {view.id(), null, null, null, null, null, null,
+                    view.weightGrams(), null, view.notes(), view.createdAt(), view.updatedAt()};
+            case MedicationRecordView view -> new Object[] {view.id(), view.medicationType(), null, null, null, null,
+                    null, null, view.dosage(), view.notes(), view.createdAt(), view.updatedAt()};
+            default -> throw new IllegalArgumentException("Unknown record " + record.record().getClass());
+        };
+        Object[] line = new Object[CSV_COLUMNS.length];
+        line[0] = record.type();
+        line[1] = record.time();
+        System.arraycopy(values, 0, line, 2, values.length);
+        return line;
+    }
+
+    // RFC 4180: fields with separators, quotes or line breaks are quoted, lines end with CRLF. Times are written like
+    // in the JSON responses.
+    private static void writeCsvLine(Writer writer, Object... values) throws IOException {
+        for (int i = 0; i < values.length; i++) {
+            if (i > 0) {
+                writer.write(',');
+            }
+            if (values[i] == null) {
+                continue;
+            }
+            String text = values[i] instanceof LocalDateTime time
+                    ? DateTimeFormatter.ISO_LOCAL_DATE_TIME.format(time) : values[i].toString();
+            if (text.indexOf(',') >= 0 || text.indexOf('"') >= 0 || text.indexOf('\n') >= 0
+                    || text.indexOf('\r') >= 0) {
+                writer.write('"');
+                writer.write(text.replace("\"", "\"\""));
+                writer.write('"');
+            } else {
+                writer.write(text);
+            }
+        }
+        writer.write("\r\n");
+    }
+}
@@ -0,0 +1,258 @@
+package com.flixcare.controller;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.flixcare.dto.ImportResult;
+import com.flixcare.dto.ImportResult.ImportError;
+import com.flixcare.dto.ImportRow;
+import com.flixcare.service.ImportService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Reads an uploaded history as CSV or NDJSON, gzip-compressed when sent with Content-Encoding gzip, and hands it to
+ * the import row by row while the body is still arriving. Both formats are those of the history export: CSV needs a
+ * header naming its columns, NDJSON lines hold the type, the time and the record, or the record fields directly.
+ */
+@Component
+@RequiredArgsConstructor
+class HistoryImporter {
+
+    private static final int BUFFER_SIZE = 16 * 1024;
+    // Record view fields and the CSV columns they correspond to
+    private static final Map<String, String> NDJSON_FIELDS = Map.ofEntries(
+            Map.entry("feedingTime", "time"), Map.entry("cleaningTime", "time"),
+            Map.entry("measurementTime", "time"), Map.entry("medicationTime", "time"),
+            Map.entry("feedingType", "kind"), Map.entry("cleaningType", "kind"), Map.entry("medicationType", "kind"),
+            Map.entry("amountMl", "amount_ml"), Map.entry("durationMinutes", "duration_minutes"),
+            Map.entry("diaperContent", "diaper_content"), Map.entry("temperatureCelsius", "temperature_celsius"),
+            Map.entry("measurementLocation", "measurement_location"), Map.entry("weightGrams", "weight_grams"));
+
+    private final ObjectMapper objectMapper;
+    private final ImportService importService;
+
+    ResponseEntity<ImportResult> importHistory(Long babyId, String format, String contentEncoding, InputStream body)
+            throws IOException {
+        boolean csv = format.equalsIgnoreCase("csv");
+        if (!csv && !format.equalsIgnoreCase("ndjson")) {
+            return ResponseEntity.badRequest().build();
+        }
+        String encoding = contentEncoding.trim();
+        if (!encoding.isEmpty() && !encoding.equalsIgnoreCase("gzip") && !encoding.equalsIgnoreCase("identity")) {
+            return ResponseEntity.status(HttpStatus.UNSUPPORTED_MEDIA_TYPE).build();
+        }
+        InputStream source = encoding.equalsIgnoreCase("gzip") ? new GZIPInputStream(body, BUFFER_SIZE) : body;
+        Reader reader = new BufferedReader(new InputStreamReader(source, StandardCharsets.UTF_8), BUFFER_SIZE);
+
+        RowReader rows;
+        if (csv) {
+            CsvReader csvReader = new CsvReader(reader);
+            List<String> header = csvReader.next();
+            if (header == null || !header.contains("type") || !header.contains("time")) {
+                return ResponseEntity.badRequest().body(new ImportResult(0, 0, Map.of(),
+                        List.of(new ImportError(1, "The header must name at least the type and time columns"))));
+            }
+            rows = () -> csvRow(csvReader, header);
+        } else {
+            rows = ndjsonRows((BufferedReader) reader);
+        }
+        return ResponseEntity.ok(importService.importHistory(babyId, iterate(rows)));
+    }
+
+    private static ImportRow csvRow(CsvReader reader, List<String> header) throws IOException {
+        List<String> fields;
+        do {
+            fields = reader.next();
+        } while (fields != null && fields.size() == 1 && fields.get(0).isBlank());
+        if (fields == null) {
+            return null;
+        }
+        if (fields.size() != header.size()) {
+            return new ImportRow(reader.recordLine, null,
+                    "Expected " + header.size() + " fields but found " + fields.size());
+        }
+        Map<String, String> values = new HashMap<>();
+        for (int i = 0; i < fields.size(); i++) {
+            values.put(header.get(i), fields.get(i));
+        }
+        return new ImportRow(reader.recordLine, values, null);
+    }
+
+    private RowReader ndjsonRows(BufferedReader reader) {
+        long[] line = {0};
+        return () -> {
+            String text;
+            do {
+                text = reader.readLine();
+                line[0]++;
+            } while (text != null && text.isBlank());
+            return text == null ? null : ndjsonRow(line[0], text);
+        };
+    }
+
+    private ImportRow ndjsonRow(long line, String text) {
+        JsonNode node;
+        try {
+            node = objectMapper.readTree(text);
+        } catch (JsonProcessingException e) {
+            return new ImportRow(line, null, "Invalid JSON: " + e.getOriginalMessage());
+        }
+        if (!node.isObject()) {
+            return new ImportRow(line, null, "Expected a JSON object");
+        }
+        Map<String, String> values = new HashMap<>();
+        // Type and time of an export line win over the fields of its record
+        if (node.path("record").isObject()) {
+            addFields(node.get("record"), values);
+        }
+        addFields(node, values);
+        return new ImportRow(line, values, null);
+    }
+
+    private static void addFields(JsonNode node, Map<String, String> values) {
+        node.fields().forEachRemaining(field -> {
+            if (field.getValue().isValueNode() && !field.getValue().isNull()) {
+                values.put(NDJSON_FIELDS.getOrDefault(field.getKey(), field.getKey()), field.getValue().asText());
+            }
+        });
+    }
+
+    // Ends with a row reporting a read error, e.g. a broken gzip stream, as the upload cannot be read past it
+    private static Iterator<ImportRow> iterate(RowReader reader) {
+        return new Iterator<>() {
+            private ImportRow next;
+            private long lastLine;
+            private boolean done;
+
+            @Override
+            public boolean hasNext() {
+                if (next == null && !done) {
+                    try {
+                        next = reader.next();
+                        done = next == null;
+                    } catch (IOException e) {
+                        next = new ImportRow(lastLine + 1, null,
+                                "Could not read the upload: " + e.getMessage() + "; the rest was not imported");
+                        done = true;
+                    }
+                }
+                return next != null;
+            }
+
+            @Override
+            public ImportRow next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                ImportRow row = next;
+                next = null;
+                lastLine = row.line();
+                return row;
+            }
+        };
+    }
+
+    @FunctionalInterface
+    private interface RowReader {
+        // Null at the end of the upload
+        ImportRow next() throws IOException;
+    }
+
+    /**
+     * Reads RFC 4180 records one at a time; quoted fields may contain separators, quotes and line breaks.
+     */
+    private static final class CsvReader {
+
+        private final Reader reader;
+        private long line = 1;
+        // Line the last record started on
+        private long recordLine;
+        private int pushedBack = -2;
+        private boolean header = true;
+
+        CsvReader(Reader reader) {
+            this.reader = reader;
+        }
+
+        List<String> next() throws IOException {
+            recordLine = line;
+            int c = read();
+            if (c == -1) {
+                return null;
+            }
+            if (header && c == '\uFEFF') {
+                c = read();
+            }
+            List<String> fields = new ArrayList<>();
+            StringBuilder field = new StringBuilder();
+            boolean quoted = false;
+            while (true) {
+                if (quoted) {
+                    if (c == -1) {
+                        throw new IOException("quoted field starting on line " + recordLine + " is not closed");
+                    }
+                    if (c == '"') {
+                        c = read();
+                        if (c != '"') {
+                            quoted = false;
+                            continue;
+                        }
+                    }
+                    field.append((char) c);
+                } else if (c == '"' && field.isEmpty()) {
+                    quoted = true;
+                } else if (c == ',') {
+                    fields.add(field.toString());
+                    field.setLength(0);
+                } else if (c == '\r' || c == '\n' || c == -1) {
+                    if (c == '\r') {
+                        int following = read();
+                        if (following != '\n') {
+                            pushedBack = following;
+                        }
+                    }
+                    fields.add(field.toString());
+                    if (header) {
+                        header = false;
+                        fields.replaceAll(name -> name.trim().toLowerCase(Locale.ROOT));
+                    }
+                    return fields;
+                } else {
+                    field.append((char) c);
+                }
+                c = read();
+            }
+        }
+
+        private int read() throws IOException {
+            if (pushedBack != -2) {
+                int c = pushedBack;
+                pushedBack = -2;
+                return c;
+            }
+            int c = reader.read();
+            if (c == '\n') {
+                line++;
+            }
+            return c;
+        }
+    }
+}
@@ -0,0 +1,35 @@
+package com.flixcare.controller;
+
+import com.flixcare.dto.HouseholdDTO;
+import com.flixcare.dto.UserAccountDTO;
+import com.flixcare.service.HouseholdService;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api/households")
+@RequiredArgsConstructor
+@CrossOrigin(origins = "*")
+public class HouseholdController {
+
+    private final HouseholdService householdService;
+
+    // Administrators only: a new family with its first user
+    @PostMapping
+    public ResponseEntity<HouseholdDTO> createHousehold(@Valid @RequestBody HouseholdDTO householdDTO) {
+        return ResponseEntity.status(HttpStatus.CREATED).body(householdService.createHousehold(householdDTO));
+    }
+
+    @GetMapping("/current")
+    public ResponseEntity<HouseholdDTO> getCurrentHousehold() {
+        return ResponseEntity.ok(householdService.getCurrentHousehold());
+    }
+
+    @PostMapping("/current/users")
+    public ResponseEntity<UserAccountDTO> addUser(@Valid @RequestBody UserAccountDTO userAccountDTO) {
+        return ResponseEntity.status(HttpStatus.CREATED).body(householdService.addUserToCurrentHousehold(userAccountDTO));
+    }
+}
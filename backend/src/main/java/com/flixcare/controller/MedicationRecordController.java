@@ -1,47 +1,99 @@
 package com.flixcare.controller;
 
 import com.flixcare.dto.MedicationRecordDTO;
+import com.flixcare.dto.MedicationRecordView;
 import com.flixcare.service.MedicationRecordService;
+import com.flixcare.service.RecordVersions;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.Size;
 import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 @RestController
+@Validated
 @RequestMapping("/api/medication-records")
 @RequiredArgsConstructor
 @CrossOrigin(origins = "*")
 public class MedicationRecordController {
 
     private final MedicationRecordService medicationRecordService;
+    private final NdjsonStreamer ndjsonStreamer;
+    private final RecordVersions recordVersions;
 
     @GetMapping
-    public ResponseEntity<List<MedicationRecordDTO>> getAllMedicationRecords() {
-        return ResponseEntity.ok(medicationRecordService.getAllMedicationRecords());
+    public ResponseEntity<List<MedicationRecordView>> getAllMedicationRecords(
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime before,
+            @RequestParam(required = false) Long beforeId,
+            WebRequest request) {
+        if (request.checkNotModified(recordVersions.etag())) {
+            return null;
+        }
+        if (!CursorPagination.isRequested(limit, before)) {
+            return ResponseEntity.ok(medicationRecordService.getAllMedicationRecords());
+        }
+        int pageSize = CursorPagination.limit(limit);
+        return CursorPagination.page(medicationRecordService.getAllMedicationRecords(before, beforeId, pageSize),
+                pageSize, MedicationRecordView::medicationTime, MedicationRecordView::id);
     }
 
     @GetMapping("/baby/{babyId}")
-    public ResponseEntity<List<MedicationRecordDTO>> getMedicationRecordsByBaby(@PathVariable Long babyId) {
-        return ResponseEntity.ok(medicationRecordService.getMedicationRecordsByBabyId(babyId));
+    public ResponseEntity<List<MedicationRecordView>> getMedicationRecordsByBaby(
+            @PathVariable Long babyId,
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime before,
+            @RequestParam(required = false) Long beforeId,
+            WebRequest request) {
+        if (request.checkNotModified(recordVersions.etag())) {
+            return null;
+        }
+        if (!CursorPagination.isRequested(limit, before)) {
+            return ResponseEntity.ok(medicationRecordService.getMedicationRecordsByBabyId(babyId));
+        }
+        int pageSize = CursorPagination.limit(limit);
+        return CursorPagination.page(medicationRecordService.getMedicationRecordsByBabyId(babyId, before, beforeId, pageSize),
+                pageSize, MedicationRecordView::medicationTime, MedicationRecordView::id);
+    }
+
+    @GetMapping(value = "/baby/{babyId}/stream", produces = NdjsonStreamer.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamMedicationRecordsByBaby(@PathVariable Long babyId, WebRequest request) {
+        if (request.checkNotModified(recordVersions.etag())) {
+            return null;
+        }
+        return ndjsonStreamer.<MedicationRecordView>stream(
+                consumer -> medicationRecordService.streamMedicationRecordsByBaby(babyId, consumer));
     }
 
     @GetMapping("/{id}")
-    public ResponseEntity<MedicationRecordDTO> getMedicationRecordById(@PathVariable Long id) {
+    public ResponseEntity<MedicationRecordView> getMedicationRecordById(@PathVariable Long id) {
         return ResponseEntity.ok(medicationRecordService.getMedicationRecordById(id));
     }
 
     @PostMapping
-    public ResponseEntity<MedicationRecordDTO> createMedicationRecord(@RequestBody MedicationRecordDTO dto) {
+    public ResponseEntity<MedicationRecordDTO> createMedicationRecord(@Valid @RequestBody MedicationRecordDTO dto) {
         return ResponseEntity.status(HttpStatus.CREATED)
                 .body(medicationRecordService.createMedicationRecord(dto));
     }
 
+    @PostMapping("/batch")
+    public ResponseEntity<List<Long>> createMedicationRecords(
+            @RequestBody @Size(max = BatchRequests.MAX_SIZE) List<@Valid MedicationRecordDTO> dtos) {
+        return ResponseEntity.status(HttpStatus.CREATED).body(medicationRecordService.createMedicationRecords(dtos));
+    }
+
     @PutMapping("/{id}")
     public ResponseEntity<MedicationRecordDTO> updateMedicationRecord(
             @PathVariable Long id,
-            @RequestBody MedicationRecordDTO dto) {
+            @Valid @RequestBody MedicationRecordDTO dto) {
         return ResponseEntity.ok(medicationRecordService.updateMedicationRecord(id, dto));
     }
 
@@ -0,0 +1,55 @@
+package com.flixcare.controller;
+
+import com.flixcare.dto.DailyStatsView;
+import com.flixcare.dto.RecordArchiveStats;
+import com.flixcare.dto.RecordCacheStats;
+import com.flixcare.service.ArchiveService;
+import com.flixcare.service.DailyStatsService;
+import com.flixcare.service.RecordCache;
+import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/stats")
+@RequiredArgsConstructor
+@CrossOrigin(origins = "*")
+public class StatsController {
+
+    private final DailyStatsService dailyStatsService;
+    private final RecordCache recordCache;
+    private final ArchiveService archiveService;
+
+    @GetMapping("/daily")
+    public ResponseEntity<List<DailyStatsView>> getDailyStats(
+            @RequestParam Long babyId,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        return ResponseEntity.ok(dailyStatsService.getDailyStats(babyId, from, to));
+    }
+
+    @PostMapping("/daily/rebuild")
+    public ResponseEntity<Map<String, Integer>> rebuild(@RequestParam Long babyId) {
+        return ResponseEntity.ok(Map.of("days", dailyStatsService.rebuild(babyId)));
+    }
+
+    @GetMapping("/cache")
+    public ResponseEntity<RecordCacheStats> getCacheStats() {
+        return ResponseEntity.ok(recordCache.getStats());
+    }
+
+    @GetMapping("/archive")
+    public ResponseEntity<RecordArchiveStats> getArchiveStats() {
+        return ResponseEntity.ok(archiveService.getStats());
+    }
+
+    @PostMapping("/archive/run")
+    public ResponseEntity<Map<String, Integer>> archiveOldRecords() {
+        return ResponseEntity.ok(Map.of("records", archiveService.archiveOldRecords()));
+    }
+}
@@ -0,0 +1,21 @@
+package com.flixcare.controller;
+
+import com.flixcare.dto.SyncDTO;
+import com.flixcare.service.SyncService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api/sync")
+@RequiredArgsConstructor
+@CrossOrigin(origins = "*")
+public class SyncController {
+
+    private final SyncService syncService;
+
+    @GetMapping
+    public ResponseEntity<SyncDTO> getChanges(@RequestParam(defaultValue = "0") long since) {
+        return ResponseEntity.ok(syncService.getChangesSince(since));
+    }
+}
@@ -1,45 +1,92 @@
 package com.flixcare.controller;
 
 import com.flixcare.dto.TemperatureRecordDTO;
+import com.flixcare.dto.TemperatureRecordView;
+import com.flixcare.service.RecordVersions;
 import com.flixcare.service.TemperatureRecordService;
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.Size;
 import lombok.RequiredArgsConstructor;
 import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.time.LocalDateTime;
 import java.util.List;
 
 @RestController
+@Validated
 @RequestMapping("/api/temperature-records")
 @RequiredArgsConstructor
 @CrossOrigin(origins = "*")
 public class TemperatureRecordController {
 
     private final TemperatureRecordService temperatureRecordService;
+    private final NdjsonStreamer ndjsonStreamer;
+    private final RecordVersions recordVersions;
 
     @GetMapping
-    public ResponseEntity<List<TemperatureRecordDTO>> getAllTemperatureRecords() {
-        return ResponseEntity.ok(temperatureRecordService.getAllTemperatureRecords());
+    public ResponseEntity<List<TemperatureRecordView>> getAllTemperatureRecords(
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime before,
+            @RequestParam(required = false) Long beforeId,
+            WebRequest request) {
+        if (request.checkNotModified(recordVersions.etag())) {
+            return null;
+        }
+        if (!CursorPagination.isRequested(limit, before)) {
+            return ResponseEntity.ok(temperatureRecordService.getAllTemperatureRecords());
+        }
+        int pageSize = CursorPagination.limit(limit);
+        return CursorPagination.page(temperatureRecordService.getAllTemperatureRecords(before, beforeId, pageSize),
+                pageSize, TemperatureRecordView::measurementTime, TemperatureRecordView::id);
     }
 
     @GetMapping("/baby/{babyId}")
-    public ResponseEntity<List<TemperatureRecordDTO>> getTemperatureRecordsByBaby(@PathVariable Long babyId) {
-        return ResponseEntity.ok(temperatureRecordService.getTemperatureRecordsByBaby(babyId));
+    public ResponseEntity<List<TemperatureRecordView>> getTemperatureRecordsByBaby(
+            @PathVariable Long babyId,
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime before,
+            @RequestParam(required = false) Long beforeId,
+            WebRequest request) {
+        if (request.checkNotModified(recordVersions.etag())) {
+            return null;
+        }
+        if (!CursorPagination.isRequested(limit, before)) {
+            return ResponseEntity.ok(temperatureRecordService.getTemperatureRecordsByBaby(babyId));
+        }
+        int pageSize = CursorPagination.limit(limit);
+        return CursorPagination.page(temperatureRecordService.getTemperatureRecordsByBaby(babyId, before, beforeId, pageSize),
+                pageSize, TemperatureRecordView::measurementTime, TemperatureRecordView::id);
+    }
+
+    @GetMapping(value = "/baby/{babyId}/stream", produces = NdjsonStreamer.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamTemperatureRecordsByBaby(@PathVariable Long babyId, WebRequest request) {
+        if (request.checkNotModified(recordVersions.etag())) {
+            return null;
+        }
+        return ndjsonStreamer.<TemperatureRecordView>stream(
+                consumer -> temperatureRecordService.streamTemperatureRecordsByBaby(babyId, consumer));
     }
 
     @GetMapping("/baby/{babyId}/range")
-    public ResponseEntity<List<TemperatureRecordDTO>> getTemperatureRecordsByBabyAndDateRange(
+    public ResponseEntity<List<TemperatureRecordView>> getTemperatureRecordsByBabyAndDateRange(
             @PathVariable Long babyId,
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime start,
-            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime end) {
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime end,
+            WebRequest request) {
+        if (request.checkNotModified(recordVersions.etag())) {
+            return null;
+        }
         return ResponseEntity.ok(temperatureRecordService.getTemperatureRecordsByBabyAndDateRange(babyId, start, end));
     }
 
     @GetMapping("/{id}")
-    public ResponseEntity<TemperatureRecordDTO> getTemperatureRecordById(@PathVariable Long id) {
+    public ResponseEntity<TemperatureRecordView> getTemperatureRecordById(@PathVariable Long id) {
         return ResponseEntity.ok(temperatureRecordService.getTemperatureRecordById(id));
     }
 
@@ -48,6 +95,12 @@ public class TemperatureRecordController {
         return ResponseEntity.status(HttpStatus.CREATED).body(temperatureRecordService.createTemperatureRecord(dto));
     }
 
+    @PostMapping("/batch")
+    public ResponseEntity<List<Long>> createTemperatureRecords(
+            @RequestBody @Size(max = BatchRequests.MAX_SIZE) List<@Valid TemperatureRecordDTO> dtos) {
+        return ResponseEntity.status(HttpStatus.CREATED).body(temperatureRecordService.createTemperatureRecords(dtos));
+    }
+
     @PutMapping("/{id}")
     public ResponseEntity<TemperatureRecordDTO> updateTemperatureRecord(@PathVariable Long id, @Valid @RequestBody TemperatureRecordDTO dto) {
         return ResponseEntity.ok(temperatureRecordService.updateTemperatureRecord(id, dto));
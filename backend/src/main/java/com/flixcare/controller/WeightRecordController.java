@@ -1,47 +1,99 @@
 package com.flixcare.controller;
 
 import com.flixcare.dto.WeightRecordDTO;
+import com.flixcare.dto.WeightRecordView;
+import com.flixcare.service.RecordVersions;
 import com.flixcare.service.WeightRecordService;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.Size;
 import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 @RestController
+@Validated
 @RequestMapping("/api/weight-records")
 @RequiredArgsConstructor
 @CrossOrigin(origins = "*")
 public class WeightRecordController {
 
     private final WeightRecordService weightRecordService;
+    private final NdjsonStreamer ndjsonStreamer;
+    private final RecordVersions recordVersions;
 
     @GetMapping
-    public ResponseEntity<List<WeightRecordDTO>> getAllWeightRecords() {
-        return ResponseEntity.ok(weightRecordService.getAllWeightRecords());
+    public ResponseEntity<List<WeightRecordView>> getAllWeightRecords(
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime before,
+            @RequestParam(required = false) Long beforeId,
+            WebRequest request) {
+        if (request.checkNotModified(recordVersions.etag())) {
+            return null;
+        }
+        if (!CursorPagination.isRequested(limit, before)) {
+            return ResponseEntity.ok(weightRecordService.getAllWeightRecords());
+        }
+        int pageSize = CursorPagination.limit(limit);
+        return CursorPagination.page(weightRecordService.getAllWeightRecords(before, beforeId, pageSize),
+                pageSize, WeightRecordView::measurementTime, WeightRecordView::id);
     }
 
     @GetMapping("/baby/{babyId}")
-    public ResponseEntity<List<WeightRecordDTO>> getWeightRecordsByBabyId(@PathVariable Long babyId) {
-        return ResponseEntity.ok(weightRecordService.getWeightRecordsByBabyId(babyId));
+    public ResponseEntity<List<WeightRecordView>> getWeightRecordsByBabyId(
+            @PathVariable Long babyId,
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime before,
+            @RequestParam(required = false) Long beforeId,
+            WebRequest request) {
+        if (request.checkNotModified(recordVersions.etag())) {
+            return null;
+        }
+        if (!CursorPagination.isRequested(limit, before)) {
+            return ResponseEntity.ok(weightRecordService.getWeightRecordsByBabyId(babyId));
+        }
+        int pageSize = CursorPagination.limit(limit);
+        return CursorPagination.page(weightRecordService.getWeightRecordsByBabyId(babyId, before, beforeId, pageSize),
+                pageSize, WeightRecordView::measurementTime, WeightRecordView::id);
+    }
+
+    @GetMapping(value = "/baby/{babyId}/stream", produces = NdjsonStreamer.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamWeightRecordsByBaby(@PathVariable Long babyId, WebRequest request) {
+        if (request.checkNotModified(recordVersions.etag())) {
+            return null;
+        }
+        return ndjsonStreamer.<WeightRecordView>stream(
+                consumer -> weightRecordService.streamWeightRecordsByBaby(babyId, consumer));
     }
 
     @GetMapping("/{id}")
-    public ResponseEntity<WeightRecordDTO> getWeightRecordById(@PathVariable Long id) {
+    public ResponseEntity<WeightRecordView> getWeightRecordById(@PathVariable Long id) {
         return ResponseEntity.ok(weightRecordService.getWeightRecordById(id));
     }
 
     @PostMapping
-    public ResponseEntity<WeightRecordDTO> createWeightRecord(@RequestBody WeightRecordDTO dto) {
+    public ResponseEntity<WeightRecordDTO> createWeightRecord(@Valid @RequestBody WeightRecordDTO dto) {
         return ResponseEntity.status(HttpStatus.CREATED)
                 .body(weightRecordService.createWeightRecord(dto));
     }
 
+    @PostMapping("/batch")
+    public ResponseEntity<List<Long>> createWeightRecords(
+            @RequestBody @Size(max = BatchRequests.MAX_SIZE) List<@Valid WeightRecordDTO> dtos) {
+        return ResponseEntity.status(HttpStatus.CREATED).body(weightRecordService.createWeightRecords(dtos));
+    }
+
     @PutMapping("/{id}")
     public ResponseEntity<WeightRecordDTO> updateWeightRecord(
             @PathVariable Long id,
-            @RequestBody WeightRecordDTO dto) {
+            @Valid @RequestBody WeightRecordDTO dto) {
         return ResponseEntity.ok(weightRecordService.updateWeightRecord(id, dto));
     }
 
@@ -0,0 +1,14 @@
+package com.flixcare.dto;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+public record BabyView(
+        Long id,
+        String name,
+        LocalDate birthDate,
+        String gender,
+        String notes,
+        LocalDateTime createdAt,
+        LocalDateTime updatedAt) {
+}
@@ -1,5 +1,7 @@
 package com.flixcare.dto;
 
+import com.flixcare.entity.CleaningRecord;
+import jakarta.validation.constraints.NotNull;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
@@ -11,10 +13,15 @@ import java.time.LocalDateTime;
 @AllArgsConstructor
 public class CleaningRecordDTO {
     private Long id;
+    @NotNull
     private Long babyId;
     private String babyName;
+    @NotNull
     private LocalDateTime cleaningTime;
+    @NotNull
+    @EnumValue(CleaningRecord.CleaningType.class)
     private String cleaningType;
+    @EnumValue(CleaningRecord.DiaperContent.class)
     private String diaperContent;
     private String notes;
     private LocalDateTime createdAt;
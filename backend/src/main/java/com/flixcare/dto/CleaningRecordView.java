@@ -0,0 +1,17 @@
+package com.flixcare.dto;
+
+import com.flixcare.entity.CleaningRecord;
+
+import java.time.LocalDateTime;
+
+public record CleaningRecordView(
+        Long id,
+        Long babyId,
+        String babyName,
+        LocalDateTime cleaningTime,
+        CleaningRecord.CleaningType cleaningType,
+        CleaningRecord.DiaperContent diaperContent,
+        String notes,
+        LocalDateTime createdAt,
+        LocalDateTime updatedAt) {
+}
@@ -0,0 +1,13 @@
+package com.flixcare.dto;
+
+import java.time.LocalDate;
+
+public record DailyStatsView(
+        LocalDate date,
+        int feedingCount,
+        double feedingAmountMl,
+        int diaperChanges,
+        int wetDiapers,
+        int dirtyDiapers,
+        Integer weightGrams) {
+}
@@ -0,0 +1,48 @@
+package com.flixcare.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class DashboardDTO {
+    private Long babyId;
+    private String babyName;
+    private LocalDate birthDate;
+    private LocalDateTime lastFeedingTime;
+    private LocalDateTime lastTemperatureTime;
+    private Double lastTemperatureCelsius;
+    private LocalDateTime lastDiaperChangeTime;
+    private LocalDateTime lastBathTime;
+    private LocalDateTime lastSpongeBathTime;
+    private LocalDateTime lastVitaminDTime;
+    private LocalDateTime lastEyeCleaningTime;
+    private long todayFeedings;
+    private long todayDiaperChanges;
+    private List<WeightPoint> weightSeries = new ArrayList<>();
+    private List<DiaperDay> diaperSeries = new ArrayList<>();
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class WeightPoint {
+        private LocalDateTime measurementTime;
+        private Integer weightGrams;
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class DiaperDay {
+        private LocalDate date;
+        private int wet;
+        private int dirty;
+    }
+}
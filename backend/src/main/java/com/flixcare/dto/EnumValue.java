@@ -0,0 +1,50 @@
+package com.flixcare.dto;
+
+import jakarta.validation.Constraint;
+import jakarta.validation.ConstraintValidator;
+import jakarta.validation.ConstraintValidatorContext;
+import jakarta.validation.Payload;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+import java.util.Arrays;
+
+/**
+ * A string field that must name a constant of the given enum; {@code null} is valid.
+ */
+@Target(ElementType.FIELD)
+@Retention(RetentionPolicy.RUNTIME)
+@Constraint(validatedBy = EnumValue.Validator.class)
+public @interface EnumValue {
+
+    Class<? extends Enum<?>> value();
+
+    String message() default "must name a constant of the enum";
+
+    Class<?>[] groups() default {};
+
+    Class<? extends Payload>[] payload() default {};
+
+    class Validator implements ConstraintValidator<EnumValue, String> {
+
+        private Enum<?>[] constants;
+
+        @Override
+        public void initialize(EnumValue annotation) {
+            constants = annotation.value().getEnumConstants();
+        }
+
+        @Override
+        public boolean isValid(String value, ConstraintValidatorContext context) {
+            if (value == null || Arrays.stream(constants).anyMatch(constant -> constant.name().equals(value))) {
+                return true;
+            }
+            context.disableDefaultConstraintViolation();
+            context.buildConstraintViolationWithTemplate("must be one of " + Arrays.toString(constants))
+                    .addConstraintViolation();
+            return false;
+        }
+    }
+}
@@ -0,0 +1,12 @@
+package com.flixcare.dto;
+
+import com.flixcare.service.RecordVersions.RecordType;
+
+import java.time.LocalDateTime;
+
+// One line of a history export or one timeline entry: the record view of the given type
+public record ExportRecord(
+        RecordType type,
+        LocalDateTime time,
+        Object record) {
+}
@@ -1,5 +1,7 @@
 package com.flixcare.dto;
 
+import com.flixcare.entity.FeedingRecord;
+import jakarta.validation.constraints.NotNull;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
@@ -11,9 +13,13 @@ import java.time.LocalDateTime;
 @AllArgsConstructor
 public class FeedingRecordDTO {
     private Long id;
+    @NotNull
     private Long babyId;
     private String babyName;
+    @NotNull
     private LocalDateTime feedingTime;
+    @NotNull
+    @EnumValue(FeedingRecord.FeedingType.class)
     private String feedingType;
     private Double amountMl;
     private Integer durationMinutes;
@@ -0,0 +1,18 @@
+package com.flixcare.dto;
+
+import com.flixcare.entity.FeedingRecord;
+
+import java.time.LocalDateTime;
+
+public record FeedingRecordView(
+        Long id,
+        Long babyId,
+        String babyName,
+        LocalDateTime feedingTime,
+        FeedingRecord.FeedingType feedingType,
+        Double amountMl,
+        Integer durationMinutes,
+        String notes,
+        LocalDateTime createdAt,
+        LocalDateTime updatedAt) {
+}
@@ -0,0 +1,28 @@
+package com.flixcare.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+// A household together with its first user
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class HouseholdDTO {
+    private Long id;
+    @NotBlank(message = "Household name is required")
+    private String name;
+    @NotBlank(message = "Username is required")
+    @Size(max = 100, message = "Username must not be longer than 100 characters")
+    private String username;
+    @JsonProperty(access = JsonProperty.Access.WRITE_ONLY)
+    @NotBlank(message = "Password is required")
+    @Size(min = 8, max = 72, message = "Password must have 8 to 72 characters")
+    private String password;
+    private LocalDateTime createdAt;
+}
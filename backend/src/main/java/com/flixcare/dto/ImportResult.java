@@ -0,0 +1,17 @@
+package com.flixcare.dto;
+
+import com.flixcare.service.RecordVersions.RecordType;
+
+import java.util.List;
+import java.util.Map;
+
+// Outcome of a history import; errors holds the first rejected rows, rejected counts all of them
+public record ImportResult(
+        long imported,
+        long rejected,
+        Map<RecordType, Long> importedByType,
+        List<ImportError> errors) {
+
+    public record ImportError(long line, String message) {
+    }
+}
@@ -0,0 +1,10 @@
+package com.flixcare.dto;
+
+import java.util.Map;
+
+// One row of an uploaded history: the line it starts on, its values by CSV column name, or why it could not be read
+public record ImportRow(
+        long line,
+        Map<String, String> values,
+        String error) {
+}
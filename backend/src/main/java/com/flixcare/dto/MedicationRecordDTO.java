@@ -1,6 +1,7 @@
 package com.flixcare.dto;
 
 import com.flixcare.entity.MedicationType;
+import jakarta.validation.constraints.NotNull;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
@@ -11,9 +12,12 @@ import java.time.LocalDateTime;
 @AllArgsConstructor
 public class MedicationRecordDTO {
     private Long id;
+    @NotNull
     private Long babyId;
     private String babyName;
+    @NotNull
     private LocalDateTime medicationTime;
+    @NotNull
     private MedicationType medicationType;
     private String dosage;
     private String notes;
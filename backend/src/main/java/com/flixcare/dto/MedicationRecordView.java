@@ -0,0 +1,17 @@
+package com.flixcare.dto;
+
+import com.flixcare.entity.MedicationType;
+
+import java.time.LocalDateTime;
+
+public record MedicationRecordView(
+        Long id,
+        Long babyId,
+        String babyName,
+        LocalDateTime medicationTime,
+        MedicationType medicationType,
+        String dosage,
+        String notes,
+        LocalDateTime createdAt,
+        LocalDateTime updatedAt) {
+}
@@ -0,0 +1,12 @@
+package com.flixcare.dto;
+
+import java.time.LocalDateTime;
+
+// An archive row without its document
+public record RecordArchiveHeader(
+        Long id,
+        Long babyId,
+        int recordCount,
+        long maxChangeVersion,
+        LocalDateTime archivedAt) {
+}
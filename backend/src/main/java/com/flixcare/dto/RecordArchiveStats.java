@@ -0,0 +1,7 @@
+package com.flixcare.dto;
+
+public record RecordArchiveStats(
+        long months,
+        long records,
+        long compressedBytes) {
+}
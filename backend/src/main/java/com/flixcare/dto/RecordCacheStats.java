@@ -0,0 +1,9 @@
+package com.flixcare.dto;
+
+public record RecordCacheStats(
+        long entries,
+        long hits,
+        long misses,
+        double hitRate,
+        long evictions) {
+}
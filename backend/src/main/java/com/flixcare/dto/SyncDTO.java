@@ -0,0 +1,25 @@
+package com.flixcare.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SyncDTO {
+    private long watermark;
+    private List<BabyView> babies = new ArrayList<>();
+    private List<FeedingRecordView> feedingRecords = new ArrayList<>();
+    private List<CleaningRecordView> cleaningRecords = new ArrayList<>();
+    private List<TemperatureRecordView> temperatureRecords = new ArrayList<>();
+    private List<WeightRecordView> weightRecords = new ArrayList<>();
+    private List<MedicationRecordView> medicationRecords = new ArrayList<>();
+    private Map<String, List<Long>> deleted = new LinkedHashMap<>();
+    private List<Long> deletedBabies = new ArrayList<>();
+}
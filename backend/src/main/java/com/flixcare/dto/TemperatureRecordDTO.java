@@ -1,5 +1,7 @@
 package com.flixcare.dto;
 
+import com.flixcare.entity.TemperatureRecord;
+import jakarta.validation.constraints.NotNull;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
@@ -11,10 +13,14 @@ import java.time.LocalDateTime;
 @AllArgsConstructor
 public class TemperatureRecordDTO {
     private Long id;
+    @NotNull
     private Long babyId;
     private String babyName;
+    @NotNull
     private LocalDateTime measurementTime;
+    @NotNull
     private Double temperatureCelsius;
+    @EnumValue(TemperatureRecord.MeasurementLocation.class)
     private String measurementLocation;
     private String notes;
     private LocalDateTime createdAt;
@@ -0,0 +1,17 @@
+package com.flixcare.dto;
+
+import com.flixcare.entity.TemperatureRecord;
+
+import java.time.LocalDateTime;
+
+public record TemperatureRecordView(
+        Long id,
+        Long babyId,
+        String babyName,
+        LocalDateTime measurementTime,
+        Double temperatureCelsius,
+        TemperatureRecord.MeasurementLocation measurementLocation,
+        String notes,
+        LocalDateTime createdAt,
+        LocalDateTime updatedAt) {
+}
@@ -1,8 +1,10 @@
 package com.flixcare.dto;
 
+import jakarta.validation.constraints.NotNull;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+
 import java.time.LocalDateTime;
 
 @Data
@@ -10,9 +12,12 @@ import java.time.LocalDateTime;
 @AllArgsConstructor
 public class WeightRecordDTO {
     private Long id;
+    @NotNull
     private Long babyId;
     private String babyName;
+    @NotNull
     private LocalDateTime measurementTime;
+    @NotNull
     private Integer weightGrams;
     private String notes;
     private LocalDateTime createdAt;
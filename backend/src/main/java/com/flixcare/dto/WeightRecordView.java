@@ -0,0 +1,14 @@
+package com.flixcare.dto;
+
+import java.time.LocalDateTime;
+
+public record WeightRecordView(
+        Long id,
+        Long babyId,
+        String babyName,
+        LocalDateTime measurementTime,
+        Integer weightGrams,
+        String notes,
+        LocalDateTime createdAt,
+        LocalDateTime updatedAt) {
+}
@@ -24,6 +24,9 @@ public class Baby {
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
+    @Column(name = "household_id", nullable = false, updatable = false)
+    private Long householdId;
+
     @NotBlank(message = "Baby name is required")
     @Column(nullable = false)
     private String name;
@@ -36,6 +39,10 @@ public class Baby {
     @Column(length = 1000)
     private String notes;
 
+    // Change version of the last create or update, for delta sync
+    @Column(name = "change_version", nullable = false)
+    private long changeVersion;
+
     @CreatedDate
     @Column(name = "created_at", nullable = false, updatable = false)
     private LocalDateTime createdAt;
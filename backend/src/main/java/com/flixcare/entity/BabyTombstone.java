@@ -0,0 +1,30 @@
+package com.flixcare.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+// Left behind by a deleted baby, whose records are deleted with it, so that delta sync clients drop them as well
+@Entity
+@Table(name = "baby_tombstones")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BabyTombstone {
+
+    @Id
+    @Column(name = "baby_id")
+    private Long babyId;
+
+    @Column(name = "household_id", nullable = false)
+    private Long householdId;
+
+    @Column(name = "change_version", nullable = false)
+    private long changeVersion;
+
+    @Column(name = "deleted_at", nullable = false)
+    private LocalDateTime deletedAt;
+}
@@ -0,0 +1,46 @@
+package com.flixcare.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+@Entity
+@Table(name = "daily_baby_stats",
+        uniqueConstraints = @UniqueConstraint(name = "uq_daily_stats_baby_date", columnNames = {"baby_id", "stat_date"}))
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class DailyBabyStats {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "baby_id", nullable = false)
+    private Long babyId;
+
+    @Column(name = "stat_date", nullable = false)
+    private LocalDate statDate;
+
+    @Column(name = "feeding_count", nullable = false)
+    private int feedingCount;
+
+    @Column(name = "feeding_amount_ml", nullable = false)
+    private double feedingAmountMl;
+
+    @Column(name = "diaper_changes", nullable = false)
+    private int diaperChanges;
+
+    @Column(name = "wet_diapers", nullable = false)
+    private int wetDiapers;
+
+    @Column(name = "dirty_diapers", nullable = false)
+    private int dirtyDiapers;
+
+    // Last weight measured on that day
+    @Column(name = "weight_grams")
+    private Integer weightGrams;
+}
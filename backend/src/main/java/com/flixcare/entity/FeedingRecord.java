@@ -4,6 +4,7 @@ import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.SQLRestriction;
 import org.springframework.data.annotation.CreatedDate;
 import org.springframework.data.annotation.LastModifiedDate;
 import org.springframework.data.jpa.domain.support.AuditingEntityListener;
@@ -15,17 +16,23 @@ import java.time.LocalDateTime;
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
+@SQLRestriction("deleted = false")
 @EntityListeners(AuditingEntityListener.class)
 public class FeedingRecord {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "feeding_records_seq")
+    @SequenceGenerator(name = "feeding_records_seq", sequenceName = "feeding_records_id_seq", allocationSize = 50)
     private Long id;
 
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "baby_id", nullable = false)
     private Baby baby;
 
+    // Copied from the baby, so that household-wide queries do not need to join babies
+    @Column(name = "household_id", nullable = false)
+    private Long householdId;
+
     @Column(name = "feeding_time", nullable = false)
     private LocalDateTime feedingTime;
 
@@ -42,6 +49,12 @@ public class FeedingRecord {
     @Column(length = 500)
     private String notes;
 
+    @Column(name = "change_version", nullable = false)
+    private long changeVersion;
+
+    @Column(nullable = false)
+    private boolean deleted;
+
     @CreatedDate
     @Column(name = "created_at", nullable = false, updatable = false)
     private LocalDateTime createdAt;
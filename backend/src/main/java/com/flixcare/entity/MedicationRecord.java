@@ -4,6 +4,7 @@ import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.SQLRestriction;
 import java.time.LocalDateTime;
 
 @Entity
@@ -11,16 +12,22 @@ import java.time.LocalDateTime;
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
+@SQLRestriction("deleted = false")
 public class MedicationRecord {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "medication_records_seq")
+    @SequenceGenerator(name = "medication_records_seq", sequenceName = "medication_records_id_seq", allocationSize = 50)
     private Long id;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "baby_id", nullable = false)
     private Baby baby;
 
+    // Copied from the baby, so that household-wide queries do not need to join babies
+    @Column(name = "household_id", nullable = false)
+    private Long householdId;
+
     @Column(name = "medication_time", nullable = false)
     private LocalDateTime medicationTime;
 
@@ -34,6 +41,12 @@ public class MedicationRecord {
     @Column(name = "notes", length = 500)
     private String notes;
 
+    @Column(name = "change_version", nullable = false)
+    private long changeVersion;
+
+    @Column(nullable = false)
+    private boolean deleted;
+
     @Column(name = "created_at", nullable = false, updatable = false)
     private LocalDateTime createdAt;
 
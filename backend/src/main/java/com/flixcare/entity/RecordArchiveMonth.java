@@ -0,0 +1,68 @@
+package com.flixcare.entity;
+
+import com.flixcare.service.RecordVersions.RecordType;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+// One baby's records of one type and month, moved out of the record table by the archival job
+@Entity
+@Table(name = "record_archive",
+        uniqueConstraints = @UniqueConstraint(name = "uq_record_archive_month",
+                columnNames = {"baby_id", "record_type", "archive_month"}))
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RecordArchiveMonth {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "baby_id", nullable = false)
+    private Long babyId;
+
+    @Column(name = "household_id", nullable = false)
+    private Long householdId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "record_type", nullable = false, length = 20)
+    private RecordType recordType;
+
+    // First day of the month
+    @Column(name = "archive_month", nullable = false)
+    private LocalDate archiveMonth;
+
+    @Column(name = "record_count", nullable = false)
+    private int recordCount;
+
+    // Highest change version among the records, so that delta sync can skip months it has already sent
+    @Column(name = "max_change_version", nullable = false)
+    private long maxChangeVersion;
+
+    // Lowest and highest record id, so that a lookup by id only decodes the documents that may hold it
+    @Column(name = "min_record_id", nullable = false)
+    private long minRecordId;
+
+    @Column(name = "max_record_id", nullable = false)
+    private long maxRecordId;
+
+    // JSON object with the newest record time per cleaning or medication type, so that the dashboard finds the last
+    // time of a kind without decoding documents
+    @Column(name = "latest_times", nullable = false, length = 1000)
+    private String latestTimes;
+
+    @Column(name = "compressed_bytes", nullable = false)
+    private int compressedBytes;
+
+    // Gzip-compressed JSON object with one array per record field
+    @Column(name = "data", nullable = false, length = 64 * 1024 * 1024)
+    private byte[] data;
+
+    @Column(name = "archived_at", nullable = false)
+    private LocalDateTime archivedAt;
+}
@@ -0,0 +1,22 @@
+package com.flixcare.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// Change watermark of one household's delta sync; its row lock orders the household's writers
+@Entity
+@Table(name = "sync_state")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SyncState {
+
+    @Id
+    @Column(name = "household_id")
+    private Long householdId;
+
+    @Column(name = "change_version", nullable = false)
+    private long changeVersion;
+}
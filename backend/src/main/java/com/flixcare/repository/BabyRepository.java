@@ -1,12 +1,38 @@
 package com.flixcare.repository;
 
+import com.flixcare.dto.BabyView;
 import com.flixcare.entity.Baby;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface BabyRepository extends JpaRepository<Baby, Long> {
+    String SELECT_VIEW = "select new com.flixcare.dto.BabyView(" +
+            "b.id, b.name, b.birthDate, b.gender, b.notes, b.createdAt, b.updatedAt) " +
+            "from Baby b ";
+
     List<Baby> findByNameContainingIgnoreCase(String name);
+
+    @Query(SELECT_VIEW + "where b.householdId = :householdId order by b.id")
+    List<BabyView> findAllViews(@Param("householdId") Long householdId);
+
+    @Query(SELECT_VIEW + "where b.householdId = :householdId and b.changeVersion > :since " +
+            "order by b.changeVersion, b.id")
+    List<BabyView> findViewsChangedSince(@Param("householdId") Long householdId, @Param("since") long since);
+
+    @Query("select b.id from Baby b order by b.id")
+    List<Long> findAllIds();
+
+    @Query(SELECT_VIEW + "where b.id = :id and b.householdId = :householdId")
+    Optional<BabyView> findViewById(@Param("id") Long id, @Param("householdId") Long householdId);
+
+    Optional<Baby> findByIdAndHouseholdId(Long id, Long householdId);
+
+    @Query("select b.householdId from Baby b where b.id = :id")
+    Optional<Long> findHouseholdIdById(@Param("id") Long id);
 }
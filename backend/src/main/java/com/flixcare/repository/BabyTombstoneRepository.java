@@ -0,0 +1,15 @@
+package com.flixcare.repository;
+
+import com.flixcare.entity.BabyTombstone;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface BabyTombstoneRepository extends JpaRepository<BabyTombstone, Long> {
+    @Query("select t.babyId from BabyTombstone t where t.householdId = :householdId and t.changeVersion > :since")
+    List<Long> findBabyIdsDeletedSince(@Param("householdId") Long householdId, @Param("since") long since);
+}
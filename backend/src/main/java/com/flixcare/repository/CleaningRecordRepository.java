@@ -1,15 +1,92 @@
 package com.flixcare.repository;
 
+import com.flixcare.dto.CleaningRecordView;
 import com.flixcare.entity.CleaningRecord;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface CleaningRecordRepository extends JpaRepository<CleaningRecord, Long> {
-    List<CleaningRecord> findByBabyIdOrderByCleaningTimeDesc(Long babyId);
-    List<CleaningRecord> findByBabyIdAndCleaningTimeBetweenOrderByCleaningTimeDesc(
-            Long babyId, LocalDateTime start, LocalDateTime end);
+    String SELECT_VIEW = "select new com.flixcare.dto.CleaningRecordView(" +
+            "c.id, b.id, b.name, c.cleaningTime, c.cleaningType, c.diaperContent, " +
+            "c.notes, c.createdAt, c.updatedAt) " +
+            "from CleaningRecord c join c.baby b ";
+
+    @EntityGraph(attributePaths = "baby")
+    Optional<CleaningRecord> findByIdAndHouseholdId(Long id, Long householdId);
+
+    @Query(SELECT_VIEW + "where c.id = :id and c.householdId = :householdId")
+    Optional<CleaningRecordView> findViewById(@Param("id") Long id, @Param("householdId") Long householdId);
+
+    @Query(SELECT_VIEW + "where c.id in :ids")
+    List<CleaningRecordView> findViewsByIds(@Param("ids") Collection<Long> ids);
+
+    @Query(SELECT_VIEW + "where c.householdId = :householdId order by c.cleaningTime desc, c.id desc")
+    List<CleaningRecordView> findAllViews(@Param("householdId") Long householdId, Pageable pageable);
+
+    @Query(SELECT_VIEW + "where c.householdId = :householdId and " +
+            "c.cleaningTime <= :before and (c.cleaningTime < :before or c.id < :beforeId) " +
+            "order by c.cleaningTime desc, c.id desc")
+    List<CleaningRecordView> findAllViewsBefore(@Param("householdId") Long householdId,
+            @Param("before") LocalDateTime before, @Param("beforeId") Long beforeId, Pageable pageable);
+
+    @Query(SELECT_VIEW + "where c.baby.id = :babyId order by c.cleaningTime desc, c.id desc")
+    List<CleaningRecordView> findViewsByBabyId(@Param("babyId") Long babyId, Pageable pageable);
+
+    @Query(SELECT_VIEW + "where c.baby.id = :babyId and " +
+            "c.cleaningTime <= :before and (c.cleaningTime < :before or c.id < :beforeId) " +
+            "order by c.cleaningTime desc, c.id desc")
+    List<CleaningRecordView> findViewsByBabyIdBefore(@Param("babyId") Long babyId, @Param("before") LocalDateTime before,
+            @Param("beforeId") Long beforeId, Pageable pageable);
+
+    @Query(SELECT_VIEW + "where c.baby.id = :babyId and c.cleaningTime between :start and :end " +
+            "order by c.cleaningTime desc, c.id desc")
+    List<CleaningRecordView> findViewsByBabyIdAndRange(@Param("babyId") Long babyId, @Param("start") LocalDateTime start,
+            @Param("end") LocalDateTime end);
+
+    @Query(SELECT_VIEW + "where c.householdId = :householdId and c.changeVersion > :since " +
+            "order by c.changeVersion, c.id")
+    List<CleaningRecordView> findViewsChangedSince(@Param("householdId") Long householdId, @Param("since") long since);
+
+    // Tombstones are hidden from entity queries by @SQLRestriction, so they are read natively
+    @Query(value = "select id from cleaning_records where household_id = :householdId and deleted = true " +
+            "and change_version > :since", nativeQuery = true)
+    List<Long> findIdsDeletedSince(@Param("householdId") Long householdId, @Param("since") long since);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "100"))
+    @Query(SELECT_VIEW + "where c.baby.id = :babyId order by c.cleaningTime desc, c.id desc")
+    Stream<CleaningRecordView> streamViewsByBabyId(@Param("babyId") Long babyId);
+
+    @Query("select c.cleaningType, max(c.cleaningTime) from CleaningRecord c " +
+            "where c.baby.id = :babyId group by c.cleaningType")
+    List<Object[]> findLatestCleaningTimePerType(@Param("babyId") Long babyId);
+
+    @Query("select c.cleaningTime, c.diaperContent from CleaningRecord c " +
+            "where c.baby.id = :babyId and c.cleaningType = :cleaningType and c.cleaningTime >= :since")
+    List<Object[]> findDiaperContentSince(@Param("babyId") Long babyId,
+                                          @Param("cleaningType") CleaningRecord.CleaningType cleaningType,
+                                          @Param("since") LocalDateTime since);
+
+    long countByBabyIdAndCleaningTypeAndCleaningTimeGreaterThanEqual(
+            Long babyId, CleaningRecord.CleaningType cleaningType, LocalDateTime since);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "100"))
+    @Query("select c.cleaningTime, c.diaperContent from CleaningRecord c " +
+            "where c.baby.id = :babyId and c.cleaningType = :cleaningType and c.cleaningTime >= :since")
+    Stream<Object[]> streamDiaperContentSince(@Param("babyId") Long babyId,
+                                              @Param("cleaningType") CleaningRecord.CleaningType cleaningType,
+                                              @Param("since") LocalDateTime since);
 }
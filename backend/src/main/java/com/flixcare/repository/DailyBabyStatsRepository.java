@@ -0,0 +1,49 @@
+package com.flixcare.repository;
+
+import com.flixcare.dto.DailyStatsView;
+import com.flixcare.entity.DailyBabyStats;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Repository
+public interface DailyBabyStatsRepository extends JpaRepository<DailyBabyStats, Long> {
+    @Query("select new com.flixcare.dto.DailyStatsView(" +
+            "s.statDate, s.feedingCount, s.feedingAmountMl, s.diaperChanges, s.wetDiapers, s.dirtyDiapers, s.weightGrams) " +
+            "from DailyBabyStats s where s.babyId = :babyId and s.statDate between :from and :to order by s.statDate")
+    List<DailyStatsView> findViews(@Param("babyId") Long babyId, @Param("from") LocalDate from,
+            @Param("to") LocalDate to);
+
+    // Increments are applied in SQL so that no stale copy of the row is kept in the persistence context
+    @Modifying
+    @Query(value = "update daily_baby_stats set feeding_count = feeding_count + :feedings, " +
+            "feeding_amount_ml = feeding_amount_ml + :amountMl, diaper_changes = diaper_changes + :diaperChanges, " +
+            "wet_diapers = wet_diapers + :wet, dirty_diapers = dirty_diapers + :dirty " +
+            "where baby_id = :babyId and stat_date = :statDate", nativeQuery = true)
+    int addToDay(@Param("babyId") Long babyId, @Param("statDate") LocalDate statDate,
+            @Param("feedings") int feedings, @Param("amountMl") double amountMl,
+            @Param("diaperChanges") int diaperChanges, @Param("wet") int wet, @Param("dirty") int dirty);
+
+    @Modifying
+    @Query("update DailyBabyStats s set s.weightGrams = :weightGrams where s.babyId = :babyId and s.statDate = :statDate")
+    int setWeight(@Param("babyId") Long babyId, @Param("statDate") LocalDate statDate,
+            @Param("weightGrams") Integer weightGrams);
+
+    @Modifying
+    @Query(value = "insert into daily_baby_stats (baby_id, stat_date, feeding_count, feeding_amount_ml, " +
+            "diaper_changes, wet_diapers, dirty_diapers) " +
+            "values (:babyId, :statDate, :feedings, :amountMl, :diaperChanges, :wet, :dirty)",
+            nativeQuery = true)
+    void insertDay(@Param("babyId") Long babyId, @Param("statDate") LocalDate statDate,
+            @Param("feedings") int feedings, @Param("amountMl") double amountMl,
+            @Param("diaperChanges") int diaperChanges, @Param("wet") int wet, @Param("dirty") int dirty);
+
+    @Modifying
+    @Query("delete from DailyBabyStats s where s.babyId = :babyId and s.statDate >= :from")
+    void deleteFrom(@Param("babyId") Long babyId, @Param("from") LocalDate from);
+}
@@ -1,15 +1,83 @@
 package com.flixcare.repository;
 
+import com.flixcare.dto.FeedingRecordView;
 import com.flixcare.entity.FeedingRecord;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface FeedingRecordRepository extends JpaRepository<FeedingRecord, Long> {
-    List<FeedingRecord> findByBabyIdOrderByFeedingTimeDesc(Long babyId);
-    List<FeedingRecord> findByBabyIdAndFeedingTimeBetweenOrderByFeedingTimeDesc(
-            Long babyId, LocalDateTime start, LocalDateTime end);
+    String SELECT_VIEW = "select new com.flixcare.dto.FeedingRecordView(" +
+            "f.id, b.id, b.name, f.feedingTime, f.feedingType, f.amountMl, " +
+            "f.durationMinutes, f.notes, f.createdAt, f.updatedAt) " +
+            "from FeedingRecord f join f.baby b ";
+
+    @EntityGraph(attributePaths = "baby")
+    Optional<FeedingRecord> findByIdAndHouseholdId(Long id, Long householdId);
+
+    @Query(SELECT_VIEW + "where f.id = :id and f.householdId = :householdId")
+    Optional<FeedingRecordView> findViewById(@Param("id") Long id, @Param("householdId") Long householdId);
+
+    @Query(SELECT_VIEW + "where f.id in :ids")
+    List<FeedingRecordView> findViewsByIds(@Param("ids") Collection<Long> ids);
+
+    @Query(SELECT_VIEW + "where f.householdId = :householdId order by f.feedingTime desc, f.id desc")
+    List<FeedingRecordView> findAllViews(@Param("householdId") Long householdId, Pageable pageable);
+
+    // Keyset pages: the plain upper bound on the time lets the index seek to the page and prunes later partitions
+    @Query(SELECT_VIEW + "where f.householdId = :householdId and " +
+            "f.feedingTime <= :before and (f.feedingTime < :before or f.id < :beforeId) " +
+            "order by f.feedingTime desc, f.id desc")
+    List<FeedingRecordView> findAllViewsBefore(@Param("householdId") Long householdId,
+            @Param("before") LocalDateTime before, @Param("beforeId") Long beforeId, Pageable pageable);
+
+    @Query(SELECT_VIEW + "where f.baby.id = :babyId order by f.feedingTime desc, f.id desc")
+    List<FeedingRecordView> findViewsByBabyId(@Param("babyId") Long babyId, Pageable pageable);
+
+    @Query(SELECT_VIEW + "where f.baby.id = :babyId and " +
+            "f.feedingTime <= :before and (f.feedingTime < :before or f.id < :beforeId) " +
+            "order by f.feedingTime desc, f.id desc")
+    List<FeedingRecordView> findViewsByBabyIdBefore(@Param("babyId") Long babyId, @Param("before") LocalDateTime before,
+            @Param("beforeId") Long beforeId, Pageable pageable);
+
+    @Query(SELECT_VIEW + "where f.baby.id = :babyId and f.feedingTime between :start and :end " +
+            "order by f.feedingTime desc, f.id desc")
+    List<FeedingRecordView> findViewsByBabyIdAndRange(@Param("babyId") Long babyId, @Param("start") LocalDateTime start,
+            @Param("end") LocalDateTime end);
+
+    @Query(SELECT_VIEW + "where f.householdId = :householdId and f.changeVersion > :since " +
+            "order by f.changeVersion, f.id")
+    List<FeedingRecordView> findViewsChangedSince(@Param("householdId") Long householdId, @Param("since") long since);
+
+    // Tombstones are hidden from entity queries by @SQLRestriction, so they are read natively
+    @Query(value = "select id from feeding_records where household_id = :householdId and deleted = true " +
+            "and change_version > :since", nativeQuery = true)
+    List<Long> findIdsDeletedSince(@Param("householdId") Long householdId, @Param("since") long since);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "100"))
+    @Query(SELECT_VIEW + "where f.baby.id = :babyId order by f.feedingTime desc, f.id desc")
+    Stream<FeedingRecordView> streamViewsByBabyId(@Param("babyId") Long babyId);
+
+    @Query("select max(f.feedingTime) from FeedingRecord f where f.baby.id = :babyId")
+    LocalDateTime findLatestFeedingTime(@Param("babyId") Long babyId);
+
+    long countByBabyIdAndFeedingTimeGreaterThanEqual(Long babyId, LocalDateTime since);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "100"))
+    @Query("select f.feedingTime, f.amountMl from FeedingRecord f " +
+            "where f.baby.id = :babyId and f.feedingTime >= :since")
+    Stream<Object[]> streamFeedingAmountsSince(@Param("babyId") Long babyId, @Param("since") LocalDateTime since);
 }
@@ -0,0 +1,12 @@
+package com.flixcare.repository;
+
+import com.flixcare.entity.Household;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+@Repository
+public interface HouseholdRepository extends JpaRepository<Household, Long> {
+    Optional<Household> findFirstByOrderByIdAsc();
+}
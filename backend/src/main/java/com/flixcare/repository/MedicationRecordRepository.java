@@ -1,12 +1,72 @@
 package com.flixcare.repository;
 
+import com.flixcare.dto.MedicationRecordView;
 import com.flixcare.entity.MedicationRecord;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface MedicationRecordRepository extends JpaRepository<MedicationRecord, Long> {
-    List<MedicationRecord> findByBabyIdOrderByMedicationTimeDesc(Long babyId);
+    String SELECT_VIEW = "select new com.flixcare.dto.MedicationRecordView(" +
+            "m.id, b.id, b.name, m.medicationTime, m.medicationType, m.dosage, " +
+            "m.notes, m.createdAt, m.updatedAt) " +
+            "from MedicationRecord m join m.baby b ";
+
+    @EntityGraph(attributePaths = "baby")
+    Optional<MedicationRecord> findByIdAndHouseholdId(Long id, Long householdId);
+
+    @Query(SELECT_VIEW + "where m.id = :id and m.householdId = :householdId")
+    Optional<MedicationRecordView> findViewById(@Param("id") Long id, @Param("householdId") Long householdId);
+
+    @Query(SELECT_VIEW + "where m.id in :ids")
+    List<MedicationRecordView> findViewsByIds(@Param("ids") Collection<Long> ids);
+
+    @Query(SELECT_VIEW + "where m.householdId = :householdId order by m.medicationTime desc, m.id desc")
+    List<MedicationRecordView> findAllViews(@Param("householdId") Long householdId, Pageable pageable);
+
+    @Query(SELECT_VIEW + "where m.householdId = :householdId and " +
+            "m.medicationTime <= :before and (m.medicationTime < :before or m.id < :beforeId) " +
+            "order by m.medicationTime desc, m.id desc")
+    List<MedicationRecordView> findAllViewsBefore(@Param("householdId") Long householdId,
+            @Param("before") LocalDateTime before, @Param("beforeId") Long beforeId, Pageable pageable);
+
+    @Query(SELECT_VIEW + "where m.baby.id = :babyId order by m.medicationTime desc, m.id desc")
+    List<MedicationRecordView> findViewsByBabyId(@Param("babyId") Long babyId, Pageable pageable);
+
+    @Query(SELECT_VIEW + "where m.baby.id = :babyId and " +
+            "m.medicationTime <= :before and (m.medicationTime < :before or m.id < :beforeId) " +
+            "order by m.medicationTime desc, m.id desc")
+    List<MedicationRecordView> findViewsByBabyIdBefore(@Param("babyId") Long babyId, @Param("before") LocalDateTime before,
+            @Param("beforeId") Long beforeId, Pageable pageable);
+
+    @Query(SELECT_VIEW + "where m.householdId = :householdId and m.changeVersion > :since " +
+            "order by m.changeVersion, m.id")
+    List<MedicationRecordView> findViewsChangedSince(@Param("householdId") Long householdId,
+            @Param("since") long since);
+
+    // Tombstones are hidden from entity queries by @SQLRestriction, so they are read natively
+    @Query(value = "select id from medication_records where household_id = :householdId and deleted = true " +
+            "and change_version > :since", nativeQuery = true)
+    List<Long> findIdsDeletedSince(@Param("householdId") Long householdId, @Param("since") long since);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "100"))
+    @Query(SELECT_VIEW + "where m.baby.id = :babyId order by m.medicationTime desc, m.id desc")
+    Stream<MedicationRecordView> streamViewsByBabyId(@Param("babyId") Long babyId);
+
+    @Query("select m.medicationType, max(m.medicationTime) from MedicationRecord m " +
+            "where m.baby.id = :babyId group by m.medicationType")
+    List<Object[]> findLatestMedicationTimePerType(@Param("babyId") Long babyId);
 }
@@ -0,0 +1,68 @@
+package com.flixcare.repository;
+
+import com.flixcare.dto.RecordArchiveHeader;
+import com.flixcare.dto.RecordArchiveStats;
+import com.flixcare.entity.RecordArchiveMonth;
+import com.flixcare.service.RecordVersions.RecordType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface RecordArchiveRepository extends JpaRepository<RecordArchiveMonth, Long> {
+    @Query("select a.archiveMonth from RecordArchiveMonth a where a.babyId = :babyId and a.recordType = :type " +
+            "and a.archiveMonth between :from and :to order by a.archiveMonth desc")
+    List<LocalDate> findMonths(@Param("babyId") Long babyId, @Param("type") RecordType type,
+            @Param("from") LocalDate from, @Param("to") LocalDate to);
+
+    @Query("select distinct a.archiveMonth from RecordArchiveMonth a where a.householdId = :householdId " +
+            "and a.recordType = :type and a.archiveMonth between :from and :to order by a.archiveMonth desc")
+    List<LocalDate> findMonthsOfHousehold(@Param("householdId") Long householdId, @Param("type") RecordType type,
+            @Param("from") LocalDate from, @Param("to") LocalDate to);
+
+    // Without the documents, which are read only for months that are not decoded yet
+    @Query("select new com.flixcare.dto.RecordArchiveHeader(a.id, a.babyId, a.recordCount, a.maxChangeVersion, " +
+            "a.archivedAt) from RecordArchiveMonth a where a.babyId = :babyId and a.recordType = :type " +
+            "and a.archiveMonth between :from and :to order by a.archiveMonth desc")
+    List<RecordArchiveHeader> findHeaders(@Param("babyId") Long babyId, @Param("type") RecordType type,
+            @Param("from") LocalDate from, @Param("to") LocalDate to);
+
+    @Query("select new com.flixcare.dto.RecordArchiveHeader(a.id, a.babyId, a.recordCount, a.maxChangeVersion, " +
+            "a.archivedAt) from RecordArchiveMonth a where a.householdId = :householdId and a.recordType = :type " +
+            "and a.archiveMonth between :from and :to order by a.archiveMonth desc")
+    List<RecordArchiveHeader> findHeadersOfHousehold(@Param("householdId") Long householdId,
+            @Param("type") RecordType type,
+            @Param("from") LocalDate from, @Param("to") LocalDate to);
+
+    @Query("select a from RecordArchiveMonth a where a.householdId = :householdId and a.recordType = :type " +
+            "and a.minRecordId <= :id and a.maxRecordId >= :id")
+    List<RecordArchiveMonth> findArchivesContaining(@Param("householdId") Long householdId,
+            @Param("type") RecordType type, @Param("id") Long id);
+
+    @Query("select new com.flixcare.dto.RecordArchiveHeader(a.id, a.babyId, a.recordCount, a.maxChangeVersion, " +
+            "a.archivedAt) from RecordArchiveMonth a where a.householdId = :householdId and a.recordType = :type " +
+            "and a.minRecordId <= :id and a.maxRecordId >= :id")
+    List<RecordArchiveHeader> findHeadersContaining(@Param("householdId") Long householdId,
+            @Param("type") RecordType type, @Param("id") Long id);
+
+    // Months whose latest times list the kind
+    @Query("select a.latestTimes from RecordArchiveMonth a where a.babyId = :babyId and a.recordType = :type " +
+            "and a.latestTimes like :pattern order by a.archiveMonth desc")
+    List<String> findLatestTimes(@Param("babyId") Long babyId, @Param("type") RecordType type,
+            @Param("pattern") String pattern);
+
+    Optional<RecordArchiveMonth> findByBabyIdAndRecordTypeAndArchiveMonth(
+            Long babyId, RecordType recordType, LocalDate archiveMonth);
+
+    List<RecordArchiveMonth> findByHouseholdIdAndRecordTypeAndMaxChangeVersionGreaterThan(
+            Long householdId, RecordType recordType, long since);
+
+    @Query("select new com.flixcare.dto.RecordArchiveStats(count(a), coalesce(sum(a.recordCount), 0), " +
+            "coalesce(sum(a.compressedBytes), 0)) from RecordArchiveMonth a")
+    RecordArchiveStats summarize();
+}
@@ -0,0 +1,18 @@
+package com.flixcare.repository;
+
+import com.flixcare.entity.SyncState;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+@Repository
+public interface SyncStateRepository extends JpaRepository<SyncState, Long> {
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select s from SyncState s where s.householdId = :id")
+    Optional<SyncState> findByIdForUpdate(@Param("id") Long id);
+}
@@ -1,15 +1,75 @@
 package com.flixcare.repository;
 
+import com.flixcare.dto.TemperatureRecordView;
 import com.flixcare.entity.TemperatureRecord;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface TemperatureRecordRepository extends JpaRepository<TemperatureRecord, Long> {
-    List<TemperatureRecord> findByBabyIdOrderByMeasurementTimeDesc(Long babyId);
-    List<TemperatureRecord> findByBabyIdAndMeasurementTimeBetweenOrderByMeasurementTimeDesc(
-            Long babyId, LocalDateTime start, LocalDateTime end);
+    String SELECT_VIEW = "select new com.flixcare.dto.TemperatureRecordView(" +
+            "t.id, b.id, b.name, t.measurementTime, t.temperatureCelsius, " +
+            "t.measurementLocation, t.notes, t.createdAt, t.updatedAt) " +
+            "from TemperatureRecord t join t.baby b ";
+
+    @EntityGraph(attributePaths = "baby")
+    Optional<TemperatureRecord> findByIdAndHouseholdId(Long id, Long householdId);
+
+    @Query(SELECT_VIEW + "where t.id = :id and t.householdId = :householdId")
+    Optional<TemperatureRecordView> findViewById(@Param("id") Long id, @Param("householdId") Long householdId);
+
+    @Query(SELECT_VIEW + "where t.id in :ids")
+    List<TemperatureRecordView> findViewsByIds(@Param("ids") Collection<Long> ids);
+
+    @Query(SELECT_VIEW + "where t.householdId = :householdId order by t.measurementTime desc, t.id desc")
+    List<TemperatureRecordView> findAllViews(@Param("householdId") Long householdId, Pageable pageable);
+
+    @Query(SELECT_VIEW + "where t.householdId = :householdId and " +
+            "t.measurementTime <= :before and (t.measurementTime < :before or t.id < :beforeId) " +
+            "order by t.measurementTime desc, t.id desc")
+    List<TemperatureRecordView> findAllViewsBefore(@Param("householdId") Long householdId,
+            @Param("before") LocalDateTime before, @Param("beforeId") Long beforeId, Pageable pageable);
+
+    @Query(SELECT_VIEW + "where t.baby.id = :babyId order by t.measurementTime desc, t.id desc")
+    List<TemperatureRecordView> findViewsByBabyId(@Param("babyId") Long babyId, Pageable pageable);
+
+    @Query(SELECT_VIEW + "where t.baby.id = :babyId and " +
+            "t.measurementTime <= :before and (t.measurementTime < :before or t.id < :beforeId) " +
+            "order by t.measurementTime desc, t.id desc")
+    List<TemperatureRecordView> findViewsByBabyIdBefore(@Param("babyId") Long babyId, @Param("before") LocalDateTime before,
+            @Param("beforeId") Long beforeId, Pageable pageable);
+
+    @Query(SELECT_VIEW + "where t.baby.id = :babyId and t.measurementTime between :start and :end " +
+            "order by t.measurementTime desc, t.id desc")
+    List<TemperatureRecordView> findViewsByBabyIdAndRange(@Param("babyId") Long babyId, @Param("start") LocalDateTime start,
+            @Param("end") LocalDateTime end);
+
+    @Query(SELECT_VIEW + "where t.householdId = :householdId and t.changeVersion > :since " +
+            "order by t.changeVersion, t.id")
+    List<TemperatureRecordView> findViewsChangedSince(@Param("householdId") Long householdId,
+            @Param("since") long since);
+
+    // Tombstones are hidden from entity queries by @SQLRestriction, so they are read natively
+    @Query(value = "select id from temperature_records where household_id = :householdId and deleted = true " +
+            "and change_version > :since", nativeQuery = true)
+    List<Long> findIdsDeletedSince(@Param("householdId") Long householdId, @Param("since") long since);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "100"))
+    @Query(SELECT_VIEW + "where t.baby.id = :babyId order by t.measurementTime desc, t.id desc")
+    Stream<TemperatureRecordView> streamViewsByBabyId(@Param("babyId") Long babyId);
+
+    Optional<TemperatureRecord> findFirstByBabyIdOrderByMeasurementTimeDesc(Long babyId);
 }
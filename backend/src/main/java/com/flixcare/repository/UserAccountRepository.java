@@ -0,0 +1,14 @@
+package com.flixcare.repository;
+
+import com.flixcare.entity.UserAccount;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+@Repository
+public interface UserAccountRepository extends JpaRepository<UserAccount, Long> {
+    Optional<UserAccount> findByUsername(String username);
+
+    boolean existsByUsername(String username);
+}
@@ -1,11 +1,82 @@
 package com.flixcare.repository;
 
+import com.flixcare.dto.WeightRecordView;
 import com.flixcare.entity.WeightRecord;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface WeightRecordRepository extends JpaRepository<WeightRecord, Long> {
-    List<WeightRecord> findByBabyIdOrderByMeasurementTimeDesc(Long babyId);
+    String SELECT_VIEW = "select new com.flixcare.dto.WeightRecordView(" +
+            "w.id, b.id, b.name, w.measurementTime, w.weightGrams, w.notes, " +
+            "w.createdAt, w.updatedAt) " +
+            "from WeightRecord w join w.baby b ";
+
+    @EntityGraph(attributePaths = "baby")
+    Optional<WeightRecord> findByIdAndHouseholdId(Long id, Long householdId);
+
+    @Query(SELECT_VIEW + "where w.id = :id and w.householdId = :householdId")
+    Optional<WeightRecordView> findViewById(@Param("id") Long id, @Param("householdId") Long householdId);
+
+    @Query(SELECT_VIEW + "where w.id in :ids")
+    List<WeightRecordView> findViewsByIds(@Param("ids") Collection<Long> ids);
+
+    @Query(SELECT_VIEW + "where w.householdId = :householdId order by w.measurementTime desc, w.id desc")
+    List<WeightRecordView> findAllViews(@Param("householdId") Long householdId, Pageable pageable);
+
+    @Query(SELECT_VIEW + "where w.householdId = :householdId and " +
+            "w.measurementTime <= :before and (w.measurementTime < :before or w.id < :beforeId) " +
+            "order by w.measurementTime desc, w.id desc")
+    List<WeightRecordView> findAllViewsBefore(@Param("householdId") Long householdId,
+            @Param("before") LocalDateTime before, @Param("beforeId") Long beforeId, Pageable pageable);
+
+    @Query(SELECT_VIEW + "where w.baby.id = :babyId order by w.measurementTime desc, w.id desc")
+    List<WeightRecordView> findViewsByBabyId(@Param("babyId") Long babyId, Pageable pageable);
+
+    @Query(SELECT_VIEW + "where w.baby.id = :babyId and " +
+            "w.measurementTime <= :before and (w.measurementTime < :before or w.id < :beforeId) " +
+            "order by w.measurementTime desc, w.id desc")
+    List<WeightRecordView> findViewsByBabyIdBefore(@Param("babyId") Long babyId, @Param("before") LocalDateTime before,
+            @Param("beforeId") Long beforeId, Pageable pageable);
+
+    @Query(SELECT_VIEW + "where w.householdId = :householdId and w.changeVersion > :since " +
+            "order by w.changeVersion, w.id")
+    List<WeightRecordView> findViewsChangedSince(@Param("householdId") Long householdId, @Param("since") long since);
+
+    // Tombstones are hidden from entity queries by @SQLRestriction, so they are read natively
+    @Query(value = "select id from weight_records where household_id = :householdId and deleted = true " +
+            "and change_version > :since", nativeQuery = true)
+    List<Long> findIdsDeletedSince(@Param("householdId") Long householdId, @Param("since") long since);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "100"))
+    @Query(SELECT_VIEW + "where w.baby.id = :babyId order by w.measurementTime desc, w.id desc")
+    Stream<WeightRecordView> streamViewsByBabyId(@Param("babyId") Long babyId);
+
+    @Query("select w.measurementTime, w.weightGrams from WeightRecord w " +
+            "where w.baby.id = :babyId order by w.measurementTime desc, w.id desc")
+    List<Object[]> findLatestWeights(@Param("babyId") Long babyId, Pageable pageable);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "100"))
+    @Query("select w.measurementTime, w.weightGrams from WeightRecord w " +
+            "where w.baby.id = :babyId and w.measurementTime >= :since order by w.measurementTime, w.id")
+    Stream<Object[]> streamWeightsSince(@Param("babyId") Long babyId, @Param("since") LocalDateTime since);
+
+    @Query("select w.measurementTime, w.weightGrams from WeightRecord w " +
+            "where w.baby.id = :babyId and w.measurementTime >= :start and w.measurementTime < :end " +
+            "order by w.measurementTime desc, w.id desc")
+    List<Object[]> findLatestWeightBetween(@Param("babyId") Long babyId, @Param("start") LocalDateTime start,
+            @Param("end") LocalDateTime end, Pageable pageable);
 }
@@ -0,0 +1,26 @@
+package com.flixcare.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+// Moves old records into the archive every night once flixcare.archive.enabled is set. Checked when the job runs
+// rather than as a bean condition, which the native image would fix at build time.
+@Component
+class ArchiveJob {
+
+    private final ArchiveService archiveService;
+    private final boolean enabled;
+
+    ArchiveJob(ArchiveService archiveService, @Value("${flixcare.archive.enabled:false}") boolean enabled) {
+        this.archiveService = archiveService;
+        this.enabled = enabled;
+    }
+
+    @Scheduled(cron = "${flixcare.archive.cron:0 45 3 * * *}")
+    void archiveOldRecords() {
+        if (enabled) {
+            archiveService.archiveOldRecords();
+        }
+    }
+}
@@ -0,0 +1,121 @@
+package com.flixcare.service;
+
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.flixcare.dto.RecordArchiveStats;
+import com.flixcare.entity.RecordArchiveMonth;
+import com.flixcare.repository.RecordArchiveRepository;
+import com.flixcare.service.RecordArchive.Layout;
+import com.flixcare.service.RecordVersions.RecordType;
+import io.micrometer.core.annotation.Timed;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Moves records older than {@code flixcare.archive.after-days} out of the record tables into the
+ * {@link RecordArchive}, one baby and month per transaction. Only whole months and only live records are moved;
+ * tombstones stay behind for delta sync. Reads do not change, so no change events are published.
+ */
+@Service
+@Timed("flixcare.service")
+public class ArchiveService {
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final RecordArchiveRepository archiveRepository;
+    private final ChangeTracker changeTracker;
+    private final PartitionService partitionService;
+    private final int afterDays;
+
+    public ArchiveService(JdbcTemplate jdbcTemplate,
+                          TransactionTemplate transactionTemplate,
+                          RecordArchiveRepository archiveRepository,
+                          ChangeTracker changeTracker,
+                          PartitionService partitionService,
+                          @Value("${flixcare.archive.after-days:365}") int afterDays) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.archiveRepository = archiveRepository;
+        this.changeTracker = changeTracker;
+        this.partitionService = partitionService;
+        this.afterDays = afterDays;
+    }
+
+    /**
+     * Archives all months that ended before the cutoff and returns the number of records moved.
+     */
+    public int archiveOldRecords() {
+        LocalDate cutoff = RecordArchive.monthOf(LocalDateTime.now(RecordTimes.STORAGE_ZONE).minusDays(afterDays));
+        int archived = 0;
+        for (RecordType type : RecordType.values()) {
+            Layout<?> layout = RecordArchive.layout(type);
+            String time = layout.timeColumn();
+            // year and month are reserved words on H2
+            List<Map<String, Object>> months = jdbcTemplate.queryForList("select distinct baby_id, household_id, "
+                    + "extract(year from " + time + ") as record_year, extract(month from " + time + ") as record_month "
+                    + "from " + layout.table() + " where deleted = false and " + time + " < ?", cutoff.atStartOfDay());
+            for (Map<String, Object> month : months) {
+                Long babyId = ((Number) month.get("baby_id")).longValue();
+                Long householdId = ((Number) month.get("household_id")).longValue();
+                LocalDate first = LocalDate.of(((Number) month.get("record_year")).intValue(),
+                        ((Number) month.get("record_month")).intValue(), 1);
+                archived += transactionTemplate.execute(
+                        status -> archiveMonth(type, layout, babyId, householdId, first));
+            }
+        }
+        partitionService.dropEmptyPartitions(YearMonth.from(cutoff));
+        return archived;
+    }
+
+    @Transactional(readOnly = true)
+    public RecordArchiveStats getStats() {
+        return archiveRepository.summarize();
+    }
+
+    private int archiveMonth(RecordType type, Layout<?> layout, Long babyId, Long householdId, LocalDate month) {
+        // Keeps record writers and the stats rebuild from seeing the month half moved
+        changeTracker.lockWriters(householdId);
+        String time = layout.timeColumn();
+        List<Map<String, Object>> records = jdbcTemplate.queryForList("select * from " + layout.table()
+                        + " where baby_id = ? and " + time + " >= ? and " + time + " < ? and deleted = false",
+                babyId, month.atStartOfDay(), month.plusMonths(1).atStartOfDay());
+        if (records.isEmpty()) {
+            return 0;
+        }
+
+        // Records that arrived for an archived month, e.g. by import, are added to its document
+        RecordArchiveMonth archive = archiveRepository.findByBabyIdAndRecordTypeAndArchiveMonth(babyId, type, month)
+                .orElseGet(RecordArchiveMonth::new);
+        List<ObjectNode> rows = new ArrayList<>();
+        if (archive.getData() != null) {
+            rows.addAll(RecordArchive.decode(archive.getData()));
+        }
+        records.forEach(record -> rows.add(RecordArchive.toRow(record)));
+        rows.sort(Comparator.comparing((ObjectNode row) -> RecordArchive.timeOf(layout, row))
+                .thenComparingLong(row -> row.get("id").asLong())
+                .reversed());
+
+        archive.setBabyId(babyId);
+        archive.setHouseholdId(householdId);
+        archive.setRecordType(type);
+        archive.setArchiveMonth(month);
+        RecordArchive.setRows(archive, rows);
+        archive.setArchivedAt(LocalDateTime.now());
+        archiveRepository.save(archive);
+
+        // With the time in the predicate only the month's partition is searched
+        jdbcTemplate.batchUpdate("delete from " + layout.table() + " where id = ? and " + time + " = ?",
+                records.stream().map(record -> new Object[] {record.get("id"), record.get(time)}).toList());
+        return records.size();
+    }
+}
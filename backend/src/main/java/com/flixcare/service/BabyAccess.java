@@ -0,0 +1,47 @@
+package com.flixcare.service;
+
+import com.flixcare.exception.ResourceNotFoundException;
+import com.flixcare.repository.BabyRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * Checks that a baby belongs to the household of the current request. A baby never moves to another household, so
+ * the household of each baby is cached and most checks run no query.
+ */
+@Component
+public class BabyAccess {
+
+    private final BabyRepository babyRepository;
+    private final CurrentHousehold currentHousehold;
+    private final Cache<Long, Long> households;
+
+    public BabyAccess(BabyRepository babyRepository,
+                      CurrentHousehold currentHousehold,
+                      @Value("${flixcare.cache.baby-households.max-size:100000}") long maxSize) {
+        this.babyRepository = babyRepository;
+        this.currentHousehold = currentHousehold;
+        this.households = Caffeine.newBuilder().maximumSize(maxSize).build();
+    }
+
+    /**
+     * Throws {@link ResourceNotFoundException} for babies that do not exist or belong to another household, so that
+     * the ids of other households' babies cannot be probed.
+     */
+    public void check(Long babyId) {
+        Long householdId = households.get(babyId, id -> babyRepository.findHouseholdIdById(id).orElse(null));
+        if (!currentHousehold.id().equals(householdId)) {
+            throw new ResourceNotFoundException("Baby not found with id: " + babyId);
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    void onBabyChanged(BabyChangedEvent event) {
+        if (event.action() == RecordChangedEvent.Action.DELETED) {
+            households.invalidate(event.babyId());
+        }
+    }
+}
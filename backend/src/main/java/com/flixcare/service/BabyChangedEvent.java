@@ -0,0 +1,7 @@
+package com.flixcare.service;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
+// The household is for the listeners only and not sent to event stream clients
+public record BabyChangedEvent(Long babyId, RecordChangedEvent.Action action, @JsonIgnore Long householdId) {
+}
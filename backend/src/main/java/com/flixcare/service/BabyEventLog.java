@@ -0,0 +1,385 @@
+package com.flixcare.service;
+
+import com.flixcare.dto.ExportRecord;
+import com.flixcare.service.EventLogCodec.EntryKey;
+import com.flixcare.service.RecordVersions.RecordType;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+
+/**
+ * The event log file of one baby. Every change appends an entry to the memory-mapped file, and an in-memory index
+ * keeps the offset of the current version of each record in the order of the record lists. Compaction rewrites the
+ * file with only those entries, in that order, so reading the history scans the file front to back. Appends never
+ * touch bytes that were written before, and compaction, {@link #clear} and {@link #replaceWith} put a new file in
+ * place of the old one, so a {@link Snapshot} stays readable without the lock. Everything else is called holding
+ * {@link #lock}, except on a log that only the calling thread knows, such as one being built.
+ */
+final class BabyEventLog {
+
+    // Magic, format, enum fingerprint, flags, end of the entries, end of the entries written in list order
+    static final int HEADER_SIZE = 32;
+    private static final int MAGIC = 0x46434c47;
+    private static final int FORMAT = 1;
+    // Set once the log holds the complete history
+    private static final int COMPLETE = 1;
+    private static final int MIN_SIZE = 64 * 1024;
+
+    // Newest first, records of the same time in the order of the record types, like the history export
+    private static final Comparator<Position> ORDER = Comparator.comparing(Position::time).reversed()
+            .thenComparing(Position::type)
+            .thenComparing(Comparator.comparingLong(Position::id).reversed());
+
+    private static final RecordType[] TYPES = RecordType.values();
+
+    final ReentrantLock lock = new ReentrantLock();
+
+    private final Path path;
+    private FileChannel channel;
+    private MappedByteBuffer buffer;
+    private int end;
+    private int sortedEnd;
+    private boolean complete;
+    private boolean closed;
+    // While the history is built into another file; changes committed meanwhile are kept for that build
+    private boolean building;
+    private List<RecordChangedEvent> missed = new ArrayList<>();
+    private TreeMap<Position, Integer> offsets = new TreeMap<>(ORDER);
+    private Map<Long, Position> positions = new HashMap<>();
+    // Entries that no longer count: older versions, deleted records and the deletions themselves
+    private int garbage;
+    private ByteBuffer scratch = ByteBuffer.allocate(1024);
+
+    private BabyEventLog(Path path) {
+        this.path = path;
+    }
+
+    /**
+     * Opens the log file, creating it if necessary. A file that is incomplete, of another format or unreadable is
+     * cleared, and the log has to be built before it is read.
+     */
+    static BabyEventLog open(Path path) {
+        BabyEventLog log = new BabyEventLog(path);
+        try {
+            log.channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                    StandardOpenOption.WRITE);
+            log.load();
+        } catch (IOException | RuntimeException e) {
+            log.close();
+            throw e instanceof IOException io ? new UncheckedIOException(io) : (RuntimeException) e;
+        }
+        return log;
+    }
+
+    boolean isComplete() {
+        return complete;
+    }
+
+    boolean isBuilding() {
+        return building;
+    }
+
+    void startBuild() {
+        building = true;
+        missed = new ArrayList<>();
+    }
+
+    void cancelBuild() {
+        building = false;
+        missed = new ArrayList<>();
+    }
+
+    void addMissed(RecordChangedEvent event) {
+        missed.add(event);
+    }
+
+    // The changes committed since the build started or since the last call
+    List<RecordChangedEvent> takeMissed() {
+        List<RecordChangedEvent> changes = missed;
+        missed = new ArrayList<>();
+        return changes;
+    }
+
+    /**
+     * Moves the file and the index of a log built elsewhere into this one, which then holds what the other did. The
+     * other log must not be used anymore.
+     */
+    void replaceWith(BabyEventLog built) {
+        try {
+            Files.move(built.path, path, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            channel.close();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        channel = built.channel;
+        buffer = built.buffer;
+        end = built.end;
+        sortedEnd = built.sortedEnd;
+        complete = built.complete;
+        offsets = built.offsets;
+        positions = built.positions;
+        garbage = built.garbage;
+        built.closed = true;
+        cancelBuild();
+    }
+
+    boolean isClosed() {
+        return closed;
+    }
+
+    boolean needsCompaction() {
+        return garbage > 0 || sortedEnd < end;
+    }
+
+    void append(RecordType type, Object view) {
+        write(out -> EventLogCodec.encode(type, view, out));
+    }
+
+    void appendDeletion(RecordType type, long id) {
+        if (positions.containsKey(key(type, id))) {
+            write(out -> EventLogCodec.encodeDeletion(type, id, out));
+        }
+    }
+
+    /**
+     * Marks the log as holding the complete history, after it was built by appending the history in list order.
+     */
+    void markComplete() {
+        complete = true;
+        sortedEnd = end;
+        writeHeader(buffer, end, sortedEnd);
+    }
+
+    /**
+     * Drops all entries; the log has to be built again.
+     */
+    void clear() {
+        offsets.clear();
+        positions.clear();
+        complete = false;
+        rewrite();
+    }
+
+    /**
+     * Rewrites the file with the current version of each record in list order.
+     */
+    void compact() {
+        rewrite();
+    }
+
+    Snapshot snapshot() {
+        return new Snapshot(buffer.asReadOnlyBuffer(), offsets.values().stream().mapToInt(Integer::intValue).toArray());
+    }
+
+    /**
+     * At most {@code limit} entries that follow the cursor in list order. The cursor is the time, type and id of the
+     * last record read; with only a time the entries start strictly before it, without any at the newest record.
+     */
+    Snapshot page(LocalDateTime before, RecordType beforeType, Long beforeId, int limit) {
+        Collection<Integer> following = before == null ? offsets.values()
+                : beforeType == null
+                ? offsets.tailMap(new Position(before, TYPES[TYPES.length - 1], Long.MIN_VALUE), false).values()
+                : offsets.tailMap(new Position(before, beforeType, beforeId == null ? 0L : beforeId), false).values();
+        return new Snapshot(buffer.asReadOnlyBuffer(),
+                following.stream().limit(limit).mapToInt(Integer::intValue).toArray());
+    }
+
+    // Makes the entries durable; logs are only trusted after a restart if every open log was closed
+    void close() {
+        closed = true;
+        try {
+            if (buffer != null) {
+                buffer.force();
+            }
+            if (channel != null) {
+                channel.close();
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    void delete() {
+        close();
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void load() throws IOException {
+        long size = channel.size();
+        buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, Math.max(size, MIN_SIZE));
+        boolean valid = size >= HEADER_SIZE && buffer.getInt(0) == MAGIC && buffer.getInt(4) == FORMAT
+                && buffer.getInt(8) == EventLogCodec.ENUM_FINGERPRINT && (buffer.getInt(12) & COMPLETE) != 0;
+        long storedEnd = buffer.getLong(16);
+        long storedSortedEnd = buffer.getLong(24);
+        if (!valid || storedEnd < HEADER_SIZE || storedEnd > size || storedSortedEnd < HEADER_SIZE
+                || storedSortedEnd > storedEnd) {
+            clear();
+            return;
+        }
+        end = (int) storedEnd;
+        sortedEnd = (int) storedSortedEnd;
+        try {
+            ByteBuffer entries = buffer.duplicate().position(HEADER_SIZE).limit(end);
+            while (entries.hasRemaining()) {
+                int offset = entries.position();
+                index(EventLogCodec.readKey(entries), offset);
+            }
+            complete = true;
+        } catch (RuntimeException e) {
+            clear();
+        }
+    }
+
+    private void write(Consumer<ByteBuffer> encoder) {
+        ByteBuffer entry;
+        while (true) {
+            try {
+                scratch.clear();
+                encoder.accept(scratch);
+                entry = scratch.flip();
+                break;
+            } catch (BufferOverflowException e) {
+                scratch = ByteBuffer.allocate(scratch.capacity() * 2);
+            }
+        }
+        int offset = end;
+        int length = entry.remaining();
+        if ((long) offset + length > buffer.capacity()) {
+            remap((long) offset + length);
+        }
+        buffer.put(offset, entry, 0, length);
+        end += length;
+        writeHeader(buffer, end, sortedEnd);
+        index(EventLogCodec.readKey(buffer.duplicate().position(offset)), offset);
+    }
+
+    private void index(EntryKey key, int offset) {
+        long recordKey = key(key.type(), key.id());
+        Position previous = positions.remove(recordKey);
+        if (previous != null) {
+            offsets.remove(previous);
+            garbage++;
+        }
+        if (key.isDeletion()) {
+            garbage++;
+        } else {
+            Position position = new Position(key.time(), key.type(), key.id());
+            positions.put(recordKey, position);
+            offsets.put(position, offset);
+        }
+    }
+
+    private void remap(long size) {
+        if (size > Integer.MAX_VALUE) {
+            throw new IllegalStateException("Event log " + path + " exceeds 2 GB");
+        }
+        try {
+            buffer.force();
+            buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, capacityFor(size));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    // Copies the indexed entries into a new file and moves it over the old one, whose mapping readers may still use
+    private void rewrite() {
+        Path next = path.resolveSibling(path.getFileName() + ".next");
+        int[] nextOffsets = new int[offsets.size()];
+        long size = HEADER_SIZE;
+        for (int offset : offsets.values()) {
+            size += EventLogCodec.LENGTH_SIZE + buffer.getInt(offset);
+        }
+        FileChannel nextChannel = null;
+        try {
+            nextChannel = FileChannel.open(next, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+                    StandardOpenOption.READ, StandardOpenOption.WRITE);
+            MappedByteBuffer nextBuffer = nextChannel.map(FileChannel.MapMode.READ_WRITE, 0, capacityFor(size));
+            int position = HEADER_SIZE;
+            int i = 0;
+            for (int offset : offsets.values()) {
+                int length = EventLogCodec.LENGTH_SIZE + buffer.getInt(offset);
+                nextBuffer.put(position, buffer, offset, length);
+                nextOffsets[i++] = position;
+                position += length;
+            }
+            writeHeader(nextBuffer, position, position);
+            nextBuffer.force();
+            Files.move(next, path, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+
+            channel.close();
+            channel = nextChannel;
+            buffer = nextBuffer;
+            end = position;
+            sortedEnd = position;
+            garbage = 0;
+            i = 0;
+            for (Map.Entry<Position, Integer> entry : offsets.entrySet()) {
+                entry.setValue(nextOffsets[i++]);
+            }
+        } catch (IOException | RuntimeException e) {
+            try {
+                if (nextChannel != null) {
+                    nextChannel.close();
+                }
+                Files.deleteIfExists(next);
+            } catch (IOException suppressed) {
+                e.addSuppressed(suppressed);
+            }
+            throw e instanceof IOException io ? new UncheckedIOException(io) : (RuntimeException) e;
+        }
+    }
+
+    private void writeHeader(ByteBuffer target, int end, int sortedEnd) {
+        target.putInt(0, MAGIC);
+        target.putInt(4, FORMAT);
+        target.putInt(8, EventLogCodec.ENUM_FINGERPRINT);
+        target.putInt(12, complete ? COMPLETE : 0);
+        target.putLong(16, end);
+        target.putLong(24, sortedEnd);
+    }
+
+    private static long capacityFor(long size) {
+        return Math.min(Math.max(Long.highestOneBit(size - 1) << 1, MIN_SIZE), Integer.MAX_VALUE);
+    }
+
+    private static long key(RecordType type, long id) {
+        return id << 3 | type.ordinal();
+    }
+
+    private record Position(LocalDateTime time, RecordType type, long id) {
+    }
+
+    /**
+     * The entries of the log at one point in time, in list order.
+     */
+    record Snapshot(ByteBuffer buffer, int[] offsets) {
+
+        void forEach(Long babyId, String babyName, Consumer<ExportRecord> consumer) {
+            for (int offset : offsets) {
+                consumer.accept(EventLogCodec.decode(buffer.position(offset), babyId, babyName));
+            }
+        }
+    }
+}
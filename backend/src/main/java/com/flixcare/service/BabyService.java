@@ -1,59 +1,76 @@
 package com.flixcare.service;
 
 import com.flixcare.dto.BabyDTO;
+import com.flixcare.dto.BabyView;
 import com.flixcare.entity.Baby;
+import com.flixcare.entity.BabyTombstone;
 import com.flixcare.exception.ResourceNotFoundException;
 import com.flixcare.repository.BabyRepository;
+import com.flixcare.repository.BabyTombstoneRepository;
+import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
 import java.util.List;
-import java.util.stream.Collectors;
 
 @Service
+@Timed("flixcare.service")
 @RequiredArgsConstructor
 @Transactional
 public class BabyService {
 
     private final BabyRepository babyRepository;
+    private final BabyTombstoneRepository babyTombstoneRepository;
+    private final ChangeTracker changeTracker;
+    private final ApplicationEventPublisher eventPublisher;
+    private final CurrentHousehold currentHousehold;
 
-    public List<BabyDTO> getAllBabies() {
-        return babyRepository.findAll().stream()
-                .map(this::convertToDTO)
-                .collect(Collectors.toList());
+    @Transactional(readOnly = true)
+    public List<BabyView> getAllBabies() {
+        return babyRepository.findAllViews(currentHousehold.id());
     }
 
-    public BabyDTO getBabyById(Long id) {
-        Baby baby = babyRepository.findById(id)
+    @Transactional(readOnly = true)
+    public BabyView getBabyById(Long id) {
+        return babyRepository.findViewById(id, currentHousehold.id())
                 .orElseThrow(() -> new ResourceNotFoundException("Baby not found with id: " + id));
-        return convertToDTO(baby);
     }
 
     public BabyDTO createBaby(BabyDTO babyDTO) {
         Baby baby = convertToEntity(babyDTO);
+        baby.setHouseholdId(currentHousehold.id());
+        baby.setChangeVersion(changeTracker.nextVersion(baby.getHouseholdId()));
         Baby savedBaby = babyRepository.save(baby);
         return convertToDTO(savedBaby);
     }
 
     public BabyDTO updateBaby(Long id, BabyDTO babyDTO) {
-        Baby baby = babyRepository.findById(id)
+        Baby baby = babyRepository.findByIdAndHouseholdId(id, currentHousehold.id())
                 .orElseThrow(() -> new ResourceNotFoundException("Baby not found with id: " + id));
 
         baby.setName(babyDTO.getName());
         baby.setBirthDate(babyDTO.getBirthDate());
         baby.setGender(babyDTO.getGender());
         baby.setNotes(babyDTO.getNotes());
+        // Sync clients take the new name over into the records of the baby they hold
+        baby.setChangeVersion(changeTracker.nextVersion(baby.getHouseholdId()));
 
         Baby updatedBaby = babyRepository.save(baby);
+        eventPublisher.publishEvent(new BabyChangedEvent(id, RecordChangedEvent.Action.UPDATED, baby.getHouseholdId()));
         return convertToDTO(updatedBaby);
     }
 
     public void deleteBaby(Long id) {
-        if (!babyRepository.existsById(id)) {
-            throw new ResourceNotFoundException("Baby not found with id: " + id);
-        }
-        babyRepository.deleteById(id);
+        Baby baby = babyRepository.findByIdAndHouseholdId(id, currentHousehold.id())
+                .orElseThrow(() -> new ResourceNotFoundException("Baby not found with id: " + id));
+        // The records go with the baby, tombstones included, so sync clients learn about it from the baby's
+        babyTombstoneRepository.save(new BabyTombstone(id, baby.getHouseholdId(),
+                changeTracker.nextVersion(baby.getHouseholdId()), LocalDateTime.now()));
+        babyRepository.delete(baby);
+        eventPublisher.publishEvent(new BabyChangedEvent(id, RecordChangedEvent.Action.DELETED, baby.getHouseholdId()));
     }
 
     private BabyDTO convertToDTO(Baby baby) {
@@ -0,0 +1,71 @@
+package com.flixcare.service;
+
+import com.flixcare.entity.Baby;
+import com.flixcare.exception.ResourceNotFoundException;
+import com.flixcare.repository.BabyRepository;
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+@Component
+@RequiredArgsConstructor
+class BatchWriter {
+
+    private final BabyRepository babyRepository;
+    private final EntityManager entityManager;
+    private final CurrentHousehold currentHousehold;
+
+    @Value("${spring.jpa.properties.hibernate.jdbc.batch_size:50}")
+    private int batchSize;
+
+    // Loads every referenced baby with a single query instead of one lookup per record; babies of other households
+    // are reported as not found
+    Map<Long, Baby> loadBabies(Collection<Long> babyIds) {
+        Set<Long> ids = new HashSet<>(babyIds);
+        Long householdId = currentHousehold.id();
+        Map<Long, Baby> babies = babyRepository.findAllById(ids).stream()
+                .filter(baby -> baby.getHouseholdId().equals(householdId))
+                .collect(Collectors.toMap(Baby::getId, Function.identity()));
+        for (Long id : ids) {
+            if (!babies.containsKey(id)) {
+                throw new ResourceNotFoundException("Baby not found with id: " + id);
+            }
+        }
+        return babies;
+    }
+
+    // Persists in chunks of the JDBC batch size and clears the persistence context after each flush
+    <T> List<Long> persistAll(List<T> entities, Function<T, Long> idGetter) {
+        List<Long> ids = new ArrayList<>(entities.size());
+        List<T> chunk = new ArrayList<>(batchSize);
+        for (T entity : entities) {
+            entityManager.persist(entity);
+            chunk.add(entity);
+            if (chunk.size() == batchSize) {
+                flushChunk(chunk, idGetter, ids);
+            }
+        }
+        flushChunk(chunk, idGetter, ids);
+        return ids;
+    }
+
+    private <T> void flushChunk(List<T> chunk, Function<T, Long> idGetter, List<Long> ids) {
+        if (chunk.isEmpty()) {
+            return;
+        }
+        entityManager.flush();
+        chunk.forEach(entity -> ids.add(idGetter.apply(entity)));
+        entityManager.clear();
+        chunk.clear();
+    }
+}
@@ -0,0 +1,52 @@
+package com.flixcare.service;
+
+import com.flixcare.entity.SyncState;
+import com.flixcare.repository.SyncStateRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Change versions for delta sync, counted per household in sync_state. A household's row is also the lock of its
+ * writers, so writes of one family never wait for those of another. The row is created with the household.
+ */
+@Component
+@RequiredArgsConstructor
+class ChangeTracker {
+
+    private final SyncStateRepository syncStateRepository;
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    void createHousehold(Long householdId) {
+        syncStateRepository.save(new SyncState(householdId, 0L));
+    }
+
+    // The row lock is held until the writing transaction commits, so versions become visible in order
+    @Transactional(propagation = Propagation.MANDATORY)
+    long nextVersion(Long householdId) {
+        SyncState state = lock(householdId);
+        state.setChangeVersion(state.getChangeVersion() + 1);
+        syncStateRepository.save(state);
+        return state.getChangeVersion();
+    }
+
+    // Takes the same lock as nextVersion() without bumping the version, keeping the household's writers out
+    @Transactional(propagation = Propagation.MANDATORY)
+    void lockWriters(Long householdId) {
+        lock(householdId);
+    }
+
+    @Transactional(readOnly = true)
+    long currentVersion(Long householdId) {
+        return syncStateRepository.findById(householdId)
+                .map(SyncState::getChangeVersion)
+                .orElse(0L);
+    }
+
+    // Without the row there is nothing to lock, and concurrent writers would hand out the same versions
+    private SyncState lock(Long householdId) {
+        return syncStateRepository.findByIdForUpdate(householdId)
+                .orElseThrow(() -> new IllegalStateException("No sync state for household " + householdId));
+    }
+}
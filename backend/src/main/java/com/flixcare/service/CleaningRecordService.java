@@ -1,110 +1,184 @@
 package com.flixcare.service;
 
 import com.flixcare.dto.CleaningRecordDTO;
+import com.flixcare.dto.CleaningRecordView;
 import com.flixcare.entity.Baby;
 import com.flixcare.entity.CleaningRecord;
 import com.flixcare.exception.ResourceNotFoundException;
 import com.flixcare.repository.BabyRepository;
 import com.flixcare.repository.CleaningRecordRepository;
+import com.flixcare.service.RecordVersions.RecordType;
+import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 @Service
+@Timed("flixcare.service")
 @RequiredArgsConstructor
 @Transactional
 public class CleaningRecordService {
 
     private final CleaningRecordRepository cleaningRecordRepository;
     private final BabyRepository babyRepository;
+    private final BatchWriter batchWriter;
+    private final ChangeTracker changeTracker;
+    private final ApplicationEventPublisher eventPublisher;
+    private final RecordCache recordCache;
+    private final RecordArchive recordArchive;
+    private final CurrentHousehold currentHousehold;
+    private final DailyStatsService dailyStatsService;
+
+    @Transactional(readOnly = true)
+    public List<CleaningRecordView> getAllCleaningRecords() {
+        return recordArchive.merge(RecordType.CLEANING, null,
+                cleaningRecordRepository.findAllViews(currentHousehold.id(), Pageable.unpaged()));
+    }
+
+    @Transactional(readOnly = true)
+    public List<CleaningRecordView> getAllCleaningRecords(LocalDateTime before, Long beforeId, int limit) {
+        Pageable pageable = PageRequest.of(0, limit);
+        List<CleaningRecordView> records = before == null
+                ? cleaningRecordRepository.findAllViews(currentHousehold.id(), pageable)
+                : cleaningRecordRepository.findAllViewsBefore(
+                        currentHousehold.id(), before, beforeId == null ? 0L : beforeId, pageable);
+        return recordArchive.mergePage(RecordType.CLEANING, null, records, before, beforeId, limit);
+    }
+
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public List<CleaningRecordView> getCleaningRecordsByBaby(Long babyId) {
+        return recordCache.get(RecordType.CLEANING, babyId,
+                () -> recordArchive.merge(RecordType.CLEANING, babyId,
+                        cleaningRecordRepository.findViewsByBabyId(babyId, Pageable.unpaged())));
+    }
 
-    public List<CleaningRecordDTO> getAllCleaningRecords() {
-        return cleaningRecordRepository.findAll().stream()
-                .map(this::convertToDTO)
-                .collect(Collectors.toList());
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public List<CleaningRecordView> getCleaningRecordsByBaby(Long babyId, LocalDateTime before, Long beforeId, int limit) {
+        return recordCache.get(RecordType.CLEANING, babyId,
+                () -> getCleaningRecordsByBabyUncached(babyId, before, beforeId, limit), before, beforeId, limit);
     }
 
-    public List<CleaningRecordDTO> getCleaningRecordsByBaby(Long babyId) {
-        return cleaningRecordRepository.findByBabyIdOrderByCleaningTimeDesc(babyId).stream()
-                .map(this::convertToDTO)
-                .collect(Collectors.toList());
+    // For callers that read each page once, such as the timeline, and would only fill the cache
+    @Transactional(readOnly = true)
+    public List<CleaningRecordView> getCleaningRecordsByBabyUncached(
+            Long babyId, LocalDateTime before, Long beforeId, int limit) {
+        Pageable pageable = PageRequest.of(0, limit);
+        List<CleaningRecordView> records = before == null
+                ? cleaningRecordRepository.findViewsByBabyId(babyId, pageable)
+                : cleaningRecordRepository.findViewsByBabyIdBefore(
+                        babyId, before, beforeId == null ? 0L : beforeId, pageable);
+        return recordArchive.mergePage(RecordType.CLEANING, babyId, records, before, beforeId, limit);
     }
 
-    public List<CleaningRecordDTO> getCleaningRecordsByBabyAndDateRange(
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public List<CleaningRecordView> getCleaningRecordsByBabyAndDateRange(
             Long babyId, LocalDateTime start, LocalDateTime end) {
-        return cleaningRecordRepository
-                .findByBabyIdAndCleaningTimeBetweenOrderByCleaningTimeDesc(babyId, start, end)
-                .stream()
-                .map(this::convertToDTO)
-                .collect(Collectors.toList());
+        return recordCache.get(RecordType.CLEANING, babyId, () -> {
+            List<CleaningRecordView> records = cleaningRecordRepository.findViewsByBabyIdAndRange(babyId, start, end);
+            return recordArchive.mergeRange(RecordType.CLEANING, babyId, records, start, end);
+        }, start, end);
     }
 
-    public CleaningRecordDTO getCleaningRecordById(Long id) {
-        CleaningRecord record = cleaningRecordRepository.findById(id)
+    @Transactional(readOnly = true)
+    public void streamCleaningRecordsByBaby(Long babyId, Consumer<CleaningRecordView> consumer) {
+        try (Stream<CleaningRecordView> records = cleaningRecordRepository.streamViewsByBabyId(babyId)) {
+            recordArchive.mergeStream(RecordType.CLEANING, babyId, records).forEach(consumer);
+        }
+    }
+
+    @Transactional(readOnly = true)
+    public CleaningRecordView getCleaningRecordById(Long id) {
+        return cleaningRecordRepository.findViewById(id, currentHousehold.id())
+                .or(() -> recordArchive.findById(RecordType.CLEANING, id))
                 .orElseThrow(() -> new ResourceNotFoundException("Cleaning record not found with id: " + id));
-        return convertToDTO(record);
     }
 
     public CleaningRecordDTO createCleaningRecord(CleaningRecordDTO dto) {
-        Baby baby = babyRepository.findById(dto.getBabyId())
+        Baby baby = babyRepository.findByIdAndHouseholdId(dto.getBabyId(), currentHousehold.id())
                 .orElseThrow(() -> new ResourceNotFoundException("Baby not found with id: " + dto.getBabyId()));
 
-        CleaningRecord record = convertToEntity(dto);
+        CleaningRecord record = RecordMapper.toEntity(dto);
         record.setBaby(baby);
+        record.setHouseholdId(baby.getHouseholdId());
+        record.setChangeVersion(changeTracker.nextVersion(baby.getHouseholdId()));
         CleaningRecord savedRecord = cleaningRecordRepository.save(record);
-        return convertToDTO(savedRecord);
+        dailyStatsService.addCleaning(savedRecord, 1);
+        eventPublisher.publishEvent(RecordChangedEvent.created(RecordType.CLEANING, baby, savedRecord.getId()));
+        return RecordMapper.toDTO(savedRecord);
+    }
+
+    public List<Long> createCleaningRecords(List<CleaningRecordDTO> dtos) {
+        List<Long> babyIds = dtos.stream().map(CleaningRecordDTO::getBabyId).toList();
+        Map<Long, Baby> babies = batchWriter.loadBabies(babyIds);
+
+        long changeVersion = changeTracker.nextVersion(currentHousehold.id());
+        List<CleaningRecord> records = new ArrayList<>(dtos.size());
+        for (CleaningRecordDTO dto : dtos) {
+            CleaningRecord record = RecordMapper.toEntity(dto);
+            Baby baby = babies.get(dto.getBabyId());
+            record.setBaby(baby);
+            record.setHouseholdId(baby.getHouseholdId());
+            record.setChangeVersion(changeVersion);
+            records.add(record);
+        }
+        List<Long> ids = batchWriter.persistAll(records, CleaningRecord::getId);
+        dailyStatsService.addCleanings(records);
+        RecordChangedEvent.created(RecordType.CLEANING, babyIds, ids, currentHousehold.id())
+                .forEach(eventPublisher::publishEvent);
+        return ids;
     }
 
     public CleaningRecordDTO updateCleaningRecord(Long id, CleaningRecordDTO dto) {
-        CleaningRecord record = cleaningRecordRepository.findById(id)
+        CleaningRecord record = findRecord(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Cleaning record not found with id: " + id));
 
+        long changeVersion = changeTracker.nextVersion(record.getHouseholdId());
+        dailyStatsService.addCleaning(record, -1);
         record.setCleaningTime(dto.getCleaningTime());
         record.setCleaningType(CleaningRecord.CleaningType.valueOf(dto.getCleaningType()));
         if (dto.getDiaperContent() != null) {
             record.setDiaperContent(CleaningRecord.DiaperContent.valueOf(dto.getDiaperContent()));
         }
         record.setNotes(dto.getNotes());
+        record.setChangeVersion(changeVersion);
 
         CleaningRecord updatedRecord = cleaningRecordRepository.save(record);
-        return convertToDTO(updatedRecord);
+        dailyStatsService.addCleaning(updatedRecord, 1);
+        eventPublisher.publishEvent(
+                RecordChangedEvent.updated(RecordType.CLEANING, updatedRecord.getBaby(), id));
+        return RecordMapper.toDTO(updatedRecord);
     }
 
     public void deleteCleaningRecord(Long id) {
-        if (!cleaningRecordRepository.existsById(id)) {
-            throw new ResourceNotFoundException("Cleaning record not found with id: " + id);
-        }
-        cleaningRecordRepository.deleteById(id);
-    }
+        CleaningRecord record = findRecord(id)
+                .orElseThrow(() -> new ResourceNotFoundException("Cleaning record not found with id: " + id));
 
-    private CleaningRecordDTO convertToDTO(CleaningRecord record) {
-        CleaningRecordDTO dto = new CleaningRecordDTO();
-        dto.setId(record.getId());
-        dto.setBabyId(record.getBaby().getId());
-        dto.setBabyName(record.getBaby().getName());
-        dto.setCleaningTime(record.getCleaningTime());
-        dto.setCleaningType(record.getCleaningType().name());
-        if (record.getDiaperContent() != null) {
-            dto.setDiaperContent(record.getDiaperContent().name());
-        }
-        dto.setNotes(record.getNotes());
-        dto.setCreatedAt(record.getCreatedAt());
-        dto.setUpdatedAt(record.getUpdatedAt());
-        return dto;
+        // Keep a tombstone so that sync clients learn about the deletion
+        record.setDeleted(true);
+        record.setChangeVersion(changeTracker.nextVersion(record.getHouseholdId()));
+        cleaningRecordRepository.save(record);
+        dailyStatsService.addCleaning(record, -1);
+        eventPublisher.publishEvent(RecordChangedEvent.deleted(RecordType.CLEANING, record.getBaby(), id));
     }
 
-    private CleaningRecord convertToEntity(CleaningRecordDTO dto) {
-        CleaningRecord record = new CleaningRecord();
-        record.setCleaningTime(dto.getCleaningTime());
-        record.setCleaningType(CleaningRecord.CleaningType.valueOf(dto.getCleaningType()));
-        if (dto.getDiaperContent() != null) {
-            record.setDiaperContent(CleaningRecord.DiaperContent.valueOf(dto.getDiaperContent()));
+    // An archived record is moved back into the record table before it is changed
+    private Optional<CleaningRecord> findRecord(Long id) {
+        Optional<CleaningRecord> record = cleaningRecordRepository.findByIdAndHouseholdId(id, currentHousehold.id());
+        if (record.isEmpty() && recordArchive.restore(RecordType.CLEANING, id)) {
+            record = cleaningRecordRepository.findByIdAndHouseholdId(id, currentHousehold.id());
         }
-        record.setNotes(dto.getNotes());
         return record;
     }
 }
@@ -0,0 +1,21 @@
+package com.flixcare.service;
+
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+
+/**
+ * The household of the authenticated user. Lists across babies, the delta sync and record lookups by id only see
+ * the babies and records of this household.
+ */
+@Component
+public class CurrentHousehold {
+
+    public Long id() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null || !(authentication.getPrincipal() instanceof HouseholdUser user)) {
+            throw new IllegalStateException("No household user is signed in");
+        }
+        return user.getHouseholdId();
+    }
+}
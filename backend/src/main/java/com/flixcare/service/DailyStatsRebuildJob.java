@@ -0,0 +1,30 @@
+package com.flixcare.service;
+
+import com.flixcare.exception.ResourceNotFoundException;
+import com.flixcare.repository.BabyRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+// Recomputes the daily stats of all babies from the raw and archived records, e.g. after a change of
+// flixcare.stats.zone. That reads the whole history, so the job only runs once flixcare.stats.rebuild-cron is set;
+// writes keep the stats current on their own.
+@Component
+@RequiredArgsConstructor
+class DailyStatsRebuildJob {
+
+    private final BabyRepository babyRepository;
+    private final DailyStatsService dailyStatsService;
+
+    // One transaction per baby, which only holds the lock of the baby's household
+    @Scheduled(cron = "${flixcare.stats.rebuild-cron:-}")
+    void rebuildAll() {
+        for (Long babyId : babyRepository.findAllIds()) {
+            try {
+                dailyStatsService.rebuild(babyId);
+            } catch (ResourceNotFoundException e) {
+                // Baby was deleted in the meantime
+            }
+        }
+    }
+}
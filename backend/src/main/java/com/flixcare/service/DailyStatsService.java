@@ -0,0 +1,267 @@
+package com.flixcare.service;
+
+import com.flixcare.dto.CleaningRecordView;
+import com.flixcare.dto.DailyStatsView;
+import com.flixcare.dto.FeedingRecordView;
+import com.flixcare.dto.WeightRecordView;
+import com.flixcare.entity.CleaningRecord;
+import com.flixcare.entity.DailyBabyStats;
+import com.flixcare.entity.FeedingRecord;
+import com.flixcare.exception.ResourceNotFoundException;
+import com.flixcare.repository.BabyRepository;
+import com.flixcare.repository.CleaningRecordRepository;
+import com.flixcare.repository.DailyBabyStatsRepository;
+import com.flixcare.repository.FeedingRecordRepository;
+import com.flixcare.repository.WeightRecordRepository;
+import com.flixcare.service.RecordVersions.RecordType;
+import io.micrometer.core.annotation.Timed;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Stream;
+
+/**
+ * Keeps one row of chart figures per baby and day. Record services apply their changes as deltas inside their own
+ * transaction; they hold their household's {@link ChangeTracker} lock at that point, so two writers never insert the
+ * same day.
+ */
+@Service
+@Timed("flixcare.service")
+public class DailyStatsService {
+
+    private final DailyBabyStatsRepository statsRepository;
+    private final BabyRepository babyRepository;
+    private final FeedingRecordRepository feedingRecordRepository;
+    private final CleaningRecordRepository cleaningRecordRepository;
+    private final WeightRecordRepository weightRecordRepository;
+    private final ChangeTracker changeTracker;
+    private final RecordArchive recordArchive;
+    private final ZoneId zone;
+
+    public DailyStatsService(DailyBabyStatsRepository statsRepository,
+                             BabyRepository babyRepository,
+                             FeedingRecordRepository feedingRecordRepository,
+                             CleaningRecordRepository cleaningRecordRepository,
+                             WeightRecordRepository weightRecordRepository,
+                             ChangeTracker changeTracker,
+                             RecordArchive recordArchive,
+                             @Value("${flixcare.stats.zone:UTC}") String zone) {
+        this.statsRepository = statsRepository;
+        this.babyRepository = babyRepository;
+        this.feedingRecordRepository = feedingRecordRepository;
+        this.cleaningRecordRepository = cleaningRecordRepository;
+        this.weightRecordRepository = weightRecordRepository;
+        this.changeTracker = changeTracker;
+        this.recordArchive = recordArchive;
+        this.zone = ZoneId.of(zone);
+    }
+
+    public ZoneId getZone() {
+        return zone;
+    }
+
+    @Transactional(readOnly = true)
+    public List<DailyStatsView> getDailyStats(Long babyId, LocalDate from, LocalDate to) {
+        if (!babyRepository.existsById(babyId)) {
+            throw new ResourceNotFoundException("Baby not found with id: " + babyId);
+        }
+        return statsRepository.findViews(babyId, from, to);
+    }
+
+    /**
+     * Recomputes the baby's daily stats from its records, e.g. after the zone has changed. Days before the end of the
+     * newest archived month keep their stored rows, since archived records no longer change; only the newest archived
+     * month is decoded, for a first day that starts inside it. Records are streamed and summed per day, so memory
+     * grows with the number of days rather than records.
+     */
+    @Transactional
+    public int rebuild(Long babyId) {
+        Long householdId = babyRepository.findHouseholdIdById(babyId)
+                .orElseThrow(() -> new ResourceNotFoundException("Baby not found with id: " + babyId));
+        changeTracker.lockWriters(householdId);
+        LocalDateTime archivedUntil = Stream.of(RecordType.FEEDING, RecordType.CLEANING, RecordType.WEIGHT)
+                .map(type -> recordArchive.archivedUntil(type, babyId))
+                .filter(Objects::nonNull)
+                .max(Comparator.naturalOrder())
+                .orElse(null);
+        LocalDate firstDay = archivedUntil == null ? RecordArchive.FIRST_MONTH : toDay(archivedUntil);
+        LocalDateTime since = toStorageTime(firstDay);
+        statsRepository.deleteFrom(babyId, firstDay);
+
+        Map<LocalDate, DailyBabyStats> days = new HashMap<>();
+        Map<LocalDate, LocalDateTime> weightTimes = new HashMap<>();
+        try (Stream<Object[]> feedings = feedingRecordRepository.streamFeedingAmountsSince(babyId, since)) {
+            feedings.forEach(row -> addFeeding(days, babyId, (LocalDateTime) row[0], (Double) row[1]));
+        }
+        try (Stream<Object[]> diaperChanges = cleaningRecordRepository.streamDiaperContentSince(
+                babyId, CleaningRecord.CleaningType.DIAPER_CHANGE, since)) {
+            diaperChanges.forEach(row -> addDiaperChange(
+                    days, babyId, (LocalDateTime) row[0], (CleaningRecord.DiaperContent) row[1]));
+        }
+        try (Stream<Object[]> weights = weightRecordRepository.streamWeightsSince(babyId, since)) {
+            weights.forEach(row -> addWeight(days, weightTimes, babyId, (LocalDateTime) row[0], (Integer) row[1]));
+        }
+        if (archivedUntil != null && since.isBefore(archivedUntil)) {
+            LocalDateTime end = archivedUntil.minusNanos(1);
+            recordArchive.<FeedingRecordView>mergeRange(RecordType.FEEDING, babyId, List.of(), since, end)
+                    .forEach(record -> addFeeding(days, babyId, record.feedingTime(), record.amountMl()));
+            recordArchive.<CleaningRecordView>mergeRange(RecordType.CLEANING, babyId, List.of(), since, end).stream()
+                    .filter(record -> record.cleaningType() == CleaningRecord.CleaningType.DIAPER_CHANGE)
+                    .forEach(record -> addDiaperChange(
+                            days, babyId, record.cleaningTime(), record.diaperContent()));
+            recordArchive.<WeightRecordView>mergeRange(RecordType.WEIGHT, babyId, List.of(), since, end)
+                    .forEach(record -> addWeight(
+                            days, weightTimes, babyId, record.measurementTime(), record.weightGrams()));
+        }
+        statsRepository.saveAll(days.values());
+        return days.size();
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    void addFeeding(FeedingRecord record, int sign) {
+        apply(record.getBaby().getId(), toDay(record.getFeedingTime()),
+                sign, sign * amountOf(record.getAmountMl()), 0, 0, 0);
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    void addFeedings(Collection<FeedingRecord> records) {
+        Map<DayKey, double[]> totals = new HashMap<>();
+        for (FeedingRecord record : records) {
+            double[] total = totals.computeIfAbsent(
+                    new DayKey(record.getBaby().getId(), toDay(record.getFeedingTime())), key -> new double[2]);
+            total[0]++;
+            total[1] += amountOf(record.getAmountMl());
+        }
+        totals.forEach((key, total) -> apply(key.babyId(), key.date(), (int) total[0], total[1], 0, 0, 0));
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    void addCleaning(CleaningRecord record, int sign) {
+        if (record.getCleaningType() != CleaningRecord.CleaningType.DIAPER_CHANGE) {
+            return;
+        }
+        CleaningRecord.DiaperContent content = record.getDiaperContent();
+        apply(record.getBaby().getId(), toDay(record.getCleaningTime()), 0, 0,
+                sign, isWet(content) ? sign : 0, isDirty(content) ? sign : 0);
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    void addCleanings(Collection<CleaningRecord> records) {
+        Map<DayKey, int[]> totals = new HashMap<>();
+        for (CleaningRecord record : records) {
+            if (record.getCleaningType() != CleaningRecord.CleaningType.DIAPER_CHANGE) {
+                continue;
+            }
+            int[] total = totals.computeIfAbsent(
+                    new DayKey(record.getBaby().getId(), toDay(record.getCleaningTime())), key -> new int[3]);
+            total[0]++;
+            total[1] += isWet(record.getDiaperContent()) ? 1 : 0;
+            total[2] += isDirty(record.getDiaperContent()) ? 1 : 0;
+        }
+        totals.forEach((key, total) -> apply(key.babyId(), key.date(), 0, 0, total[0], total[1], total[2]));
+    }
+
+    // The day's weight is the last measurement, which a delta cannot express, so it is re-read for each touched day
+    @Transactional(propagation = Propagation.MANDATORY)
+    void refreshWeights(Long babyId, Collection<LocalDateTime> times) {
+        Set<LocalDate> touched = new HashSet<>();
+        for (LocalDateTime time : times) {
+            touched.add(toDay(time));
+        }
+        for (LocalDate date : touched) {
+            LocalDateTime start = toStorageTime(date);
+            LocalDateTime end = toStorageTime(date.plusDays(1));
+            Object[] latest = weightRecordRepository.findLatestWeightBetween(babyId, start, end, PageRequest.of(0, 1))
+                    .stream().findFirst().orElse(null);
+            // A day of an archived month may have its last measurement in the archive
+            WeightRecordView archived = recordArchive.<WeightRecordView>mergeRange(
+                            RecordType.WEIGHT, babyId, List.of(), start, end).stream()
+                    .filter(record -> record.measurementTime().isBefore(end))
+                    .findFirst().orElse(null);
+            Integer weight = latest == null ? null : (Integer) latest[1];
+            if (archived != null && (latest == null || archived.measurementTime().isAfter((LocalDateTime) latest[0]))) {
+                weight = archived.weightGrams();
+            }
+            if (statsRepository.setWeight(babyId, date, weight) == 0 && weight != null) {
+                statsRepository.insertDay(babyId, date, 0, 0, 0, 0, 0);
+                statsRepository.setWeight(babyId, date, weight);
+            }
+        }
+    }
+
+    private void apply(Long babyId, LocalDate date, int feedings, double amountMl,
+                       int diaperChanges, int wet, int dirty) {
+        if (statsRepository.addToDay(babyId, date, feedings, amountMl, diaperChanges, wet, dirty) == 0) {
+            statsRepository.insertDay(babyId, date, feedings, amountMl, diaperChanges, wet, dirty);
+        }
+    }
+
+    private LocalDate toDay(LocalDateTime time) {
+        return time.atZone(RecordTimes.STORAGE_ZONE).withZoneSameInstant(zone).toLocalDate();
+    }
+
+    private LocalDateTime toStorageTime(LocalDate day) {
+        return day.atStartOfDay(zone).withZoneSameInstant(RecordTimes.STORAGE_ZONE).toLocalDateTime();
+    }
+
+    private void addFeeding(Map<LocalDate, DailyBabyStats> days, Long babyId, LocalDateTime time, Double amountMl) {
+        DailyBabyStats day = days.computeIfAbsent(toDay(time), date -> newDay(babyId, date));
+        day.setFeedingCount(day.getFeedingCount() + 1);
+        day.setFeedingAmountMl(day.getFeedingAmountMl() + amountOf(amountMl));
+    }
+
+    private void addDiaperChange(Map<LocalDate, DailyBabyStats> days, Long babyId, LocalDateTime time,
+                                 CleaningRecord.DiaperContent content) {
+        DailyBabyStats day = days.computeIfAbsent(toDay(time), date -> newDay(babyId, date));
+        day.setDiaperChanges(day.getDiaperChanges() + 1);
+        day.setWetDiapers(day.getWetDiapers() + (isWet(content) ? 1 : 0));
+        day.setDirtyDiapers(day.getDirtyDiapers() + (isDirty(content) ? 1 : 0));
+    }
+
+    // The day's weight is its last measurement; of two at the same time the one added later, i.e. the higher id
+    private void addWeight(Map<LocalDate, DailyBabyStats> days, Map<LocalDate, LocalDateTime> weightTimes,
+                           Long babyId, LocalDateTime time, Integer weightGrams) {
+        LocalDate date = toDay(time);
+        LocalDateTime latest = weightTimes.get(date);
+        if (latest == null || !time.isBefore(latest)) {
+            weightTimes.put(date, time);
+            days.computeIfAbsent(date, d -> newDay(babyId, d)).setWeightGrams(weightGrams);
+        }
+    }
+
+    private static DailyBabyStats newDay(Long babyId, LocalDate date) {
+        DailyBabyStats day = new DailyBabyStats();
+        day.setBabyId(babyId);
+        day.setStatDate(date);
+        return day;
+    }
+
+    private static double amountOf(Double amountMl) {
+        return amountMl == null ? 0 : amountMl;
+    }
+
+    private static boolean isWet(CleaningRecord.DiaperContent content) {
+        return content == CleaningRecord.DiaperContent.WET || content == CleaningRecord.DiaperContent.BOTH;
+    }
+
+    private static boolean isDirty(CleaningRecord.DiaperContent content) {
+        return content == CleaningRecord.DiaperContent.DIRTY || content == CleaningRecord.DiaperContent.BOTH;
+    }
+
+    private record DayKey(Long babyId, LocalDate date) {
+    }
+}
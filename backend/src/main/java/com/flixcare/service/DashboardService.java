@@ -0,0 +1,200 @@
+package com.flixcare.service;
+
+import com.flixcare.dto.DailyStatsView;
+import com.flixcare.dto.DashboardDTO;
+import com.flixcare.dto.FeedingRecordView;
+import com.flixcare.dto.TemperatureRecordView;
+import com.flixcare.dto.WeightRecordView;
+import com.flixcare.entity.Baby;
+import com.flixcare.entity.CleaningRecord;
+import com.flixcare.entity.MedicationType;
+import com.flixcare.exception.ResourceNotFoundException;
+import com.flixcare.repository.BabyRepository;
+import com.flixcare.repository.CleaningRecordRepository;
+import com.flixcare.repository.DailyBabyStatsRepository;
+import com.flixcare.repository.FeedingRecordRepository;
+import com.flixcare.repository.MedicationRecordRepository;
+import com.flixcare.repository.TemperatureRecordRepository;
+import com.flixcare.repository.WeightRecordRepository;
+import com.flixcare.service.RecordVersions.RecordType;
+import io.micrometer.core.annotation.Timed;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+
+@Service
+@Timed("flixcare.service")
+@RequiredArgsConstructor
+public class DashboardService {
+
+    private final BabyRepository babyRepository;
+    private final FeedingRecordRepository feedingRecordRepository;
+    private final TemperatureRecordRepository temperatureRecordRepository;
+    private final CleaningRecordRepository cleaningRecordRepository;
+    private final MedicationRecordRepository medicationRecordRepository;
+    private final WeightRecordRepository weightRecordRepository;
+    private final DailyBabyStatsRepository dailyBabyStatsRepository;
+    private final DailyStatsService dailyStatsService;
+    private final RecordArchive recordArchive;
+
+    @Transactional(readOnly = true)
+    public DashboardDTO getDashboard(Long babyId, ZoneId zone, int diaperDays, int weightLimit) {
+        Baby baby = babyRepository.findById(babyId)
+                .orElseThrow(() -> new ResourceNotFoundException("Baby not found with id: " + babyId));
+
+        LocalDate today = LocalDate.now(zone);
+        LocalDateTime todayStart = toStorageTime(today, zone);
+
+        DashboardDTO dto = new DashboardDTO();
+        dto.setBabyId(baby.getId());
+        dto.setBabyName(baby.getName());
+        dto.setBirthDate(baby.getBirthDate());
+
+        dto.setLastFeedingTime(feedingRecordRepository.findLatestFeedingTime(babyId));
+        dto.setTodayFeedings(feedingRecordRepository.countByBabyIdAndFeedingTimeGreaterThanEqual(babyId, todayStart));
+
+        temperatureRecordRepository.findFirstByBabyIdOrderByMeasurementTimeDesc(babyId).ifPresent(record -> {
+            dto.setLastTemperatureTime(record.getMeasurementTime());
+            dto.setLastTemperatureCelsius(record.getTemperatureCelsius());
+        });
+
+        for (Object[] row : cleaningRecordRepository.findLatestCleaningTimePerType(babyId)) {
+            CleaningRecord.CleaningType type = (CleaningRecord.CleaningType) row[0];
+            LocalDateTime time = (LocalDateTime) row[1];
+            switch (type) {
+                case DIAPER_CHANGE -> dto.setLastDiaperChangeTime(time);
+                case BATH -> dto.setLastBathTime(time);
+                case SPONGE_BATH -> dto.setLastSpongeBathTime(time);
+                default -> { }
+            }
+        }
+        dto.setTodayDiaperChanges(cleaningRecordRepository.countByBabyIdAndCleaningTypeAndCleaningTimeGreaterThanEqual(
+                babyId, CleaningRecord.CleaningType.DIAPER_CHANGE, todayStart));
+
+        for (Object[] row : medicationRecordRepository.findLatestMedicationTimePerType(babyId)) {
+            MedicationType type = (MedicationType) row[0];
+            LocalDateTime time = (LocalDateTime) row[1];
+            switch (type) {
+                case VITAMIN_D -> dto.setLastVitaminDTime(time);
+                case EYE_CLEANING -> dto.setLastEyeCleaningTime(time);
+            }
+        }
+
+        addArchivedLatestTimes(dto, babyId);
+        dto.setWeightSeries(buildWeightSeries(babyId, weightLimit));
+        dto.setDiaperSeries(buildDiaperSeries(babyId, zone, today, diaperDays));
+        return dto;
+    }
+
+    // Only a baby without recent records of a kind needs the archive for its latest time
+    private void addArchivedLatestTimes(DashboardDTO dto, Long babyId) {
+        if (dto.getLastFeedingTime() == null) {
+            FeedingRecordView feeding = recordArchive.findLatest(RecordType.FEEDING, babyId);
+            dto.setLastFeedingTime(feeding == null ? null : feeding.feedingTime());
+        }
+        if (dto.getLastTemperatureTime() == null) {
+            TemperatureRecordView temperature = recordArchive.findLatest(RecordType.TEMPERATURE, babyId);
+            if (temperature != null) {
+                dto.setLastTemperatureTime(temperature.measurementTime());
+                dto.setLastTemperatureCelsius(temperature.temperatureCelsius());
+            }
+        }
+        if (dto.getLastDiaperChangeTime() == null) {
+            dto.setLastDiaperChangeTime(latestArchivedCleaning(babyId, CleaningRecord.CleaningType.DIAPER_CHANGE));
+        }
+        if (dto.getLastBathTime() == null) {
+            dto.setLastBathTime(latestArchivedCleaning(babyId, CleaningRecord.CleaningType.BATH));
+        }
+        if (dto.getLastSpongeBathTime() == null) {
+            dto.setLastSpongeBathTime(latestArchivedCleaning(babyId, CleaningRecord.CleaningType.SPONGE_BATH));
+        }
+        if (dto.getLastVitaminDTime() == null) {
+            dto.setLastVitaminDTime(latestArchivedMedication(babyId, MedicationType.VITAMIN_D));
+        }
+        if (dto.getLastEyeCleaningTime() == null) {
+            dto.setLastEyeCleaningTime(latestArchivedMedication(babyId, MedicationType.EYE_CLEANING));
+        }
+    }
+
+    private LocalDateTime latestArchivedCleaning(Long babyId, CleaningRecord.CleaningType type) {
+        return recordArchive.findLatestTime(RecordType.CLEANING, babyId, type.name());
+    }
+
+    private LocalDateTime latestArchivedMedication(Long babyId, MedicationType type) {
+        return recordArchive.findLatestTime(RecordType.MEDICATION, babyId, type.name());
+    }
+
+    private List<DashboardDTO.WeightPoint> buildWeightSeries(Long babyId, int weightLimit) {
+        List<DashboardDTO.WeightPoint> series = new ArrayList<>();
+        for (Object[] row : weightRecordRepository.findLatestWeights(babyId, PageRequest.of(0, weightLimit))) {
+            series.add(new DashboardDTO.WeightPoint((LocalDateTime) row[0], (Integer) row[1]));
+        }
+        // Older measurements are in the archive once the recent ones do not fill the series
+        if (series.size() < weightLimit) {
+            recordArchive.<WeightRecordView>mergePage(RecordType.WEIGHT, babyId, List.of(), null, null, weightLimit)
+                    .forEach(record ->
+                            series.add(new DashboardDTO.WeightPoint(record.measurementTime(), record.weightGrams())));
+            series.sort(Comparator.comparing(DashboardDTO.WeightPoint::getMeasurementTime));
+            return series.size() > weightLimit
+                    ? new ArrayList<>(series.subList(series.size() - weightLimit, series.size()))
+                    : series;
+        }
+        // Query returns newest first, the chart expects ascending order
+        Collections.reverse(series);
+        return series;
+    }
+
+    private List<DashboardDTO.DiaperDay> buildDiaperSeries(Long babyId, ZoneId zone, LocalDate today, int days) {
+        LocalDate firstDay = today.minusDays(days - 1L);
+        List<DashboardDTO.DiaperDay> series = new ArrayList<>(days);
+        for (int i = 0; i < days; i++) {
+            series.add(new DashboardDTO.DiaperDay(firstDay.plusDays(i), 0, 0));
+        }
+
+        // Days of the stats table only line up with the caller's days in the same time zone
+        if (zone.normalized().equals(dailyStatsService.getZone().normalized())) {
+            for (DailyStatsView stats : dailyBabyStatsRepository.findViews(babyId, firstDay, today)) {
+                DashboardDTO.DiaperDay diaperDay = series.get((int) ChronoUnit.DAYS.between(firstDay, stats.date()));
+                diaperDay.setWet(stats.wetDiapers());
+                diaperDay.setDirty(stats.dirtyDiapers());
+            }
+            return series;
+        }
+
+        List<Object[]> rows = cleaningRecordRepository.findDiaperContentSince(
+                babyId, CleaningRecord.CleaningType.DIAPER_CHANGE, toStorageTime(firstDay, zone));
+        for (Object[] row : rows) {
+            LocalDate day = ((LocalDateTime) row[0]).atZone(RecordTimes.STORAGE_ZONE)
+                    .withZoneSameInstant(zone).toLocalDate();
+            int index = (int) ChronoUnit.DAYS.between(firstDay, day);
+            if (index < 0 || index >= days || row[1] == null) {
+                continue;
+            }
+            DashboardDTO.DiaperDay diaperDay = series.get(index);
+            switch ((CleaningRecord.DiaperContent) row[1]) {
+                case WET -> diaperDay.setWet(diaperDay.getWet() + 1);
+                case DIRTY -> diaperDay.setDirty(diaperDay.getDirty() + 1);
+                case BOTH -> {
+                    diaperDay.setWet(diaperDay.getWet() + 1);
+                    diaperDay.setDirty(diaperDay.getDirty() + 1);
+                }
+                default -> { }
+            }
+        }
+        return series;
+    }
+
+    private LocalDateTime toStorageTime(LocalDate day, ZoneId zone) {
+        return day.atStartOfDay(zone).withZoneSameInstant(RecordTimes.STORAGE_ZONE).toLocalDateTime();
+    }
+}
@@ -0,0 +1,258 @@
+package com.flixcare.service;
+
+import com.flixcare.dto.CleaningRecordView;
+import com.flixcare.dto.ExportRecord;
+import com.flixcare.dto.FeedingRecordView;
+import com.flixcare.dto.MedicationRecordView;
+import com.flixcare.dto.TemperatureRecordView;
+import com.flixcare.dto.WeightRecordView;
+import com.flixcare.entity.CleaningRecord;
+import com.flixcare.entity.FeedingRecord;
+import com.flixcare.entity.MedicationType;
+import com.flixcare.entity.TemperatureRecord;
+import com.flixcare.service.RecordVersions.RecordType;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+import java.util.Map;
+
+/**
+ * Binary encoding of the entries of a {@link BabyEventLog}. An entry is a 4-byte length followed by a kind byte, the
+ * record type's ordinal with the high bit set for a deletion, and the record id as a varint. A record entry goes on
+ * with a varint mask of the fields present and those fields in declaration order: times as zigzag varint epoch
+ * seconds (UTC) and varint nanos, enums as their ordinal byte, integers as zigzag varints, doubles as 8 bytes and
+ * strings as a varint length and UTF-8. Baby id and name are not stored, the log is per baby and names change.
+ */
+final class EventLogCodec {
+
+    static final int LENGTH_SIZE = Integer.BYTES;
+
+    private static final int DELETED = 0x80;
+    private static final Class<?>[] COMMON_FIELDS = {
+            LocalDateTime.class, LocalDateTime.class, LocalDateTime.class, String.class};
+    // Time, createdAt, updatedAt and notes, then the fields of the type
+    private static final Map<RecordType, Class<?>[]> FIELDS = Map.of(
+            RecordType.FEEDING, fields(FeedingRecord.FeedingType.class, Double.class, Integer.class),
+            RecordType.CLEANING, fields(CleaningRecord.CleaningType.class, CleaningRecord.DiaperContent.class),
+            RecordType.TEMPERATURE, fields(Double.class, TemperatureRecord.MeasurementLocation.class),
+            RecordType.WEIGHT, fields(Integer.class),
+            RecordType.MEDICATION, fields(MedicationType.class, String.class));
+    private static final RecordType[] TYPES = RecordType.values();
+
+    /**
+     * Changes whenever an enum stored by ordinal gains, loses or reorders constants, so logs written before are
+     * rebuilt instead of misread.
+     */
+    static final int ENUM_FINGERPRINT = Arrays.hashCode(FIELDS.entrySet().stream()
+            .sorted(Map.Entry.comparingByKey())
+            .flatMap(entry -> Arrays.stream(entry.getValue()))
+            .filter(Class::isEnum)
+            .map(type -> Arrays.toString(type.getEnumConstants()))
+            .toArray());
+
+    private EventLogCodec() {
+    }
+
+    static void encode(RecordType type, Object view, ByteBuffer out) {
+        Object[] values = values(view);
+        if (values[0] == null) {
+            throw new IllegalArgumentException("A " + type + " record without a time cannot be stored");
+        }
+        Class<?>[] fields = FIELDS.get(type);
+        int start = out.position();
+        out.position(start + LENGTH_SIZE);
+        out.put((byte) type.ordinal());
+        putVarLong(out, RecordArchive.layout(type).id().apply(view));
+        int mask = 0;
+        for (int i = 0; i < values.length; i++) {
+            mask |= values[i] != null ? 1 << i : 0;
+        }
+        putVarLong(out, mask);
+        for (int i = 0; i < values.length; i++) {
+            if (values[i] != null) {
+                put(out, fields[i], values[i]);
+            }
+        }
+        out.putInt(start, out.position() - start - LENGTH_SIZE);
+    }
+
+    static void encodeDeletion(RecordType type, long id, ByteBuffer out) {
+        int start = out.position();
+        out.position(start + LENGTH_SIZE);
+        out.put((byte) (type.ordinal() | DELETED));
+        putVarLong(out, id);
+        out.putInt(start, out.position() - start - LENGTH_SIZE);
+    }
+
+    /**
+     * Reads type, id and time of the entry at the buffer's position, leaving the position after the entry. The time
+     * is {@code null} for a deletion.
+     */
+    static EntryKey readKey(ByteBuffer in) {
+        int end = entryEnd(in);
+        int kind = in.get() & 0xff;
+        RecordType type = type(kind);
+        long id = getVarLong(in);
+        LocalDateTime time = (kind & DELETED) == 0 && (getVarLong(in) & 1) != 0 ? getTime(in) : null;
+        in.position(end);
+        return new EntryKey(type, id, time);
+    }
+
+    /**
+     * Decodes the record entry at the buffer's position into the view of its type.
+     */
+    static ExportRecord decode(ByteBuffer in, Long babyId, String babyName) {
+        int end = entryEnd(in);
+        RecordType type = type(in.get() & 0xff);
+        long id = getVarLong(in);
+        long mask = getVarLong(in);
+        Class<?>[] fields = FIELDS.get(type);
+        Object[] values = new Object[fields.length];
+        for (int i = 0; i < fields.length; i++) {
+            if ((mask & 1L << i) != 0) {
+                values[i] = get(in, fields[i]);
+            }
+        }
+        if (in.position() != end) {
+            throw new IllegalStateException("Event log entry of " + type + " " + id + " has a wrong length");
+        }
+        return new ExportRecord(type, (LocalDateTime) values[0], view(type, id, babyId, babyName, values));
+    }
+
+    private static int entryEnd(ByteBuffer in) {
+        int length = in.getInt();
+        if (length <= 0 || length > in.remaining()) {
+            throw new IllegalStateException("Event log entry at " + (in.position() - LENGTH_SIZE)
+                    + " has an invalid length " + length);
+        }
+        return in.position() + length;
+    }
+
+    private static RecordType type(int kind) {
+        int ordinal = kind & ~DELETED;
+        if (ordinal >= TYPES.length) {
+            throw new IllegalStateException("Unknown event log entry kind " + kind);
+        }
+        return TYPES[ordinal];
+    }
+
+    private static Object[] values(Object view) {
+        return switch (view) {
+            case FeedingRecordView f -> new Object[] {f.feedingTime(), f.createdAt(), f.updatedAt(), f.notes(),
+                    f.feedingType(), f.amountMl(), f.durationMinutes()};
+            case CleaningRecordView c -> new Object[] {c.cleaningTime(), c.createdAt(), c.updatedAt(), c.notes(),
+                    c.cleaningType(), c.diaperContent()};
+            case TemperatureRecordView t -> new Object[] {t.measurementTime(), t.createdAt(), t.updatedAt(),
+                    t.notes(), t.temperatureCelsius(), t.measurementLocation()};
+            case WeightRecordView w -> new Object[] {w.measurementTime(), w.createdAt(), w.updatedAt(), w.notes(),
+                    w.weightGrams()};
+            case MedicationRecordView m -> new Object[] {m.medicationTime(), m.createdAt(), m.updatedAt(),
+                    m.notes(), m.medicationType(), m.dosage()};
+            default -> throw new IllegalArgumentException("Not a record view: " + view.getClass());
+        };
+    }
+
+    private static Object view(RecordType type, long id, Long babyId, String babyName, Object[] v) {
+        LocalDateTime time = (LocalDateTime) v[0];
+        LocalDateTime createdAt = (LocalDateTime) v[1];
+        LocalDateTime updatedAt = (LocalDateTime) v[2];
+        String notes = (String) v[3];
+        return switch (type) {
+            case FEEDING -> new FeedingRecordView(id, babyId, babyName, time, (FeedingRecord.FeedingType) v[4],
+                    (Double) v[5], (Integer) v[6], notes, createdAt, updatedAt);
+            case CLEANING -> new CleaningRecordView(id, babyId, babyName, time, (CleaningRecord.CleaningType) v[4],
+                    (CleaningRecord.DiaperContent) v[5], notes, createdAt, updatedAt);
+            case TEMPERATURE -> new TemperatureRecordView(id, babyId, babyName, time, (Double) v[4],
+                    (TemperatureRecord.MeasurementLocation) v[5], notes, createdAt, updatedAt);
+            case WEIGHT -> new WeightRecordView(id, babyId, babyName, time, (Integer) v[4], notes, createdAt,
+                    updatedAt);
+            case MEDICATION -> new MedicationRecordView(id, babyId, babyName, time, (MedicationType) v[4],
+                    (String) v[5], notes, createdAt, updatedAt);
+        };
+    }
+
+    private static void put(ByteBuffer out, Class<?> field, Object value) {
+        switch (value) {
+            case LocalDateTime time -> {
+                putVarLong(out, zigzag(time.toEpochSecond(ZoneOffset.UTC)));
+                putVarLong(out, time.getNano());
+            }
+            case Enum<?> constant -> out.put((byte) constant.ordinal());
+            case Integer number -> putVarLong(out, zigzag(number));
+            case Double number -> out.putDouble(number);
+            case String text -> {
+                byte[] bytes = text.getBytes(StandardCharsets.UTF_8);
+                putVarLong(out, bytes.length);
+                out.put(bytes);
+            }
+            default -> throw new IllegalArgumentException("Cannot store " + field.getSimpleName());
+        }
+    }
+
+    private static Object get(ByteBuffer in, Class<?> field) {
+        if (field == LocalDateTime.class) {
+            return getTime(in);
+        } else if (field.isEnum()) {
+            return field.getEnumConstants()[in.get() & 0xff];
+        } else if (field == Integer.class) {
+            return (int) unzigzag(getVarLong(in));
+        } else if (field == Double.class) {
+            return in.getDouble();
+        }
+        byte[] bytes = new byte[(int) getVarLong(in)];
+        in.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static LocalDateTime getTime(ByteBuffer in) {
+        long seconds = unzigzag(getVarLong(in));
+        return LocalDateTime.ofEpochSecond(seconds, (int) getVarLong(in), ZoneOffset.UTC);
+    }
+
+    private static void putVarLong(ByteBuffer out, long value) {
+        while ((value & ~0x7fL) != 0) {
+            out.put((byte) (value & 0x7f | 0x80));
+            value >>>= 7;
+        }
+        out.put((byte) value);
+    }
+
+    private static long getVarLong(ByteBuffer in) {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            byte b = in.get();
+            value |= (long) (b & 0x7f) << shift;
+            if (b >= 0) {
+                return value;
+            }
+        }
+        throw new IllegalStateException("Malformed varint in event log");
+    }
+
+    private static long zigzag(long value) {
+        return value << 1 ^ value >> 63;
+    }
+
+    private static long unzigzag(long value) {
+        return value >>> 1 ^ -(value & 1);
+    }
+
+    private static Class<?>[] fields(Class<?>... typeFields) {
+        Class<?>[] fields = Arrays.copyOf(COMMON_FIELDS, COMMON_FIELDS.length + typeFields.length);
+        System.arraycopy(typeFields, 0, fields, COMMON_FIELDS.length, typeFields.length);
+        return fields;
+    }
+
+    /**
+     * Identifies an entry without decoding the whole record.
+     */
+    record EntryKey(RecordType type, long id, LocalDateTime time) {
+
+        boolean isDeletion() {
+            return time == null;
+        }
+    }
+}
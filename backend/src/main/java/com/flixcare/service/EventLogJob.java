@@ -0,0 +1,18 @@
+package com.flixcare.service;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+// Rewrites event logs that collected updated and deleted records, or appends out of list order, every night
+@Component
+@RequiredArgsConstructor
+class EventLogJob {
+
+    private final RecordEventLog recordEventLog;
+
+    @Scheduled(cron = "${flixcare.event-log.cron:0 0 4 * * *}")
+    void compactEventLogs() {
+        recordEventLog.compactAll();
+    }
+}
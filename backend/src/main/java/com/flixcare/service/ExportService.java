@@ -0,0 +1,120 @@
+package com.flixcare.service;
+
+import com.flixcare.dto.CleaningRecordView;
+import com.flixcare.dto.ExportRecord;
+import com.flixcare.dto.FeedingRecordView;
+import com.flixcare.dto.MedicationRecordView;
+import com.flixcare.dto.TemperatureRecordView;
+import com.flixcare.dto.WeightRecordView;
+import com.flixcare.repository.CleaningRecordRepository;
+import com.flixcare.repository.FeedingRecordRepository;
+import com.flixcare.repository.MedicationRecordRepository;
+import com.flixcare.repository.TemperatureRecordRepository;
+import com.flixcare.repository.WeightRecordRepository;
+import com.flixcare.service.RecordVersions.RecordType;
+import io.micrometer.core.annotation.Timed;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+/**
+ * Streams the complete history of a baby, all record types merged newest first like the record lists. Each type is
+ * read through a forward-only cursor merged with its archive, and the types are merged holding one record per type,
+ * so memory does not depend on the length of the history. With the {@link RecordEventLog} enabled the history is read
+ * from the baby's log instead, and the database only to build it.
+ */
+@Service
+@Timed("flixcare.service")
+public class ExportService {
+
+    // Newest first; records of the same time keep the order of the record types
+    private static final Comparator<ExportRecord> ORDER = Comparator.comparing(ExportRecord::time).reversed()
+            .thenComparing(ExportRecord::type);
+
+    private final FeedingRecordRepository feedingRecordRepository;
+    private final CleaningRecordRepository cleaningRecordRepository;
+    private final TemperatureRecordRepository temperatureRecordRepository;
+    private final WeightRecordRepository weightRecordRepository;
+    private final MedicationRecordRepository medicationRecordRepository;
+    private final RecordArchive recordArchive;
+    private final RecordEventLog recordEventLog;
+    private final TransactionTemplate readTransaction;
+
+    public ExportService(FeedingRecordRepository feedingRecordRepository,
+                         CleaningRecordRepository cleaningRecordRepository,
+                         TemperatureRecordRepository temperatureRecordRepository,
+                         WeightRecordRepository weightRecordRepository,
+                         MedicationRecordRepository medicationRecordRepository,
+                         RecordArchive recordArchive,
+                         RecordEventLog recordEventLog,
+                         PlatformTransactionManager transactionManager) {
+        this.feedingRecordRepository = feedingRecordRepository;
+        this.cleaningRecordRepository = cleaningRecordRepository;
+        this.temperatureRecordRepository = temperatureRecordRepository;
+        this.weightRecordRepository = weightRecordRepository;
+        this.medicationRecordRepository = medicationRecordRepository;
+        this.recordArchive = recordArchive;
+        this.recordEventLog = recordEventLog;
+        this.readTransaction = new TransactionTemplate(transactionManager);
+        readTransaction.setReadOnly(true);
+    }
+
+    public void exportHistory(Long babyId, Consumer<ExportRecord> consumer) {
+        if (recordEventLog.isEnabled()) {
+            recordEventLog.readHistory(babyId, records -> readDatabase(babyId, records), consumer);
+        } else {
+            readDatabase(babyId, consumer);
+        }
+    }
+
+    // All cursors stay open on the transaction's connection until the export is written
+    void readDatabase(Long babyId, Consumer<ExportRecord> consumer) {
+        readTransaction.executeWithoutResult(status -> mergeHistory(babyId, consumer));
+    }
+
+    private void mergeHistory(Long babyId, Consumer<ExportRecord> consumer) {
+        try (Stream<ExportRecord> feedings = open(RecordType.FEEDING, babyId,
+                feedingRecordRepository.streamViewsByBabyId(babyId), FeedingRecordView::feedingTime);
+             Stream<ExportRecord> cleanings = open(RecordType.CLEANING, babyId,
+                     cleaningRecordRepository.streamViewsByBabyId(babyId), CleaningRecordView::cleaningTime);
+             Stream<ExportRecord> temperatures = open(RecordType.TEMPERATURE, babyId,
+                     temperatureRecordRepository.streamViewsByBabyId(babyId), TemperatureRecordView::measurementTime);
+             Stream<ExportRecord> weights = open(RecordType.WEIGHT, babyId,
+                     weightRecordRepository.streamViewsByBabyId(babyId), WeightRecordView::measurementTime);
+             Stream<ExportRecord> medications = open(RecordType.MEDICATION, babyId,
+                     medicationRecordRepository.streamViewsByBabyId(babyId), MedicationRecordView::medicationTime)) {
+            PriorityQueue<Source> heads = new PriorityQueue<>(Comparator.comparing(Source::head, ORDER));
+            for (Stream<ExportRecord> records : List.of(feedings, cleanings, temperatures, weights, medications)) {
+                Iterator<ExportRecord> iterator = records.iterator();
+                if (iterator.hasNext()) {
+                    heads.add(new Source(iterator.next(), iterator));
+                }
+            }
+            while (!heads.isEmpty()) {
+                Source source = heads.poll();
+                consumer.accept(source.head());
+                if (source.rest().hasNext()) {
+                    heads.add(new Source(source.rest().next(), source.rest()));
+                }
+            }
+        }
+    }
+
+    private <T> Stream<ExportRecord> open(RecordType type, Long babyId, Stream<T> records,
+                                          Function<T, LocalDateTime> time) {
+        return recordArchive.mergeStream(type, babyId, records)
+                .map(view -> new ExportRecord(type, time.apply(view), view));
+    }
+
+    private record Source(ExportRecord head, Iterator<ExportRecord> rest) {
+    }
+}
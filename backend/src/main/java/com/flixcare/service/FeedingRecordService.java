@@ -1,107 +1,183 @@
 package com.flixcare.service;
 
 import com.flixcare.dto.FeedingRecordDTO;
+import com.flixcare.dto.FeedingRecordView;
 import com.flixcare.entity.Baby;
 import com.flixcare.entity.FeedingRecord;
 import com.flixcare.exception.ResourceNotFoundException;
 import com.flixcare.repository.BabyRepository;
 import com.flixcare.repository.FeedingRecordRepository;
+import com.flixcare.service.RecordVersions.RecordType;
+import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 @Service
+@Timed("flixcare.service")
 @RequiredArgsConstructor
 @Transactional
 public class FeedingRecordService {
 
     private final FeedingRecordRepository feedingRecordRepository;
     private final BabyRepository babyRepository;
+    private final BatchWriter batchWriter;
+    private final ChangeTracker changeTracker;
+    private final ApplicationEventPublisher eventPublisher;
+    private final RecordCache recordCache;
+    private final RecordArchive recordArchive;
+    private final CurrentHousehold currentHousehold;
+    private final DailyStatsService dailyStatsService;
+
+    @Transactional(readOnly = true)
+    public List<FeedingRecordView> getAllFeedingRecords() {
+        return recordArchive.merge(RecordType.FEEDING, null,
+                feedingRecordRepository.findAllViews(currentHousehold.id(), Pageable.unpaged()));
+    }
+
+    @Transactional(readOnly = true)
+    public List<FeedingRecordView> getAllFeedingRecords(LocalDateTime before, Long beforeId, int limit) {
+        Pageable pageable = PageRequest.of(0, limit);
+        List<FeedingRecordView> records = before == null
+                ? feedingRecordRepository.findAllViews(currentHousehold.id(), pageable)
+                : feedingRecordRepository.findAllViewsBefore(
+                        currentHousehold.id(), before, beforeId == null ? 0L : beforeId, pageable);
+        return recordArchive.mergePage(RecordType.FEEDING, null, records, before, beforeId, limit);
+    }
+
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public List<FeedingRecordView> getFeedingRecordsByBaby(Long babyId) {
+        return recordCache.get(RecordType.FEEDING, babyId,
+                () -> recordArchive.merge(RecordType.FEEDING, babyId,
+                        feedingRecordRepository.findViewsByBabyId(babyId, Pageable.unpaged())));
+    }
 
-    public List<FeedingRecordDTO> getAllFeedingRecords() {
-        return feedingRecordRepository.findAll().stream()
-                .map(this::convertToDTO)
-                .collect(Collectors.toList());
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public List<FeedingRecordView> getFeedingRecordsByBaby(Long babyId, LocalDateTime before, Long beforeId, int limit) {
+        return recordCache.get(RecordType.FEEDING, babyId,
+                () -> getFeedingRecordsByBabyUncached(babyId, before, beforeId, limit), before, beforeId, limit);
     }
 
-    public List<FeedingRecordDTO> getFeedingRecordsByBaby(Long babyId) {
-        return feedingRecordRepository.findByBabyIdOrderByFeedingTimeDesc(babyId).stream()
-                .map(this::convertToDTO)
-                .collect(Collectors.toList());
+    // For callers that read each page once, such as the timeline, and would only fill the cache
+    @Transactional(readOnly = true)
+    public List<FeedingRecordView> getFeedingRecordsByBabyUncached(
+            Long babyId, LocalDateTime before, Long beforeId, int limit) {
+        Pageable pageable = PageRequest.of(0, limit);
+        List<FeedingRecordView> records = before == null
+                ? feedingRecordRepository.findViewsByBabyId(babyId, pageable)
+                : feedingRecordRepository.findViewsByBabyIdBefore(
+                        babyId, before, beforeId == null ? 0L : beforeId, pageable);
+        return recordArchive.mergePage(RecordType.FEEDING, babyId, records, before, beforeId, limit);
     }
 
-    public List<FeedingRecordDTO> getFeedingRecordsByBabyAndDateRange(
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public List<FeedingRecordView> getFeedingRecordsByBabyAndDateRange(
             Long babyId, LocalDateTime start, LocalDateTime end) {
-        return feedingRecordRepository
-                .findByBabyIdAndFeedingTimeBetweenOrderByFeedingTimeDesc(babyId, start, end)
-                .stream()
-                .map(this::convertToDTO)
-                .collect(Collectors.toList());
+        return recordCache.get(RecordType.FEEDING, babyId, () -> {
+            List<FeedingRecordView> records = feedingRecordRepository.findViewsByBabyIdAndRange(babyId, start, end);
+            return recordArchive.mergeRange(RecordType.FEEDING, babyId, records, start, end);
+        }, start, end);
     }
 
-    public FeedingRecordDTO getFeedingRecordById(Long id) {
-        FeedingRecord record = feedingRecordRepository.findById(id)
+    @Transactional(readOnly = true)
+    public void streamFeedingRecordsByBaby(Long babyId, Consumer<FeedingRecordView> consumer) {
+        try (Stream<FeedingRecordView> records = feedingRecordRepository.streamViewsByBabyId(babyId)) {
+            recordArchive.mergeStream(RecordType.FEEDING, babyId, records).forEach(consumer);
+        }
+    }
+
+    @Transactional(readOnly = true)
+    public FeedingRecordView getFeedingRecordById(Long id) {
+        return feedingRecordRepository.findViewById(id, currentHousehold.id())
+                .or(() -> recordArchive.findById(RecordType.FEEDING, id))
                 .orElseThrow(() -> new ResourceNotFoundException("Feeding record not found with id: " + id));
-        return convertToDTO(record);
     }
 
     public FeedingRecordDTO createFeedingRecord(FeedingRecordDTO dto) {
-        Baby baby = babyRepository.findById(dto.getBabyId())
+        Baby baby = babyRepository.findByIdAndHouseholdId(dto.getBabyId(), currentHousehold.id())
                 .orElseThrow(() -> new ResourceNotFoundException("Baby not found with id: " + dto.getBabyId()));
 
-        FeedingRecord record = convertToEntity(dto);
+        FeedingRecord record = RecordMapper.toEntity(dto);
         record.setBaby(baby);
+        record.setHouseholdId(baby.getHouseholdId());
+        record.setChangeVersion(changeTracker.nextVersion(baby.getHouseholdId()));
         FeedingRecord savedRecord = feedingRecordRepository.save(record);
-        return convertToDTO(savedRecord);
+        dailyStatsService.addFeeding(savedRecord, 1);
+        eventPublisher.publishEvent(RecordChangedEvent.created(RecordType.FEEDING, baby, savedRecord.getId()));
+        return RecordMapper.toDTO(savedRecord);
+    }
+
+    public List<Long> createFeedingRecords(List<FeedingRecordDTO> dtos) {
+        List<Long> babyIds = dtos.stream().map(FeedingRecordDTO::getBabyId).toList();
+        Map<Long, Baby> babies = batchWriter.loadBabies(babyIds);
+
+        long changeVersion = changeTracker.nextVersion(currentHousehold.id());
+        List<FeedingRecord> records = new ArrayList<>(dtos.size());
+        for (FeedingRecordDTO dto : dtos) {
+            FeedingRecord record = RecordMapper.toEntity(dto);
+            Baby baby = babies.get(dto.getBabyId());
+            record.setBaby(baby);
+            record.setHouseholdId(baby.getHouseholdId());
+            record.setChangeVersion(changeVersion);
+            records.add(record);
+        }
+        List<Long> ids = batchWriter.persistAll(records, FeedingRecord::getId);
+        dailyStatsService.addFeedings(records);
+        RecordChangedEvent.created(RecordType.FEEDING, babyIds, ids, currentHousehold.id())
+                .forEach(eventPublisher::publishEvent);
+        return ids;
     }
 
     public FeedingRecordDTO updateFeedingRecord(Long id, FeedingRecordDTO dto) {
-        FeedingRecord record = feedingRecordRepository.findById(id)
+        FeedingRecord record = findRecord(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Feeding record not found with id: " + id));
 
+        long changeVersion = changeTracker.nextVersion(record.getHouseholdId());
+        dailyStatsService.addFeeding(record, -1);
         record.setFeedingTime(dto.getFeedingTime());
         record.setFeedingType(FeedingRecord.FeedingType.valueOf(dto.getFeedingType()));
         record.setAmountMl(dto.getAmountMl());
         record.setDurationMinutes(dto.getDurationMinutes());
         record.setNotes(dto.getNotes());
+        record.setChangeVersion(changeVersion);
 
         FeedingRecord updatedRecord = feedingRecordRepository.save(record);
-        return convertToDTO(updatedRecord);
+        dailyStatsService.addFeeding(updatedRecord, 1);
+        eventPublisher.publishEvent(
+                RecordChangedEvent.updated(RecordType.FEEDING, updatedRecord.getBaby(), id));
+        return RecordMapper.toDTO(updatedRecord);
     }
 
     public void deleteFeedingRecord(Long id) {
-        if (!feedingRecordRepository.existsById(id)) {
-            throw new ResourceNotFoundException("Feeding record not found with id: " + id);
-        }
-        feedingRecordRepository.deleteById(id);
-    }
+        FeedingRecord record = findRecord(id)
+                .orElseThrow(() -> new ResourceNotFoundException("Feeding record not found with id: " + id));
 
-    private FeedingRecordDTO convertToDTO(FeedingRecord record) {
-        FeedingRecordDTO dto = new FeedingRecordDTO();
-        dto.setId(record.getId());
-        dto.setBabyId(record.getBaby().getId());
-        dto.setBabyName(record.getBaby().getName());
-        dto.setFeedingTime(record.getFeedingTime());
-        dto.setFeedingType(record.getFeedingType().name());
-        dto.setAmountMl(record.getAmountMl());
-        dto.setDurationMinutes(record.getDurationMinutes());
-        dto.setNotes(record.getNotes());
-        dto.setCreatedAt(record.getCreatedAt());
-        dto.setUpdatedAt(record.getUpdatedAt());
-        return dto;
+        // Keep a tombstone so that sync clients learn about the deletion
+        record.setDeleted(true);
+        record.setChangeVersion(changeTracker.nextVersion(record.getHouseholdId()));
+        feedingRecordRepository.save(record);
+        dailyStatsService.addFeeding(record, -1);
+        eventPublisher.publishEvent(RecordChangedEvent.deleted(RecordType.FEEDING, record.getBaby(), id));
     }
 
-    private FeedingRecord convertToEntity(FeedingRecordDTO dto) {
-        FeedingRecord record = new FeedingRecord();
-        record.setFeedingTime(dto.getFeedingTime());
-        record.setFeedingType(FeedingRecord.FeedingType.valueOf(dto.getFeedingType()));
-        record.setAmountMl(dto.getAmountMl());
-        record.setDurationMinutes(dto.getDurationMinutes());
-        record.setNotes(dto.getNotes());
+    // An archived record is moved back into the record table before it is changed
+    private Optional<FeedingRecord> findRecord(Long id) {
+        Optional<FeedingRecord> record = feedingRecordRepository.findByIdAndHouseholdId(id, currentHousehold.id());
+        if (record.isEmpty() && recordArchive.restore(RecordType.FEEDING, id)) {
+            record = feedingRecordRepository.findByIdAndHouseholdId(id, currentHousehold.id());
+        }
         return record;
     }
 }
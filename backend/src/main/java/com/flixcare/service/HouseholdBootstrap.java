@@ -0,0 +1,29 @@
+package com.flixcare.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.stereotype.Component;
+
+// Creates the administrator configured by flixcare.security.username and password, so that a new installation,
+// and one upgraded from the single configured user, can sign in as before
+@Component
+class HouseholdBootstrap implements ApplicationRunner {
+
+    private final HouseholdService householdService;
+    private final String username;
+    private final String password;
+
+    HouseholdBootstrap(HouseholdService householdService,
+                       @Value("${flixcare.security.username:flixcare}") String username,
+                       @Value("${flixcare.security.password:flixcare123}") String password) {
+        this.householdService = householdService;
+        this.username = username;
+        this.password = password;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        householdService.ensureAdministrator(username, password);
+    }
+}
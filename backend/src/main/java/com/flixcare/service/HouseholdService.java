@@ -0,0 +1,124 @@
+package com.flixcare.service;
+
+import com.flixcare.dto.HouseholdDTO;
+import com.flixcare.dto.UserAccountDTO;
+import com.flixcare.entity.Household;
+import com.flixcare.entity.UserAccount;
+import com.flixcare.exception.ResourceConflictException;
+import com.flixcare.exception.ResourceNotFoundException;
+import com.flixcare.repository.HouseholdRepository;
+import com.flixcare.repository.UserAccountRepository;
+import io.micrometer.core.annotation.Timed;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Households and their users. Also the user store of the Basic Auth login: verified credentials are cached by the
+ * authentication provider, so users are only looked up when they sign in with a password not seen recently.
+ */
+@Service
+@Timed("flixcare.service")
+@RequiredArgsConstructor
+@Transactional
+public class HouseholdService implements UserDetailsService {
+
+    static final String DEFAULT_HOUSEHOLD_NAME = "Default household";
+
+    private final HouseholdRepository householdRepository;
+    private final UserAccountRepository userAccountRepository;
+    private final PasswordEncoder passwordEncoder;
+    private final ChangeTracker changeTracker;
+    private final CurrentHousehold currentHousehold;
+    private final ApplicationEventPublisher eventPublisher;
+
+    @Override
+    @Transactional(readOnly = true)
+    public UserDetails loadUserByUsername(String username) {
+        UserAccount account = userAccountRepository.findByUsername(username)
+                .orElseThrow(() -> new UsernameNotFoundException("Unknown user " + username));
+        return new HouseholdUser(account.getUsername(), account.getPasswordHash(), account.isAdmin(),
+                account.getHouseholdId());
+    }
+
+    public HouseholdDTO createHousehold(HouseholdDTO dto) {
+        Household household = new Household();
+        household.setName(dto.getName());
+        Household savedHousehold = householdRepository.save(household);
+        changeTracker.createHousehold(savedHousehold.getId());
+        createUser(savedHousehold.getId(), dto.getUsername(), dto.getPassword(), false);
+
+        HouseholdDTO result = convertToDTO(savedHousehold);
+        result.setUsername(dto.getUsername());
+        return result;
+    }
+
+    @Transactional(readOnly = true)
+    public HouseholdDTO getCurrentHousehold() {
+        Long id = currentHousehold.id();
+        return householdRepository.findById(id)
+                .map(this::convertToDTO)
+                .orElseThrow(() -> new ResourceNotFoundException("Household not found with id: " + id));
+    }
+
+    // Members of a household share all of its babies
+    public UserAccountDTO addUserToCurrentHousehold(UserAccountDTO dto) {
+        return convertToDTO(createUser(currentHousehold.id(), dto.getUsername(), dto.getPassword(), false));
+    }
+
+    /**
+     * Makes sure the configured administrator exists with the configured password. Created in the first household,
+     * which on upgraded installations holds the babies created before there were households.
+     */
+    public void ensureAdministrator(String username, String password) {
+        UserAccount account = userAccountRepository.findByUsername(username).orElse(null);
+        if (account == null) {
+            Household household = householdRepository.findFirstByOrderByIdAsc().orElseGet(() -> {
+                Household created = householdRepository.save(new Household(null, DEFAULT_HOUSEHOLD_NAME, null));
+                changeTracker.createHousehold(created.getId());
+                return created;
+            });
+            createUser(household.getId(), username, password, true);
+        } else if (!account.isAdmin() || !passwordEncoder.matches(password, account.getPasswordHash())) {
+            account.setAdmin(true);
+            account.setPasswordHash(passwordEncoder.encode(password));
+            userAccountRepository.save(account);
+            eventPublisher.publishEvent(new UserCredentialsChangedEvent(username));
+        }
+    }
+
+    private UserAccount createUser(Long householdId, String username, String password, boolean admin) {
+        if (userAccountRepository.existsByUsername(username)) {
+            throw new ResourceConflictException("Username already taken: " + username);
+        }
+        UserAccount account = new UserAccount();
+        account.setUsername(username);
+        account.setPasswordHash(passwordEncoder.encode(password));
+        account.setHouseholdId(householdId);
+        account.setAdmin(admin);
+        return userAccountRepository.save(account);
+    }
+
+    private HouseholdDTO convertToDTO(Household household) {
+        HouseholdDTO dto = new HouseholdDTO();
+        dto.setId(household.getId());
+        dto.setName(household.getName());
+        dto.setCreatedAt(household.getCreatedAt());
+        return dto;
+    }
+
+    private UserAccountDTO convertToDTO(UserAccount account) {
+        UserAccountDTO dto = new UserAccountDTO();
+        dto.setId(account.getId());
+        dto.setUsername(account.getUsername());
+        dto.setHouseholdId(account.getHouseholdId());
+        dto.setAdmin(account.isAdmin());
+        dto.setCreatedAt(account.getCreatedAt());
+        return dto;
+    }
+}
@@ -0,0 +1,26 @@
+package com.flixcare.service;
+
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.userdetails.User;
+
+import java.util.List;
+
+/**
+ * Principal of an authenticated request: a user of the store in user_accounts, together with the household that
+ * the request is scoped to.
+ */
+public class HouseholdUser extends User {
+
+    private final Long householdId;
+
+    public HouseholdUser(String username, String password, boolean admin, Long householdId) {
+        super(username, password, admin
+                ? List.of(new SimpleGrantedAuthority("ROLE_USER"), new SimpleGrantedAuthority("ROLE_ADMIN"))
+                : List.of(new SimpleGrantedAuthority("ROLE_USER")));
+        this.householdId = householdId;
+    }
+
+    public Long getHouseholdId() {
+        return householdId;
+    }
+}
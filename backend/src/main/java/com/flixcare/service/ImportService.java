@@ -0,0 +1,334 @@
+package com.flixcare.service;
+
+import com.flixcare.dto.CleaningRecordDTO;
+import com.flixcare.dto.FeedingRecordDTO;
+import com.flixcare.dto.ImportResult;
+import com.flixcare.dto.ImportResult.ImportError;
+import com.flixcare.dto.ImportRow;
+import com.flixcare.dto.MedicationRecordDTO;
+import com.flixcare.dto.TemperatureRecordDTO;
+import com.flixcare.dto.WeightRecordDTO;
+import com.flixcare.entity.CleaningRecord.CleaningType;
+import com.flixcare.entity.CleaningRecord.DiaperContent;
+import com.flixcare.entity.FeedingRecord.FeedingType;
+import com.flixcare.entity.MedicationType;
+import com.flixcare.entity.TemperatureRecord.MeasurementLocation;
+import com.flixcare.service.RecordVersions.RecordType;
+import io.micrometer.core.annotation.Timed;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Imports the history of a baby from uploaded rows, e.g. an export of this or another baby-tracking app. Every row is
+ * mapped and validated on its own and rejected with its line if it does not fit. Valid rows are buffered per record
+ * type and written through the batch create of the record service whenever a chunk is full, each chunk in its own
+ * transaction: memory is bounded by the chunk size, and a failing chunk does not undo the ones before it.
+ */
+@Service
+@Timed("flixcare.service")
+public class ImportService {
+
+    // Names used by other apps, matched like the enum names after normalizing case, spaces and hyphens
+    private static final Map<String, FeedingType> FEEDING_TYPES = Map.of(
+            "LEFT", FeedingType.BREAST_LEFT, "RIGHT", FeedingType.BREAST_RIGHT,
+            "FORMULA", FeedingType.BOTTLE_FORMULA, "BREAST_MILK", FeedingType.BOTTLE_BREAST_MILK,
+            "PUMPED", FeedingType.BOTTLE_BREAST_MILK, "EXPRESSED", FeedingType.BOTTLE_BREAST_MILK,
+            "SOLID", FeedingType.SOLID_FOOD, "SOLIDS", FeedingType.SOLID_FOOD);
+    private static final Map<String, CleaningType> CLEANING_TYPES = Map.of(
+            "DIAPER", CleaningType.DIAPER_CHANGE, "NAPPY", CleaningType.DIAPER_CHANGE,
+            "NAPPY_CHANGE", CleaningType.DIAPER_CHANGE);
+    private static final Map<String, DiaperContent> DIAPER_CONTENTS = Map.of(
+            "PEE", DiaperContent.WET, "URINE", DiaperContent.WET,
+            "POO", DiaperContent.DIRTY, "POOP", DiaperContent.DIRTY, "STOOL", DiaperContent.DIRTY,
+            "MIXED", DiaperContent.BOTH, "WET_AND_DIRTY", DiaperContent.BOTH, "PEE_AND_POO", DiaperContent.BOTH,
+            "DRY", DiaperContent.CLEAN);
+    private static final Map<String, MeasurementLocation> MEASUREMENT_LOCATIONS = Map.of(
+            "TEMPORAL", MeasurementLocation.FOREHEAD, "AXILLARY", MeasurementLocation.ARMPIT,
+            "UNDERARM", MeasurementLocation.ARMPIT, "MOUTH", MeasurementLocation.ORAL);
+    private static final Map<String, MedicationType> MEDICATION_TYPES = Map.of(
+            "VITAMIN_D3", MedicationType.VITAMIN_D, "D3", MedicationType.VITAMIN_D);
+
+    private static final List<Function<String, LocalDateTime>> TIME_FORMATS = List.of(
+            LocalDateTime::parse,
+            text -> OffsetDateTime.parse(text).withOffsetSameInstant(RecordTimes.STORAGE_ZONE).toLocalDateTime(),
+            text -> LocalDateTime.parse(text, DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm[:ss]")));
+
+    private final FeedingRecordService feedingRecordService;
+    private final CleaningRecordService cleaningRecordService;
+    private final TemperatureRecordService temperatureRecordService;
+    private final WeightRecordService weightRecordService;
+    private final MedicationRecordService medicationRecordService;
+    private final PartitionService partitionService;
+    private final int chunkSize;
+    private final int maxErrors;
+
+    public ImportService(FeedingRecordService feedingRecordService,
+                         CleaningRecordService cleaningRecordService,
+                         TemperatureRecordService temperatureRecordService,
+                         WeightRecordService weightRecordService,
+                         MedicationRecordService medicationRecordService,
+                         PartitionService partitionService,
+                         @Value("${flixcare.import.chunk-size:1000}") int chunkSize,
+                         @Value("${flixcare.import.max-errors:100}") int maxErrors) {
+        this.feedingRecordService = feedingRecordService;
+        this.cleaningRecordService = cleaningRecordService;
+        this.temperatureRecordService = temperatureRecordService;
+        this.weightRecordService = weightRecordService;
+        this.medicationRecordService = medicationRecordService;
+        this.partitionService = partitionService;
+        this.chunkSize = chunkSize;
+        this.maxErrors = maxErrors;
+    }
+
+    /**
+     * Imports the rows into the baby's history as new records, pulling them one at a time.
+     */
+    public ImportResult importHistory(Long babyId, Iterator<ImportRow> rows) {
+        Run run = new Run(babyId);
+        rows.forEachRemaining(run::add);
+        run.flush();
+        if (run.imported > 0) {
+            // Old months of imported history land in the default partition until they get their own
+            partitionService.createMissingPartitions();
+        }
+        return new ImportResult(run.imported, run.rejected, run.importedByType, run.errors);
+    }
+
+    private final class Run {
+
+        private final Long babyId;
+        private final Chunk<FeedingRecordDTO> feedings = new Chunk<>(
+                RecordType.FEEDING, feedingRecordService::createFeedingRecords);
+        private final Chunk<CleaningRecordDTO> cleanings = new Chunk<>(
+                RecordType.CLEANING, cleaningRecordService::createCleaningRecords);
+        private final Chunk<TemperatureRecordDTO> temperatures = new Chunk<>(
+                RecordType.TEMPERATURE, temperatureRecordService::createTemperatureRecords);
+        private final Chunk<WeightRecordDTO> weights = new Chunk<>(
+                RecordType.WEIGHT, weightRecordService::createWeightRecords);
+        private final Chunk<MedicationRecordDTO> medications = new Chunk<>(
+                RecordType.MEDICATION, medicationRecordService::createMedicationRecords);
+        private final Map<RecordType, Long> importedByType = new EnumMap<>(RecordType.class);
+        private final List<ImportError> errors = new ArrayList<>();
+        private long imported;
+        private long rejected;
+
+        Run(Long babyId) {
+            this.babyId = babyId;
+        }
+
+        void add(ImportRow row) {
+            if (row.error() != null) {
+                reject(row.line(), row.error());
+                return;
+            }
+            Map<String, String> values = row.values();
+            try {
+                RecordType type = parseEnum(RecordType.class, "record type", required(values, "type"), Map.of());
+                LocalDateTime time = parseTime(required(values, "time"));
+                switch (type) {
+                    case FEEDING -> feedings.add(row.line(), toFeeding(time, values));
+                    case CLEANING -> cleanings.add(row.line(), toCleaning(time, values));
+                    case TEMPERATURE -> temperatures.add(row.line(), toTemperature(time, values));
+                    case WEIGHT -> weights.add(row.line(), toWeight(time, values));
+                    case MEDICATION -> medications.add(row.line(), toMedication(time, values));
+                }
+            } catch (IllegalArgumentException e) {
+                reject(row.line(), e.getMessage());
+            }
+        }
+
+        void flush() {
+            for (Chunk<?> chunk : List.of(feedings, cleanings, temperatures, weights, medications)) {
+                chunk.flush();
+            }
+        }
+
+        private void reject(long line, String message) {
+            rejected++;
+            if (errors.size() < maxErrors) {
+                errors.add(new ImportError(line, message));
+            }
+        }
+
+        private FeedingRecordDTO toFeeding(LocalDateTime time, Map<String, String> values) {
+            FeedingRecordDTO dto = new FeedingRecordDTO();
+            dto.setBabyId(babyId);
+            dto.setFeedingTime(time);
+            dto.setFeedingType(parseEnum(FeedingType.class, "feeding type", required(values, "kind"),
+                    FEEDING_TYPES).name());
+            dto.setAmountMl(parseNumber(values, "amount_ml", 0, Double.MAX_VALUE));
+            Double duration = parseNumber(values, "duration_minutes", 0, Integer.MAX_VALUE);
+            dto.setDurationMinutes(duration == null ? null : (int) Math.round(duration));
+            dto.setNotes(text(values, "notes", 500));
+            return dto;
+        }
+
+        private CleaningRecordDTO toCleaning(LocalDateTime time, Map<String, String> values) {
+            CleaningRecordDTO dto = new CleaningRecordDTO();
+            dto.setBabyId(babyId);
+            dto.setCleaningTime(time);
+            dto.setCleaningType(parseEnum(CleaningType.class, "cleaning type", required(values, "kind"),
+                    CLEANING_TYPES).name());
+            String diaperContent = text(values, "diaper_content", Integer.MAX_VALUE);
+            if (diaperContent != null) {
+                dto.setDiaperContent(parseEnum(DiaperContent.class, "diaper content", diaperContent,
+                        DIAPER_CONTENTS).name());
+            }
+            dto.setNotes(text(values, "notes", 500));
+            return dto;
+        }
+
+        private TemperatureRecordDTO toTemperature(LocalDateTime time, Map<String, String> values) {
+            TemperatureRecordDTO dto = new TemperatureRecordDTO();
+            dto.setBabyId(babyId);
+            dto.setMeasurementTime(time);
+            required(values, "temperature_celsius");
+            // Catches temperatures in Fahrenheit
+            dto.setTemperatureCelsius(parseNumber(values, "temperature_celsius", 30, 45));
+            String location = text(values, "measurement_location", Integer.MAX_VALUE);
+            if (location != null) {
+                dto.setMeasurementLocation(parseEnum(MeasurementLocation.class, "measurement location", location,
+                        MEASUREMENT_LOCATIONS).name());
+            }
+            dto.setNotes(text(values, "notes", 500));
+            return dto;
+        }
+
+        private WeightRecordDTO toWeight(LocalDateTime time, Map<String, String> values) {
+            WeightRecordDTO dto = new WeightRecordDTO();
+            dto.setBabyId(babyId);
+            dto.setMeasurementTime(time);
+            required(values, "weight_grams");
+            dto.setWeightGrams((int) Math.round(parseNumber(values, "weight_grams", 1, Integer.MAX_VALUE)));
+            dto.setNotes(text(values, "notes", 500));
+            return dto;
+        }
+
+        private MedicationRecordDTO toMedication(LocalDateTime time, Map<String, String> values) {
+            MedicationRecordDTO dto = new MedicationRecordDTO();
+            dto.setBabyId(babyId);
+            dto.setMedicationTime(time);
+            dto.setMedicationType(parseEnum(MedicationType.class, "medication type", required(values, "kind"),
+                    MEDICATION_TYPES));
+            dto.setDosage(text(values, "dosage", 255));
+            dto.setNotes(text(values, "notes", 500));
+            return dto;
+        }
+
+        private final class Chunk<T> {
+
+            private final RecordType type;
+            private final Function<List<T>, List<Long>> writer;
+            private final List<T> records = new ArrayList<>();
+            private final List<Long> lines = new ArrayList<>();
+
+            Chunk(RecordType type, Function<List<T>, List<Long>> writer) {
+                this.type = type;
+                this.writer = writer;
+            }
+
+            void add(long line, T record) {
+                records.add(record);
+                lines.add(line);
+                if (records.size() == chunkSize) {
+                    flush();
+                }
+            }
+
+            void flush() {
+                if (records.isEmpty()) {
+                    return;
+                }
+                try {
+                    long written = writer.apply(records).size();
+                    imported += written;
+                    importedByType.merge(type, written, Long::sum);
+                } catch (DataAccessException e) {
+                    // The chunk's transaction was rolled back, none of its rows were written
+                    String message = "Not written: " + e.getMostSpecificCause().getMessage();
+                    lines.forEach(line -> reject(line, message));
+                }
+                records.clear();
+                lines.clear();
+            }
+        }
+    }
+
+    private static String required(Map<String, String> values, String column) {
+        String value = values.get(column);
+        if (value == null || value.isBlank()) {
+            throw new IllegalArgumentException("Missing " + column);
+        }
+        return value;
+    }
+
+    private static String text(Map<String, String> values, String column, int maxLength) {
+        String value = values.get(column);
+        if (value == null || value.isBlank()) {
+            return null;
+        }
+        if (value.length() > maxLength) {
+            throw new IllegalArgumentException(column + " is longer than " + maxLength + " characters");
+        }
+        return value;
+    }
+
+    private static Double parseNumber(Map<String, String> values, String column, double min, double max) {
+        String value = text(values, column, Integer.MAX_VALUE);
+        if (value == null) {
+            return null;
+        }
+        double number;
+        try {
+            number = Double.parseDouble(value.trim());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException(column + " is not a number: '" + value + "'");
+        }
+        if (!(number >= min && number <= max)) {
+            throw new IllegalArgumentException(column + " " + value + " is out of range"
+                    + (max < Integer.MAX_VALUE ? " " + min + " to " + max : ", must be at least " + min));
+        }
+        return number;
+    }
+
+    private static LocalDateTime parseTime(String value) {
+        String text = value.trim();
+        for (Function<String, LocalDateTime> format : TIME_FORMATS) {
+            try {
+                return format.apply(text);
+            } catch (DateTimeParseException e) {
+                // Try the next format
+            }
+        }
+        throw new IllegalArgumentException("Invalid time '" + value + "', expected ISO-8601 like 2024-05-01T14:30:00");
+    }
+
+    private static <E extends Enum<E>> E parseEnum(Class<E> type, String name, String value, Map<String, E> aliases) {
+        String normalized = value.trim().toUpperCase(Locale.ROOT).replaceAll("[\\s-]+", "_");
+        for (E constant : type.getEnumConstants()) {
+            if (constant.name().equals(normalized)) {
+                return constant;
+            }
+        }
+        E alias = aliases.get(normalized);
+        if (alias == null) {
+            throw new IllegalArgumentException("Unknown " + name + " '" + value + "', expected one of "
+                    + Arrays.toString(type.getEnumConstants()));
+        }
+        return alias;
+    }
+}
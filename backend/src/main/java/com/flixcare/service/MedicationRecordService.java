@@ -1,64 +1,137 @@
 package com.flixcare.service;
 
 import com.flixcare.dto.MedicationRecordDTO;
+import com.flixcare.dto.MedicationRecordView;
 import com.flixcare.entity.Baby;
 import com.flixcare.entity.MedicationRecord;
 import com.flixcare.repository.BabyRepository;
 import com.flixcare.repository.MedicationRecordRepository;
+import com.flixcare.service.RecordVersions.RecordType;
+import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 @Service
+@Timed("flixcare.service")
 @RequiredArgsConstructor
 public class MedicationRecordService {
 
     private final MedicationRecordRepository medicationRecordRepository;
     private final BabyRepository babyRepository;
+    private final BatchWriter batchWriter;
+    private final ChangeTracker changeTracker;
+    private final ApplicationEventPublisher eventPublisher;
+    private final RecordCache recordCache;
+    private final RecordArchive recordArchive;
+    private final CurrentHousehold currentHousehold;
 
     @Transactional(readOnly = true)
-    public List<MedicationRecordDTO> getAllMedicationRecords() {
-        return medicationRecordRepository.findAll().stream()
-                .map(this::convertToDTO)
-                .collect(Collectors.toList());
+    public List<MedicationRecordView> getAllMedicationRecords() {
+        return recordArchive.merge(RecordType.MEDICATION, null,
+                medicationRecordRepository.findAllViews(currentHousehold.id(), Pageable.unpaged()));
     }
 
     @Transactional(readOnly = true)
-    public List<MedicationRecordDTO> getMedicationRecordsByBabyId(Long babyId) {
-        return medicationRecordRepository.findByBabyIdOrderByMedicationTimeDesc(babyId).stream()
-                .map(this::convertToDTO)
-                .collect(Collectors.toList());
+    public List<MedicationRecordView> getAllMedicationRecords(LocalDateTime before, Long beforeId, int limit) {
+        Pageable pageable = PageRequest.of(0, limit);
+        List<MedicationRecordView> records = before == null
+                ? medicationRecordRepository.findAllViews(currentHousehold.id(), pageable)
+                : medicationRecordRepository.findAllViewsBefore(
+                        currentHousehold.id(), before, beforeId == null ? 0L : beforeId, pageable);
+        return recordArchive.mergePage(RecordType.MEDICATION, null, records, before, beforeId, limit);
+    }
+
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public List<MedicationRecordView> getMedicationRecordsByBabyId(Long babyId) {
+        return recordCache.get(RecordType.MEDICATION, babyId,
+                () -> recordArchive.merge(RecordType.MEDICATION, babyId,
+                        medicationRecordRepository.findViewsByBabyId(babyId, Pageable.unpaged())));
+    }
+
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public List<MedicationRecordView> getMedicationRecordsByBabyId(Long babyId, LocalDateTime before, Long beforeId, int limit) {
+        return recordCache.get(RecordType.MEDICATION, babyId,
+                () -> getMedicationRecordsByBabyIdUncached(babyId, before, beforeId, limit), before, beforeId, limit);
+    }
+
+    // For callers that read each page once, such as the timeline, and would only fill the cache
+    @Transactional(readOnly = true)
+    public List<MedicationRecordView> getMedicationRecordsByBabyIdUncached(
+            Long babyId, LocalDateTime before, Long beforeId, int limit) {
+        Pageable pageable = PageRequest.of(0, limit);
+        List<MedicationRecordView> records = before == null
+                ? medicationRecordRepository.findViewsByBabyId(babyId, pageable)
+                : medicationRecordRepository.findViewsByBabyIdBefore(
+                        babyId, before, beforeId == null ? 0L : beforeId, pageable);
+        return recordArchive.mergePage(RecordType.MEDICATION, babyId, records, before, beforeId, limit);
+    }
+
+    @Transactional(readOnly = true)
+    public void streamMedicationRecordsByBaby(Long babyId, Consumer<MedicationRecordView> consumer) {
+        try (Stream<MedicationRecordView> records = medicationRecordRepository.streamViewsByBabyId(babyId)) {
+            recordArchive.mergeStream(RecordType.MEDICATION, babyId, records).forEach(consumer);
+        }
     }
 
     @Transactional(readOnly = true)
-    public MedicationRecordDTO getMedicationRecordById(Long id) {
-        MedicationRecord record = medicationRecordRepository.findById(id)
+    public MedicationRecordView getMedicationRecordById(Long id) {
+        return medicationRecordRepository.findViewById(id, currentHousehold.id())
+                .or(() -> recordArchive.findById(RecordType.MEDICATION, id))
                 .orElseThrow(() -> new RuntimeException("Medication record not found with id: " + id));
-        return convertToDTO(record);
     }
 
     @Transactional
     public MedicationRecordDTO createMedicationRecord(MedicationRecordDTO dto) {
-        Baby baby = babyRepository.findById(dto.getBabyId())
+        Baby baby = babyRepository.findByIdAndHouseholdId(dto.getBabyId(), currentHousehold.id())
                 .orElseThrow(() -> new RuntimeException("Baby not found with id: " + dto.getBabyId()));
 
-        MedicationRecord record = new MedicationRecord();
+        MedicationRecord record = RecordMapper.toEntity(dto);
         record.setBaby(baby);
-        record.setMedicationTime(dto.getMedicationTime());
-        record.setMedicationType(dto.getMedicationType());
-        record.setDosage(dto.getDosage());
-        record.setNotes(dto.getNotes());
-
+        record.setHouseholdId(baby.getHouseholdId());
+        record.setChangeVersion(changeTracker.nextVersion(baby.getHouseholdId()));
         MedicationRecord savedRecord = medicationRecordRepository.save(record);
-        return convertToDTO(savedRecord);
+        eventPublisher.publishEvent(
+                RecordChangedEvent.created(RecordType.MEDICATION, baby, savedRecord.getId()));
+        return RecordMapper.toDTO(savedRecord);
+    }
+
+    @Transactional
+    public List<Long> createMedicationRecords(List<MedicationRecordDTO> dtos) {
+        List<Long> babyIds = dtos.stream().map(MedicationRecordDTO::getBabyId).toList();
+        Map<Long, Baby> babies = batchWriter.loadBabies(babyIds);
+
+        long changeVersion = changeTracker.nextVersion(currentHousehold.id());
+        List<MedicationRecord> records = new ArrayList<>(dtos.size());
+        for (MedicationRecordDTO dto : dtos) {
+            MedicationRecord record = RecordMapper.toEntity(dto);
+            Baby baby = babies.get(dto.getBabyId());
+            record.setBaby(baby);
+            record.setHouseholdId(baby.getHouseholdId());
+            record.setChangeVersion(changeVersion);
+            records.add(record);
+        }
+        List<Long> ids = batchWriter.persistAll(records, MedicationRecord::getId);
+        RecordChangedEvent.created(RecordType.MEDICATION, babyIds, ids, currentHousehold.id())
+                .forEach(eventPublisher::publishEvent);
+        return ids;
     }
 
     @Transactional
     public MedicationRecordDTO updateMedicationRecord(Long id, MedicationRecordDTO dto) {
-        MedicationRecord record = medicationRecordRepository.findById(id)
+        MedicationRecord record = findRecord(id)
                 .orElseThrow(() -> new RuntimeException("Medication record not found with id: " + id));
 
         if (dto.getMedicationTime() != null) {
@@ -73,30 +146,32 @@ public class MedicationRecordService {
         if (dto.getNotes() != null) {
             record.setNotes(dto.getNotes());
         }
+        record.setChangeVersion(changeTracker.nextVersion(record.getHouseholdId()));
 
         MedicationRecord updatedRecord = medicationRecordRepository.save(record);
-        return convertToDTO(updatedRecord);
+        eventPublisher.publishEvent(
+                RecordChangedEvent.updated(RecordType.MEDICATION, updatedRecord.getBaby(), id));
+        return RecordMapper.toDTO(updatedRecord);
     }
 
     @Transactional
     public void deleteMedicationRecord(Long id) {
-        if (!medicationRecordRepository.existsById(id)) {
-            throw new RuntimeException("Medication record not found with id: " + id);
-        }
-        medicationRecordRepository.deleteById(id);
+        MedicationRecord record = findRecord(id)
+                .orElseThrow(() -> new RuntimeException("Medication record not found with id: " + id));
+
+        // Keep a tombstone so that sync clients learn about the deletion
+        record.setDeleted(true);
+        record.setChangeVersion(changeTracker.nextVersion(record.getHouseholdId()));
+        medicationRecordRepository.save(record);
+        eventPublisher.publishEvent(RecordChangedEvent.deleted(RecordType.MEDICATION, record.getBaby(), id));
     }
 
-    private MedicationRecordDTO convertToDTO(MedicationRecord record) {
-        MedicationRecordDTO dto = new MedicationRecordDTO();
-        dto.setId(record.getId());
-        dto.setBabyId(record.getBaby().getId());
-        dto.setBabyName(record.getBaby().getName());
-        dto.setMedicationTime(record.getMedicationTime());
-        dto.setMedicationType(record.getMedicationType());
-        dto.setDosage(record.getDosage());
-        dto.setNotes(record.getNotes());
-        dto.setCreatedAt(record.getCreatedAt());
-        dto.setUpdatedAt(record.getUpdatedAt());
-        return dto;
+    // An archived record is moved back into the record table before it is changed
+    private Optional<MedicationRecord> findRecord(Long id) {
+        Optional<MedicationRecord> record = medicationRecordRepository.findByIdAndHouseholdId(id, currentHousehold.id());
+        if (record.isEmpty() && recordArchive.restore(RecordType.MEDICATION, id)) {
+            record = medicationRecordRepository.findByIdAndHouseholdId(id, currentHousehold.id());
+        }
+        return record;
     }
 }
@@ -0,0 +1,31 @@
+package com.flixcare.service;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+// Creates next months' record partitions ahead of time; until then new rows go to the default partition
+@Component
+@RequiredArgsConstructor
+class PartitionMaintenanceJob {
+
+    private final PartitionService partitionService;
+
+    @Scheduled(cron = "${flixcare.partitions.cron:0 15 3 * * *}")
+    void createMissingPartitions() {
+        partitionService.createMissingPartitions();
+    }
+
+    // Catches up after downtime over a month boundary; a failure here must not keep the server from starting
+    @EventListener(ApplicationReadyEvent.class)
+    void createMissingPartitionsOnStartup() {
+        try {
+            partitionService.createMissingPartitions();
+        } catch (DataAccessException e) {
+            // Retried by the scheduled run
+        }
+    }
+}
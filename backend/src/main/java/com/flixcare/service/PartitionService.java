@@ -0,0 +1,148 @@
+package com.flixcare.service;
+
+import io.micrometer.core.annotation.Timed;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.TreeSet;
+import java.util.regex.Pattern;
+
+/**
+ * Maintains the monthly partitions of the record tables that are range-partitioned on their time column (see
+ * V8__Partition_Feeding_And_Cleaning_Records.sql): creates the coming months ahead of time, and gives rows that
+ * landed in the default partition, e.g. imported history, their own month, and drops months emptied by archiving.
+ * Does nothing on other databases.
+ */
+@Service
+@Timed("flixcare.service")
+public class PartitionService {
+
+    // Partitioned table and its partition key; partitions are named <table>_yyyy_MM plus <table>_default
+    private static final List<String[]> PARTITIONED_TABLES = List.of(
+            new String[] {"feeding_records", "feeding_time"},
+            new String[] {"cleaning_records", "cleaning_time"});
+    private static final DateTimeFormatter SUFFIX = DateTimeFormatter.ofPattern("yyyy_MM");
+    private static final Pattern MONTH_SUFFIX = Pattern.compile("\\d{4}_\\d{2}");
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final int monthsAhead;
+
+    public PartitionService(JdbcTemplate jdbcTemplate,
+                            TransactionTemplate transactionTemplate,
+                            @Value("${flixcare.partitions.months-ahead:3}") int monthsAhead) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.monthsAhead = monthsAhead;
+    }
+
+    /**
+     * Creates the missing partitions of all partitioned tables and returns how many were created.
+     */
+    public int createMissingPartitions() {
+        if (!isPostgres()) {
+            return 0;
+        }
+        int created = 0;
+        for (String[] table : PARTITIONED_TABLES) {
+            if (isPartitioned(table[0])) {
+                created += createMissingPartitions(table[0], table[1]);
+            }
+        }
+        return created;
+    }
+
+    /**
+     * Drops the monthly partitions before the given month that no longer hold any rows, e.g. after archiving, and
+     * returns how many were dropped. Should rows for such a month arrive later, they go to the default partition.
+     */
+    public int dropEmptyPartitions(YearMonth before) {
+        if (!isPostgres()) {
+            return 0;
+        }
+        int dropped = 0;
+        for (String[] table : PARTITIONED_TABLES) {
+            if (!isPartitioned(table[0])) {
+                continue;
+            }
+            List<String> partitions = jdbcTemplate.queryForList("select c.relname from pg_inherits i "
+                    + "join pg_class c on c.oid = i.inhrelid where i.inhparent = to_regclass(?)", String.class, table[0]);
+            for (String partition : partitions) {
+                String suffix = partition.substring(table[0].length() + 1);
+                if (!MONTH_SUFFIX.matcher(suffix).matches() || !YearMonth.parse(suffix, SUFFIX).isBefore(before)) {
+                    continue;
+                }
+                if (transactionTemplate.execute(status -> dropIfEmpty(partition))) {
+                    dropped++;
+                }
+            }
+        }
+        return dropped;
+    }
+
+    private int createMissingPartitions(String table, String timeColumn) {
+        YearMonth current = YearMonth.now(RecordTimes.STORAGE_ZONE);
+        TreeSet<YearMonth> months = new TreeSet<>();
+        for (int i = 0; i <= monthsAhead; i++) {
+            months.add(current.plusMonths(i));
+        }
+        jdbcTemplate.queryForList("select distinct cast(date_trunc('month', " + timeColumn + ") as date) from "
+                        + table + "_default", Date.class)
+                .forEach(month -> months.add(YearMonth.from(month.toLocalDate())));
+
+        int created = 0;
+        for (YearMonth month : months) {
+            String partition = table + "_" + month.format(SUFFIX);
+            if (jdbcTemplate.queryForObject("select to_regclass(?) is not null", Boolean.class, partition)) {
+                continue;
+            }
+            transactionTemplate.executeWithoutResult(status -> createPartition(table, timeColumn, partition, month));
+            created++;
+        }
+        return created;
+    }
+
+    // Moves the month's rows out of the default partition first, attaching the month would fail otherwise. The
+    // lock keeps rows for the month from arriving in the default partition before the attach.
+    private void createPartition(String table, String timeColumn, String partition, YearMonth month) {
+        LocalDate from = month.atDay(1);
+        LocalDate to = month.plusMonths(1).atDay(1);
+        jdbcTemplate.execute("lock table " + table + "_default in exclusive mode");
+        jdbcTemplate.execute("create table " + partition + " (like " + table
+                + " including defaults including constraints)");
+        jdbcTemplate.update("with moved as (delete from " + table + "_default where " + timeColumn + " >= ? and "
+                + timeColumn + " < ? returning *) insert into " + partition + " select * from moved",
+                from.atStartOfDay(), to.atStartOfDay());
+        jdbcTemplate.execute("alter table " + table + " attach partition " + partition
+                + " for values from ('" + from + "') to ('" + to + "')");
+    }
+
+    // The lock keeps rows from arriving between the check and the drop
+    private boolean dropIfEmpty(String partition) {
+        jdbcTemplate.execute("lock table " + partition + " in access exclusive mode");
+        if (jdbcTemplate.queryForObject("select exists (select 1 from " + partition + ")", Boolean.class)) {
+            return false;
+        }
+        jdbcTemplate.execute("drop table " + partition);
+        return true;
+    }
+
+    private boolean isPartitioned(String table) {
+        return jdbcTemplate.queryForObject(
+                "select exists (select 1 from pg_partitioned_table where partrelid = to_regclass(?))",
+                Boolean.class, table);
+    }
+
+    private boolean isPostgres() {
+        return jdbcTemplate.execute((ConnectionCallback<Boolean>) connection ->
+                connection.getMetaData().getDatabaseProductName().equals("PostgreSQL"));
+    }
+}
@@ -0,0 +1,613 @@
+package com.flixcare.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.flixcare.dto.CleaningRecordView;
+import com.flixcare.dto.FeedingRecordView;
+import com.flixcare.dto.MedicationRecordView;
+import com.flixcare.dto.RecordArchiveHeader;
+import com.flixcare.dto.TemperatureRecordView;
+import com.flixcare.dto.WeightRecordView;
+import com.flixcare.entity.Baby;
+import com.flixcare.entity.RecordArchiveMonth;
+import com.flixcare.repository.BabyRepository;
+import com.flixcare.repository.RecordArchiveRepository;
+import com.flixcare.service.RecordVersions.RecordType;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Optional;
+import java.util.Set;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Cold tier of the record tables: records moved out by {@link ArchiveService} are kept as one gzip-compressed,
+ * columnar JSON document per baby, record type and month in record_archive. The read methods merge them into the
+ * newest-first lists read from the record tables, so callers see one history. Archived records are found by id as
+ * well, and an archived record that is changed or deleted is first moved back into its record table.
+ * Readers query the record table before the archive; a record archived in between then shows up twice with the same
+ * time and id, and the merge keeps only one of them. Decoded documents are kept while their archive row is unchanged,
+ * so the unpaged lists, which always reach the archive, do not decode every month on each load.
+ */
+@Component
+public class RecordArchive {
+
+    static final LocalDate FIRST_MONTH = LocalDate.of(1900, 1, 1);
+    static final LocalDate LAST_MONTH = LocalDate.of(9999, 12, 1);
+
+    private static final int FORMAT = 1;
+    // The baby is the same for the whole document and only live records are archived
+    private static final Set<String> OMITTED_COLUMNS = Set.of("baby_id", "household_id", "deleted");
+
+    private static final Map<RecordType, Layout<?>> LAYOUTS = Map.of(
+            RecordType.FEEDING, new Layout<>("feeding_records", "feeding_time", null,
+                    FeedingRecordView.class, FeedingRecordView::feedingTime, FeedingRecordView::id),
+            RecordType.CLEANING, new Layout<>("cleaning_records", "cleaning_time", "cleaning_type",
+                    CleaningRecordView.class, CleaningRecordView::cleaningTime, CleaningRecordView::id),
+            RecordType.TEMPERATURE, new Layout<>("temperature_records", "measurement_time", null,
+                    TemperatureRecordView.class, TemperatureRecordView::measurementTime, TemperatureRecordView::id),
+            RecordType.WEIGHT, new Layout<>("weight_records", "measurement_time", null,
+                    WeightRecordView.class, WeightRecordView::measurementTime, WeightRecordView::id),
+            RecordType.MEDICATION, new Layout<>("medication_records", "medication_time", "medication_type",
+                    MedicationRecordView.class, MedicationRecordView::medicationTime, MedicationRecordView::id));
+
+    // Independent of the web ObjectMapper, whose settings must not change the stored format
+    private static final ObjectMapper MAPPER = JsonMapper.builder()
+            .addModule(new JavaTimeModule())
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+            .disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES)
+            .build();
+    private static final TypeReference<Map<String, LocalDateTime>> LATEST_TIMES = new TypeReference<>() {
+    };
+
+    private final RecordArchiveRepository archiveRepository;
+    private final BabyRepository babyRepository;
+    private final CurrentHousehold currentHousehold;
+    private final ChangeTracker changeTracker;
+    private final JdbcTemplate jdbcTemplate;
+    // Archive rows by id with their decoded documents, weighed by record count
+    private final Cache<Long, DecodedMonth> decodedMonths;
+
+    public RecordArchive(RecordArchiveRepository archiveRepository,
+                         BabyRepository babyRepository,
+                         CurrentHousehold currentHousehold,
+                         ChangeTracker changeTracker,
+                         JdbcTemplate jdbcTemplate,
+                         MeterRegistry meterRegistry,
+                         @Value("${flixcare.archive.decoded-records:20000}") long maxDecodedRecords) {
+        this.archiveRepository = archiveRepository;
+        this.babyRepository = babyRepository;
+        this.currentHousehold = currentHousehold;
+        this.changeTracker = changeTracker;
+        this.jdbcTemplate = jdbcTemplate;
+        this.decodedMonths = Caffeine.newBuilder()
+                .maximumWeight(maxDecodedRecords)
+                .weigher((Long id, DecodedMonth month) -> month.rows().size() + 1)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, decodedMonths, "archive-months");
+    }
+
+    /**
+     * Merges the whole archived history of the baby, or of all babies of the current household for a
+     * {@code null} id, into the given list.
+     */
+    public <T> List<T> merge(RecordType type, Long babyId, List<T> hot) {
+        Layout<T> layout = layout(type);
+        List<RecordArchiveHeader> archives = babyId == null
+                ? archiveRepository.findHeadersOfHousehold(currentHousehold.id(), type, FIRST_MONTH, LAST_MONTH)
+                : archiveRepository.findHeaders(babyId, type, FIRST_MONTH, LAST_MONTH);
+        return merge(layout, hot, views(layout, archives, view -> true));
+    }
+
+    /**
+     * Merges the archived records between start and end, both inclusive, into the given list.
+     */
+    public <T> List<T> mergeRange(RecordType type, Long babyId, List<T> hot, LocalDateTime start, LocalDateTime end) {
+        Layout<T> layout = layout(type);
+        List<RecordArchiveHeader> archives = archiveRepository.findHeaders(babyId, type, monthOf(start), monthOf(end));
+        return merge(layout, hot, views(layout, archives, view ->
+                !layout.time().apply(view).isBefore(start) && !layout.time().apply(view).isAfter(end)));
+    }
+
+    /**
+     * Completes a keyset page read from the record table with archived records, keeping the page's order and limit.
+     * A {@code null} baby id pages across all babies of the current household, a {@code null} cursor starts at the
+     * newest record.
+     */
+    public <T> List<T> mergePage(RecordType type, Long babyId, List<T> hot,
+                                 LocalDateTime before, Long beforeId, int limit) {
+        Layout<T> layout = layout(type);
+        long beforeKey = beforeId == null ? 0L : beforeId;
+        Predicate<T> inPage = view -> before == null || isOlder(layout, view, before, beforeKey);
+        // A full page only takes archived records that are newer than its last one
+        T last = hot.size() >= limit ? hot.get(hot.size() - 1) : null;
+        if (last != null) {
+            inPage = inPage.and(view -> isOlder(layout, last, layout.time().apply(view), layout.id().apply(view)));
+        }
+        LocalDate from = last == null ? FIRST_MONTH : monthOf(layout.time().apply(last));
+        LocalDate to = before == null ? LAST_MONTH : monthOf(before);
+        List<LocalDate> months = babyId == null
+                ? archiveRepository.findMonthsOfHousehold(currentHousehold.id(), type, from, to)
+                : archiveRepository.findMonths(babyId, type, from, to);
+
+        List<T> archived = new ArrayList<>();
+        for (LocalDate month : months) {
+            List<RecordArchiveHeader> archives = babyId == null
+                    ? archiveRepository.findHeadersOfHousehold(currentHousehold.id(), type, month, month)
+                    : archiveRepository.findHeaders(babyId, type, month, month);
+            archived.addAll(views(layout, archives, inPage));
+            // Older months cannot contain anything newer than what was collected so far
+            if (archived.size() >= limit) {
+                break;
+            }
+        }
+        archived.sort(layout.newestFirst());
+        List<T> merged = merge(layout, hot, archived);
+        return merged.size() > limit ? new ArrayList<>(merged.subList(0, limit)) : merged;
+    }
+
+    /**
+     * Returns the stream merged with the baby's archived records, newest first. Archived months are read one at a
+     * time as the stream advances, so memory does not grow with the length of the history. Closing the returned
+     * stream closes the given one.
+     */
+    public <T> Stream<T> mergeStream(RecordType type, Long babyId, Stream<T> hot) {
+        Layout<T> layout = layout(type);
+        List<LocalDate> months = archiveRepository.findMonths(babyId, type, FIRST_MONTH, LAST_MONTH);
+        if (months.isEmpty()) {
+            return hot;
+        }
+        Iterator<T> archived = months.stream()
+                .flatMap(month -> views(layout, archiveRepository.findHeaders(babyId, type, month, month),
+                        view -> true).stream())
+                .iterator();
+        Iterator<T> merged = new MergingIterator<>(layout.newestFirst(), hot.iterator(), archived);
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(merged, Spliterator.ORDERED), false)
+                .onClose(hot::close);
+    }
+
+    /**
+     * Adds the current household's archived records with a change version above {@code since} to a delta sync list.
+     * Archived records only change by being archived, which keeps their version, so this only matters for clients
+     * that are far behind or start from scratch.
+     */
+    public <T> List<T> mergeChangedSince(RecordType type, List<T> hot, long since) {
+        Layout<T> layout = layout(type);
+        List<RecordArchiveMonth> archives = archiveRepository
+                .findByHouseholdIdAndRecordTypeAndMaxChangeVersionGreaterThan(currentHousehold.id(), type, since);
+        if (archives.isEmpty()) {
+            return hot;
+        }
+        Map<Long, String> babyNames = new HashMap<>();
+        List<ObjectNode> rows = new ArrayList<>();
+        List<T> changed = new ArrayList<>();
+        for (RecordArchiveMonth archive : archives) {
+            for (ObjectNode row : decode(archive.getData())) {
+                if (row.path("changeVersion").asLong() > since) {
+                    row.put("babyId", archive.getBabyId());
+                    rows.add(row);
+                }
+            }
+        }
+        rows.sort(Comparator.comparingLong((ObjectNode row) -> row.path("changeVersion").asLong())
+                .thenComparingLong(row -> row.path("id").asLong()));
+        Set<Long> ids = new HashSet<>();
+        for (ObjectNode row : rows) {
+            T view = toView(layout, row, row.get("babyId").asLong(), babyNames);
+            ids.add(layout.id().apply(view));
+            changed.add(view);
+        }
+        for (T view : hot) {
+            if (!ids.contains(layout.id().apply(view))) {
+                changed.add(view);
+            }
+        }
+        return changed;
+    }
+
+    /**
+     * Returns the end of the baby's newest archived month of the given type, from which on none of its records are
+     * archived; {@code null} if none are.
+     */
+    public LocalDateTime archivedUntil(RecordType type, Long babyId) {
+        List<LocalDate> months = archiveRepository.findMonths(babyId, type, FIRST_MONTH, LAST_MONTH);
+        return months.isEmpty() ? null : months.get(0).plusMonths(1).atStartOfDay();
+    }
+
+    /**
+     * Returns the newest archived record of the baby, decoding only the newest archived month.
+     */
+    public <T> T findLatest(RecordType type, Long babyId) {
+        Layout<T> layout = layout(type);
+        List<LocalDate> months = archiveRepository.findMonths(babyId, type, FIRST_MONTH, LAST_MONTH);
+        if (months.isEmpty()) {
+            return null;
+        }
+        LocalDate month = months.get(0);
+        return views(layout, archiveRepository.findHeaders(babyId, type, month, month), view -> true).stream()
+                .findFirst().orElse(null);
+    }
+
+    /**
+     * Returns the time of the baby's newest archived record of the given kind, a cleaning or medication type. Read
+     * from the latest times kept beside the documents, so no document is decoded and a kind the baby never had costs
+     * one index lookup.
+     */
+    public LocalDateTime findLatestTime(RecordType type, Long babyId, String kind) {
+        // Newest month first, without the documents
+        for (String json : archiveRepository.findLatestTimes(babyId, type, "%\"" + kind + "\"%")) {
+            Map<String, LocalDateTime> latestTimes = readLatestTimes(json);
+            if (latestTimes.containsKey(kind)) {
+                return latestTimes.get(kind);
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Returns the archived record of the current household with the given id.
+     */
+    public <T> Optional<T> findById(RecordType type, Long id) {
+        Layout<T> layout = layout(type);
+        List<RecordArchiveHeader> archives = archiveRepository.findHeadersContaining(currentHousehold.id(), type, id);
+        return views(layout, archives, view -> layout.id().apply(view).equals(id)).stream().findFirst();
+    }
+
+    /**
+     * Moves the archived record of the current household with the given id back into its record table, where it can
+     * be updated or deleted like any other; the archival job moves it out again once it is old enough. Returns false
+     * if no archive holds the record. Must be called in a writing transaction.
+     */
+    boolean restore(RecordType type, Long id) {
+        // Keeps the archival job from rewriting the same document meanwhile
+        changeTracker.lockWriters(currentHousehold.id());
+        Layout<?> layout = layout(type);
+        for (RecordArchiveMonth archive : archiveRepository.findArchivesContaining(currentHousehold.id(), type, id)) {
+            List<ObjectNode> rows = decode(archive.getData());
+            ObjectNode row = rows.stream().filter(r -> r.path("id").asLong() == id).findFirst().orElse(null);
+            if (row == null) {
+                continue;
+            }
+            rows.remove(row);
+            if (rows.isEmpty()) {
+                archiveRepository.delete(archive);
+            } else {
+                setRows(archive, rows);
+                archiveRepository.save(archive);
+            }
+            insert(layout, row, archive);
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Stores the rows, sorted newest first, as the archive's document and updates the figures kept beside it.
+     */
+    static void setRows(RecordArchiveMonth archive, List<ObjectNode> rows) {
+        byte[] data = encode(rows);
+        archive.setLatestTimes(writeLatestTimes(latestTimes(layout(archive.getRecordType()), rows)));
+        archive.setRecordCount(rows.size());
+        archive.setMaxChangeVersion(rows.stream().mapToLong(row -> row.path("changeVersion").asLong()).max().orElse(0));
+        archive.setMinRecordId(rows.stream().mapToLong(row -> row.path("id").asLong()).min().orElse(0));
+        archive.setMaxRecordId(rows.stream().mapToLong(row -> row.path("id").asLong()).max().orElse(0));
+        archive.setCompressedBytes(data.length);
+        archive.setData(data);
+    }
+
+    @SuppressWarnings("unchecked")
+    static <T> Layout<T> layout(RecordType type) {
+        return (Layout<T>) LAYOUTS.get(type);
+    }
+
+    static LocalDate monthOf(LocalDateTime time) {
+        return time.toLocalDate().withDayOfMonth(1);
+    }
+
+    /**
+     * Converts a row of a record table, as read by JDBC, into the row format of the archive documents.
+     */
+    static ObjectNode toRow(Map<String, Object> columns) {
+        ObjectNode row = MAPPER.createObjectNode();
+        columns.forEach((column, value) -> {
+            String name = column.toLowerCase();
+            if (!OMITTED_COLUMNS.contains(name)) {
+                row.set(camelCase(name), MAPPER.valueToTree(value instanceof Timestamp timestamp
+                        ? timestamp.toLocalDateTime() : value));
+            }
+        });
+        return row;
+    }
+
+    static LocalDateTime timeOf(Layout<?> layout, ObjectNode row) {
+        return LocalDateTime.parse(row.get(camelCase(layout.timeColumn())).asText());
+    }
+
+    // Newest time per kind; the rows are sorted newest first. Empty for record types without kinds.
+    private static Map<String, LocalDateTime> latestTimes(Layout<?> layout, List<ObjectNode> rows) {
+        Map<String, LocalDateTime> latestTimes = new LinkedHashMap<>();
+        if (layout.kindColumn() != null) {
+            String kind = camelCase(layout.kindColumn());
+            rows.forEach(row -> latestTimes.putIfAbsent(row.path(kind).asText(), timeOf(layout, row)));
+        }
+        return latestTimes;
+    }
+
+    private static String writeLatestTimes(Map<String, LocalDateTime> latestTimes) {
+        try {
+            return MAPPER.writeValueAsString(latestTimes);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static Map<String, LocalDateTime> readLatestTimes(String json) {
+        try {
+            return MAPPER.readValue(json, LATEST_TIMES);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Unreadable record archive latest times " + json, e);
+        }
+    }
+
+    // Column-wise, so that gzip sees runs of similar values
+    static byte[] encode(List<ObjectNode> rows) {
+        Set<String> names = new LinkedHashSet<>();
+        rows.forEach(row -> row.fieldNames().forEachRemaining(names::add));
+        ObjectNode document = MAPPER.createObjectNode();
+        document.put("format", FORMAT);
+        document.put("rows", rows.size());
+        ObjectNode columns = document.putObject("columns");
+        for (String name : names) {
+            ArrayNode values = columns.putArray(name);
+            rows.forEach(row -> values.add(row.get(name)));
+        }
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (OutputStream gzip = new GZIPOutputStream(bytes)) {
+            MAPPER.writeValue(gzip, document);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    static List<ObjectNode> decode(byte[] data) {
+        JsonNode document;
+        try (GZIPInputStream gzip = new GZIPInputStream(new ByteArrayInputStream(data))) {
+            document = MAPPER.readTree(gzip);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        if (document.path("format").asInt() != FORMAT) {
+            throw new IllegalStateException("Unsupported record archive format " + document.path("format"));
+        }
+        int count = document.get("rows").asInt();
+        List<ObjectNode> rows = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            rows.add(MAPPER.createObjectNode());
+        }
+        document.get("columns").fields().forEachRemaining(column -> {
+            for (int i = 0; i < count; i++) {
+                rows.get(i).set(column.getKey(), column.getValue().get(i));
+            }
+        });
+        return rows;
+    }
+
+    // The reverse of toRow(), with the columns the document omits taken from the archive
+    private void insert(Layout<?> layout, ObjectNode row, RecordArchiveMonth archive) {
+        Set<String> timeColumns = Set.of(layout.timeColumn(), "created_at", "updated_at");
+        Map<String, Object> columns = new LinkedHashMap<>();
+        row.fields().forEachRemaining(field -> {
+            String column = snakeCase(field.getKey());
+            JsonNode value = field.getValue();
+            columns.put(column, value.isNull() ? null
+                    : timeColumns.contains(column) ? Timestamp.valueOf(LocalDateTime.parse(value.asText()))
+                    : value.isNumber() ? value.numberValue()
+                    : value.isBoolean() ? value.booleanValue()
+                    : value.asText());
+        });
+        columns.put("baby_id", archive.getBabyId());
+        columns.put("household_id", archive.getHouseholdId());
+        columns.put("deleted", false);
+        jdbcTemplate.update("insert into " + layout.table() + " (" + String.join(", ", columns.keySet())
+                + ") values (" + String.join(", ", Collections.nCopies(columns.size(), "?")) + ")",
+                columns.values().toArray());
+    }
+
+    private <T> List<T> views(Layout<T> layout, List<RecordArchiveHeader> archives, Predicate<T> filter) {
+        Map<Long, String> babyNames = new HashMap<>();
+        Map<Long, List<ObjectNode>> rows = rows(archives);
+        List<T> views = new ArrayList<>();
+        for (RecordArchiveHeader archive : archives) {
+            for (ObjectNode row : rows.getOrDefault(archive.id(), List.of())) {
+                T view = toView(layout, row, archive.babyId(), babyNames);
+                if (filter.test(view)) {
+                    views.add(view);
+                }
+            }
+        }
+        // Documents are sorted, but months of several babies interleave
+        views.sort(layout.newestFirst());
+        return views;
+    }
+
+    /**
+     * The decoded documents of the archives by id. A document is decoded once and kept while its archive row keeps
+     * its record count, change version and archival time; only the documents of the others are read.
+     */
+    private Map<Long, List<ObjectNode>> rows(List<RecordArchiveHeader> archives) {
+        Map<Long, List<ObjectNode>> rows = new HashMap<>();
+        List<Long> missing = new ArrayList<>();
+        for (RecordArchiveHeader archive : archives) {
+            DecodedMonth decoded = decodedMonths.getIfPresent(archive.id());
+            if (decoded != null && decoded.header().equals(archive)) {
+                rows.put(archive.id(), decoded.rows());
+            } else {
+                missing.add(archive.id());
+            }
+        }
+        for (RecordArchiveMonth archive : archiveRepository.findAllById(missing)) {
+            List<ObjectNode> decoded = List.copyOf(decode(archive.getData()));
+            RecordArchiveHeader header = new RecordArchiveHeader(archive.getId(), archive.getBabyId(),
+                    archive.getRecordCount(), archive.getMaxChangeVersion(), archive.getArchivedAt());
+            decodedMonths.put(archive.getId(), new DecodedMonth(header, decoded));
+            rows.put(archive.getId(), decoded);
+        }
+        return rows;
+    }
+
+    // Views carry the current baby name, like the joins of the record queries. The row may be a cached one, so it is
+    // copied rather than changed.
+    private <T> T toView(Layout<T> layout, ObjectNode row, Long babyId, Map<Long, String> babyNames) {
+        ObjectNode view = row.deepCopy();
+        view.put("babyId", babyId);
+        view.put("babyName", babyNames.computeIfAbsent(babyId,
+                id -> babyRepository.findById(id).map(Baby::getName).orElse(null)));
+        try {
+            return MAPPER.treeToValue(view, layout.viewClass());
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Unreadable archived " + layout.table() + " row " + row.get("id"), e);
+        }
+    }
+
+    private static <T> List<T> merge(Layout<T> layout, List<T> hot, List<T> archived) {
+        if (archived.isEmpty()) {
+            return hot;
+        }
+        List<T> merged = new ArrayList<>(hot.size() + archived.size());
+        new MergingIterator<>(layout.newestFirst(), hot.iterator(), archived.iterator()).forEachRemaining(merged::add);
+        return merged;
+    }
+
+    private static <T> boolean isOlder(Layout<T> layout, T view, LocalDateTime time, long id) {
+        LocalDateTime viewTime = layout.time().apply(view);
+        return viewTime.isBefore(time) || viewTime.equals(time) && layout.id().apply(view) < id;
+    }
+
+    private static String camelCase(String column) {
+        StringBuilder name = new StringBuilder(column.length());
+        boolean upper = false;
+        for (char c : column.toCharArray()) {
+            if (c == '_') {
+                upper = true;
+            } else {
+                name.append(upper ? Character.toUpperCase(c) : c);
+                upper = false;
+            }
+        }
+        return name.toString();
+    }
+
+    private static String snakeCase(String name) {
+        StringBuilder column = new StringBuilder(name.length() + 4);
+        for (char c : name.toCharArray()) {
+            if (Character.isUpperCase(c)) {
+                column.append('_').append(Character.toLowerCase(c));
+            } else {
+                column.append(c);
+            }
+        }
+        return column.toString();
+    }
+
+    /**
+     * Merges two iterators that are both ordered by the given comparator. On equal time and id the record is the
+     * same, and it is returned once.
+     */
+    private static final class MergingIterator<T> implements Iterator<T> {
+
+        private final Comparator<T> order;
+        private final Iterator<T> hot;
+        private final Iterator<T> archived;
+        private T nextHot;
+        private T nextArchived;
+
+        MergingIterator(Comparator<T> order, Iterator<T> hot, Iterator<T> archived) {
+            this.order = order;
+            this.hot = hot;
+            this.archived = archived;
+            this.nextHot = hot.hasNext() ? hot.next() : null;
+            this.nextArchived = archived.hasNext() ? archived.next() : null;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return nextHot != null || nextArchived != null;
+        }
+
+        @Override
+        public T next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            int comparison = nextHot == null ? 1 : nextArchived == null ? -1 : order.compare(nextHot, nextArchived);
+            T next;
+            if (comparison <= 0) {
+                next = nextHot;
+                nextHot = hot.hasNext() ? hot.next() : null;
+                if (comparison == 0) {
+                    nextArchived = archived.hasNext() ? archived.next() : null;
+                }
+            } else {
+                next = nextArchived;
+                nextArchived = archived.hasNext() ? archived.next() : null;
+            }
+            return next;
+        }
+    }
+
+    private record DecodedMonth(RecordArchiveHeader header, List<ObjectNode> rows) {
+    }
+
+    /**
+     * Where a record type lives, the column that tells its kinds apart ({@code null} if it has none), and how its
+     * views are ordered.
+     */
+    record Layout<T>(String table, String timeColumn, String kindColumn, Class<T> viewClass,
+                     Function<T, LocalDateTime> time, Function<T, Long> id) {
+
+        Comparator<T> newestFirst() {
+            return Comparator.comparing(time).thenComparing(id).reversed();
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package com.flixcare.service;
+
+import com.flixcare.dto.RecordCacheStats;
+import com.flixcare.service.RecordVersions.RecordType;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Supplier;
+
+/**
+ * Bounded in-process cache of per-baby record lists, keyed by record type, baby and the requested range. Every key
+ * also carries the collection's current {@link RecordVersions} counter, so a list loaded while a write commits can
+ * never be served after that write. Entries of a changed collection are not removed; they become unreachable with the
+ * version bump and leave by size or age, so a write costs no scan of the cache.
+ * Callers should not hold a transaction around {@link #get}, otherwise even a hit checks out a connection; a miss runs
+ * the loader in a read-only transaction of its own.
+ */
+@Component
+public class RecordCache {
+
+    private final RecordVersions recordVersions;
+    private final TransactionTemplate readOnlyTransaction;
+    private final Cache<Key, List<?>> cache;
+
+    @Autowired
+    public RecordCache(RecordVersions recordVersions, PlatformTransactionManager transactionManager,
+                       MeterRegistry meterRegistry,
+                       @Value("${flixcare.cache.records.max-records:100000}") long maxRecords,
+                       @Value("${flixcare.cache.records.ttl-seconds:300}") long ttlSeconds) {
+        this(recordVersions, transactionManager, meterRegistry, maxRecords, ttlSeconds, ForkJoinPool.commonPool());
+    }
+
+    // Maintenance such as eviction runs on the executor
+    RecordCache(RecordVersions recordVersions, PlatformTransactionManager transactionManager,
+                MeterRegistry meterRegistry, long maxRecords, long ttlSeconds, Executor executor) {
+        this.recordVersions = recordVersions;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        // Weighed by list length so that a few unpaged histories cannot crowd out memory
+        this.cache = Caffeine.newBuilder()
+                .executor(executor)
+                .maximumWeight(maxRecords)
+                .weigher((Key key, List<?> records) -> records.size() + 1)
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "records");
+    }
+
+    /**
+     * Returns the cached list for the given collection and range, loading it on a miss. The range parts only need
+     * value equality; {@code null} is allowed.
+     */
+    @SuppressWarnings("unchecked")
+    public <T> List<T> get(RecordType type, Long babyId, Supplier<List<T>> loader, Object... range) {
+        // Read the version before loading, a concurrent commit then only makes the entry unreachable
+        Key key = new Key(type, babyId, recordVersions.version(type, babyId), Arrays.asList(range));
+        return (List<T>) cache.get(key,
+                k -> Collections.unmodifiableList(readOnlyTransaction.execute(status -> loader.get())));
+    }
+
+    public RecordCacheStats getStats() {
+        CacheStats stats = cache.stats();
+        return new RecordCacheStats(cache.estimatedSize(), stats.hitCount(), stats.missCount(), stats.hitRate(),
+                stats.evictionCount());
+    }
+
+    private record Key(RecordType type, Long babyId, long version, List<Object> range) {
+    }
+}
@@ -0,0 +1,45 @@
+package com.flixcare.service;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.flixcare.entity.Baby;
+import com.flixcare.service.RecordVersions.RecordType;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+// Published by the record services; listeners run after the writing transaction has committed. The household is
+// for the listeners only and not sent to event stream clients.
+public record RecordChangedEvent(RecordType type, Action action, Long babyId, List<Long> recordIds,
+                                 @JsonIgnore Long householdId) {
+
+    public enum Action {
+        CREATED, UPDATED, DELETED
+    }
+
+    static RecordChangedEvent created(RecordType type, Baby baby, Long recordId) {
+        return new RecordChangedEvent(type, Action.CREATED, baby.getId(), List.of(recordId), baby.getHouseholdId());
+    }
+
+    static RecordChangedEvent updated(RecordType type, Baby baby, Long recordId) {
+        return new RecordChangedEvent(type, Action.UPDATED, baby.getId(), List.of(recordId), baby.getHouseholdId());
+    }
+
+    static RecordChangedEvent deleted(RecordType type, Baby baby, Long recordId) {
+        return new RecordChangedEvent(type, Action.DELETED, baby.getId(), List.of(recordId), baby.getHouseholdId());
+    }
+
+    // One event per baby for a batch, ids in request order; the babies are all of the given household
+    static List<RecordChangedEvent> created(RecordType type, List<Long> babyIds, List<Long> recordIds,
+                                            Long householdId) {
+        Map<Long, List<Long>> idsByBaby = new LinkedHashMap<>();
+        for (int i = 0; i < recordIds.size(); i++) {
+            idsByBaby.computeIfAbsent(babyIds.get(i), babyId -> new ArrayList<>()).add(recordIds.get(i));
+        }
+        List<RecordChangedEvent> events = new ArrayList<>(idsByBaby.size());
+        idsByBaby.forEach((babyId, ids) -> events.add(
+                new RecordChangedEvent(type, Action.CREATED, babyId, ids, householdId)));
+        return events;
+    }
+}
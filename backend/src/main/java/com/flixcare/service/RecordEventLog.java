@@ -0,0 +1,445 @@
+package com.flixcare.service;
+
+import com.flixcare.dto.ExportRecord;
+import com.flixcare.entity.Baby;
+import com.flixcare.repository.BabyRepository;
+import com.flixcare.repository.CleaningRecordRepository;
+import com.flixcare.repository.FeedingRecordRepository;
+import com.flixcare.repository.MedicationRecordRepository;
+import com.flixcare.repository.TemperatureRecordRepository;
+import com.flixcare.repository.WeightRecordRepository;
+import com.flixcare.service.RecordVersions.RecordType;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Optional per-baby event log of the care records, a read store for the history next to the database, which stays
+ * the source of truth. Each baby's log is a {@link BabyEventLog} file in {@code flixcare.event-log.dir}, built from
+ * the database on the first read and then kept current by appending the committed changes, so the history is read
+ * by scanning one file instead of five indexes and the archive. A log that may have missed a change is cleared and
+ * built again; after an unclean shutdown all logs are. A log is built into a file of its own without holding the
+ * log's lock, so changes committed meanwhile are applied right away to the other logs and queued for the build,
+ * which applies them before it takes the log's place.
+ */
+@Component
+public class RecordEventLog {
+
+    private static final String SUFFIX = ".log";
+    private static final String BUILD_SUFFIX = ".build";
+    // Written on shutdown once every open log is forced to disk
+    private static final String CLEAN_MARKER = "clean";
+    // Larger changes, i.e. imports, are cheaper to rebuild from the database on the next read
+    private static final int MAX_APPLIED_IDS = 1000;
+
+    private final boolean enabled;
+    private final Path directory;
+    private final BabyRepository babyRepository;
+    private final FeedingRecordRepository feedingRecordRepository;
+    private final CleaningRecordRepository cleaningRecordRepository;
+    private final TemperatureRecordRepository temperatureRecordRepository;
+    private final WeightRecordRepository weightRecordRepository;
+    private final MedicationRecordRepository medicationRecordRepository;
+    private final TransactionTemplate readTransaction;
+    private final Cache<Long, BabyEventLog> logs;
+
+    public RecordEventLog(BabyRepository babyRepository,
+                          FeedingRecordRepository feedingRecordRepository,
+                          CleaningRecordRepository cleaningRecordRepository,
+                          TemperatureRecordRepository temperatureRecordRepository,
+                          WeightRecordRepository weightRecordRepository,
+                          MedicationRecordRepository medicationRecordRepository,
+                          PlatformTransactionManager transactionManager,
+                          @Value("${flixcare.event-log.enabled:false}") boolean enabled,
+                          @Value("${flixcare.event-log.dir:./data/event-log}") Path directory,
+                          @Value("${flixcare.event-log.max-open-logs:100}") long maxOpenLogs) {
+        this.babyRepository = babyRepository;
+        this.feedingRecordRepository = feedingRecordRepository;
+        this.cleaningRecordRepository = cleaningRecordRepository;
+        this.temperatureRecordRepository = temperatureRecordRepository;
+        this.weightRecordRepository = weightRecordRepository;
+        this.medicationRecordRepository = medicationRecordRepository;
+        this.enabled = enabled;
+        this.directory = directory;
+        // Changes arrive after the commit, while the finished transaction and its connection are still bound to the
+        // thread. Reading on that connection rather than in a new transaction keeps writers from holding one pooled
+        // connection while they wait for another, which deadlocks once as many write as the pool has connections.
+        this.readTransaction = new TransactionTemplate(transactionManager);
+        readTransaction.setReadOnly(true);
+        readTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_SUPPORTS);
+        this.logs = Caffeine.newBuilder()
+                .maximumSize(maxOpenLogs)
+                .evictionListener((Long babyId, BabyEventLog log, RemovalCause cause) -> close(log))
+                .build();
+        prepareDirectory();
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Passes the baby's history to the consumer newest first, read from its log. A log that does not exist yet or
+     * missed a change is first built from the history the source passes on, which must come newest first as well.
+     * While another read builds the log, the history comes from the source directly.
+     */
+    public void readHistory(Long babyId, Consumer<Consumer<ExportRecord>> source, Consumer<ExportRecord> consumer) {
+        BabyEventLog.Snapshot snapshot = read(babyId, source, BabyEventLog::snapshot);
+        if (snapshot == null) {
+            source.accept(consumer);
+            return;
+        }
+        String babyName = babyRepository.findById(babyId).map(Baby::getName).orElse(null);
+        snapshot.forEach(babyId, babyName, consumer);
+    }
+
+    /**
+     * Returns up to {@code limit} records of the baby that follow the cursor in list order, read from its log, which
+     * is built from the source like for {@link #readHistory}. The cursor is the time, type and id of the last record
+     * read; with only a time the page starts strictly before it, without any at the newest record. Returns null while
+     * another read builds the log.
+     */
+    public List<ExportRecord> readPage(Long babyId, Consumer<Consumer<ExportRecord>> source, LocalDateTime before,
+                                       RecordType beforeType, Long beforeId, int limit) {
+        BabyEventLog.Snapshot snapshot = read(babyId, source, log -> log.page(before, beforeType, beforeId, limit));
+        if (snapshot == null) {
+            return null;
+        }
+        String babyName = babyRepository.findById(babyId).map(Baby::getName).orElse(null);
+        List<ExportRecord> page = new ArrayList<>(limit);
+        snapshot.forEach(babyId, babyName, page::add);
+        return page;
+    }
+
+    /**
+     * Compacts the open logs and those on disk that have entries no longer needed or out of list order.
+     */
+    public int compactAll() {
+        if (!enabled) {
+            return 0;
+        }
+        int compacted = 0;
+        for (Long babyId : storedBabyIds()) {
+            boolean open = logs.getIfPresent(babyId) != null;
+            compacted += update(babyId, null, log -> {
+                if (log.needsCompaction()) {
+                    log.compact();
+                    return true;
+                }
+                return false;
+            }) ? 1 : 0;
+            // Logs opened only for compaction do not push out those in use
+            if (!open) {
+                BabyEventLog log = logs.asMap().remove(babyId);
+                if (log != null) {
+                    close(log);
+                }
+            }
+        }
+        return compacted;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    void onRecordChanged(RecordChangedEvent event) {
+        if (!enabled) {
+            return;
+        }
+        update(event.babyId(), event, log -> {
+            if (!apply(log, event)) {
+                log.clear();
+            }
+            return true;
+        });
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    void onBabyChanged(BabyChangedEvent event) {
+        if (enabled && event.action() == RecordChangedEvent.Action.DELETED) {
+            BabyEventLog log = logs.asMap().remove(event.babyId());
+            if (log != null) {
+                log.lock.lock();
+                try {
+                    log.close();
+                } finally {
+                    log.lock.unlock();
+                }
+            }
+            try {
+                Files.deleteIfExists(path(event.babyId()));
+            } catch (IOException e) {
+                // Only read again if a baby of that id existed, which ids rule out
+            }
+        }
+    }
+
+    @PreDestroy
+    void shutdown() throws IOException {
+        if (!enabled) {
+            return;
+        }
+        logs.asMap().values().forEach(this::close);
+        logs.invalidateAll();
+        Files.createDirectories(directory);
+        Files.write(directory.resolve(CLEAN_MARKER), new byte[0]);
+    }
+
+    /**
+     * Applies the change to the baby's log if it exists and is complete; a log that is not complete is built from
+     * the database on its next read, which includes the change. The record change the update comes from, if any, is
+     * queued for a build in progress instead. Returns the change's result, false without a log.
+     */
+    private boolean update(Long babyId, RecordChangedEvent event, LogChange change) {
+        while (true) {
+            BabyEventLog log = logs.getIfPresent(babyId);
+            if (log == null) {
+                if (!Files.exists(path(babyId))) {
+                    return false;
+                }
+                log = logs.get(babyId, this::open);
+            }
+            boolean unusable = false;
+            log.lock.lock();
+            try {
+                if (log.isClosed()) {
+                    continue;
+                }
+                if (!log.isComplete()) {
+                    if (event != null && log.isBuilding()) {
+                        log.addMissed(event);
+                    }
+                    return false;
+                }
+                try {
+                    return change.apply(log);
+                } catch (RuntimeException e) {
+                    // The log may lack the change now, and the change itself is committed already
+                    unusable = !discard(log);
+                    return false;
+                }
+            } finally {
+                log.lock.unlock();
+                // Outside the lock, which eviction takes while holding the cache entry
+                if (unusable) {
+                    logs.asMap().remove(babyId, log);
+                }
+            }
+        }
+    }
+
+    /**
+     * Reads from the baby's log, building it first if it is not complete. Returns null if another read is building
+     * the log, or if the log was closed or the build failed to catch up while building it.
+     */
+    private BabyEventLog.Snapshot read(Long babyId, Consumer<Consumer<ExportRecord>> source,
+                                       Function<BabyEventLog, BabyEventLog.Snapshot> reader) {
+        while (true) {
+            BabyEventLog log = logs.get(babyId, this::open);
+            log.lock.lock();
+            try {
+                // Closed by eviction in the meantime, the next one opens the file again
+                if (log.isClosed()) {
+                    continue;
+                }
+                if (log.isComplete()) {
+                    return reader.apply(log);
+                }
+                if (log.isBuilding()) {
+                    return null;
+                }
+                log.startBuild();
+            } finally {
+                log.lock.unlock();
+            }
+            return build(babyId, log, source, reader);
+        }
+    }
+
+    /**
+     * Builds the history into a new file while changes keep going to the log, which queues them as it is not
+     * complete. Changes that committed before the build started are in the source's history; those queued since are
+     * applied to the new file, outside the lock until none are left, and then the new file takes the log's place.
+     */
+    private BabyEventLog.Snapshot build(Long babyId, BabyEventLog log, Consumer<Consumer<ExportRecord>> source,
+                                        Function<BabyEventLog, BabyEventLog.Snapshot> reader) {
+        BabyEventLog built = null;
+        boolean installed = false;
+        try {
+            // An empty file, which the log opens as one to be built
+            built = BabyEventLog.open(Files.createTempFile(directory, babyId + "-", BUILD_SUFFIX));
+            BabyEventLog target = built;
+            source.accept(record -> target.append(record.type(), record.record()));
+            built.markComplete();
+            while (true) {
+                List<RecordChangedEvent> missed;
+                log.lock.lock();
+                try {
+                    if (log.isClosed()) {
+                        return null;
+                    }
+                    missed = log.takeMissed();
+                    if (missed.isEmpty()) {
+                        log.replaceWith(built);
+                        installed = true;
+                        return reader.apply(log);
+                    }
+                } finally {
+                    log.lock.unlock();
+                }
+                for (RecordChangedEvent event : missed) {
+                    // Cheaper to build once more on the next read
+                    if (!apply(built, event)) {
+                        return null;
+                    }
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            if (!installed) {
+                log.lock.lock();
+                try {
+                    log.cancelBuild();
+                } finally {
+                    log.lock.unlock();
+                }
+                if (built != null) {
+                    built.delete();
+                }
+            }
+        }
+    }
+
+    // Applies a committed change to a complete log; false if the change is too large to apply
+    private boolean apply(BabyEventLog log, RecordChangedEvent event) {
+        List<Long> ids = event.recordIds();
+        if (event.action() == RecordChangedEvent.Action.DELETED) {
+            ids.forEach(id -> log.appendDeletion(event.type(), id));
+            return true;
+        }
+        if (ids.size() > MAX_APPLIED_IDS) {
+            return false;
+        }
+        List<?> views = readTransaction.execute(status -> findViews(event.type(), ids));
+        Set<Long> found = new HashSet<>();
+        for (Object view : views) {
+            log.append(event.type(), view);
+            found.add(RecordArchive.layout(event.type()).id().apply(view));
+        }
+        // Deleted again before this change was applied
+        ids.stream().filter(id -> !found.contains(id)).forEach(id -> log.appendDeletion(event.type(), id));
+        return true;
+    }
+
+    // Clears the log so that it is built again, or deletes it if even that fails; false if it was deleted
+    private static boolean discard(BabyEventLog log) {
+        try {
+            log.clear();
+            return true;
+        } catch (RuntimeException e) {
+            log.delete();
+            return false;
+        }
+    }
+
+    private List<?> findViews(RecordType type, List<Long> ids) {
+        return switch (type) {
+            case FEEDING -> feedingRecordRepository.findViewsByIds(ids);
+            case CLEANING -> cleaningRecordRepository.findViewsByIds(ids);
+            case TEMPERATURE -> temperatureRecordRepository.findViewsByIds(ids);
+            case WEIGHT -> weightRecordRepository.findViewsByIds(ids);
+            case MEDICATION -> medicationRecordRepository.findViewsByIds(ids);
+        };
+    }
+
+    private BabyEventLog open(Long babyId) {
+        try {
+            Files.createDirectories(directory);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return BabyEventLog.open(path(babyId));
+    }
+
+    private void close(BabyEventLog log) {
+        log.lock.lock();
+        try {
+            if (!log.isClosed()) {
+                log.close();
+            }
+        } finally {
+            log.lock.unlock();
+        }
+    }
+
+    private Path path(Long babyId) {
+        return directory.resolve(babyId + SUFFIX);
+    }
+
+    private List<Long> storedBabyIds() {
+        if (!Files.isDirectory(directory)) {
+            return List.of();
+        }
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, "*" + SUFFIX)) {
+            List<Long> babyIds = new ArrayList<>();
+            for (Path file : files) {
+                String name = file.getFileName().toString();
+                babyIds.add(Long.valueOf(name.substring(0, name.length() - SUFFIX.length())));
+            }
+            return babyIds;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    // Entries appended before a crash may be missing from the files, so only a clean shutdown keeps the logs. Changes
+    // made while the log is disabled are not in them either, so then the marker goes. Unfinished builds never count.
+    private void prepareDirectory() {
+        try {
+            if (!enabled) {
+                Files.deleteIfExists(directory.resolve(CLEAN_MARKER));
+                return;
+            }
+            Files.createDirectories(directory);
+            try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, "*" + BUILD_SUFFIX)) {
+                for (Path file : files) {
+                    Files.delete(file);
+                }
+            }
+            if (Files.deleteIfExists(directory.resolve(CLEAN_MARKER))) {
+                return;
+            }
+            try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, "*{" + SUFFIX + ",.next}")) {
+                for (Path file : files) {
+                    Files.delete(file);
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot prepare the event log directory " + directory, e);
+        }
+    }
+
+    @FunctionalInterface
+    private interface LogChange {
+        boolean apply(BabyEventLog log);
+    }
+}
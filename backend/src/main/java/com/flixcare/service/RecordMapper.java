@@ -0,0 +1,145 @@
+package com.flixcare.service;
+
+import com.flixcare.dto.CleaningRecordDTO;
+import com.flixcare.dto.FeedingRecordDTO;
+import com.flixcare.dto.MedicationRecordDTO;
+import com.flixcare.dto.TemperatureRecordDTO;
+import com.flixcare.dto.WeightRecordDTO;
+import com.flixcare.entity.CleaningRecord;
+import com.flixcare.entity.FeedingRecord;
+import com.flixcare.entity.MedicationRecord;
+import com.flixcare.entity.TemperatureRecord;
+import com.flixcare.entity.WeightRecord;
+
+/**
+ * Converts the record entities to the DTOs the write endpoints return, and the DTOs they accept to new entities.
+ * Baby, household and change version of a new entity are set by the record services.
+ */
+public final class RecordMapper {
+
+    private RecordMapper() {
+    }
+
+    public static FeedingRecordDTO toDTO(FeedingRecord record) {
+        FeedingRecordDTO dto = new FeedingRecordDTO();
+        dto.setId(record.getId());
+        dto.setBabyId(record.getBaby().getId());
+        dto.setBabyName(record.getBaby().getName());
+        dto.setFeedingTime(record.getFeedingTime());
+        dto.setFeedingType(record.getFeedingType().name());
+        dto.setAmountMl(record.getAmountMl());
+        dto.setDurationMinutes(record.getDurationMinutes());
+        dto.setNotes(record.getNotes());
+        dto.setCreatedAt(record.getCreatedAt());
+        dto.setUpdatedAt(record.getUpdatedAt());
+        return dto;
+    }
+
+    public static FeedingRecord toEntity(FeedingRecordDTO dto) {
+        FeedingRecord record = new FeedingRecord();
+        record.setFeedingTime(dto.getFeedingTime());
+        record.setFeedingType(FeedingRecord.FeedingType.valueOf(dto.getFeedingType()));
+        record.setAmountMl(dto.getAmountMl());
+        record.setDurationMinutes(dto.getDurationMinutes());
+        record.setNotes(dto.getNotes());
+        return record;
+    }
+
+    public static CleaningRecordDTO toDTO(CleaningRecord record) {
+        CleaningRecordDTO dto = new CleaningRecordDTO();
+        dto.setId(record.getId());
+        dto.setBabyId(record.getBaby().getId());
+        dto.setBabyName(record.getBaby().getName());
+        dto.setCleaningTime(record.getCleaningTime());
+        dto.setCleaningType(record.getCleaningType().name());
+        if (record.getDiaperContent() != null) {
+            dto.setDiaperContent(record.getDiaperContent().name());
+        }
+        dto.setNotes(record.getNotes());
+        dto.setCreatedAt(record.getCreatedAt());
+        dto.setUpdatedAt(record.getUpdatedAt());
+        return dto;
+    }
+
+    public static CleaningRecord toEntity(CleaningRecordDTO dto) {
+        CleaningRecord record = new CleaningRecord();
+        record.setCleaningTime(dto.getCleaningTime());
+        record.setCleaningType(CleaningRecord.CleaningType.valueOf(dto.getCleaningType()));
+        if (dto.getDiaperContent() != null) {
+            record.setDiaperContent(CleaningRecord.DiaperContent.valueOf(dto.getDiaperContent()));
+        }
+        record.setNotes(dto.getNotes());
+        return record;
+    }
+
+    public static TemperatureRecordDTO toDTO(TemperatureRecord record) {
+        TemperatureRecordDTO dto = new TemperatureRecordDTO();
+        dto.setId(record.getId());
+        dto.setBabyId(record.getBaby().getId());
+        dto.setBabyName(record.getBaby().getName());
+        dto.setMeasurementTime(record.getMeasurementTime());
+        dto.setTemperatureCelsius(record.getTemperatureCelsius());
+        if (record.getMeasurementLocation() != null) {
+            dto.setMeasurementLocation(record.getMeasurementLocation().name());
+        }
+        dto.setNotes(record.getNotes());
+        dto.setCreatedAt(record.getCreatedAt());
+        dto.setUpdatedAt(record.getUpdatedAt());
+        return dto;
+    }
+
+    public static TemperatureRecord toEntity(TemperatureRecordDTO dto) {
+        TemperatureRecord record = new TemperatureRecord();
+        record.setMeasurementTime(dto.getMeasurementTime());
+        record.setTemperatureCelsius(dto.getTemperatureCelsius());
+        if (dto.getMeasurementLocation() != null) {
+            record.setMeasurementLocation(TemperatureRecord.MeasurementLocation.valueOf(dto.getMeasurementLocation()));
+        }
+        record.setNotes(dto.getNotes());
+        return record;
+    }
+
+    public static WeightRecordDTO toDTO(WeightRecord record) {
+        WeightRecordDTO dto = new WeightRecordDTO();
+        dto.setId(record.getId());
+        dto.setBabyId(record.getBaby().getId());
+        dto.setBabyName(record.getBaby().getName());
+        dto.setMeasurementTime(record.getMeasurementTime());
+        dto.setWeightGrams(record.getWeightGrams());
+        dto.setNotes(record.getNotes());
+        dto.setCreatedAt(record.getCreatedAt());
+        dto.setUpdatedAt(record.getUpdatedAt());
+        return dto;
+    }
+
+    public static WeightRecord toEntity(WeightRecordDTO dto) {
+        WeightRecord record = new WeightRecord();
+        record.setMeasurementTime(dto.getMeasurementTime());
+        record.setWeightGrams(dto.getWeightGrams());
+        record.setNotes(dto.getNotes());
+        return record;
+    }
+
+    public static MedicationRecordDTO toDTO(MedicationRecord record) {
+        MedicationRecordDTO dto = new MedicationRecordDTO();
+        dto.setId(record.getId());
+        dto.setBabyId(record.getBaby().getId());
+        dto.setBabyName(record.getBaby().getName());
+        dto.setMedicationTime(record.getMedicationTime());
+        dto.setMedicationType(record.getMedicationType());
+        dto.setDosage(record.getDosage());
+        dto.setNotes(record.getNotes());
+        dto.setCreatedAt(record.getCreatedAt());
+        dto.setUpdatedAt(record.getUpdatedAt());
+        return dto;
+    }
+
+    public static MedicationRecord toEntity(MedicationRecordDTO dto) {
+        MedicationRecord record = new MedicationRecord();
+        record.setMedicationTime(dto.getMedicationTime());
+        record.setMedicationType(dto.getMedicationType());
+        record.setDosage(dto.getDosage());
+        record.setNotes(dto.getNotes());
+        return record;
+    }
+}
@@ -0,0 +1,15 @@
+package com.flixcare.service;
+
+import java.time.ZoneOffset;
+
+/**
+ * Record times are persisted as {@code LocalDateTime} wall-clock values in this zone. Conversions to and from the
+ * zone of a day (daily stats, dashboard) and the month boundaries of partitions and archive go through it.
+ */
+final class RecordTimes {
+
+    static final ZoneOffset STORAGE_ZONE = ZoneOffset.UTC;
+
+    private RecordTimes() {
+    }
+}
@@ -0,0 +1,70 @@
+package com.flixcare.service;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Versions of the record collections. ETags come from the household's persisted change version, which every committed
+ * write of the household bumps, so they stay valid across restarts and instances. In-memory counters per record type
+ * and baby, and per record type and household for the collections across babies, key the {@link RecordCache}; they
+ * are bumped after commit, before any other listener sees the change.
+ */
+@Component
+@RequiredArgsConstructor
+public class RecordVersions {
+
+    public enum RecordType {
+        FEEDING, CLEANING, TEMPERATURE, WEIGHT, MEDICATION
+    }
+
+    private final CurrentHousehold currentHousehold;
+    private final ChangeTracker changeTracker;
+    private final Map<Key, AtomicLong> versions = new ConcurrentHashMap<>();
+    // The collections across all babies of a household
+    private final Map<Key, AtomicLong> householdVersions = new ConcurrentHashMap<>();
+
+    // Read before the collection, so a write committing in between only costs the client one more full response
+    public String etag() {
+        Long householdId = currentHousehold.id();
+        return "\"" + householdId + "-" + changeTracker.currentVersion(householdId) + "\"";
+    }
+
+    // A null baby id stands for all babies of the current household
+    public long version(RecordType type, Long babyId) {
+        AtomicLong version = babyId == null
+                ? householdVersions.get(new Key(type, currentHousehold.id()))
+                : versions.get(new Key(type, babyId));
+        return version == null ? 0 : version.get();
+    }
+
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    @TransactionalEventListener(fallbackExecution = true)
+    void onRecordChanged(RecordChangedEvent event) {
+        bump(event.type(), event.babyId(), event.householdId());
+    }
+
+    // Record views carry the baby name, so a changed or deleted baby invalidates all of its collections
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    @TransactionalEventListener(fallbackExecution = true)
+    void onBabyChanged(BabyChangedEvent event) {
+        for (RecordType type : RecordType.values()) {
+            bump(type, event.babyId(), event.householdId());
+        }
+    }
+
+    private void bump(RecordType type, Long babyId, Long householdId) {
+        versions.computeIfAbsent(new Key(type, babyId), key -> new AtomicLong()).incrementAndGet();
+        householdVersions.computeIfAbsent(new Key(type, householdId), key -> new AtomicLong()).incrementAndGet();
+    }
+
+    // Of a baby or a household, depending on the map
+    private record Key(RecordType type, long id) {
+    }
+}
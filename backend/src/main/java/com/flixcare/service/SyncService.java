@@ -0,0 +1,65 @@
+package com.flixcare.service;
+
+import com.flixcare.dto.SyncDTO;
+import com.flixcare.repository.BabyRepository;
+import com.flixcare.repository.BabyTombstoneRepository;
+import com.flixcare.repository.CleaningRecordRepository;
+import com.flixcare.repository.FeedingRecordRepository;
+import com.flixcare.repository.MedicationRecordRepository;
+import com.flixcare.repository.TemperatureRecordRepository;
+import com.flixcare.repository.WeightRecordRepository;
+import com.flixcare.service.RecordVersions.RecordType;
+import io.micrometer.core.annotation.Timed;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+@Service
+@Timed("flixcare.service")
+@RequiredArgsConstructor
+public class SyncService {
+
+    private final ChangeTracker changeTracker;
+    private final BabyRepository babyRepository;
+    private final FeedingRecordRepository feedingRecordRepository;
+    private final CleaningRecordRepository cleaningRecordRepository;
+    private final TemperatureRecordRepository temperatureRecordRepository;
+    private final WeightRecordRepository weightRecordRepository;
+    private final MedicationRecordRepository medicationRecordRepository;
+    private final BabyTombstoneRepository babyTombstoneRepository;
+    private final RecordArchive recordArchive;
+    private final CurrentHousehold currentHousehold;
+
+    @Transactional(readOnly = true)
+    public SyncDTO getChangesSince(long since) {
+        SyncDTO dto = new SyncDTO();
+        // Read the watermark first: changes committed meanwhile are sent again next time, never skipped
+        Long householdId = currentHousehold.id();
+        dto.setWatermark(changeTracker.currentVersion(householdId));
+
+        // Records held by clients keep the baby name they were synced with, changed babies let clients update it
+        dto.setBabies(babyRepository.findViewsChangedSince(householdId, since));
+        dto.setFeedingRecords(recordArchive.mergeChangedSince(
+                RecordType.FEEDING, feedingRecordRepository.findViewsChangedSince(householdId, since), since));
+        dto.setCleaningRecords(recordArchive.mergeChangedSince(
+                RecordType.CLEANING, cleaningRecordRepository.findViewsChangedSince(householdId, since), since));
+        dto.setTemperatureRecords(recordArchive.mergeChangedSince(RecordType.TEMPERATURE,
+                temperatureRecordRepository.findViewsChangedSince(householdId, since), since));
+        dto.setWeightRecords(recordArchive.mergeChangedSince(
+                RecordType.WEIGHT, weightRecordRepository.findViewsChangedSince(householdId, since), since));
+        dto.setMedicationRecords(recordArchive.mergeChangedSince(
+                RecordType.MEDICATION, medicationRecordRepository.findViewsChangedSince(householdId, since), since));
+
+        // Tombstones are never archived
+        dto.getDeleted().put("feedingRecords", feedingRecordRepository.findIdsDeletedSince(householdId, since));
+        dto.getDeleted().put("cleaningRecords", cleaningRecordRepository.findIdsDeletedSince(householdId, since));
+        dto.getDeleted().put("temperatureRecords",
+                temperatureRecordRepository.findIdsDeletedSince(householdId, since));
+        dto.getDeleted().put("weightRecords", weightRecordRepository.findIdsDeletedSince(householdId, since));
+        dto.getDeleted().put("medicationRecords",
+                medicationRecordRepository.findIdsDeletedSince(householdId, since));
+        // Deleted babies take their records and those records' tombstones with them
+        dto.setDeletedBabies(babyTombstoneRepository.findBabyIdsDeletedSince(householdId, since));
+        return dto;
+    }
+}
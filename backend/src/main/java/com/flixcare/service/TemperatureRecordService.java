@@ -1,66 +1,146 @@
 package com.flixcare.service;
 
 import com.flixcare.dto.TemperatureRecordDTO;
+import com.flixcare.dto.TemperatureRecordView;
 import com.flixcare.entity.Baby;
 import com.flixcare.entity.TemperatureRecord;
 import com.flixcare.exception.ResourceNotFoundException;
 import com.flixcare.repository.BabyRepository;
 import com.flixcare.repository.TemperatureRecordRepository;
+import com.flixcare.service.RecordVersions.RecordType;
+import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 @Service
+@Timed("flixcare.service")
 @RequiredArgsConstructor
 @Transactional
 public class TemperatureRecordService {
 
     private final TemperatureRecordRepository temperatureRecordRepository;
     private final BabyRepository babyRepository;
+    private final BatchWriter batchWriter;
+    private final ChangeTracker changeTracker;
+    private final ApplicationEventPublisher eventPublisher;
+    private final RecordCache recordCache;
+    private final RecordArchive recordArchive;
+    private final CurrentHousehold currentHousehold;
+
+    @Transactional(readOnly = true)
+    public List<TemperatureRecordView> getAllTemperatureRecords() {
+        return recordArchive.merge(RecordType.TEMPERATURE, null,
+                temperatureRecordRepository.findAllViews(currentHousehold.id(), Pageable.unpaged()));
+    }
+
+    @Transactional(readOnly = true)
+    public List<TemperatureRecordView> getAllTemperatureRecords(LocalDateTime before, Long beforeId, int limit) {
+        Pageable pageable = PageRequest.of(0, limit);
+        List<TemperatureRecordView> records = before == null
+                ? temperatureRecordRepository.findAllViews(currentHousehold.id(), pageable)
+                : temperatureRecordRepository.findAllViewsBefore(
+                        currentHousehold.id(), before, beforeId == null ? 0L : beforeId, pageable);
+        return recordArchive.mergePage(RecordType.TEMPERATURE, null, records, before, beforeId, limit);
+    }
+
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public List<TemperatureRecordView> getTemperatureRecordsByBaby(Long babyId) {
+        return recordCache.get(RecordType.TEMPERATURE, babyId,
+                () -> recordArchive.merge(RecordType.TEMPERATURE, babyId,
+                        temperatureRecordRepository.findViewsByBabyId(babyId, Pageable.unpaged())));
+    }
 
-    public List<TemperatureRecordDTO> getAllTemperatureRecords() {
-        return temperatureRecordRepository.findAll().stream()
-                .map(this::convertToDTO)
-                .collect(Collectors.toList());
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public List<TemperatureRecordView> getTemperatureRecordsByBaby(Long babyId, LocalDateTime before, Long beforeId, int limit) {
+        return recordCache.get(RecordType.TEMPERATURE, babyId,
+                () -> getTemperatureRecordsByBabyUncached(babyId, before, beforeId, limit), before, beforeId, limit);
     }
 
-    public List<TemperatureRecordDTO> getTemperatureRecordsByBaby(Long babyId) {
-        return temperatureRecordRepository.findByBabyIdOrderByMeasurementTimeDesc(babyId).stream()
-                .map(this::convertToDTO)
-                .collect(Collectors.toList());
+    // For callers that read each page once, such as the timeline, and would only fill the cache
+    @Transactional(readOnly = true)
+    public List<TemperatureRecordView> getTemperatureRecordsByBabyUncached(
+            Long babyId, LocalDateTime before, Long beforeId, int limit) {
+        Pageable pageable = PageRequest.of(0, limit);
+        List<TemperatureRecordView> records = before == null
+                ? temperatureRecordRepository.findViewsByBabyId(babyId, pageable)
+                : temperatureRecordRepository.findViewsByBabyIdBefore(
+                        babyId, before, beforeId == null ? 0L : beforeId, pageable);
+        return recordArchive.mergePage(RecordType.TEMPERATURE, babyId, records, before, beforeId, limit);
     }
 
-    public List<TemperatureRecordDTO> getTemperatureRecordsByBabyAndDateRange(
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public List<TemperatureRecordView> getTemperatureRecordsByBabyAndDateRange(
             Long babyId, LocalDateTime start, LocalDateTime end) {
-        return temperatureRecordRepository
-                .findByBabyIdAndMeasurementTimeBetweenOrderByMeasurementTimeDesc(babyId, start, end)
-                .stream()
-                .map(this::convertToDTO)
-                .collect(Collectors.toList());
+        return recordCache.get(RecordType.TEMPERATURE, babyId, () -> {
+            List<TemperatureRecordView> records =
+                    temperatureRecordRepository.findViewsByBabyIdAndRange(babyId, start, end);
+            return recordArchive.mergeRange(RecordType.TEMPERATURE, babyId, records, start, end);
+        }, start, end);
     }
 
-    public TemperatureRecordDTO getTemperatureRecordById(Long id) {
-        TemperatureRecord record = temperatureRecordRepository.findById(id)
+    @Transactional(readOnly = true)
+    public void streamTemperatureRecordsByBaby(Long babyId, Consumer<TemperatureRecordView> consumer) {
+        try (Stream<TemperatureRecordView> records = temperatureRecordRepository.streamViewsByBabyId(babyId)) {
+            recordArchive.mergeStream(RecordType.TEMPERATURE, babyId, records).forEach(consumer);
+        }
+    }
+
+    @Transactional(readOnly = true)
+    public TemperatureRecordView getTemperatureRecordById(Long id) {
+        return temperatureRecordRepository.findViewById(id, currentHousehold.id())
+                .or(() -> recordArchive.findById(RecordType.TEMPERATURE, id))
                 .orElseThrow(() -> new ResourceNotFoundException("Temperature record not found with id: " + id));
-        return convertToDTO(record);
     }
 
     public TemperatureRecordDTO createTemperatureRecord(TemperatureRecordDTO dto) {
-        Baby baby = babyRepository.findById(dto.getBabyId())
+        Baby baby = babyRepository.findByIdAndHouseholdId(dto.getBabyId(), currentHousehold.id())
                 .orElseThrow(() -> new ResourceNotFoundException("Baby not found with id: " + dto.getBabyId()));
 
-        TemperatureRecord record = convertToEntity(dto);
+        TemperatureRecord record = RecordMapper.toEntity(dto);
         record.setBaby(baby);
+        record.setHouseholdId(baby.getHouseholdId());
+        record.setChangeVersion(changeTracker.nextVersion(baby.getHouseholdId()));
         TemperatureRecord savedRecord = temperatureRecordRepository.save(record);
-        return convertToDTO(savedRecord);
+        eventPublisher.publishEvent(
+                RecordChangedEvent.created(RecordType.TEMPERATURE, baby, savedRecord.getId()));
+        return RecordMapper.toDTO(savedRecord);
+    }
+
+    public List<Long> createTemperatureRecords(List<TemperatureRecordDTO> dtos) {
+        List<Long> babyIds = dtos.stream().map(TemperatureRecordDTO::getBabyId).toList();
+        Map<Long, Baby> babies = batchWriter.loadBabies(babyIds);
+
+        long changeVersion = changeTracker.nextVersion(currentHousehold.id());
+        List<TemperatureRecord> records = new ArrayList<>(dtos.size());
+        for (TemperatureRecordDTO dto : dtos) {
+            TemperatureRecord record = RecordMapper.toEntity(dto);
+            Baby baby = babies.get(dto.getBabyId());
+            record.setBaby(baby);
+            record.setHouseholdId(baby.getHouseholdId());
+            record.setChangeVersion(changeVersion);
+            records.add(record);
+        }
+        List<Long> ids = batchWriter.persistAll(records, TemperatureRecord::getId);
+        RecordChangedEvent.created(RecordType.TEMPERATURE, babyIds, ids, currentHousehold.id())
+                .forEach(eventPublisher::publishEvent);
+        return ids;
     }
 
     public TemperatureRecordDTO updateTemperatureRecord(Long id, TemperatureRecordDTO dto) {
-        TemperatureRecord record = temperatureRecordRepository.findById(id)
+        TemperatureRecord record = findRecord(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Temperature record not found with id: " + id));
 
         record.setMeasurementTime(dto.getMeasurementTime());
@@ -69,42 +149,31 @@ public class TemperatureRecordService {
             record.setMeasurementLocation(TemperatureRecord.MeasurementLocation.valueOf(dto.getMeasurementLocation()));
         }
         record.setNotes(dto.getNotes());
+        record.setChangeVersion(changeTracker.nextVersion(record.getHouseholdId()));
 
         TemperatureRecord updatedRecord = temperatureRecordRepository.save(record);
-        return convertToDTO(updatedRecord);
+        eventPublisher.publishEvent(
+                RecordChangedEvent.updated(RecordType.TEMPERATURE, updatedRecord.getBaby(), id));
+        return RecordMapper.toDTO(updatedRecord);
     }
 
     public void deleteTemperatureRecord(Long id) {
-        if (!temperatureRecordRepository.existsById(id)) {
-            throw new ResourceNotFoundException("Temperature record not found with id: " + id);
-        }
-        temperatureRecordRepository.deleteById(id);
-    }
+        TemperatureRecord record = findRecord(id)
+                .orElseThrow(() -> new ResourceNotFoundException("Temperature record not found with id: " + id));
 
-    private TemperatureRecordDTO convertToDTO(TemperatureRecord record) {
-        TemperatureRecordDTO dto = new TemperatureRecordDTO();
-        dto.setId(record.getId());
-        dto.setBabyId(record.getBaby().getId());
-        dto.setBabyName(record.getBaby().getName());
-        dto.setMeasurementTime(record.getMeasurementTime());
-        dto.setTemperatureCelsius(record.getTemperatureCelsius());
-        if (record.getMeasurementLocation() != null) {
-            dto.setMeasurementLocation(record.getMeasurementLocation().name());
-        }
-        dto.setNotes(record.getNotes());
-        dto.setCreatedAt(record.getCreatedAt());
-        dto.setUpdatedAt(record.getUpdatedAt());
-        return dto;
+        // Keep a tombstone so that sync clients learn about the deletion
+        record.setDeleted(true);
+        record.setChangeVersion(changeTracker.nextVersion(record.getHouseholdId()));
+        temperatureRecordRepository.save(record);
+        eventPublisher.publishEvent(RecordChangedEvent.deleted(RecordType.TEMPERATURE, record.getBaby(), id));
     }
 
-    private TemperatureRecord convertToEntity(TemperatureRecordDTO dto) {
-        TemperatureRecord record = new TemperatureRecord();
-        record.setMeasurementTime(dto.getMeasurementTime());
-        record.setTemperatureCelsius(dto.getTemperatureCelsius());
-        if (dto.getMeasurementLocation() != null) {
-            record.setMeasurementLocation(TemperatureRecord.MeasurementLocation.valueOf(dto.getMeasurementLocation()));
+    // An archived record is moved back into the record table before it is changed
+    private Optional<TemperatureRecord> findRecord(Long id) {
+        Optional<TemperatureRecord> record = temperatureRecordRepository.findByIdAndHouseholdId(id, currentHousehold.id());
+        if (record.isEmpty() && recordArchive.restore(RecordType.TEMPERATURE, id)) {
+            record = temperatureRecordRepository.findByIdAndHouseholdId(id, currentHousehold.id());
         }
-        record.setNotes(dto.getNotes());
         return record;
     }
 }
@@ -0,0 +1,159 @@
+package com.flixcare.service;
+
+import com.flixcare.dto.ExportRecord;
+import com.flixcare.service.RecordArchive.Layout;
+import com.flixcare.service.RecordVersions.RecordType;
+import io.micrometer.core.annotation.Timed;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.PriorityQueue;
+
+/**
+ * Pages through the records of all types of a baby, merged newest first into one timeline. Each type is read in
+ * keyset pages of its own that are fetched only when the merge has used up the previous one, so a timeline page reads
+ * about {@code limit} rows in total however the types interleave, instead of every type's full list. With the
+ * {@link RecordEventLog} enabled, pages are read from the baby's log, which holds the timeline in this order already.
+ */
+@Service
+@Timed("flixcare.service")
+@RequiredArgsConstructor
+public class TimelineService {
+
+    // Newest first; records of the same time in the order of the record types, then newest id first like the lists
+    private static final Comparator<ExportRecord> ORDER = Comparator.comparing(ExportRecord::time).reversed()
+            .thenComparing(ExportRecord::type)
+            .thenComparing(Comparator.comparingLong(TimelineService::idOf).reversed());
+
+    private final FeedingRecordService feedingRecordService;
+    private final CleaningRecordService cleaningRecordService;
+    private final TemperatureRecordService temperatureRecordService;
+    private final WeightRecordService weightRecordService;
+    private final MedicationRecordService medicationRecordService;
+    private final ExportService exportService;
+    private final RecordEventLog recordEventLog;
+
+    /**
+     * Returns up to {@code limit} records that come after the cursor in timeline order. The cursor is the time, type
+     * and id of the last record of the previous page; with only a time the page starts strictly before it, without
+     * any at the newest record.
+     */
+    @Transactional(readOnly = true)
+    public List<ExportRecord> getTimeline(Long babyId, LocalDateTime before, RecordType beforeType, Long beforeId,
+                                          int limit) {
+        if (recordEventLog.isEnabled()) {
+            List<ExportRecord> page = recordEventLog.readPage(babyId,
+                    records -> exportService.readDatabase(babyId, records), before, beforeType, beforeId, limit);
+            // Null while another request builds the log
+            if (page != null) {
+                return page;
+            }
+        }
+        // Pages of the expected share of each type; a type that fills more of the timeline fetches more
+        int pageSize = limit / RecordType.values().length + 1;
+        PriorityQueue<Source> heads = new PriorityQueue<>(Comparator.comparing(Source::head, ORDER));
+        for (RecordType type : RecordType.values()) {
+            Source source = new Source(type, babyId, before, cursorId(type, before, beforeType, beforeId));
+            if (source.advance(pageSize)) {
+                heads.add(source);
+            }
+        }
+        List<ExportRecord> timeline = new ArrayList<>(limit);
+        while (!heads.isEmpty()) {
+            Source source = heads.poll();
+            timeline.add(source.head());
+            if (timeline.size() == limit) {
+                break;
+            }
+            if (source.advance(Math.min(pageSize, limit - timeline.size()))) {
+                heads.add(source);
+            }
+        }
+        return timeline;
+    }
+
+    public static long idOf(ExportRecord record) {
+        return RecordArchive.layout(record.type()).id().apply(record.record());
+    }
+
+    // Types before the cursor's type continue strictly before its time, types after it include that time
+    private static Long cursorId(RecordType type, LocalDateTime before, RecordType beforeType, Long beforeId) {
+        if (before == null) {
+            return null;
+        }
+        if (beforeType == null || type.compareTo(beforeType) < 0) {
+            return 0L;
+        }
+        if (type == beforeType) {
+            return beforeId == null ? 0L : beforeId;
+        }
+        return Long.MAX_VALUE;
+    }
+
+    // Past the record cache: cursors rarely repeat, so cached timeline pages would only crowd out the type lists
+    private List<?> page(RecordType type, Long babyId, LocalDateTime before, Long beforeId, int limit) {
+        return switch (type) {
+            case FEEDING -> feedingRecordService.getFeedingRecordsByBabyUncached(babyId, before, beforeId, limit);
+            case CLEANING -> cleaningRecordService.getCleaningRecordsByBabyUncached(babyId, before, beforeId, limit);
+            case TEMPERATURE ->
+                    temperatureRecordService.getTemperatureRecordsByBabyUncached(babyId, before, beforeId, limit);
+            case WEIGHT -> weightRecordService.getWeightRecordsByBabyIdUncached(babyId, before, beforeId, limit);
+            case MEDICATION ->
+                    medicationRecordService.getMedicationRecordsByBabyIdUncached(babyId, before, beforeId, limit);
+        };
+    }
+
+    /**
+     * The records of one type, read a keyset page at a time from its service, i.e. from the record table and the
+     * archive.
+     */
+    private final class Source {
+
+        private final RecordType type;
+        private final Layout<Object> layout;
+        private final Long babyId;
+        private LocalDateTime before;
+        private Long beforeId;
+        private Iterator<?> page = List.of().iterator();
+        private boolean lastPage;
+        private ExportRecord head;
+
+        Source(RecordType type, Long babyId, LocalDateTime before, Long beforeId) {
+            this.type = type;
+            this.layout = RecordArchive.layout(type);
+            this.babyId = babyId;
+            this.before = before;
+            this.beforeId = beforeId;
+        }
+
+        ExportRecord head() {
+            return head;
+        }
+
+        // Moves to the next record, fetching a page of the given size if needed; false once the type has no more
+        boolean advance(int pageSize) {
+            if (!page.hasNext() && !lastPage) {
+                List<?> records = page(type, babyId, before, beforeId, pageSize);
+                lastPage = records.size() < pageSize;
+                if (!records.isEmpty()) {
+                    Object last = records.get(records.size() - 1);
+                    before = layout.time().apply(last);
+                    beforeId = layout.id().apply(last);
+                }
+                page = records.iterator();
+            }
+            if (!page.hasNext()) {
+                return false;
+            }
+            Object view = page.next();
+            head = new ExportRecord(type, layout.time().apply(view), view);
+            return true;
+        }
+    }
+}
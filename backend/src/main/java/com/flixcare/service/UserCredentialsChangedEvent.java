@@ -0,0 +1,5 @@
+package com.flixcare.service;
+
+// The password hash or the role of the user changed, so credentials verified before must be checked again
+public record UserCredentialsChangedEvent(String username) {
+}
@@ -1,65 +1,146 @@
 package com.flixcare.service;
 
 import com.flixcare.dto.WeightRecordDTO;
+import com.flixcare.dto.WeightRecordView;
 import com.flixcare.entity.Baby;
 import com.flixcare.entity.WeightRecord;
 import com.flixcare.repository.BabyRepository;
 import com.flixcare.repository.WeightRecordRepository;
+import com.flixcare.service.RecordVersions.RecordType;
+import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
+@Timed("flixcare.service")
 @RequiredArgsConstructor
 public class WeightRecordService {
 
     private final WeightRecordRepository weightRecordRepository;
     private final BabyRepository babyRepository;
+    private final BatchWriter batchWriter;
+    private final ChangeTracker changeTracker;
+    private final ApplicationEventPublisher eventPublisher;
+    private final RecordCache recordCache;
+    private final RecordArchive recordArchive;
+    private final CurrentHousehold currentHousehold;
+    private final DailyStatsService dailyStatsService;
 
     @Transactional(readOnly = true)
-    public List<WeightRecordDTO> getAllWeightRecords() {
-        return weightRecordRepository.findAll().stream()
-                .map(this::convertToDTO)
-                .collect(Collectors.toList());
+    public List<WeightRecordView> getAllWeightRecords() {
+        return recordArchive.merge(RecordType.WEIGHT, null,
+                weightRecordRepository.findAllViews(currentHousehold.id(), Pageable.unpaged()));
     }
 
     @Transactional(readOnly = true)
-    public List<WeightRecordDTO> getWeightRecordsByBabyId(Long babyId) {
-        return weightRecordRepository.findByBabyIdOrderByMeasurementTimeDesc(babyId).stream()
-                .map(this::convertToDTO)
-                .collect(Collectors.toList());
+    public List<WeightRecordView> getAllWeightRecords(LocalDateTime before, Long beforeId, int limit) {
+        Pageable pageable = PageRequest.of(0, limit);
+        List<WeightRecordView> records = before == null
+                ? weightRecordRepository.findAllViews(currentHousehold.id(), pageable)
+                : weightRecordRepository.findAllViewsBefore(
+                        currentHousehold.id(), before, beforeId == null ? 0L : beforeId, pageable);
+        return recordArchive.mergePage(RecordType.WEIGHT, null, records, before, beforeId, limit);
+    }
+
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public List<WeightRecordView> getWeightRecordsByBabyId(Long babyId) {
+        return recordCache.get(RecordType.WEIGHT, babyId,
+                () -> recordArchive.merge(RecordType.WEIGHT, babyId,
+                        weightRecordRepository.findViewsByBabyId(babyId, Pageable.unpaged())));
+    }
+
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public List<WeightRecordView> getWeightRecordsByBabyId(Long babyId, LocalDateTime before, Long beforeId, int limit) {
+        return recordCache.get(RecordType.WEIGHT, babyId,
+                () -> getWeightRecordsByBabyIdUncached(babyId, before, beforeId, limit), before, beforeId, limit);
+    }
+
+    // For callers that read each page once, such as the timeline, and would only fill the cache
+    @Transactional(readOnly = true)
+    public List<WeightRecordView> getWeightRecordsByBabyIdUncached(
+            Long babyId, LocalDateTime before, Long beforeId, int limit) {
+        Pageable pageable = PageRequest.of(0, limit);
+        List<WeightRecordView> records = before == null
+                ? weightRecordRepository.findViewsByBabyId(babyId, pageable)
+                : weightRecordRepository.findViewsByBabyIdBefore(
+                        babyId, before, beforeId == null ? 0L : beforeId, pageable);
+        return recordArchive.mergePage(RecordType.WEIGHT, babyId, records, before, beforeId, limit);
+    }
+
+    @Transactional(readOnly = true)
+    public void streamWeightRecordsByBaby(Long babyId, Consumer<WeightRecordView> consumer) {
+        try (Stream<WeightRecordView> records = weightRecordRepository.streamViewsByBabyId(babyId)) {
+            recordArchive.mergeStream(RecordType.WEIGHT, babyId, records).forEach(consumer);
+        }
     }
 
     @Transactional(readOnly = true)
-    public WeightRecordDTO getWeightRecordById(Long id) {
-        WeightRecord record = weightRecordRepository.findById(id)
+    public WeightRecordView getWeightRecordById(Long id) {
+        return weightRecordRepository.findViewById(id, currentHousehold.id())
+                .or(() -> recordArchive.findById(RecordType.WEIGHT, id))
                 .orElseThrow(() -> new RuntimeException("Weight record not found with id: " + id));
-        return convertToDTO(record);
     }
 
     @Transactional
     public WeightRecordDTO createWeightRecord(WeightRecordDTO dto) {
-        Baby baby = babyRepository.findById(dto.getBabyId())
+        Baby baby = babyRepository.findByIdAndHouseholdId(dto.getBabyId(), currentHousehold.id())
                 .orElseThrow(() -> new RuntimeException("Baby not found with id: " + dto.getBabyId()));
 
-        WeightRecord record = new WeightRecord();
+        WeightRecord record = RecordMapper.toEntity(dto);
         record.setBaby(baby);
-        record.setMeasurementTime(dto.getMeasurementTime());
-        record.setWeightGrams(dto.getWeightGrams());
-        record.setNotes(dto.getNotes());
-
+        record.setHouseholdId(baby.getHouseholdId());
+        record.setChangeVersion(changeTracker.nextVersion(baby.getHouseholdId()));
         WeightRecord savedRecord = weightRecordRepository.save(record);
-        return convertToDTO(savedRecord);
+        dailyStatsService.refreshWeights(baby.getId(), List.of(savedRecord.getMeasurementTime()));
+        eventPublisher.publishEvent(RecordChangedEvent.created(RecordType.WEIGHT, baby, savedRecord.getId()));
+        return RecordMapper.toDTO(savedRecord);
+    }
+
+    @Transactional
+    public List<Long> createWeightRecords(List<WeightRecordDTO> dtos) {
+        List<Long> babyIds = dtos.stream().map(WeightRecordDTO::getBabyId).toList();
+        Map<Long, Baby> babies = batchWriter.loadBabies(babyIds);
+
+        long changeVersion = changeTracker.nextVersion(currentHousehold.id());
+        List<WeightRecord> records = new ArrayList<>(dtos.size());
+        for (WeightRecordDTO dto : dtos) {
+            WeightRecord record = RecordMapper.toEntity(dto);
+            Baby baby = babies.get(dto.getBabyId());
+            record.setBaby(baby);
+            record.setHouseholdId(baby.getHouseholdId());
+            record.setChangeVersion(changeVersion);
+            records.add(record);
+        }
+        List<Long> ids = batchWriter.persistAll(records, WeightRecord::getId);
+        records.stream()
+                .collect(Collectors.groupingBy(record -> record.getBaby().getId(),
+                        Collectors.mapping(WeightRecord::getMeasurementTime, Collectors.toList())))
+                .forEach(dailyStatsService::refreshWeights);
+        RecordChangedEvent.created(RecordType.WEIGHT, babyIds, ids, currentHousehold.id())
+                .forEach(eventPublisher::publishEvent);
+        return ids;
     }
 
     @Transactional
     public WeightRecordDTO updateWeightRecord(Long id, WeightRecordDTO dto) {
-        WeightRecord record = weightRecordRepository.findById(id)
+        WeightRecord record = findRecord(id)
                 .orElseThrow(() -> new RuntimeException("Weight record not found with id: " + id));
 
+        LocalDateTime previousTime = record.getMeasurementTime();
         if (dto.getMeasurementTime() != null) {
             record.setMeasurementTime(dto.getMeasurementTime());
         }
@@ -69,29 +150,35 @@ public class WeightRecordService {
         if (dto.getNotes() != null) {
             record.setNotes(dto.getNotes());
         }
+        record.setChangeVersion(changeTracker.nextVersion(record.getHouseholdId()));
 
         WeightRecord updatedRecord = weightRecordRepository.save(record);
-        return convertToDTO(updatedRecord);
+        dailyStatsService.refreshWeights(record.getBaby().getId(),
+                List.of(previousTime, updatedRecord.getMeasurementTime()));
+        eventPublisher.publishEvent(
+                RecordChangedEvent.updated(RecordType.WEIGHT, updatedRecord.getBaby(), id));
+        return RecordMapper.toDTO(updatedRecord);
     }
 
     @Transactional
     public void deleteWeightRecord(Long id) {
-        if (!weightRecordRepository.existsById(id)) {
-            throw new RuntimeException("Weight record not found with id: " + id);
-        }
-        weightRecordRepository.deleteById(id);
+        WeightRecord record = findRecord(id)
+                .orElseThrow(() -> new RuntimeException("Weight record not found with id: " + id));
+
+        // Keep a tombstone so that sync clients learn about the deletion
+        record.setDeleted(true);
+        record.setChangeVersion(changeTracker.nextVersion(record.getHouseholdId()));
+        weightRecordRepository.save(record);
+        dailyStatsService.refreshWeights(record.getBaby().getId(), List.of(record.getMeasurementTime()));
+        eventPublisher.publishEvent(RecordChangedEvent.deleted(RecordType.WEIGHT, record.getBaby(), id));
     }
 
-    private WeightRecordDTO convertToDTO(WeightRecord record) {
-        WeightRecordDTO dto = new WeightRecordDTO();
-        dto.setId(record.getId());
-        dto.setBabyId(record.getBaby().getId());
-        dto.setBabyName(record.getBaby().getName());
-        dto.setMeasurementTime(record.getMeasurementTime());
-        dto.setWeightGrams(record.getWeightGrams());
-        dto.setNotes(record.getNotes());
-        dto.setCreatedAt(record.getCreatedAt());
-        dto.setUpdatedAt(record.getUpdatedAt());
-        return dto;
+    // An archived record is moved back into the record table before it is changed
+    private Optional<WeightRecord> findRecord(Long id) {
+        Optional<WeightRecord> record = weightRecordRepository.findByIdAndHouseholdId(id, currentHousehold.id());
+        if (record.isEmpty() && recordArchive.restore(RecordType.WEIGHT, id)) {
+            record = weightRecordRepository.findByIdAndHouseholdId(id, currentHousehold.id());
+        }
+        return record;
     }
 }
@@ -0,0 +1,101 @@
+-- Households (tenants): every baby belongs to one, and users only see the babies and records of their own.
+-- Installations so far had a single configured user, so the existing babies all move into household 1; the
+-- configured user is created in it as administrator on the next start (HouseholdBootstrap).
+-- The change watermark and the writer lock move from one row for the installation to one row per household, so
+-- that an import or batch of one family does not hold up the writes of all others.
+-- The change watermark and the writer lock move from one row for the installation to one row per household, so
+-- that an import or batch of one family does not hold up the writes of all others.
+-- The record tables and the archive carry a copy of the baby's household, so that the lists across babies and the
+-- delta sync read one household's slice of an index leading with household_id instead of the rows of all families.
+-- Adding a column with a constant default only changes the catalog, existing rows are not rewritten.
+
+CREATE TABLE households (
+    id BIGSERIAL PRIMARY KEY,
+    name VARCHAR(255) NOT NULL,
+    created_at TIMESTAMP NOT NULL
+);
+INSERT INTO households (name, created_at) VALUES ('Default household', now());
+
+CREATE TABLE user_accounts (
+    id BIGSERIAL PRIMARY KEY,
+    username VARCHAR(100) NOT NULL,
+    password_hash VARCHAR(100) NOT NULL,
+    household_id BIGINT NOT NULL,
+    admin BOOLEAN NOT NULL DEFAULT FALSE,
+    created_at TIMESTAMP NOT NULL,
+    CONSTRAINT uq_user_accounts_username UNIQUE (username),
+    CONSTRAINT fk_user_accounts_household FOREIGN KEY (household_id) REFERENCES households(id) ON DELETE CASCADE
+);
+CREATE INDEX idx_user_accounts_household ON user_accounts (household_id);
+
+ALTER TABLE babies ADD COLUMN household_id BIGINT NOT NULL DEFAULT 1;
+ALTER TABLE babies ALTER COLUMN household_id DROP DEFAULT;
+ALTER TABLE babies ADD CONSTRAINT fk_babies_household
+    FOREIGN KEY (household_id) REFERENCES households(id) ON DELETE CASCADE;
+CREATE INDEX idx_babies_household ON babies (household_id, id);
+DROP INDEX IF EXISTS idx_babies_change_version;
+CREATE INDEX idx_babies_household_change_version ON babies (household_id, change_version);
+
+ALTER TABLE baby_tombstones ADD COLUMN household_id BIGINT NOT NULL DEFAULT 1;
+ALTER TABLE baby_tombstones ALTER COLUMN household_id DROP DEFAULT;
+ALTER TABLE baby_tombstones ADD CONSTRAINT fk_baby_tombstones_household
+    FOREIGN KEY (household_id) REFERENCES households(id) ON DELETE CASCADE;
+DROP INDEX IF EXISTS idx_baby_tombstones_change_version;
+CREATE INDEX idx_baby_tombstones_household_change_version ON baby_tombstones (household_id, change_version);
+
+-- Each household continues from the global watermark, so the watermarks clients have stored stay valid
+CREATE TABLE household_sync_state (
+    household_id BIGINT PRIMARY KEY,
+    change_version BIGINT NOT NULL,
+    CONSTRAINT fk_sync_state_household FOREIGN KEY (household_id) REFERENCES households(id) ON DELETE CASCADE
+);
+INSERT INTO household_sync_state (household_id, change_version)
+SELECT h.id, COALESCE((SELECT s.change_version FROM sync_state s WHERE s.id = 1), 0) FROM households h;
+DROP TABLE sync_state;
+ALTER TABLE household_sync_state RENAME TO sync_state;
+
+-- The household-wide time and change version indexes get household_id as leading column; the per-baby indexes
+-- stay as they are, a baby implies its household
+ALTER TABLE feeding_records ADD COLUMN household_id BIGINT NOT NULL DEFAULT 1;
+ALTER TABLE feeding_records ALTER COLUMN household_id DROP DEFAULT;
+DROP INDEX IF EXISTS idx_feeding_records_time;
+DROP INDEX IF EXISTS idx_feeding_records_change_version;
+CREATE INDEX idx_feeding_records_household_time ON feeding_records (household_id, feeding_time DESC, id DESC);
+CREATE INDEX idx_feeding_records_household_change_version ON feeding_records (household_id, change_version, id);
+
+ALTER TABLE cleaning_records ADD COLUMN household_id BIGINT NOT NULL DEFAULT 1;
+ALTER TABLE cleaning_records ALTER COLUMN household_id DROP DEFAULT;
+DROP INDEX IF EXISTS idx_cleaning_records_time;
+DROP INDEX IF EXISTS idx_cleaning_records_change_version;
+CREATE INDEX idx_cleaning_records_household_time ON cleaning_records (household_id, cleaning_time DESC, id DESC);
+CREATE INDEX idx_cleaning_records_household_change_version ON cleaning_records (household_id, change_version, id);
+
+ALTER TABLE temperature_records ADD COLUMN household_id BIGINT NOT NULL DEFAULT 1;
+ALTER TABLE temperature_records ALTER COLUMN household_id DROP DEFAULT;
+DROP INDEX IF EXISTS idx_temperature_records_time;
+DROP INDEX IF EXISTS idx_temperature_records_change_version;
+CREATE INDEX idx_temperature_records_household_time
+    ON temperature_records (household_id, measurement_time DESC, id DESC);
+CREATE INDEX idx_temperature_records_household_change_version ON temperature_records (household_id, change_version, id);
+
+ALTER TABLE weight_records ADD COLUMN household_id BIGINT NOT NULL DEFAULT 1;
+ALTER TABLE weight_records ALTER COLUMN household_id DROP DEFAULT;
+DROP INDEX IF EXISTS idx_weight_records_time;
+DROP INDEX IF EXISTS idx_weight_records_change_version;
+CREATE INDEX idx_weight_records_household_time ON weight_records (household_id, measurement_time DESC, id DESC);
+CREATE INDEX idx_weight_records_household_change_version ON weight_records (household_id, change_version, id);
+
+ALTER TABLE medication_records ADD COLUMN household_id BIGINT NOT NULL DEFAULT 1;
+ALTER TABLE medication_records ALTER COLUMN household_id DROP DEFAULT;
+DROP INDEX IF EXISTS idx_medication_records_time;
+DROP INDEX IF EXISTS idx_medication_records_change_version;
+CREATE INDEX idx_medication_records_household_time ON medication_records (household_id, medication_time DESC, id DESC);
+CREATE INDEX idx_medication_records_household_change_version ON medication_records (household_id, change_version, id);
+
+ALTER TABLE record_archive ADD COLUMN household_id BIGINT NOT NULL DEFAULT 1;
+ALTER TABLE record_archive ALTER COLUMN household_id DROP DEFAULT;
+DROP INDEX IF EXISTS idx_record_archive_change_version;
+CREATE INDEX idx_record_archive_household_change_version
+    ON record_archive (household_id, record_type, max_change_version);
+-- Months of the whole household, for the lists across babies
+CREATE INDEX idx_record_archive_household_month ON record_archive (household_id, record_type, archive_month DESC);
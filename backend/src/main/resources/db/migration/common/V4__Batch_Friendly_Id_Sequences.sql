@@ -0,0 +1,7 @@
+-- Record ids are allocated by Hibernate in blocks of 50 so that inserts can be JDBC-batched
+
+ALTER SEQUENCE feeding_records_id_seq INCREMENT BY 50;
+ALTER SEQUENCE temperature_records_id_seq INCREMENT BY 50;
+ALTER SEQUENCE cleaning_records_id_seq INCREMENT BY 50;
+ALTER SEQUENCE weight_records_id_seq INCREMENT BY 50;
+ALTER SEQUENCE medication_records_id_seq INCREMENT BY 50;
@@ -0,0 +1,39 @@
+-- Change tracking for delta sync: a global change watermark and tombstones instead of hard deletes
+
+CREATE TABLE sync_state (
+    id BIGINT PRIMARY KEY,
+    change_version BIGINT NOT NULL
+);
+
+INSERT INTO sync_state (id, change_version) VALUES (1, 0);
+
+ALTER TABLE feeding_records ADD COLUMN change_version BIGINT NOT NULL DEFAULT 0;
+ALTER TABLE feeding_records ADD COLUMN deleted BOOLEAN NOT NULL DEFAULT FALSE;
+ALTER TABLE temperature_records ADD COLUMN change_version BIGINT NOT NULL DEFAULT 0;
+ALTER TABLE temperature_records ADD COLUMN deleted BOOLEAN NOT NULL DEFAULT FALSE;
+ALTER TABLE cleaning_records ADD COLUMN change_version BIGINT NOT NULL DEFAULT 0;
+ALTER TABLE cleaning_records ADD COLUMN deleted BOOLEAN NOT NULL DEFAULT FALSE;
+ALTER TABLE weight_records ADD COLUMN change_version BIGINT NOT NULL DEFAULT 0;
+ALTER TABLE weight_records ADD COLUMN deleted BOOLEAN NOT NULL DEFAULT FALSE;
+ALTER TABLE medication_records ADD COLUMN change_version BIGINT NOT NULL DEFAULT 0;
+ALTER TABLE medication_records ADD COLUMN deleted BOOLEAN NOT NULL DEFAULT FALSE;
+
+CREATE INDEX idx_feeding_records_change_version ON feeding_records(change_version);
+CREATE INDEX idx_temperature_records_change_version ON temperature_records(change_version);
+CREATE INDEX idx_cleaning_records_change_version ON cleaning_records(change_version);
+CREATE INDEX idx_weight_records_change_version ON weight_records(change_version);
+CREATE INDEX idx_medication_records_change_version ON medication_records(change_version);
+
+-- Babies take part as well: creating or changing one gives it the next change version, so that clients pick up a
+-- renamed baby and update the babyName of its records without every record being rewritten
+ALTER TABLE babies ADD COLUMN change_version BIGINT NOT NULL DEFAULT 0;
+CREATE INDEX idx_babies_change_version ON babies(change_version);
+
+-- Deleting a baby removes its records with it (ON DELETE CASCADE), tombstones included, so delta sync learns about
+-- the deletion from a tombstone of the baby instead: clients drop all records of a baby listed here
+CREATE TABLE baby_tombstones (
+    baby_id BIGINT PRIMARY KEY,
+    change_version BIGINT NOT NULL,
+    deleted_at TIMESTAMP NOT NULL
+);
+CREATE INDEX idx_baby_tombstones_change_version ON baby_tombstones(change_version);
@@ -0,0 +1,25 @@
+-- Cold tier for records past flixcare.archive.after-days: ArchiveService moves each baby's month of a record type
+-- into one row holding a gzip-compressed columnar JSON document, and the record services merge it back into reads.
+
+CREATE TABLE record_archive (
+    id BIGSERIAL PRIMARY KEY,
+    baby_id BIGINT NOT NULL,
+    record_type VARCHAR(20) NOT NULL,
+    archive_month DATE NOT NULL,
+    record_count INTEGER NOT NULL,
+    max_change_version BIGINT NOT NULL,
+    -- Lookups of single records by id only decode the documents whose id range covers the id
+    min_record_id BIGINT NOT NULL,
+    max_record_id BIGINT NOT NULL,
+    -- Newest record time per cleaning or medication type, so that the dashboard finds the last bath or eye cleaning
+    -- of a baby without decoding documents
+    latest_times VARCHAR(1000) NOT NULL,
+    compressed_bytes INTEGER NOT NULL,
+    data BYTEA NOT NULL,
+    archived_at TIMESTAMP NOT NULL,
+    CONSTRAINT fk_record_archive_baby FOREIGN KEY (baby_id) REFERENCES babies(id) ON DELETE CASCADE,
+    CONSTRAINT uq_record_archive_month UNIQUE (baby_id, record_type, archive_month)
+);
+
+-- Delta sync skips months whose records it has sent already
+CREATE INDEX idx_record_archive_change_version ON record_archive (record_type, max_change_version);
@@ -0,0 +1,49 @@
+-- Per-day chart figures, maintained by the record services on every write (H2: the backfill merges with MERGE
+-- instead of ON CONFLICT)
+
+CREATE TABLE daily_baby_stats (
+    id BIGSERIAL PRIMARY KEY,
+    baby_id BIGINT NOT NULL,
+    stat_date DATE NOT NULL,
+    feeding_count INTEGER NOT NULL DEFAULT 0,
+    feeding_amount_ml DOUBLE PRECISION NOT NULL DEFAULT 0,
+    diaper_changes INTEGER NOT NULL DEFAULT 0,
+    wet_diapers INTEGER NOT NULL DEFAULT 0,
+    dirty_diapers INTEGER NOT NULL DEFAULT 0,
+    weight_grams INTEGER,
+    CONSTRAINT fk_daily_stats_baby FOREIGN KEY (baby_id) REFERENCES babies(id) ON DELETE CASCADE,
+    CONSTRAINT uq_daily_stats_baby_date UNIQUE (baby_id, stat_date)
+);
+
+-- Backfill from the existing records (days in UTC, matching the default flixcare.stats.zone)
+INSERT INTO daily_baby_stats (baby_id, stat_date, feeding_count, feeding_amount_ml)
+SELECT baby_id, CAST(feeding_time AS DATE), COUNT(*), COALESCE(SUM(amount_ml), 0)
+FROM feeding_records
+WHERE deleted = FALSE
+GROUP BY baby_id, CAST(feeding_time AS DATE);
+
+MERGE INTO daily_baby_stats s
+USING (SELECT baby_id, CAST(cleaning_time AS DATE) AS stat_date, COUNT(*) AS diaper_changes,
+              SUM(CASE WHEN diaper_content IN ('WET', 'BOTH') THEN 1 ELSE 0 END) AS wet_diapers,
+              SUM(CASE WHEN diaper_content IN ('DIRTY', 'BOTH') THEN 1 ELSE 0 END) AS dirty_diapers
+       FROM cleaning_records
+       WHERE deleted = FALSE AND cleaning_type = 'DIAPER_CHANGE'
+       GROUP BY baby_id, CAST(cleaning_time AS DATE)) d
+ON s.baby_id = d.baby_id AND s.stat_date = d.stat_date
+WHEN MATCHED THEN UPDATE
+    SET diaper_changes = d.diaper_changes, wet_diapers = d.wet_diapers, dirty_diapers = d.dirty_diapers
+WHEN NOT MATCHED THEN INSERT (baby_id, stat_date, diaper_changes, wet_diapers, dirty_diapers)
+    VALUES (d.baby_id, d.stat_date, d.diaper_changes, d.wet_diapers, d.dirty_diapers);
+
+-- Latest weight of the day
+MERGE INTO daily_baby_stats s
+USING (SELECT baby_id, stat_date, weight_grams
+       FROM (SELECT baby_id, CAST(measurement_time AS DATE) AS stat_date, weight_grams,
+                    ROW_NUMBER() OVER (PARTITION BY baby_id, CAST(measurement_time AS DATE)
+                                       ORDER BY measurement_time DESC, id DESC) AS day_rank
+             FROM weight_records
+             WHERE deleted = FALSE) w
+       WHERE day_rank = 1) d
+ON s.baby_id = d.baby_id AND s.stat_date = d.stat_date
+WHEN MATCHED THEN UPDATE SET weight_grams = d.weight_grams
+WHEN NOT MATCHED THEN INSERT (baby_id, stat_date, weight_grams) VALUES (d.baby_id, d.stat_date, d.weight_grams);
@@ -0,0 +1,38 @@
+-- Composite indexes for the per-baby queries, replacing the single-column indexes from V1 and V5 (H2).
+-- Same keys as postgresql/V7__Composite_Record_Indexes.sql; H2 has no INCLUDE columns, the dashboard and stats
+-- queries read the remaining columns from the table.
+
+DROP INDEX IF EXISTS idx_feeding_records_feeding_time;
+DROP INDEX IF EXISTS idx_feeding_records_change_version;
+CREATE INDEX idx_feeding_records_baby_time ON feeding_records (baby_id, feeding_time DESC, id DESC);
+CREATE INDEX idx_feeding_records_time ON feeding_records (feeding_time DESC, id DESC);
+CREATE INDEX idx_feeding_records_change_version ON feeding_records (change_version, id);
+
+DROP INDEX IF EXISTS idx_cleaning_records_cleaning_time;
+DROP INDEX IF EXISTS idx_cleaning_records_change_version;
+CREATE INDEX idx_cleaning_records_baby_time ON cleaning_records (baby_id, cleaning_time DESC, id DESC);
+-- Latest time per cleaning type, today's diaper changes and the diaper chart series
+CREATE INDEX idx_cleaning_records_baby_type_time ON cleaning_records (baby_id, cleaning_type, cleaning_time DESC);
+CREATE INDEX idx_cleaning_records_time ON cleaning_records (cleaning_time DESC, id DESC);
+CREATE INDEX idx_cleaning_records_change_version ON cleaning_records (change_version, id);
+
+DROP INDEX IF EXISTS idx_temperature_records_measurement_time;
+DROP INDEX IF EXISTS idx_temperature_records_change_version;
+CREATE INDEX idx_temperature_records_baby_time ON temperature_records (baby_id, measurement_time DESC, id DESC);
+CREATE INDEX idx_temperature_records_time ON temperature_records (measurement_time DESC, id DESC);
+CREATE INDEX idx_temperature_records_change_version ON temperature_records (change_version, id);
+
+DROP INDEX IF EXISTS idx_weight_records_measurement_time;
+DROP INDEX IF EXISTS idx_weight_records_change_version;
+CREATE INDEX idx_weight_records_baby_time ON weight_records (baby_id, measurement_time DESC, id DESC);
+CREATE INDEX idx_weight_records_time ON weight_records (measurement_time DESC, id DESC);
+CREATE INDEX idx_weight_records_change_version ON weight_records (change_version, id);
+
+DROP INDEX IF EXISTS idx_medication_records_medication_time;
+DROP INDEX IF EXISTS idx_medication_records_change_version;
+CREATE INDEX idx_medication_records_baby_time ON medication_records (baby_id, medication_time DESC, id DESC);
+-- Latest time per medication type on the dashboard
+CREATE INDEX idx_medication_records_baby_type_time
+    ON medication_records (baby_id, medication_type, medication_time DESC);
+CREATE INDEX idx_medication_records_time ON medication_records (medication_time DESC, id DESC);
+CREATE INDEX idx_medication_records_change_version ON medication_records (change_version, id);
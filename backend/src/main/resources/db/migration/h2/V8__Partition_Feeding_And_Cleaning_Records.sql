@@ -0,0 +1,3 @@
+-- The monthly range partitions of postgresql/V8__Partition_Feeding_And_Cleaning_Records.sql have no counterpart on
+-- H2, which holds the records of a single installation. The feeding and cleaning records stay plain tables with the
+-- indexes from V7, and PartitionService does nothing.
@@ -0,0 +1,43 @@
+-- Per-day chart figures, maintained by the record services on every write
+
+CREATE TABLE daily_baby_stats (
+    id BIGSERIAL PRIMARY KEY,
+    baby_id BIGINT NOT NULL,
+    stat_date DATE NOT NULL,
+    feeding_count INTEGER NOT NULL DEFAULT 0,
+    feeding_amount_ml DOUBLE PRECISION NOT NULL DEFAULT 0,
+    diaper_changes INTEGER NOT NULL DEFAULT 0,
+    wet_diapers INTEGER NOT NULL DEFAULT 0,
+    dirty_diapers INTEGER NOT NULL DEFAULT 0,
+    weight_grams INTEGER,
+    CONSTRAINT fk_daily_stats_baby FOREIGN KEY (baby_id) REFERENCES babies(id) ON DELETE CASCADE,
+    CONSTRAINT uq_daily_stats_baby_date UNIQUE (baby_id, stat_date)
+);
+
+-- Backfill from the existing records (days in UTC, matching the default flixcare.stats.zone)
+INSERT INTO daily_baby_stats (baby_id, stat_date, feeding_count, feeding_amount_ml)
+SELECT baby_id, CAST(feeding_time AS DATE), COUNT(*), COALESCE(SUM(amount_ml), 0)
+FROM feeding_records
+WHERE deleted = FALSE
+GROUP BY baby_id, CAST(feeding_time AS DATE);
+
+INSERT INTO daily_baby_stats (baby_id, stat_date, diaper_changes, wet_diapers, dirty_diapers)
+SELECT baby_id, CAST(cleaning_time AS DATE), COUNT(*),
+       SUM(CASE WHEN diaper_content IN ('WET', 'BOTH') THEN 1 ELSE 0 END),
+       SUM(CASE WHEN diaper_content IN ('DIRTY', 'BOTH') THEN 1 ELSE 0 END)
+FROM cleaning_records
+WHERE deleted = FALSE AND cleaning_type = 'DIAPER_CHANGE'
+GROUP BY baby_id, CAST(cleaning_time AS DATE)
+ON CONFLICT (baby_id, stat_date) DO UPDATE
+SET diaper_changes = EXCLUDED.diaper_changes,
+    wet_diapers = EXCLUDED.wet_diapers,
+    dirty_diapers = EXCLUDED.dirty_diapers;
+
+INSERT INTO daily_baby_stats (baby_id, stat_date, weight_grams)
+SELECT DISTINCT ON (baby_id, CAST(measurement_time AS DATE))
+       baby_id, CAST(measurement_time AS DATE), weight_grams
+FROM weight_records
+WHERE deleted = FALSE
+ORDER BY baby_id, CAST(measurement_time AS DATE), measurement_time DESC, id DESC
+ON CONFLICT (baby_id, stat_date) DO UPDATE
+SET weight_grams = EXCLUDED.weight_grams;
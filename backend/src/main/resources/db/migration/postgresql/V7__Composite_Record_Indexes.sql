@@ -0,0 +1,70 @@
+-- Composite indexes for the per-baby queries, replacing the single-column indexes from V1 and V5.
+-- Lists, keyset pages and ranges filter by baby and order by time with id as tie-breaker, so
+-- (baby_id, time DESC, id DESC) returns them in index order without a sort. The INCLUDE columns let
+-- the dashboard and stats queries (counts, latest times, amounts, weights) run as index-only scans.
+-- baby_id stays the leading column, so the indexes also serve the ON DELETE CASCADE lookups.
+
+DROP INDEX IF EXISTS idx_feeding_records_baby_id;
+DROP INDEX IF EXISTS idx_feeding_records_feeding_time;
+DROP INDEX IF EXISTS idx_feeding_records_change_version;
+CREATE INDEX idx_feeding_records_baby_time
+    ON feeding_records (baby_id, feeding_time DESC, id DESC) INCLUDE (deleted, amount_ml);
+CREATE INDEX idx_feeding_records_time ON feeding_records (feeding_time DESC, id DESC);
+CREATE INDEX idx_feeding_records_change_version ON feeding_records (change_version, id);
+
+DROP INDEX IF EXISTS idx_cleaning_records_baby_id;
+DROP INDEX IF EXISTS idx_cleaning_records_cleaning_time;
+DROP INDEX IF EXISTS idx_cleaning_records_change_version;
+CREATE INDEX idx_cleaning_records_baby_time
+    ON cleaning_records (baby_id, cleaning_time DESC, id DESC) INCLUDE (deleted);
+-- Latest time per cleaning type, today's diaper changes and the diaper chart series
+CREATE INDEX idx_cleaning_records_baby_type_time
+    ON cleaning_records (baby_id, cleaning_type, cleaning_time DESC) INCLUDE (deleted, diaper_content);
+CREATE INDEX idx_cleaning_records_time ON cleaning_records (cleaning_time DESC, id DESC);
+CREATE INDEX idx_cleaning_records_change_version ON cleaning_records (change_version, id);
+
+DROP INDEX IF EXISTS idx_temperature_records_baby_id;
+DROP INDEX IF EXISTS idx_temperature_records_measurement_time;
+DROP INDEX IF EXISTS idx_temperature_records_change_version;
+CREATE INDEX idx_temperature_records_baby_time
+    ON temperature_records (baby_id, measurement_time DESC, id DESC) INCLUDE (deleted);
+CREATE INDEX idx_temperature_records_time ON temperature_records (measurement_time DESC, id DESC);
+CREATE INDEX idx_temperature_records_change_version ON temperature_records (change_version, id);
+
+DROP INDEX IF EXISTS idx_weight_records_baby_id;
+DROP INDEX IF EXISTS idx_weight_records_measurement_time;
+DROP INDEX IF EXISTS idx_weight_records_change_version;
+CREATE INDEX idx_weight_records_baby_time
+    ON weight_records (baby_id, measurement_time DESC, id DESC) INCLUDE (deleted, weight_grams);
+CREATE INDEX idx_weight_records_time ON weight_records (measurement_time DESC, id DESC);
+CREATE INDEX idx_weight_records_change_version ON weight_records (change_version, id);
+
+DROP INDEX IF EXISTS idx_medication_records_baby_id;
+DROP INDEX IF EXISTS idx_medication_records_medication_time;
+DROP INDEX IF EXISTS idx_medication_records_change_version;
+CREATE INDEX idx_medication_records_baby_time
+    ON medication_records (baby_id, medication_time DESC, id DESC) INCLUDE (deleted);
+-- Latest time per medication type on the dashboard
+CREATE INDEX idx_medication_records_baby_type_time
+    ON medication_records (baby_id, medication_type, medication_time DESC) INCLUDE (deleted);
+CREATE INDEX idx_medication_records_time ON medication_records (medication_time DESC, id DESC);
+CREATE INDEX idx_medication_records_change_version ON medication_records (change_version, id);
+
+-- ddl-auto=update added a duplicate of uq_daily_stats_baby_date under a generated name while the entity left the
+-- constraint unnamed; the entity names it now, so drop any other unique constraint on the same columns
+DO $$
+DECLARE
+    duplicate RECORD;
+BEGIN
+    FOR duplicate IN
+        SELECT c.conname
+        FROM pg_constraint c
+        WHERE c.conrelid = 'daily_baby_stats'::regclass AND c.contype = 'u'
+          AND c.conname <> 'uq_daily_stats_baby_date'
+          AND (SELECT array_agg(a.attname::text ORDER BY a.attname)
+               FROM pg_attribute a
+               WHERE a.attrelid = c.conrelid AND a.attnum = ANY (c.conkey)) = ARRAY['baby_id', 'stat_date']
+    LOOP
+        EXECUTE format('ALTER TABLE daily_baby_stats DROP CONSTRAINT %I', duplicate.conname);
+    END LOOP;
+END $$;
@@ -0,0 +1,69 @@
+-- Monthly range partitions on the record time for the two tables that grow by 10-20 rows per baby and day.
+-- Time-bounded queries only touch the matching months, each month has its own small indexes, and an old month can
+-- be detached as a whole. The primary key has to contain the partition key, so it becomes (id, time); ids still
+-- come from the same sequence. Months are created here up to three months ahead, later ones by PartitionService.
+-- Rows outside all months go to the default partition until PartitionService moves them into their own month.
+
+-- feeding_records
+ALTER TABLE feeding_records RENAME TO feeding_records_unpartitioned;
+CREATE TABLE feeding_records (LIKE feeding_records_unpartitioned INCLUDING DEFAULTS INCLUDING CONSTRAINTS)
+    PARTITION BY RANGE (feeding_time);
+ALTER SEQUENCE feeding_records_id_seq OWNED BY feeding_records.id;
+CREATE TABLE feeding_records_default PARTITION OF feeding_records DEFAULT;
+
+DO $$
+DECLARE
+    first_month DATE := date_trunc('month', COALESCE((SELECT MIN(feeding_time) FROM feeding_records_unpartitioned),
+                                                     now()));
+    month DATE;
+BEGIN
+    FOR month IN SELECT generate_series(first_month, date_trunc('month', now()) + INTERVAL '3 months',
+                                        INTERVAL '1 month')::DATE LOOP
+        EXECUTE format('CREATE TABLE %I PARTITION OF feeding_records FOR VALUES FROM (%L) TO (%L)',
+                       'feeding_records_' || to_char(month, 'YYYY_MM'), month, month + INTERVAL '1 month');
+    END LOOP;
+END $$;
+
+INSERT INTO feeding_records SELECT * FROM feeding_records_unpartitioned;
+DROP TABLE feeding_records_unpartitioned;
+
+ALTER TABLE feeding_records ADD CONSTRAINT feeding_records_pkey PRIMARY KEY (id, feeding_time);
+ALTER TABLE feeding_records ADD CONSTRAINT fk_feeding_baby
+    FOREIGN KEY (baby_id) REFERENCES babies(id) ON DELETE CASCADE;
+CREATE INDEX idx_feeding_records_baby_time
+    ON feeding_records (baby_id, feeding_time DESC, id DESC) INCLUDE (deleted, amount_ml);
+CREATE INDEX idx_feeding_records_time ON feeding_records (feeding_time DESC, id DESC);
+CREATE INDEX idx_feeding_records_change_version ON feeding_records (change_version, id);
+
+-- cleaning_records
+ALTER TABLE cleaning_records RENAME TO cleaning_records_unpartitioned;
+CREATE TABLE cleaning_records (LIKE cleaning_records_unpartitioned INCLUDING DEFAULTS INCLUDING CONSTRAINTS)
+    PARTITION BY RANGE (cleaning_time);
+ALTER SEQUENCE cleaning_records_id_seq OWNED BY cleaning_records.id;
+CREATE TABLE cleaning_records_default PARTITION OF cleaning_records DEFAULT;
+
+DO $$
+DECLARE
+    first_month DATE := date_trunc('month', COALESCE((SELECT MIN(cleaning_time) FROM cleaning_records_unpartitioned),
+                                                     now()));
+    month DATE;
+BEGIN
+    FOR month IN SELECT generate_series(first_month, date_trunc('month', now()) + INTERVAL '3 months',
+                                        INTERVAL '1 month')::DATE LOOP
+        EXECUTE format('CREATE TABLE %I PARTITION OF cleaning_records FOR VALUES FROM (%L) TO (%L)',
+                       'cleaning_records_' || to_char(month, 'YYYY_MM'), month, month + INTERVAL '1 month');
+    END LOOP;
+END $$;
+
+INSERT INTO cleaning_records SELECT * FROM cleaning_records_unpartitioned;
+DROP TABLE cleaning_records_unpartitioned;
+
+ALTER TABLE cleaning_records ADD CONSTRAINT cleaning_records_pkey PRIMARY KEY (id, cleaning_time);
+ALTER TABLE cleaning_records ADD CONSTRAINT fk_cleaning_baby
+    FOREIGN KEY (baby_id) REFERENCES babies(id) ON DELETE CASCADE;
+CREATE INDEX idx_cleaning_records_baby_time
+    ON cleaning_records (baby_id, cleaning_time DESC, id DESC) INCLUDE (deleted);
+CREATE INDEX idx_cleaning_records_baby_type_time
+    ON cleaning_records (baby_id, cleaning_type, cleaning_time DESC) INCLUDE (deleted, diaper_content);
+CREATE INDEX idx_cleaning_records_time ON cleaning_records (cleaning_time DESC, id DESC);
+CREATE INDEX idx_cleaning_records_change_version ON cleaning_records (change_version, id);
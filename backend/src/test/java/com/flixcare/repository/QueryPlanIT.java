@@ -0,0 +1,440 @@
+package com.flixcare.repository;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.flixcare.dto.BabyDTO;
+import com.flixcare.dto.CleaningRecordDTO;
+import com.flixcare.dto.FeedingRecordDTO;
+import com.flixcare.dto.MedicationRecordDTO;
+import com.flixcare.dto.TemperatureRecordDTO;
+import com.flixcare.dto.WeightRecordDTO;
+import com.flixcare.entity.MedicationType;
+import com.flixcare.service.BabyService;
+import com.flixcare.service.CleaningRecordService;
+import com.flixcare.service.CurrentHousehold;
+import com.flixcare.service.FeedingRecordService;
+import com.flixcare.service.HouseholdService;
+import com.flixcare.service.MedicationRecordService;
+import com.flixcare.service.PartitionService;
+import com.flixcare.service.TemperatureRecordService;
+import com.flixcare.service.WeightRecordService;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DynamicTest;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestFactory;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.ApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.repository.query.Param;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Parameter;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Calls every query method of the record and daily stats repositories against an embedded PostgreSQL migrated by
+ * Flyway and checks the plan of each statement: every table access on the record tables must be an index scan, and
+ * no sort may sit above one, i.e. ordering and keyset pagination have to come from the index. Each statement is
+ * explained with its actual parameters on the same connection right before it runs, with sequential scans and sorts
+ * disabled: on the small seeded tables the planner may rightly prefer them, so the check asks whether an index
+ * could serve the query at all. The keyset page of the record lists is also checked with the planner's defaults.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE, properties = {
+        "spring.jpa.show-sql=false",
+        "spring.jpa.database-platform=org.hibernate.dialect.PostgreSQLDialect",
+        "spring.jpa.hibernate.ddl-auto=update",
+        "spring.h2.console.enabled=false"})
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class QueryPlanIT {
+
+    private static final List<Class<?>> REPOSITORIES = List.of(
+            FeedingRecordRepository.class, CleaningRecordRepository.class, TemperatureRecordRepository.class,
+            WeightRecordRepository.class, MedicationRecordRepository.class, DailyBabyStatsRepository.class);
+    private static final Set<String> CHECKED_TABLES = Set.of(
+            "feeding_records", "cleaning_records", "temperature_records", "weight_records", "medication_records",
+            "daily_baby_stats");
+    private static final int BABIES = 3;
+    private static final int DAYS = 365;
+    private static final int CHUNK_SIZE = 1000;
+
+    private static final Pattern PARTITION_SUFFIX = Pattern.compile("_(\\d{4}_\\d{2}|default)(?=_|$)");
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+    private static final EmbeddedPostgres POSTGRES = startPostgres();
+    // Plans of the statements run by the current repository call, collected by the DataSource wrapper
+    private static List<JsonNode> capturedPlans;
+    // Whether the captured plans are explained with sequential scans and sorts disabled
+    private static boolean forceIndexes;
+
+    @Autowired
+    private ApplicationContext context;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    @Autowired
+    private CurrentHousehold currentHousehold;
+    @Value("${flixcare.security.username}")
+    private String username;
+
+    private Long babyId;
+
+    @DynamicPropertySource
+    static void database(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", () -> POSTGRES.getJdbcUrl("postgres", "postgres"));
+        registry.add("spring.datasource.username", () -> "postgres");
+        registry.add("spring.datasource.password", () -> "");
+        registry.add("spring.datasource.driverClassName", () -> "org.postgresql.Driver");
+    }
+
+    @BeforeAll
+    void seed() {
+        // The services are scoped to the household of the signed-in user: the configured administrator's
+        UserDetails user = context.getBean(HouseholdService.class).loadUserByUsername(username);
+        SecurityContextHolder.getContext().setAuthentication(
+                UsernamePasswordAuthenticationToken.authenticated(user, null, user.getAuthorities()));
+        for (int i = 0; i < BABIES; i++) {
+            babyId = seedBaby("Baby " + (i + 1));
+        }
+        // Past months are missing on a fresh database, the history landed in the default partitions
+        context.getBean(PartitionService.class).createMissingPartitions();
+        // Sets the visibility map too, so that index-only scans are costed as such
+        context.getBean(JdbcTemplate.class).execute("vacuum analyze");
+    }
+
+    @AfterAll
+    void signOut() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @TestFactory
+    Stream<DynamicTest> everyQueryIsServedByAnIndex() {
+        return REPOSITORIES.stream().flatMap(type -> Arrays.stream(type.getDeclaredMethods())
+                .filter(method -> !method.isAnnotationPresent(Modifying.class) && !method.isDefault())
+                .sorted(Comparator.comparing(Method::getName))
+                .map(method -> DynamicTest.dynamicTest(type.getSimpleName() + "." + method.getName(), () -> {
+                    List<String> problems = new ArrayList<>();
+                    Map<String, Integer> accesses = new LinkedHashMap<>();
+                    for (JsonNode plan : plans(context.getBean(type), method, true)) {
+                        check(plan.get(0).get("Plan"), accesses, problems);
+                    }
+                    assertThat(accesses).as("table accesses").isNotEmpty();
+                    assertThat(problems).as(describe(accesses)).isEmpty();
+                })));
+    }
+
+    @Test
+    void keysetPagesSeekTheCompositeIndex() throws NoSuchMethodException {
+        Method keysetPage = FeedingRecordRepository.class.getMethod("findViewsByBabyIdBefore",
+                Long.class, LocalDateTime.class, Long.class, Pageable.class);
+        List<String> problems = new ArrayList<>();
+        Map<String, Integer> accesses = new LinkedHashMap<>();
+        for (JsonNode plan : plans(context.getBean(FeedingRecordRepository.class), keysetPage, false)) {
+            check(plan.get(0).get("Plan"), accesses, problems);
+        }
+        // Partitions report the generated names of their copies of the index
+        assertThat(accesses.keySet()).as(describe(accesses)).isNotEmpty().allMatch(access ->
+                !access.contains("feeding_records") || access.matches("Index (Only )?Scan on feeding_records .*"));
+        assertThat(problems).as(describe(accesses)).isEmpty();
+    }
+
+    private List<JsonNode> plans(Object repository, Method method, boolean withIndexesForced) {
+        Object[] arguments = arguments(method, babyId, currentHousehold.id());
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        transaction.setReadOnly(true);
+        return transaction.execute(status -> invoke(repository, method, arguments, withIndexesForced));
+    }
+
+    private static List<JsonNode> invoke(Object repository, Method method, Object[] arguments,
+                                         boolean withIndexesForced) {
+        capturedPlans = new ArrayList<>();
+        forceIndexes = withIndexesForced;
+        try {
+            Object result = method.invoke(repository, arguments);
+            if (result instanceof Stream<?> stream) {
+                try (stream) {
+                    stream.forEach(row -> { });
+                }
+            }
+            return capturedPlans;
+        } catch (IllegalAccessException | InvocationTargetException e) {
+            throw new IllegalStateException("Calling " + method + " failed", e);
+        } finally {
+            capturedPlans = null;
+        }
+    }
+
+    /**
+     * Walks the plan tree, collecting the scans and reporting sequential scans of the checked tables as well as
+     * sorts above a scan of them.
+     */
+    private static boolean check(JsonNode node, Map<String, Integer> accesses, List<String> problems) {
+        String nodeType = node.get("Node Type").asText();
+        String relation = baseName(node.path("Relation Name").asText(null));
+        String index = baseName(node.path("Index Name").asText(null));
+        boolean scansCheckedTable = relation != null && CHECKED_TABLES.contains(relation);
+        if (relation != null) {
+            accesses.merge(nodeType + " on " + relation + (index != null ? " using " + index : ""), 1, Integer::sum);
+            if (scansCheckedTable && nodeType.equals("Seq Scan")) {
+                problems.add("sequential scan of " + node.get("Relation Name").asText());
+            }
+        } else if (index != null && nodeType.equals("Bitmap Index Scan")) {
+            accesses.merge(nodeType + " using " + index, 1, Integer::sum);
+        }
+        boolean sort = nodeType.equals("Sort") || nodeType.equals("Incremental Sort");
+        for (JsonNode child : node.path("Plans")) {
+            scansCheckedTable |= check(child, accesses, problems);
+        }
+        if (sort && scansCheckedTable) {
+            problems.add("sort on " + node.path("Sort Key") + " instead of index order");
+        }
+        return scansCheckedTable;
+    }
+
+    // Partitions and their indexes are reported under the name of the partitioned table or index
+    private static String baseName(String name) {
+        return name != null ? PARTITION_SUFFIX.matcher(name).replaceFirst("") : null;
+    }
+
+    private static String describe(Map<String, Integer> accesses) {
+        List<String> parts = new ArrayList<>();
+        accesses.forEach((access, count) -> parts.add(count > 1 ? access + " (x" + count + ")" : access));
+        return String.join(", ", parts);
+    }
+
+    private static Object[] arguments(Method method, Long babyId, Long householdId) {
+        Parameter[] parameters = method.getParameters();
+        Object[] arguments = new Object[parameters.length];
+        LocalDateTime now = LocalDateTime.now();
+        for (int i = 0; i < parameters.length; i++) {
+            Param param = parameters[i].getAnnotation(Param.class);
+            String name = param != null ? param.value() : parameters[i].getName();
+            Class<?> type = parameters[i].getType();
+            if (type == Long.class) {
+                arguments[i] = switch (name) {
+                    case "id" -> 1L;
+                    case "beforeId" -> Long.MAX_VALUE;
+                    case "householdId" -> householdId;
+                    default -> babyId;
+                };
+            } else if (type == long.class) {
+                arguments[i] = 0L;
+            } else if (type == LocalDateTime.class) {
+                // Keyset pages start a month back, ranges and "since" cover the last month
+                arguments[i] = name.equals("end") ? now : now.minusDays(30);
+            } else if (type == LocalDate.class) {
+                arguments[i] = name.equals("from") ? now.toLocalDate().minusDays(30) : now.toLocalDate();
+            } else if (type == Collection.class) {
+                arguments[i] = List.of(1L, 2L);
+            } else if (type == Pageable.class) {
+                arguments[i] = PageRequest.of(0, 50);
+            } else if (type.isEnum()) {
+                arguments[i] = type.getEnumConstants()[0];
+            } else {
+                throw new IllegalArgumentException("No argument for " + name + " of " + method);
+            }
+        }
+        return arguments;
+    }
+
+    // A year of a baby's care: eight feedings and six diaper changes a day, a daily temperature and vitamin D, and a
+    // weekly weight, written through the batch services like an import
+    private Long seedBaby(String name) {
+        LocalDate today = LocalDate.now();
+        BabyDTO baby = new BabyDTO();
+        baby.setName(name);
+        baby.setBirthDate(today.minusDays(DAYS));
+        Long id = context.getBean(BabyService.class).createBaby(baby).getId();
+        List<FeedingRecordDTO> feedings = new ArrayList<>();
+        List<CleaningRecordDTO> cleanings = new ArrayList<>();
+        List<TemperatureRecordDTO> temperatures = new ArrayList<>();
+        List<WeightRecordDTO> weights = new ArrayList<>();
+        List<MedicationRecordDTO> medications = new ArrayList<>();
+        for (LocalDate day = baby.getBirthDate(); day.isBefore(today); day = day.plusDays(1)) {
+            for (int hour = 1; hour < 24; hour += 3) {
+                FeedingRecordDTO feeding = new FeedingRecordDTO();
+                feeding.setBabyId(id);
+                feeding.setFeedingTime(day.atTime(hour, 10));
+                feeding.setFeedingType("BOTTLE_FORMULA");
+                feeding.setAmountMl(120.0);
+                feedings.add(feeding);
+            }
+            for (int hour = 2; hour < 24; hour += 4) {
+                CleaningRecordDTO cleaning = new CleaningRecordDTO();
+                cleaning.setBabyId(id);
+                cleaning.setCleaningTime(day.atTime(hour, 20));
+                cleaning.setCleaningType("DIAPER_CHANGE");
+                cleaning.setDiaperContent("WET");
+                cleanings.add(cleaning);
+            }
+            TemperatureRecordDTO temperature = new TemperatureRecordDTO();
+            temperature.setBabyId(id);
+            temperature.setMeasurementTime(day.atTime(7, 30));
+            temperature.setTemperatureCelsius(36.8);
+            temperatures.add(temperature);
+            MedicationRecordDTO medication = new MedicationRecordDTO();
+            medication.setBabyId(id);
+            medication.setMedicationTime(day.atTime(9, 0));
+            medication.setMedicationType(MedicationType.VITAMIN_D);
+            medications.add(medication);
+            if (day.getDayOfWeek().getValue() == 1) {
+                WeightRecordDTO weight = new WeightRecordDTO();
+                weight.setBabyId(id);
+                weight.setMeasurementTime(day.atTime(8, 0));
+                weight.setWeightGrams(3500 + weights.size() * 150);
+                weights.add(weight);
+            }
+        }
+        insert(feedings, context.getBean(FeedingRecordService.class)::createFeedingRecords);
+        insert(cleanings, context.getBean(CleaningRecordService.class)::createCleaningRecords);
+        insert(temperatures, context.getBean(TemperatureRecordService.class)::createTemperatureRecords);
+        insert(weights, context.getBean(WeightRecordService.class)::createWeightRecords);
+        insert(medications, context.getBean(MedicationRecordService.class)::createMedicationRecords);
+        return id;
+    }
+
+    private static <T> void insert(List<T> records, Consumer<List<T>> batchCreate) {
+        for (int from = 0; from < records.size(); from += CHUNK_SIZE) {
+            batchCreate.accept(records.subList(from, Math.min(from + CHUNK_SIZE, records.size())));
+        }
+    }
+
+    private static EmbeddedPostgres startPostgres() {
+        try {
+            EmbeddedPostgres postgres = EmbeddedPostgres.start();
+            Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+                try {
+                    postgres.close();
+                } catch (IOException ignored) {
+                    // The server is gone with the JVM anyway
+                }
+            }));
+            return postgres;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not start embedded PostgreSQL", e);
+        }
+    }
+
+    /**
+     * Wraps the DataSource so that every query prepared while a repository method is checked is explained first.
+     */
+    @TestConfiguration(proxyBeanMethods = false)
+    static class PlanCapture {
+
+        @Bean
+        static BeanPostProcessor explainingDataSource() {
+            return new BeanPostProcessor() {
+                @Override
+                public Object postProcessAfterInitialization(Object bean, String beanName) {
+                    if (!(bean instanceof DataSource dataSource)) {
+                        return bean;
+                    }
+                    return new DelegatingDataSource(dataSource) {
+                        @Override
+                        public Connection getConnection() throws SQLException {
+                            return explaining(super.getConnection());
+                        }
+                    };
+                }
+            };
+        }
+
+        private static Connection explaining(Connection connection) {
+            InvocationHandler handler = (proxy, method, args) -> {
+                Object result = invokeTarget(connection, method, args);
+                if (capturedPlans != null && method.getName().equals("prepareStatement")) {
+                    String sql = (String) args[0];
+                    if (sql.stripLeading().regionMatches(true, 0, "select", 0, 6)) {
+                        return explaining(connection, sql, (PreparedStatement) result);
+                    }
+                }
+                return result;
+            };
+            return (Connection) Proxy.newProxyInstance(QueryPlanIT.class.getClassLoader(),
+                    new Class<?>[] {Connection.class}, handler);
+        }
+
+        // Records the parameter setters and replays them on an EXPLAIN of the same statement before it is executed
+        private static PreparedStatement explaining(Connection connection, String sql, PreparedStatement statement) {
+            Map<Integer, Object[]> setters = new LinkedHashMap<>();
+            Map<Integer, Method> setterMethods = new LinkedHashMap<>();
+            InvocationHandler handler = (proxy, method, args) -> {
+                if (method.getName().startsWith("set") && args != null && args.length >= 2
+                        && args[0] instanceof Integer index) {
+                    setters.put(index, args);
+                    setterMethods.put(index, method);
+                } else if (method.getName().equals("executeQuery") && capturedPlans != null) {
+                    try (Statement settings = connection.createStatement();
+                         PreparedStatement explain = connection.prepareStatement("explain (format json) " + sql)) {
+                        if (forceIndexes) {
+                            settings.execute("set enable_seqscan = off");
+                            settings.execute("set enable_sort = off");
+                        }
+                        for (Map.Entry<Integer, Object[]> setter : setters.entrySet()) {
+                            setterMethods.get(setter.getKey()).invoke(explain, setter.getValue());
+                        }
+                        try (ResultSet plan = explain.executeQuery()) {
+                            plan.next();
+                            capturedPlans.add(MAPPER.readTree(plan.getString(1)));
+                        }
+                        settings.execute("reset enable_seqscan");
+                        settings.execute("reset enable_sort");
+                    }
+                }
+                return invokeTarget(statement, method, args);
+            };
+            return (PreparedStatement) Proxy.newProxyInstance(QueryPlanIT.class.getClassLoader(),
+                    new Class<?>[] {PreparedStatement.class}, handler);
+        }
+
+        private static Object invokeTarget(Object target, Method method, Object[] args) throws Throwable {
+            try {
+                return method.invoke(target, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+    }
+}
@@ -0,0 +1,173 @@
+package com.flixcare.repository;
+
+import com.flixcare.entity.Baby;
+import com.flixcare.entity.CleaningRecord;
+import com.flixcare.entity.FeedingRecord;
+import com.flixcare.entity.MedicationRecord;
+import com.flixcare.entity.MedicationType;
+import com.flixcare.entity.TemperatureRecord;
+import com.flixcare.entity.WeightRecord;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * The record lists read the baby's name in the same statement as the records, however many records there are.
+ */
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+class RecordQueryStatementsTest {
+
+    private static final long HOUSEHOLD_ID = 1L;
+    private static final LocalDateTime START = LocalDateTime.of(2026, 1, 1, 8, 0);
+
+    @Autowired
+    private TestEntityManager entityManager;
+    @Autowired
+    private FeedingRecordRepository feedingRecordRepository;
+    @Autowired
+    private CleaningRecordRepository cleaningRecordRepository;
+    @Autowired
+    private TemperatureRecordRepository temperatureRecordRepository;
+    @Autowired
+    private WeightRecordRepository weightRecordRepository;
+    @Autowired
+    private MedicationRecordRepository medicationRecordRepository;
+
+    private Statistics statistics;
+    private Baby oneRecord;
+    private Baby manyRecords;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManager.getEntityManager().getEntityManagerFactory().unwrap(SessionFactory.class)
+                .getStatistics();
+        oneRecord = baby("One", 1);
+        manyRecords = baby("Many", 25);
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    void listsAreOneStatement() {
+        assertOneStatement(baby -> feedingRecordRepository.findViewsByBabyId(baby.getId(), Pageable.unpaged()));
+        assertOneStatement(baby -> cleaningRecordRepository.findViewsByBabyId(baby.getId(), Pageable.unpaged()));
+        assertOneStatement(baby -> temperatureRecordRepository.findViewsByBabyId(baby.getId(), Pageable.unpaged()));
+        assertOneStatement(baby -> weightRecordRepository.findViewsByBabyId(baby.getId(), Pageable.unpaged()));
+        assertOneStatement(baby -> medicationRecordRepository.findViewsByBabyId(baby.getId(), Pageable.unpaged()));
+    }
+
+    @Test
+    void pagesAreOneStatement() {
+        Pageable page = PageRequest.of(0, 10);
+        assertOneStatement(baby -> feedingRecordRepository.findViewsByBabyIdBefore(
+                baby.getId(), START.plusYears(1), 0L, page));
+        assertOneStatement(baby -> cleaningRecordRepository.findViewsByBabyIdBefore(
+                baby.getId(), START.plusYears(1), 0L, page));
+        assertOneStatement(baby -> temperatureRecordRepository.findViewsByBabyIdBefore(
+                baby.getId(), START.plusYears(1), 0L, page));
+        assertOneStatement(baby -> weightRecordRepository.findViewsByBabyIdBefore(
+                baby.getId(), START.plusYears(1), 0L, page));
+        assertOneStatement(baby -> medicationRecordRepository.findViewsByBabyIdBefore(
+                baby.getId(), START.plusYears(1), 0L, page));
+    }
+
+    @Test
+    void streamsAreOneStatement() {
+        assertOneStatement(baby -> toList(feedingRecordRepository.streamViewsByBabyId(baby.getId())));
+        assertOneStatement(baby -> toList(cleaningRecordRepository.streamViewsByBabyId(baby.getId())));
+        assertOneStatement(baby -> toList(temperatureRecordRepository.streamViewsByBabyId(baby.getId())));
+        assertOneStatement(baby -> toList(weightRecordRepository.streamViewsByBabyId(baby.getId())));
+        assertOneStatement(baby -> toList(medicationRecordRepository.streamViewsByBabyId(baby.getId())));
+    }
+
+    @Test
+    void recordsForUpdatesComeWithTheirBaby() {
+        FeedingRecord feeding = feedingRecordRepository.findViewsByBabyId(manyRecords.getId(), Pageable.unpaged())
+                .stream().findFirst()
+                .flatMap(view -> feedingRecordRepository.findByIdAndHouseholdId(view.id(), HOUSEHOLD_ID))
+                .orElseThrow();
+        entityManager.clear();
+        statistics.clear();
+        feedingRecordRepository.findByIdAndHouseholdId(feeding.getId(), HOUSEHOLD_ID)
+                .map(record -> record.getBaby().getName())
+                .orElseThrow();
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    // One statement for the baby with one record and for the one with many, each read with an empty context
+    private void assertOneStatement(Function<Baby, List<?>> query) {
+        for (Baby baby : List.of(oneRecord, manyRecords)) {
+            entityManager.clear();
+            statistics.clear();
+            List<?> records = query.apply(baby);
+            assertThat(records).isNotEmpty();
+            assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+        }
+    }
+
+    private static List<?> toList(Stream<?> stream) {
+        try (stream) {
+            return stream.toList();
+        }
+    }
+
+    private Baby baby(String name, int records) {
+        Baby baby = new Baby();
+        baby.setHouseholdId(HOUSEHOLD_ID);
+        baby.setName(name);
+        entityManager.persist(baby);
+        for (int i = 0; i < records; i++) {
+            LocalDateTime time = START.plusHours(i);
+
+            FeedingRecord feeding = new FeedingRecord();
+            feeding.setBaby(baby);
+            feeding.setHouseholdId(HOUSEHOLD_ID);
+            feeding.setFeedingTime(time);
+            feeding.setFeedingType(FeedingRecord.FeedingType.BOTTLE_FORMULA);
+            feeding.setAmountMl(120.0);
+            entityManager.persist(feeding);
+
+            CleaningRecord cleaning = new CleaningRecord();
+            cleaning.setBaby(baby);
+            cleaning.setHouseholdId(HOUSEHOLD_ID);
+            cleaning.setCleaningTime(time);
+            cleaning.setCleaningType(CleaningRecord.CleaningType.DIAPER_CHANGE);
+            entityManager.persist(cleaning);
+
+            TemperatureRecord temperature = new TemperatureRecord();
+            temperature.setBaby(baby);
+            temperature.setHouseholdId(HOUSEHOLD_ID);
+            temperature.setMeasurementTime(time);
+            temperature.setTemperatureCelsius(36.8);
+            entityManager.persist(temperature);
+
+            WeightRecord weight = new WeightRecord();
+            weight.setBaby(baby);
+            weight.setHouseholdId(HOUSEHOLD_ID);
+            weight.setMeasurementTime(time);
+            weight.setWeightGrams(3500 + i);
+            entityManager.persist(weight);
+
+            MedicationRecord medication = new MedicationRecord();
+            medication.setBaby(baby);
+            medication.setHouseholdId(HOUSEHOLD_ID);
+            medication.setMedicationTime(time);
+            medication.setMedicationType(MedicationType.VITAMIN_D);
+            entityManager.persist(medication);
+        }
+        return baby;
+    }
+}
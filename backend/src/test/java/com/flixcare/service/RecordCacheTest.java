@@ -0,0 +1,100 @@
+package com.flixcare.service;
+
+import com.flixcare.dto.RecordCacheStats;
+import com.flixcare.service.RecordChangedEvent.Action;
+import com.flixcare.service.RecordVersions.RecordType;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+
+class RecordCacheTest {
+
+    private final PlatformTransactionManager transactionManager = mock(PlatformTransactionManager.class);
+    private final RecordVersions recordVersions = new RecordVersions(mock(CurrentHousehold.class),
+            mock(ChangeTracker.class));
+    private final AtomicInteger loads = new AtomicInteger();
+    private RecordCache recordCache;
+
+    @BeforeEach
+    void setUp() {
+        // Eviction on the calling thread, so that it has happened when get returns
+        recordCache = new RecordCache(recordVersions, transactionManager, new SimpleMeterRegistry(), 10, 300,
+                Runnable::run);
+    }
+
+    @Test
+    void servesRepeatedReadsFromTheCache() {
+        List<Long> first = recordCache.get(RecordType.FEEDING, 1L, loader(3), null, 50);
+        List<Long> second = recordCache.get(RecordType.FEEDING, 1L, loader(3), null, 50);
+
+        assertThat(second).isSameAs(first);
+        assertThat(loads).hasValue(1);
+        RecordCacheStats stats = recordCache.getStats();
+        assertThat(stats.hits()).isEqualTo(1);
+        assertThat(stats.misses()).isEqualTo(1);
+    }
+
+    @Test
+    void keepsRangesApart() {
+        recordCache.get(RecordType.FEEDING, 1L, loader(1), null, 50);
+        recordCache.get(RecordType.FEEDING, 1L, loader(1), null, 20);
+        recordCache.get(RecordType.CLEANING, 1L, loader(1), null, 50);
+        recordCache.get(RecordType.FEEDING, 2L, loader(1), null, 50);
+
+        assertThat(loads).hasValue(4);
+    }
+
+    @Test
+    void loadsAgainAfterAWriteBumpsTheVersion() {
+        recordCache.get(RecordType.FEEDING, 1L, loader(2));
+
+        recordVersions.onRecordChanged(new RecordChangedEvent(RecordType.FEEDING, Action.CREATED, 1L, List.of(7L), 3L));
+        recordCache.get(RecordType.FEEDING, 1L, loader(2));
+        // Another baby's collection is not affected
+        recordCache.get(RecordType.FEEDING, 2L, loader(2));
+        recordCache.get(RecordType.FEEDING, 2L, loader(2));
+
+        assertThat(loads).hasValue(3);
+        assertThat(recordCache.getStats().misses()).isEqualTo(3);
+    }
+
+    @Test
+    void evictsBeyondTheRecordBound() {
+        // Each list weighs its size plus one, the bound is 10
+        for (long babyId = 1; babyId <= 5; babyId++) {
+            recordCache.get(RecordType.FEEDING, babyId, loader(4));
+        }
+
+        RecordCacheStats stats = recordCache.getStats();
+        assertThat(stats.entries()).isLessThanOrEqualTo(2);
+        assertThat(stats.evictions()).isGreaterThanOrEqualTo(3);
+    }
+
+    @Test
+    void loadsInAReadOnlyTransaction() {
+        recordCache.get(RecordType.WEIGHT, 1L, loader(1));
+
+        ArgumentCaptor<TransactionDefinition> definition = ArgumentCaptor.forClass(TransactionDefinition.class);
+        verify(transactionManager).getTransaction(definition.capture());
+        assertThat(definition.getValue().isReadOnly()).isTrue();
+    }
+
+    private Supplier<List<Long>> loader(int size) {
+        return () -> {
+            loads.incrementAndGet();
+            return LongStream.range(0, size).boxed().toList();
+        };
+    }
+}
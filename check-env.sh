@@ -117,7 +117,7 @@ echo "============================================"
 echo ""
 
 if ! command -v java &> /dev/null; then
-    echo "• Install Java 17: https://adoptium.net/"
+    echo "• Install Java 21: https://adoptium.net/"
 fi
 
 if ! command -v mvn &> /dev/null; then
@@ -21,13 +21,13 @@ import {
 import { useNavigate } from 'react-router-dom';
 import { useTranslation } from '../i18n/TranslationContext';
 import { babyService } from '../services/babyService';
-import { feedingRecordService } from '../services/feedingRecordService';
-import { temperatureRecordService } from '../services/temperatureRecordService';
-import { cleaningRecordService } from '../services/cleaningRecordService';
-import { medicationRecordService } from '../services/medicationRecordService';
-import { weightRecordService } from '../services/weightRecordService';
+import { dashboardService } from '../services/dashboardService';
+import { eventService } from '../services/eventService';
 import { LineChart, Line, XAxis, YAxis, CartesianGrid, Tooltip, ResponsiveContainer, BarChart, Bar, Legend } from 'recharts';
-import { WeightRecord, CleaningRecord } from '../types';
+import { DashboardSummary } from '../types';
+
+// Largest weight series the backend returns, used for the "all" range
+const MAX_WEIGHT_POINTS = 1000;
 
 interface DashboardStats {
   babyName: string;
@@ -73,6 +73,7 @@ export default function Dashboard() {
   const [diaperData, setDiaperData] = useState<DiaperChartData[]>([]);
   const [diaperAverage, setDiaperAverage] = useState({ nass: 0, voll: 0 });
   const [diaperRange, setDiaperRange] = useState<'5days' | '2weeks'>('5days');
+  const [babyId, setBabyId] = useState<number | null>(null);
   const [loading, setLoading] = useState(true);
   const [error, setError] = useState<string | null>(null);
   const navigate = useNavigate();
@@ -98,45 +99,46 @@ export default function Dashboard() {
   }, []);
 
   useEffect(() => {
-    // Reload weight data when range changes
-    const reloadWeights = async () => {
-      try {
-        const weights = await weightRecordService.getAll();
-        processWeightData(weights);
-      } catch (err) {
-        console.error('Failed to reload weights:', err);
-      }
+    // Another caregiver's entry is pushed by the server, so the summary is only reloaded on change
+    if (babyId === null) return;
+    let timer: ReturnType<typeof setTimeout> | undefined;
+    const unsubscribe = eventService.subscribe(babyId, () => {
+      clearTimeout(timer);
+      timer = setTimeout(() => loadDashboardData(false), 300);
+    });
+    return () => {
+      clearTimeout(timer);
+      unsubscribe();
     };
-    reloadWeights();
-  }, [weightRange]);
+  }, [babyId, weightRange, diaperRange]);
 
   useEffect(() => {
-    // Reload diaper data when range changes
-    const reloadDiapers = async () => {
+    // Reload chart data when a range changes
+    if (babyId === null) return;
+    const reloadCharts = async () => {
       try {
-        const cleanings = await cleaningRecordService.getAll();
-        const sorted = [...cleanings].sort((a, b) =>
-          new Date(b.cleaningTime).getTime() - new Date(a.cleaningTime).getTime()
-        );
-        processDiaperData(sorted);
+        const summary = await fetchSummary(babyId);
+        processWeightData(summary.weightSeries);
+        processDiaperData(summary.diaperSeries);
       } catch (err) {
-        console.error('Failed to reload diapers:', err);
+        console.error('Failed to reload charts:', err);
       }
     };
-    reloadDiapers();
-  }, [diaperRange]);
+    reloadCharts();
+  }, [weightRange, diaperRange]);
+
+  // Last events, today's counts and chart series are aggregated by the backend
+  const fetchSummary = (id: number) =>
+    dashboardService.getSummary(
+      id,
+      diaperRange === '5days' ? 5 : 14,
+      weightRange === 'last10' ? 10 : MAX_WEIGHT_POINTS
+    );
 
-  const loadDashboardData = async () => {
+  const loadDashboardData = async (showSpinner = true) => {
     try {
-      setLoading(true);
-      const [babies, feedings, temperatures, cleanings, medications, weights] = await Promise.all([
-        babyService.getAll(),
-        feedingRecordService.getAll(),
-        temperatureRecordService.getAll(),
-        cleaningRecordService.getAll(),
-        medicationRecordService.getAll(),
-        weightRecordService.getAll(),
-      ]);
+      if (showSpinner) setLoading(true);
+      const babies = await babyService.getAll();
 
       // Get or create single baby
       let baby = babies[0];
@@ -149,88 +151,33 @@ export default function Dashboard() {
         });
       }
 
-      // Sort by date descending (newest first)
-      const sortedFeedings = [...feedings].sort((a, b) =>
-        new Date(b.feedingTime).getTime() - new Date(a.feedingTime).getTime()
-      );
-      const sortedTemperatures = [...temperatures].sort((a, b) =>
-        new Date(b.measurementTime).getTime() - new Date(a.measurementTime).getTime()
-      );
-      const sortedCleanings = [...cleanings].sort((a, b) =>
-        new Date(b.cleaningTime).getTime() - new Date(a.cleaningTime).getTime()
-      );
-      const sortedMedications = [...medications].sort((a, b) =>
-        new Date(b.medicationTime).getTime() - new Date(a.medicationTime).getTime()
-      );
-
-      const age = calculateAge(baby.birthDate);
-
-      // Get today's start in local time (00:00:00)
-      const today = new Date();
-      today.setHours(0, 0, 0, 0);
-
-      console.log('📊 Dashboard - Today starts at:', today.toString());
-      console.log('📊 Dashboard - All feedings:', sortedFeedings.length);
-
-      const todayFeedings = sortedFeedings.filter(f => {
-        const feedingDate = parseUTCDateTime(f.feedingTime);
-        const isToday = feedingDate >= today;
-
-        if (sortedFeedings.length <= 3) {
-          // Only log first 3 feedings for debugging
-          console.log('🍼 Feeding:', f.feedingTime, '→', feedingDate.toString(), '→ isToday:', isToday);
-        }
-
-        return isToday;
-      }).length;
-
-      // Separate cleaning categories
-      const diaperChanges = sortedCleanings.filter(c => c.cleaningType === 'DIAPER_CHANGE');
-      const todayDiaperChanges = diaperChanges.filter(c => {
-        const cleaningDate = parseUTCDateTime(c.cleaningTime);
-        return cleaningDate >= today;
-      }).length;
-
-      console.log('📊 Dashboard - Today feedings:', todayFeedings, '| Today diapers:', todayDiaperChanges);
-
-      const baths = sortedCleanings.filter(c => c.cleaningType === 'BATH');
-      const spongeBaths = sortedCleanings.filter(c => c.cleaningType === 'SPONGE_BATH');
-
-      const lastFeeding = sortedFeedings.length > 0 ? formatTimeAgo(sortedFeedings[0].feedingTime) : t.dashboard.noRecords;
-      const lastTemp = sortedTemperatures.length > 0
-        ? `${sortedTemperatures[0].temperatureCelsius}°C ${formatTimeAgo(sortedTemperatures[0].measurementTime)}`
-        : t.dashboard.noRecords;
-
-      const lastDiaperChange = diaperChanges.length > 0 ? formatTimeAgo(diaperChanges[0].cleaningTime) : t.dashboard.noRecords;
-      const lastBath = baths.length > 0 ? formatTimeAgo(baths[0].cleaningTime) : t.dashboard.noRecords;
-      const lastSpongeBath = spongeBaths.length > 0 ? formatTimeAgo(spongeBaths[0].cleaningTime) : t.dashboard.noRecords;
-
-      // Separate medication categories
-      const vitaminDMedications = sortedMedications.filter(m => m.medicationType === 'VITAMIN_D');
-      const eyeCleaningMedications = sortedMedications.filter(m => m.medicationType === 'EYE_CLEANING');
+      const summary = await fetchSummary(baby.id!);
+      setBabyId(baby.id!);
 
-      const lastVitaminD = vitaminDMedications.length > 0 ? formatTimeAgo(vitaminDMedications[0].medicationTime) : t.dashboard.noRecords;
-      const lastEyeCleaning = eyeCleaningMedications.length > 0 ? formatTimeAgo(eyeCleaningMedications[0].medicationTime) : t.dashboard.noRecords;
+      const formatLast = (time?: string) => (time ? formatTimeAgo(time) : t.dashboard.noRecords);
+      const lastTemp = summary.lastTemperatureTime
+        ? `${summary.lastTemperatureCelsius}°C ${formatTimeAgo(summary.lastTemperatureTime)}`
+        : t.dashboard.noRecords;
 
       setStats({
-        babyName: baby.name,
-        babyAge: age,
-        lastFeeding,
+        babyName: summary.babyName,
+        babyAge: calculateAge(summary.birthDate),
+        lastFeeding: formatLast(summary.lastFeedingTime),
         lastTemp,
-        lastDiaperChange,
-        lastBath,
-        lastSpongeBath,
-        lastVitaminD,
-        lastEyeCleaning,
-        todayFeedings,
-        todayDiaperChanges,
+        lastDiaperChange: formatLast(summary.lastDiaperChangeTime),
+        lastBath: formatLast(summary.lastBathTime),
+        lastSpongeBath: formatLast(summary.lastSpongeBathTime),
+        lastVitaminD: formatLast(summary.lastVitaminDTime),
+        lastEyeCleaning: formatLast(summary.lastEyeCleaningTime),
+        todayFeedings: summary.todayFeedings,
+        todayDiaperChanges: summary.todayDiaperChanges,
       });
 
       // Process weight data for chart
-      processWeightData(weights);
+      processWeightData(summary.weightSeries);
 
       // Process diaper data for chart
-      processDiaperData(sortedCleanings);
+      processDiaperData(summary.diaperSeries);
 
       setError(null);
     } catch (err) {
@@ -286,22 +233,9 @@ export default function Dashboard() {
     return `${timeStr} (${diffDays} ${t.dashboard.daysAgo})`;
   };
 
-  const processWeightData = (weights: WeightRecord[]) => {
-    if (weights.length === 0) {
-      setWeightData([]);
-      return;
-    }
-
-    // Sort by date ascending
-    const sorted = [...weights].sort((a, b) =>
-      parseUTCDateTime(a.measurementTime).getTime() - parseUTCDateTime(b.measurementTime).getTime()
-    );
-
-    // Get measurements based on selected range
-    const measurements = weightRange === 'last10' ? sorted.slice(-10) : sorted;
-
-    // Format data for chart
-    const chartData: WeightChartData[] = measurements.map(w => {
+  const processWeightData = (weights: DashboardSummary['weightSeries']) => {
+    // Backend returns the selected range in ascending order
+    const chartData: WeightChartData[] = weights.map(w => {
       const date = parseUTCDateTime(w.measurementTime);
       const dateStr = `${date.getDate()}.${date.getMonth() + 1}.`;
       return {
@@ -313,70 +247,32 @@ export default function Dashboard() {
     setWeightData(chartData);
   };
 
-  const processDiaperData = (cleanings: CleaningRecord[]) => {
-    // Filter nur Windelwechsel
-    const diaperChanges = cleanings.filter(c => c.cleaningType === 'DIAPER_CHANGE');
-
-    if (diaperChanges.length === 0) {
+  const processDiaperData = (days: DashboardSummary['diaperSeries']) => {
+    // Tageswerte kommen bereits gezählt vom Backend (in lokaler Zeitzone)
+    if (days.every(d => d.wet === 0 && d.dirty === 0)) {
       setDiaperData([]);
       setDiaperAverage({ nass: 0, voll: 0 });
       return;
     }
 
-    // Anzahl der Tage basierend auf Auswahl
-    const now = new Date();
-    const daysToShow = diaperRange === '5days' ? 5 : 14;
-    const days: Date[] = [];
-
-    for (let i = daysToShow - 1; i >= 0; i--) {
-      const date = new Date(now);
-      date.setDate(date.getDate() - i);
-      date.setHours(0, 0, 0, 0);
-      days.push(date);
-    }
-
     let totalNass = 0;
     let totalVoll = 0;
 
-    // Zähle pro Tag
-    const chartData: DiaperChartData[] = days.map(day => {
-      const nextDay = new Date(day);
-      nextDay.setDate(nextDay.getDate() + 1);
-
-      const dayDiapers = diaperChanges.filter(d => {
-        const diaperDate = parseUTCDateTime(d.cleaningTime);
-        return diaperDate >= day && diaperDate < nextDay;
-      });
-
-      let nass = 0;
-      let voll = 0;
-
-      dayDiapers.forEach(d => {
-        if (d.diaperContent === 'WET') {
-          nass++;
-        } else if (d.diaperContent === 'DIRTY') {
-          voll++;
-        } else if (d.diaperContent === 'BOTH') {
-          // "Beide" wird in beiden Kategorien gezählt
-          nass++;
-          voll++;
-        }
-      });
-
-      totalNass += nass;
-      totalVoll += voll;
-
-      const dateStr = `${day.getDate()}.${day.getMonth() + 1}.`;
+    const chartData: DiaperChartData[] = days.map(d => {
+      totalNass += d.wet;
+      totalVoll += d.dirty;
+      const [, month, day] = d.date.split('-');
       return {
-        date: dateStr,
-        nass,
-        voll,
+        date: `${Number(day)}.${Number(month)}.`,
+        nass: d.wet,
+        voll: d.dirty,
       };
     });
 
     // Berechne Durchschnittswerte
-    const avgNass = daysToShow > 0 ? Math.round((totalNass / daysToShow) * 10) / 10 : 0;
-    const avgVoll = daysToShow > 0 ? Math.round((totalVoll / daysToShow) * 10) / 10 : 0;
+    const daysShown = days.length;
+    const avgNass = daysShown > 0 ? Math.round((totalNass / daysShown) * 10) / 10 : 0;
+    const avgVoll = daysShown > 0 ? Math.round((totalVoll / daysShown) * 10) / 10 : 0;
 
     setDiaperData(chartData);
     setDiaperAverage({ nass: avgNass, voll: avgVoll });
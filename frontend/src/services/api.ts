@@ -8,8 +8,13 @@ const api = axios.create({
     'Content-Type': 'application/json',
   },
   withCredentials: true,
+  validateStatus: (status) => (status >= 200 && status < 300) || status === 304,
 });
 
+// GET bodies by URL with their ETag, replayed when the server answers 304 Not Modified
+const MAX_CACHED_RESPONSES = 50;
+const etagCache = new Map<string, { etag: string; data: unknown }>();
+
 // Request interceptor - add Basic Auth credentials
 api.interceptors.request.use(
   (config) => {
@@ -17,6 +22,10 @@ api.interceptors.request.use(
     if (credentials) {
       config.headers.Authorization = `Basic ${credentials}`;
     }
+    const cached = config.method === 'get' ? etagCache.get(api.getUri(config)) : undefined;
+    if (cached) {
+      config.headers['If-None-Match'] = cached.etag;
+    }
     return config;
   },
   (error) => {
@@ -27,6 +36,21 @@ api.interceptors.request.use(
 // Response interceptor
 api.interceptors.response.use(
   (response) => {
+    if (response.config.method !== 'get') {
+      return response;
+    }
+    const key = api.getUri(response.config);
+    if (response.status === 304 && etagCache.has(key)) {
+      return { ...response, status: 200, data: etagCache.get(key)!.data };
+    }
+    const etag = response.headers['etag'];
+    if (etag) {
+      etagCache.delete(key);
+      etagCache.set(key, { etag, data: response.data });
+      if (etagCache.size > MAX_CACHED_RESPONSES) {
+        etagCache.delete(etagCache.keys().next().value as string);
+      }
+    }
     return response;
   },
   (error) => {
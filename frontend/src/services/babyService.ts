@@ -1,5 +1,5 @@
 import api from './api';
-import { Baby } from '../types';
+import { Baby, TimelineCursor, TimelineEntry, TimelinePage } from '../types';
 
 export const babyService = {
   getAll: async (): Promise<Baby[]> => {
@@ -22,6 +22,18 @@ export const babyService = {
     return response.data;
   },
 
+  // All record types merged newest first; pass the previous page's cursor to continue
+  getTimeline: async (id: number, limit: number, cursor?: TimelineCursor): Promise<TimelinePage> => {
+    const response = await api.get(`/babies/${id}/timeline`, { params: { limit, ...cursor } });
+    const entries: TimelineEntry[] = response.data;
+    // Taken from the last entry rather than the cursor headers, which a 304 answer does not carry
+    const last = entries.length === limit ? entries[entries.length - 1] : undefined;
+    return {
+      entries,
+      next: last ? { before: last.time, beforeType: last.type, beforeId: last.record.id! } : undefined,
+    };
+  },
+
   delete: async (id: number): Promise<void> => {
     await api.delete(`/babies/${id}`);
   },
@@ -0,0 +1,19 @@
+import api from './api';
+import { DashboardSummary } from '../types';
+
+export const dashboardService = {
+  getSummary: async (
+    babyId: number,
+    diaperDays: number,
+    weightLimit: number
+  ): Promise<DashboardSummary> => {
+    const response = await api.get(`/dashboard/${babyId}`, {
+      params: {
+        zone: Intl.DateTimeFormat().resolvedOptions().timeZone,
+        diaperDays,
+        weightLimit,
+      },
+    });
+    return response.data;
+  },
+};
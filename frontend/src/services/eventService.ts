@@ -0,0 +1,64 @@
+import api from './api';
+import { ServerEvent } from '../types';
+
+const RECONNECT_DELAY_MS = 5000;
+
+// EventSource cannot send the Basic Auth header, so the stream is read with fetch
+export const eventService = {
+  subscribe: (babyId: number, onEvent: (event: ServerEvent) => void): (() => void) => {
+    const controller = new AbortController();
+
+    const connect = async () => {
+      try {
+        const credentials = localStorage.getItem('flixcare_credentials');
+        const response = await fetch(api.getUri({ url: `/events/${babyId}` }), {
+          headers: {
+            Accept: 'text/event-stream',
+            ...(credentials ? { Authorization: `Basic ${credentials}` } : {}),
+          },
+          signal: controller.signal,
+        });
+        if (!response.ok || !response.body) {
+          throw new Error(`Event stream failed: ${response.status}`);
+        }
+
+        const reader = response.body.pipeThrough(new TextDecoderStream()).getReader();
+        let buffer = '';
+        for (;;) {
+          const { value, done } = await reader.read();
+          if (done) break;
+          buffer += value;
+          let end;
+          while ((end = buffer.indexOf('\n\n')) >= 0) {
+            const block = buffer.slice(0, end);
+            buffer = buffer.slice(end + 2);
+            let name = 'message';
+            let data = '';
+            block.split('\n').forEach((line) => {
+              if (line.startsWith('event:')) name = line.slice(6).trim();
+              else if (line.startsWith('data:')) data += line.slice(5);
+            });
+            if (data) {
+              onEvent({ name, data: JSON.parse(data) } as ServerEvent);
+            }
+          }
+        }
+      } catch (err) {
+        if (controller.signal.aborted) return;
+        console.error('Event stream error:', err);
+      }
+      // The server closes idle streams after a while, changes in between are caught up with a resync
+      if (!controller.signal.aborted) {
+        setTimeout(() => {
+          if (!controller.signal.aborted) {
+            onEvent({ name: 'resync', data: {} });
+            connect();
+          }
+        }, RECONNECT_DELAY_MS);
+      }
+    };
+
+    connect();
+    return () => controller.abort();
+  },
+};
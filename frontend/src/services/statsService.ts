@@ -0,0 +1,9 @@
+import api from './api';
+import { DailyStats } from '../types';
+
+export const statsService = {
+  getDaily: async (babyId: number, from: string, to: string): Promise<DailyStats[]> => {
+    const response = await api.get('/stats/daily', { params: { babyId, from, to } });
+    return response.data;
+  },
+};
@@ -0,0 +1,129 @@
+import api from './api';
+import { SyncCollection, SyncResponse } from '../types';
+
+const WATERMARK_KEY = 'flixcare_sync_watermark';
+const STORE_KEY = 'flixcare_sync_store';
+const QUEUE_KEY = 'flixcare_sync_queue';
+
+const COLLECTIONS: SyncCollection[] = [
+  'feedingRecords',
+  'cleaningRecords',
+  'temperatureRecords',
+  'weightRecords',
+  'medicationRecords',
+];
+
+const BATCH_ENDPOINTS: Record<SyncCollection, string> = {
+  feedingRecords: '/feeding-records/batch',
+  cleaningRecords: '/cleaning-records/batch',
+  temperatureRecords: '/temperature-records/batch',
+  weightRecords: '/weight-records/batch',
+  medicationRecords: '/medication-records/batch',
+};
+
+// Largest batch the backend accepts
+const MAX_BATCH_SIZE = 1000;
+
+type StoredRecord = { id?: number; babyId?: number; babyName?: string };
+export type SyncStore = Record<SyncCollection, Record<number, StoredRecord>>;
+type QueuedWrite = { collection: SyncCollection; record: StoredRecord };
+
+const readJson = <T>(key: string, fallback: T): T => {
+  const value = localStorage.getItem(key);
+  return value ? (JSON.parse(value) as T) : fallback;
+};
+
+const emptyStore = (): SyncStore => ({
+  feedingRecords: {},
+  cleaningRecords: {},
+  temperatureRecords: {},
+  weightRecords: {},
+  medicationRecords: {},
+});
+
+export const syncService = {
+  // Pull only the changes since the last watermark and merge them into the local copy
+  pull: async (): Promise<SyncStore> => {
+    const since = readJson<number>(WATERMARK_KEY, 0);
+    const response = await api.get<SyncResponse>('/sync', { params: { since } });
+    const store = readJson<SyncStore>(STORE_KEY, emptyStore());
+
+    COLLECTIONS.forEach((collection) => {
+      response.data[collection].forEach((record: StoredRecord) => {
+        store[collection][record.id!] = record;
+      });
+      (response.data.deleted[collection] || []).forEach((id) => {
+        delete store[collection][id];
+      });
+    });
+
+    // Created or changed babies, e.g. renamed ones, carry the name shown with their records
+    const babyNames = new Map<number, string>(
+      (response.data.babies || []).map((baby): [number, string] => [baby.id!, baby.name])
+    );
+    if (babyNames.size > 0) {
+      COLLECTIONS.forEach((collection) => {
+        Object.values(store[collection]).forEach((record) => {
+          if (babyNames.has(record.babyId!)) record.babyName = babyNames.get(record.babyId!);
+        });
+      });
+    }
+
+    // Deleted babies take their records with them
+    const deletedBabies = new Set(response.data.deletedBabies || []);
+    if (deletedBabies.size > 0) {
+      COLLECTIONS.forEach((collection) => {
+        Object.entries(store[collection]).forEach(([id, record]) => {
+          if (deletedBabies.has(record.babyId!)) delete store[collection][Number(id)];
+        });
+      });
+    }
+
+    localStorage.setItem(STORE_KEY, JSON.stringify(store));
+    localStorage.setItem(WATERMARK_KEY, JSON.stringify(response.data.watermark));
+    return store;
+  },
+
+  // Queue writes while offline; they are sent later through the batch endpoints
+  enqueue: (collection: SyncCollection, record: StoredRecord) => {
+    const queue = readJson<QueuedWrite[]>(QUEUE_KEY, []);
+    queue.push({ collection, record });
+    localStorage.setItem(QUEUE_KEY, JSON.stringify(queue));
+  },
+
+  pendingCount: (): number => readJson<QueuedWrite[]>(QUEUE_KEY, []).length,
+
+  flush: async (): Promise<void> => {
+    const queue = readJson<QueuedWrite[]>(QUEUE_KEY, []);
+    for (const collection of COLLECTIONS) {
+      const records = queue.filter((write) => write.collection === collection).map((write) => write.record);
+      for (let start = 0; start < records.length; start += MAX_BATCH_SIZE) {
+        const chunk = records.slice(start, start + MAX_BATCH_SIZE);
+        await api.post(BATCH_ENDPOINTS[collection], chunk);
+        // Drop the sent writes right away so a failed later chunk does not send them twice
+        let sent = chunk.length;
+        const remaining = readJson<QueuedWrite[]>(QUEUE_KEY, []).filter(
+          (write) => write.collection !== collection || sent-- <= 0
+        );
+        localStorage.setItem(QUEUE_KEY, JSON.stringify(remaining));
+      }
+    }
+  },
+
+  // Flush the queue as soon as the browser is back online
+  startAutoFlush: () => {
+    window.addEventListener('online', async () => {
+      try {
+        await syncService.flush();
+        await syncService.pull();
+      } catch (err) {
+        console.error('Sync failed:', err);
+      }
+    });
+  },
+
+  reset: () => {
+    localStorage.removeItem(WATERMARK_KEY);
+    localStorage.removeItem(STORE_KEY);
+  },
+};
@@ -105,3 +105,83 @@ export enum MedicationType {
   EYE_CLEANING = 'EYE_CLEANING'
 }
 
+
+export interface DashboardSummary {
+  babyId: number;
+  babyName: string;
+  birthDate: string;
+  lastFeedingTime?: string;
+  lastTemperatureTime?: string;
+  lastTemperatureCelsius?: number;
+  lastDiaperChangeTime?: string;
+  lastBathTime?: string;
+  lastSpongeBathTime?: string;
+  lastVitaminDTime?: string;
+  lastEyeCleaningTime?: string;
+  todayFeedings: number;
+  todayDiaperChanges: number;
+  weightSeries: { measurementTime: string; weightGrams: number }[];
+  diaperSeries: { date: string; wet: number; dirty: number }[];
+}
+
+export interface SyncResponse {
+  watermark: number;
+  babies: Baby[];
+  feedingRecords: FeedingRecord[];
+  cleaningRecords: CleaningRecord[];
+  temperatureRecords: TemperatureRecord[];
+  weightRecords: WeightRecord[];
+  medicationRecords: MedicationRecord[];
+  deleted: Record<SyncCollection, number[]>;
+  deletedBabies: number[];
+}
+
+export type SyncCollection =
+  | 'feedingRecords'
+  | 'cleaningRecords'
+  | 'temperatureRecords'
+  | 'weightRecords'
+  | 'medicationRecords';
+
+export interface DailyStats {
+  date: string;
+  feedingCount: number;
+  feedingAmountMl: number;
+  diaperChanges: number;
+  wetDiapers: number;
+  dirtyDiapers: number;
+  weightGrams?: number;
+}
+
+export type RecordType = 'FEEDING' | 'CLEANING' | 'TEMPERATURE' | 'WEIGHT' | 'MEDICATION';
+
+export type TimelineEntry =
+  | { type: 'FEEDING'; time: string; record: FeedingRecord }
+  | { type: 'CLEANING'; time: string; record: CleaningRecord }
+  | { type: 'TEMPERATURE'; time: string; record: TemperatureRecord }
+  | { type: 'WEIGHT'; time: string; record: WeightRecord }
+  | { type: 'MEDICATION'; time: string; record: MedicationRecord };
+
+export interface TimelineCursor {
+  before: string;
+  beforeType: RecordType;
+  beforeId: number;
+}
+
+export interface TimelinePage {
+  entries: TimelineEntry[];
+  // Absent on the last page
+  next?: TimelineCursor;
+}
+
+export interface RecordChangeEvent {
+  type: RecordType;
+  action: 'CREATED' | 'UPDATED' | 'DELETED';
+  babyId: number;
+  recordIds: number[];
+}
+
+export type ServerEvent =
+  | { name: 'record'; data: RecordChangeEvent }
+  | { name: 'baby'; data: { babyId: number; action: string } }
+  | { name: 'resync'; data: Record<string, never> };